@@ -0,0 +1,147 @@
+package bench;
+
+import db.DBConnection;
+import db.Query;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Random;
+
+// Fills an empty database with a fixed-seed data set sized by the number of events.
+// Per event there are 5 attendees, 20 registrations and per attendee 10 notifications;
+// one organizer runs every 10 events. Users get ids 1..organizers first, then attendees.
+public class BenchSeeder {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final int events;
+    private final int organizers;
+    private final int attendees;
+    private final Random random = new Random(42);
+
+    public BenchSeeder(int events) {
+        this.events = events;
+        this.organizers = Math.max(1, events / 10);
+        this.attendees = events * 5;
+    }
+
+    public int events() {
+        return events;
+    }
+
+    public int organizers() {
+        return organizers;
+    }
+
+    public int attendees() {
+        return attendees;
+    }
+
+    public int firstAttendeeID() {
+        return organizers + 1;
+    }
+
+    public void seed() throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            seedUsers(conn);
+            seedEvents(conn);
+            seedRegistrations(conn);
+            seedNotifications(conn);
+            conn.commit();
+        }
+    }
+
+    private void seedUsers(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = DBConnection.prepare(conn, Query.USER_INSERT)) {
+            int batched = 0;
+            for (int i = 1; i <= organizers + attendees; i++) {
+                boolean organizer = i <= organizers;
+                stmt.setString(1, (organizer ? "Organizer " : "Attendee ") + i);
+                stmt.setString(2, "user" + i + "@bench.local");
+                stmt.setString(3, "user" + i);
+                stmt.setString(4, "pw");
+                stmt.setString(5, organizer ? "Organizer" : "Attendee");
+                stmt.addBatch();
+                batched = flush(stmt, batched);
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    // Start dates spread a year either side of today so upcoming/past filters split the catalog
+    private void seedEvents(Connection conn) throws SQLException {
+        LocalDate today = LocalDate.now();
+        try (PreparedStatement stmt = DBConnection.prepare(conn, Query.EVENT_INSERT)) {
+            int batched = 0;
+            for (int i = 1; i <= events; i++) {
+                LocalDate start = today.plusDays(random.nextInt(730) - 365);
+                stmt.setString(1, "Event " + i);
+                stmt.setString(2, "Benchmark event number " + i);
+                stmt.setDate(3, Date.valueOf(start));
+                stmt.setDate(4, Date.valueOf(start.plusDays(random.nextInt(3))));
+                stmt.setString(5, "Hall " + (i % 20));
+                stmt.setInt(6, 1 + (i - 1) % organizers);
+                stmt.setNull(7, Types.INTEGER); // unlimited, so seatsTaken need not be tracked here
+                stmt.addBatch();
+                batched = flush(stmt, batched);
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    // Each attendee registers for consecutive events, so every (user, event) pair is unique
+    private void seedRegistrations(Connection conn) throws SQLException {
+        int perAttendee = Math.min(events, 4);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement stmt = DBConnection.prepare(conn, Query.REGISTRATION_INSERT)) {
+            int batched = 0;
+            for (int a = 0; a < attendees; a++) {
+                int firstEvent = random.nextInt(events);
+                for (int k = 0; k < perAttendee; k++) {
+                    stmt.setInt(1, firstAttendeeID() + a);
+                    stmt.setInt(2, 1 + (firstEvent + k) % events);
+                    stmt.setTimestamp(3, now);
+                    stmt.setString(4, "Registered");
+                    stmt.addBatch();
+                    batched = flush(stmt, batched);
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private void seedNotifications(Connection conn) throws SQLException {
+        long now = System.currentTimeMillis();
+        try (PreparedStatement stmt = DBConnection.prepare(conn, Query.NOTIFICATION_INSERT)) {
+            int batched = 0;
+            for (int userID = 1; userID <= organizers + attendees; userID++) {
+                boolean organizer = userID <= organizers;
+                for (int k = 0; k < 10; k++) {
+                    stmt.setInt(1, userID);
+                    stmt.setString(2, "Event Registration");
+                    stmt.setString(3, "Notification " + k);
+                    stmt.setString(4, "Benchmark notification " + k + " for user " + userID);
+                    stmt.setTimestamp(5, new Timestamp(now - random.nextInt(30 * 24 * 3600) * 1000L));
+                    stmt.setString(6, organizer ? "Organizer" : "event");
+                    stmt.addBatch();
+                    batched = flush(stmt, batched);
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private static int flush(PreparedStatement stmt, int batched) throws SQLException {
+        if (++batched < BATCH_SIZE) {
+            return batched;
+        }
+        stmt.executeBatch();
+        return 0;
+    }
+}
@@ -0,0 +1,179 @@
+package bench;
+
+import db.DBConnection;
+import db.EmbeddedBackend;
+import db.EventRepository;
+import db.MigrationRunner;
+import db.SessionConflictException;
+import models.DateFormats;
+import models.Event;
+import models.Session;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Room double-booking check at conference scale: seeds many events whose sessions share a
+// few rooms, then saves random batches of new sessions into existing events. Every save
+// must be rejected with exactly the room conflicts a brute-force pairwise scan finds, or
+// committed when there are none. Prints the time per save and exits with status 1 on any
+// mismatch, or when the settings left no saves accepted or none rejected (the defaults
+// reject roughly a third).
+//   java -cp target/benchmarks.jar -Dbooking.events=500 bench.BookingConflictBench
+// Settings: booking.events (500), booking.sessions per event (8), booking.rooms (300),
+// booking.days (10), booking.batch sessions per save (2), booking.saves (200).
+// Uses a fresh in-memory H2 database unless -Deventure.db.backend is set.
+public class BookingConflictBench {
+
+    private static final int EVENTS = Integer.getInteger("booking.events", 500);
+    private static final int SESSIONS = Integer.getInteger("booking.sessions", 8);
+    private static final int ROOMS = Integer.getInteger("booking.rooms", 300);
+    private static final int DAYS = Integer.getInteger("booking.days", 10);
+    private static final int BATCH = Integer.getInteger("booking.batch", 2);
+    private static final int SAVES = Integer.getInteger("booking.saves", 200);
+
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusYears(1);
+
+    // Every stored session as {room, start minute, end minute}
+    private static final List<int[]> stored = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("eventure.db.backend") == null) {
+            DBConnection.useBackend(EmbeddedBackend.inMemory("booking"));
+        }
+        MigrationRunner.migrate();
+        Random random = new Random(42);
+        EventRepository events = new EventRepository();
+        List<Integer> eventIDs = seed(events, random);
+        System.out.println("Seeded " + eventIDs.size() + " events with " + stored.size() + " sessions in "
+                + ROOMS + " rooms");
+
+        int rejected = 0;
+        int mismatches = 0;
+        long totalNanos = 0;
+        for (int save = 0; save < SAVES; save++) {
+            int eventID = eventIDs.get(random.nextInt(eventIDs.size()));
+            List<int[]> batch = new ArrayList<>();
+            List<Session> sessions = new ArrayList<>();
+            for (int i = 0; i < BATCH; i++) {
+                int[] slot = randomSlot(random);
+                batch.add(slot);
+                sessions.add(session(eventID, "Added " + save + "." + i, slot));
+            }
+            int expected = bruteForceConflicts(batch);
+            int actual = 0;
+            long start = System.nanoTime();
+            try {
+                events.updateSchedule(eventID, "Bench Event " + eventID, FIRST_DAY, FIRST_DAY.plusDays(DAYS),
+                        sessions);
+            } catch (SessionConflictException e) {
+                actual = e.getConflicts().size();
+                rejected++;
+            }
+            totalNanos += System.nanoTime() - start;
+            if (actual == 0) {
+                stored.addAll(batch);
+            }
+            if (actual != expected) {
+                mismatches++;
+                System.out.println("Save " + save + ": expected " + expected + " conflicts but got " + actual);
+            }
+        }
+        System.out.printf("%d saves, %d rejected, %.2f ms per save (check and write), %d sessions stored%n",
+                SAVES, rejected, totalNanos / 1e6 / SAVES, stored.size());
+        if (mismatches > 0) {
+            System.out.println("FAILED: " + mismatches + " mismatches");
+            System.exit(1);
+        }
+        if (rejected == 0 || rejected == SAVES) {
+            System.out.println("FAILED: every save was " + (rejected == 0 ? "accepted" : "rejected")
+                    + ", so only one path was checked; change booking.rooms or booking.batch");
+            System.exit(1);
+        }
+        System.out.println("OK");
+        System.exit(0);
+    }
+
+    private static List<Integer> seed(EventRepository events, Random random) throws SQLException {
+        int organizerID;
+        try (Connection conn = DBConnection.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO [User] (name, email, username, "
+                    + "password, userType) VALUES ('Bench Organizer', 'booking@bench.local', 'booking', 'pw', 'Organizer')")) {
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT userID FROM [User] WHERE username = 'booking'")) {
+                ResultSet rs = stmt.executeQuery();
+                rs.next();
+                organizerID = rs.getInt(1);
+            }
+        }
+        List<Integer> eventIDs = new ArrayList<>();
+        for (int i = 0; i < EVENTS; i++) {
+            eventIDs.add(events.create(new Event(0, "Bench Event " + i, FIRST_DAY, FIRST_DAY.plusDays(DAYS),
+                    "Booking bench", "Venue", organizerID, null), new ArrayList<>()));
+        }
+        // Written directly so the seed can already contain double bookings
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("INSERT INTO Session (eventID, title, description, "
+                     + "location, startTime, endTime) VALUES (?, ?, 'Seeded', ?, ?, ?)")) {
+            for (int eventID : eventIDs) {
+                for (int i = 0; i < SESSIONS; i++) {
+                    int[] slot = randomSlot(random);
+                    stmt.setInt(1, eventID);
+                    stmt.setString(2, "Seeded " + eventID + "." + i);
+                    stmt.setString(3, room(slot[0]));
+                    stmt.setTimestamp(4, Timestamp.valueOf(time(slot[1])));
+                    stmt.setTimestamp(5, Timestamp.valueOf(time(slot[2])));
+                    stmt.addBatch();
+                    stored.add(slot);
+                }
+            }
+            stmt.executeBatch();
+        }
+        return eventIDs;
+    }
+
+    // A 30 to 120 minute session between 8:00 and 18:00 on one of the days, in one of the rooms
+    private static int[] randomSlot(Random random) {
+        int start = random.nextInt(DAYS) * 1440 + 480 + random.nextInt(20) * 30;
+        return new int[] {random.nextInt(ROOMS), start, start + 30 * (1 + random.nextInt(4))};
+    }
+
+    private static Session session(int eventID, String title, int[] slot) {
+        return new Session(-1, eventID, title, "Bench session", room(slot[0]),
+                DateFormats.sessionTime(time(slot[1])), DateFormats.sessionTime(time(slot[2])));
+    }
+
+    private static int bruteForceConflicts(List<int[]> batch) {
+        int conflicts = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            int[] a = batch.get(i);
+            for (int[] b : stored) {
+                conflicts += overlaps(a, b) ? 1 : 0;
+            }
+            for (int j = 0; j < i; j++) {
+                conflicts += overlaps(a, batch.get(j)) ? 1 : 0;
+            }
+        }
+        return conflicts;
+    }
+
+    private static boolean overlaps(int[] a, int[] b) {
+        return a[0] == b[0] && a[1] < b[2] && b[1] < a[2];
+    }
+
+    private static String room(int room) {
+        return "Room " + room;
+    }
+
+    private static LocalDateTime time(int minute) {
+        return FIRST_DAY.atStartOfDay().plusMinutes(minute);
+    }
+}
@@ -0,0 +1,221 @@
+package bench;
+
+import db.DBConnection;
+import db.EmbeddedBackend;
+import db.EventRepository;
+import db.MigrationRunner;
+import db.Query;
+import db.RegistrationQueue;
+import db.RegistrationRepository;
+import models.Event;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Concurrency check for seat allocation: many attendees register for one small event at
+// the same instant, each twice, then a batch of them cancel at once. Verifies that the
+// event is never oversold, the counters match the rows and the waitlist is promoted in
+// FIFO order. Exits with status 1 on any violation.
+//   java -cp target/benchmarks.jar -Dstress.threads=64 bench.CapacityStress
+// Settings: stress.threads (64), stress.capacity (50), stress.attendees (500), stress.cancels (100);
+// -Dstress.queue=true sends the registrations through RegistrationQueue instead.
+// Uses a fresh in-memory H2 database unless -Deventure.db.backend is set.
+public class CapacityStress {
+
+    private static final int THREADS = Integer.getInteger("stress.threads", 64);
+    private static final int CAPACITY = Integer.getInteger("stress.capacity", 50);
+    private static final int ATTENDEES = Integer.getInteger("stress.attendees", 500);
+    private static final int CANCELS = Integer.getInteger("stress.cancels", 100);
+    private static final boolean QUEUE = Boolean.getBoolean("stress.queue");
+
+    private static final RegistrationRepository registrations = new RegistrationRepository();
+    private static final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("eventure.db.backend") == null) {
+            DBConnection.useBackend(EmbeddedBackend.inMemory("stress"));
+        }
+        MigrationRunner.migrate();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            int firstAttendee = seedUsers();
+            int eventID = new EventRepository().create(new Event(0, "Stress Event", LocalDate.now().plusDays(7),
+                    LocalDate.now().plusDays(7), "Capacity stress test", "Hall 1", firstAttendee - 1,
+                    CAPACITY), new ArrayList<>());
+
+            // Phase 1: every attendee registers twice, all released at once
+            AtomicInteger registered = new AtomicInteger();
+            AtomicInteger waitlisted = new AtomicInteger();
+            AtomicInteger duplicates = new AtomicInteger();
+            AtomicInteger errors = new AtomicInteger();
+            List<Callable<Void>> registers = new ArrayList<>();
+            for (int i = 0; i < ATTENDEES * 2; i++) {
+                int userID = firstAttendee + i % ATTENDEES;
+                registers.add(() -> {
+                    RegistrationRepository.Confirmation c = QUEUE
+                            ? RegistrationQueue.shared().submit(userID, eventID).join()
+                            : registrations.register(userID, eventID);
+                    if (c == null) {
+                        duplicates.incrementAndGet();
+                    } else if (c.getStatus() == RegistrationRepository.Status.REGISTERED) {
+                        registered.incrementAndGet();
+                    } else {
+                        waitlisted.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            long start = System.nanoTime();
+            runTogether(pool, registers, errors);
+            System.out.printf("register: %d calls in %d ms -> %d registered, %d waitlisted, %d duplicates, %d errors%n",
+                    registers.size(), (System.nanoTime() - start) / 1_000_000,
+                    registered.get(), waitlisted.get(), duplicates.get(), errors.get());
+
+            int expectedSeats = Math.min(CAPACITY, ATTENDEES);
+            check("registered calls", registered.get(), expectedSeats);
+            check("waitlisted calls", waitlisted.get(), ATTENDEES - expectedSeats);
+            check("duplicate calls", duplicates.get(), ATTENDEES);
+            verifyCounters(eventID, expectedSeats, ATTENDEES - expectedSeats);
+
+            // Phase 2: some seat holders cancel at once; the oldest waitlist entries move up
+            List<Integer> holders = userIDs(eventID, "SELECT userID FROM Registration WHERE eventID = ?");
+            List<Integer> queue = userIDs(eventID, "SELECT userID FROM Waitlist WHERE eventID = ? ORDER BY waitlistID");
+            Collections.shuffle(holders, new Random(42));
+            int cancels = Math.min(CANCELS, holders.size());
+            AtomicInteger cancelled = new AtomicInteger();
+            List<Callable<Void>> cancellations = new ArrayList<>();
+            for (int userID : holders.subList(0, cancels)) {
+                cancellations.add(() -> {
+                    if (registrations.cancel(userID, eventID)) {
+                        cancelled.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start = System.nanoTime();
+            runTogether(pool, cancellations, errors);
+            System.out.printf("cancel: %d calls in %d ms -> %d cancelled, %d errors%n",
+                    cancels, (System.nanoTime() - start) / 1_000_000, cancelled.get(), errors.get());
+
+            int promoted = Math.min(cancels, queue.size());
+            check("cancelled calls", cancelled.get(), cancels);
+            verifyCounters(eventID, expectedSeats - cancels + promoted, queue.size() - promoted);
+            List<Integer> nowHolding = userIDs(eventID, "SELECT userID FROM Registration WHERE eventID = ?");
+            for (int userID : queue.subList(0, promoted)) {
+                if (!nowHolding.contains(userID)) {
+                    failures.add("waitlisted user " + userID + " was skipped by a later entry");
+                }
+            }
+            check("errors", errors.get(), 0);
+        } finally {
+            pool.shutdownNow();
+            RegistrationQueue.shutdown();
+            DBConnection.shutdown();
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("OK: never oversold, counters consistent, waitlist promoted in order");
+        } else {
+            failures.forEach(f -> System.out.println("FAIL: " + f));
+            System.exit(1);
+        }
+    }
+
+    // Starts every task behind one latch so they hit the event row together
+    private static void runTogether(ExecutorService pool, List<Callable<Void>> tasks, AtomicInteger errors)
+            throws InterruptedException {
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (Callable<Void> task : tasks) {
+            futures.add(pool.submit(() -> {
+                go.await();
+                return task.call();
+            }));
+        }
+        go.countDown();
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                errors.incrementAndGet();
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static void verifyCounters(int eventID, int seats, int waiting) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT capacity, seatsTaken, waitlisted, "
+                     + "(SELECT COUNT(*) FROM Registration R WHERE R.eventID = E.eventID) AS registrations, "
+                     + "(SELECT COUNT(*) FROM Waitlist W WHERE W.eventID = E.eventID) AS waiting "
+                     + "FROM Event E WHERE eventID = ?")) {
+            stmt.setInt(1, eventID);
+            ResultSet rs = stmt.executeQuery();
+            rs.next();
+            if (rs.getInt("registrations") > rs.getInt("capacity")) {
+                failures.add("oversold: " + rs.getInt("registrations") + " registrations for "
+                        + rs.getInt("capacity") + " seats");
+            }
+            check("Registration rows", rs.getInt("registrations"), seats);
+            check("Event.seatsTaken", rs.getInt("seatsTaken"), seats);
+            check("Waitlist rows", rs.getInt("waiting"), waiting);
+            check("Event.waitlisted", rs.getInt("waitlisted"), waiting);
+        }
+    }
+
+    private static List<Integer> userIDs(int eventID, String sql) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, eventID);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    // One organizer then the attendees; returns the first attendee's userID
+    private static int seedUsers() throws SQLException {
+        int firstID;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = DBConnection.prepare(conn, Query.USER_INSERT)) {
+            for (int i = 0; i <= ATTENDEES; i++) {
+                stmt.setString(1, i == 0 ? "Stress Organizer" : "Stress Attendee " + i);
+                stmt.setString(2, "stress" + i + "@bench.local");
+                stmt.setString(3, "stress" + i);
+                stmt.setString(4, "pw");
+                stmt.setString(5, i == 0 ? "Organizer" : "Attendee");
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT userID FROM [User] WHERE username = 'stress0'")) {
+            ResultSet rs = stmt.executeQuery();
+            rs.next();
+            firstID = rs.getInt(1) + 1;
+        }
+        return firstID;
+    }
+
+    private static void check(String what, int actual, int expected) {
+        if (actual != expected) {
+            failures.add(what + ": expected " + expected + " but was " + actual);
+        }
+    }
+}
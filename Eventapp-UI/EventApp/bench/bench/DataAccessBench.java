@@ -0,0 +1,105 @@
+package bench;
+
+import db.DBConnection;
+import db.EmbeddedBackend;
+import db.EventRepository;
+import db.MigrationRunner;
+import db.NotificationRepository;
+import db.RegistrationRepository;
+import models.Event;
+import models.Notification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The page reads and writes behind the dashboards, against a fresh embedded H2 database
+// seeded by BenchSeeder, so no SQL Server is needed. Each benchmark gets its own forked
+// JVM and database. scale is the number of events:
+//   java -jar target/benchmarks.jar DataAccessBench -p scale=1000,10000
+// -jvmArgs -Deventure.db.backend=h2-file keeps the data on disk instead of in memory.
+// The teardown prints the pool and per-query statistics of each fork.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataAccessBench {
+
+    @Param({"1000"})
+    public int scale;
+
+    private BenchSeeder seeder;
+    private final EventRepository events = new EventRepository();
+    private final RegistrationRepository registrations = new RegistrationRepository();
+    private final NotificationRepository notifications = new NotificationRepository();
+    private long calls; // varies the attendee, event or organizer from call to call
+
+    @Setup
+    public void seed() throws Exception {
+        if (System.getProperty("eventure.db.backend") == null) {
+            DBConnection.useBackend(EmbeddedBackend.inMemory("bench"));
+        }
+        // Always migrated: the seeder and registration.register need the V2 capacity columns
+        MigrationRunner.migrate();
+        seeder = new BenchSeeder(scale);
+        seeder.seed();
+    }
+
+    @TearDown
+    public void shutdown() throws SQLException {
+        System.out.println();
+        System.out.println("Pool: " + DBConnection.poolStats());
+        System.out.println("Queries:");
+        DBConnection.queryMetrics().forEach(System.out::println);
+        DBConnection.shutdown();
+    }
+
+    // EventListPage / AttendeeDashboard catalog
+    @Benchmark
+    public List<Event> eventCatalogFindAll() throws SQLException {
+        return events.findAll();
+    }
+
+    @Benchmark
+    public List<Event> eventCatalogFindUpcoming() throws SQLException {
+        return events.findUpcoming();
+    }
+
+    // AttendeeDashboard.registerToEvent; walks attendees first so most calls insert
+    @Benchmark
+    public RegistrationRepository.Confirmation registrationRegister() throws SQLException {
+        long i = calls++;
+        int attendees = seeder.attendees();
+        return registrations.register(seeder.firstAttendeeID() + (int) (i % attendees),
+                1 + (int) ((i / attendees) % seeder.events()));
+    }
+
+    // NotificationPage inbox
+    @Benchmark
+    public List<Notification> notificationInbox() throws SQLException {
+        return notifications.findInbox(seeder.firstAttendeeID() + (int) (calls++ % seeder.attendees()));
+    }
+
+    // OrganizerDashboard.loadAnalytics
+    @Benchmark
+    public void organizerAnalytics(Blackhole blackhole) throws SQLException {
+        int organizerID = 1 + (int) (calls++ % seeder.organizers());
+        blackhole.consume(events.countByOrganizer(organizerID));
+        blackhole.consume(registrations.countAttendeesByOrganizer(organizerID));
+    }
+}
@@ -0,0 +1,494 @@
+package bench;
+
+import db.DBConnection;
+import db.MigrationRunner;
+import db.Query;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Fills the configured database (see DBConnection) with a synthetic data set of roughly
+// gen.rows rows, from 1k up to 10M. The rows are split like a real deployment:
+// 10% users (1 in 20 an organizer), 1% events with 0-6 sessions each, 36% registrations
+// (80% Registered, 12% Pending, 8% Cancelled) and 50% notifications.
+// Skew: registrations pick events from a Zipf distribution, so a few events are hot, and
+// registrations and notifications per user follow a Zipf long tail. Every row is derived
+// from gen.seed, gen.epoch and its own index, never from the clock, so on a fresh database
+// a seed always produces the same data set regardless of gen.threads or the day it runs.
+//   java -cp target/benchmarks.jar -Deventure.db.backend=h2-file -Dgen.rows=1000000 bench.DataGenerator
+// Settings: gen.rows (100000), gen.seed (42), gen.threads (CPU count), gen.epoch (2026-01-01,
+// the "today" that event dates and notification ages are measured from).
+// Users and events are inserted by one thread so their identity values come out in
+// generation order; run it while nothing else writes to the database. Running it again on
+// the same database appends another data set: usernames are numbered on from the highest
+// existing userID so they do not collide, which also means only a fresh database reproduces
+// the same usernames.
+public class DataGenerator {
+
+    private static final long ROWS = Long.getLong("gen.rows", 100_000);
+    private static final long SEED = Long.getLong("gen.seed", 42);
+    private static final int THREADS = Integer.getInteger("gen.threads", Runtime.getRuntime().availableProcessors());
+    private static final LocalDate EPOCH = LocalDate.parse(System.getProperty("gen.epoch", "2026-01-01"));
+    private static final int BATCH_SIZE = 1000;
+    private static final int USERS_PER_TASK = 2000;
+    private static final int EVENTS_PER_TASK = 500;
+
+    private static final double HOT_EVENT_SKEW = 1.1;
+    private static final double REGISTRATION_SKEW = 0.7;
+    private static final double INBOX_SKEW = 1.0;
+
+    // Independent random streams, so adding rows to one table never shifts another
+    private static final long USER_STREAM = 1;
+    private static final long EVENT_STREAM = 2;
+    private static final long REGISTRATION_STREAM = 3;
+    private static final long NOTIFICATION_STREAM = 4;
+    private static final long SHUFFLE_STREAM = 5;
+
+    private static final String[] FIRST_NAMES = {"Alex", "Maria", "Jose", "Angela", "Mark", "Kristine", "John",
+            "Patricia", "Miguel", "Hannah", "Carlo", "Bea", "Paolo", "Lorraine", "Rafael", "Joy", "Daniel", "Mae"};
+    private static final String[] LAST_NAMES = {"Santos", "Reyes", "Cruz", "Bautista", "Garcia", "Mendoza",
+            "Torres", "Flores", "Ramos", "Villanueva", "Castillo", "Aquino", "Navarro", "Dizon", "Genandoy"};
+    private static final String[] TOPICS = {"Tech", "Marketing", "Data Science", "Design", "Music", "Startup",
+            "Health", "Finance", "Gaming", "Cloud", "AI", "Robotics", "Photography", "Literature", "Esports"};
+    private static final String[] KINDS = {"Conference", "Summit", "Workshop", "Meetup", "Expo", "Bootcamp",
+            "Festival", "Hackathon", "Forum", "Seminar"};
+    private static final String[] VENUES = {"Convention Center", "Grand Hotel", "Tech Hub", "City Hall",
+            "University Auditorium", "Main Hall", "Expo Grounds", "Community Center"};
+    private static final String[] STATUSES = {"Registered", "Pending", "Cancelled"};
+
+    private final int users;
+    private final int organizers;
+    private final int events;
+    private final long registrationsWanted;
+    private final long notificationsWanted;
+
+    // userIDs/eventIDs by generation index, read back after the parents are inserted
+    private int[] userIDs;
+    private int[] eventIDs;
+    private LocalDate[] eventStarts;
+
+    private final ZipfSampler hotEvents;
+    private final double[] registrationWeight;
+    private final double[] inboxWeight;
+
+    private final AtomicLong sessionsInserted = new AtomicLong();
+    private final AtomicLong registrationsInserted = new AtomicLong();
+    private final AtomicLong notificationsInserted = new AtomicLong();
+
+    public DataGenerator(long rows) {
+        this.users = (int) Math.max(10, rows / 10);
+        this.organizers = Math.max(1, users / 20);
+        this.events = (int) Math.max(3, rows / 100);
+        this.registrationsWanted = rows * 36 / 100;
+        this.notificationsWanted = rows / 2;
+        this.hotEvents = new ZipfSampler(events, HOT_EVENT_SKEW, shuffled(events, EVENT_STREAM));
+        int attendees = users - organizers;
+        this.registrationWeight = zipfWeights(attendees, REGISTRATION_SKEW, shuffled(attendees, REGISTRATION_STREAM));
+        this.inboxWeight = zipfWeights(users, INBOX_SKEW, shuffled(users, NOTIFICATION_STREAM));
+    }
+
+    public static void main(String[] args) throws Exception {
+        MigrationRunner.migrate();
+        DataGenerator generator = new DataGenerator(ROWS);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            generator.generate(pool);
+        } finally {
+            pool.shutdownNow();
+            DBConnection.shutdown();
+        }
+    }
+
+    public void generate(ExecutorService pool) throws Exception {
+        System.out.printf("Generating ~%d rows (seed %d, epoch %s, %d threads): %d users, %d events%n",
+                ROWS, SEED, EPOCH, THREADS, users, events);
+        long start = System.nanoTime();
+
+        long phase = System.nanoTime();
+        userIDs = insertUsers();
+        report("users", users, phase);
+
+        phase = System.nanoTime();
+        eventIDs = insertEvents();
+        report("events", events, phase);
+
+        phase = System.nanoTime();
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int from = 0; from < events; from += EVENTS_PER_TASK) {
+            int first = from;
+            int last = Math.min(events, from + EVENTS_PER_TASK);
+            tasks.add(pool.submit(() -> insertSessions(first, last)));
+        }
+        await(tasks);
+        report("sessions", sessionsInserted.get(), phase);
+
+        phase = System.nanoTime();
+        tasks.clear();
+        for (int from = organizers; from < users; from += USERS_PER_TASK) {
+            int first = from;
+            int last = Math.min(users, from + USERS_PER_TASK);
+            tasks.add(pool.submit(() -> insertRegistrations(first, last)));
+        }
+        await(tasks);
+        report("registrations", registrationsInserted.get(), phase);
+
+        phase = System.nanoTime();
+        tasks.clear();
+        for (int from = 0; from < users; from += USERS_PER_TASK) {
+            int first = from;
+            int last = Math.min(users, from + USERS_PER_TASK);
+            tasks.add(pool.submit(() -> insertNotifications(first, last)));
+        }
+        await(tasks);
+        report("notifications", notificationsInserted.get(), phase);
+
+        phase = System.nanoTime();
+        syncSeatCounts();
+        report("seat counts", events, phase);
+
+        long total = users + events + sessionsInserted.get() + registrationsInserted.get()
+                + notificationsInserted.get();
+        System.out.printf("Done: %d rows in %d ms%n", total, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int[] insertUsers() throws SQLException {
+        int before = maxID("SELECT MAX(userID) FROM [User]");
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = DBConnection.prepare(conn, Query.USER_INSERT)) {
+                int batched = 0;
+                for (int i = 0; i < users; i++) {
+                    SplittableRandom rnd = random(USER_STREAM, i);
+                    String first = pick(rnd, FIRST_NAMES);
+                    String last = pick(rnd, LAST_NAMES);
+                    String username = "g" + SEED + "_" + first.toLowerCase() + (before + i);
+                    stmt.setString(1, first + " " + last);
+                    stmt.setString(2, username + "@example.com");
+                    stmt.setString(3, username);
+                    stmt.setString(4, "pw" + rnd.nextInt(1_000_000));
+                    stmt.setString(5, i < organizers ? "Organizer" : "Attendee");
+                    stmt.addBatch();
+                    batched = flush(conn, stmt, batched);
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        return readIDs("SELECT userID FROM [User] WHERE userID > ? ORDER BY userID", before, users);
+    }
+
+    // Start dates a year either side of the epoch; hot events lean towards the months after it
+    private int[] insertEvents() throws SQLException {
+        int before = maxID("SELECT MAX(eventID) FROM Event");
+        eventStarts = new LocalDate[events];
+        ZipfSampler organizerSampler = new ZipfSampler(organizers, 0.8, shuffled(organizers, USER_STREAM));
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = DBConnection.prepare(conn, Query.EVENT_INSERT)) {
+                int batched = 0;
+                for (int i = 0; i < events; i++) {
+                    SplittableRandom rnd = random(EVENT_STREAM, i);
+                    boolean hot = hotEvents.rankOf(i) < Math.max(1, events / 100);
+                    LocalDate start = hot ? EPOCH.plusDays(rnd.nextInt(1, 120))
+                            : EPOCH.plusDays(rnd.nextInt(730) - 365);
+                    eventStarts[i] = start;
+                    String topic = pick(rnd, TOPICS);
+                    String kind = pick(rnd, KINDS);
+                    stmt.setString(1, topic + " " + kind + " " + start.getYear() + " #" + i);
+                    stmt.setString(2, "A " + kind.toLowerCase() + " for people into " + topic.toLowerCase() + ".");
+                    stmt.setDate(3, Date.valueOf(start));
+                    stmt.setDate(4, Date.valueOf(start.plusDays(rnd.nextInt(3))));
+                    stmt.setString(5, pick(rnd, VENUES) + ", Hall " + (1 + rnd.nextInt(20)));
+                    stmt.setInt(6, userIDs[organizerSampler.sample(rnd)]);
+                    stmt.setNull(7, Types.INTEGER);
+                    stmt.addBatch();
+                    batched = flush(conn, stmt, batched);
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        return readIDs("SELECT eventID FROM Event WHERE eventID > ? ORDER BY eventID", before, events);
+    }
+
+    // 0-6 sessions per event, back to back from 09:00 on the first day
+    private Void insertSessions(int first, int last) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = DBConnection.prepare(conn, Query.SESSION_INSERT)) {
+                int batched = 0;
+                for (int i = first; i < last; i++) {
+                    SplittableRandom rnd = random(EVENT_STREAM, i).split();
+                    int count = rnd.nextInt(7);
+                    LocalDateTime slot = eventStarts[i].atTime(9, 0);
+                    for (int s = 0; s < count; s++) {
+                        LocalDateTime end = slot.plusMinutes(30L * (1 + rnd.nextInt(4)));
+                        stmt.setInt(1, eventIDs[i]);
+                        stmt.setString(2, "Session " + (s + 1) + ": " + pick(rnd, TOPICS) + " talk");
+                        stmt.setString(3, "Generated session");
+                        stmt.setString(4, "Room " + (char) ('A' + rnd.nextInt(6)) + (100 + rnd.nextInt(30)));
+                        stmt.setTimestamp(5, Timestamp.valueOf(slot));
+                        stmt.setTimestamp(6, Timestamp.valueOf(end));
+                        stmt.setNull(7, Types.INTEGER);
+                        stmt.addBatch();
+                        batched = flush(conn, stmt, batched);
+                        slot = end.plusMinutes(15);
+                    }
+                    sessionsInserted.addAndGet(count);
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        return null;
+    }
+
+    // Users in [first, last) that are attendees; each picks distinct events from the hot-event Zipf
+    private Void insertRegistrations(int first, int last) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = DBConnection.prepare(conn, Query.REGISTRATION_INSERT)) {
+                int batched = 0;
+                for (int u = first; u < last; u++) {
+                    SplittableRandom rnd = random(REGISTRATION_STREAM, u);
+                    int count = (int) Math.min(events / 2 + 1, share(registrationsWanted,
+                            registrationWeight[u - organizers], rnd));
+                    Set<Integer> chosen = new HashSet<>();
+                    for (int attempts = 0; chosen.size() < count && attempts < count * 4; attempts++) {
+                        int e = hotEvents.sample(rnd);
+                        if (!chosen.add(e)) {
+                            continue;
+                        }
+                        int roll = rnd.nextInt(100);
+                        String status = STATUSES[roll < 80 ? 0 : roll < 92 ? 1 : 2];
+                        LocalDateTime registeredAt = eventStarts[e].atTime(12, 0)
+                                .minusDays(1 + rnd.nextInt(60)).minusMinutes(rnd.nextInt(720));
+                        stmt.setInt(1, userIDs[u]);
+                        stmt.setInt(2, eventIDs[e]);
+                        stmt.setTimestamp(3, Timestamp.valueOf(registeredAt));
+                        stmt.setString(4, status);
+                        stmt.addBatch();
+                        batched = flush(conn, stmt, batched);
+                    }
+                    registrationsInserted.addAndGet(chosen.size());
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        return null;
+    }
+
+    // Long-tail inboxes: a few users hold most notifications, most have a handful or none
+    private Void insertNotifications(int first, int last) throws SQLException {
+        long now = Timestamp.valueOf(EPOCH.atStartOfDay()).getTime();
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = DBConnection.prepare(conn, Query.NOTIFICATION_INSERT_BATCH)) {
+                int batched = 0;
+                for (int u = first; u < last; u++) {
+                    SplittableRandom rnd = random(NOTIFICATION_STREAM, u);
+                    long count = share(notificationsWanted, inboxWeight[u], rnd);
+                    boolean organizer = u < organizers;
+                    for (long n = 0; n < count; n++) {
+                        int e = hotEvents.sample(rnd);
+                        String title;
+                        String message;
+                        String type;
+                        if (organizer) {
+                            title = "New Registration";
+                            message = "Someone registered for your event #" + eventIDs[e] + ".";
+                            type = "Organizer";
+                        } else if (rnd.nextInt(10) < 8) {
+                            title = "Registration Successful!";
+                            message = "You have successfully registered for event #" + eventIDs[e] + ".";
+                            type = "event";
+                        } else {
+                            title = "Event Cancellation";
+                            message = "You canceled your registration for event #" + eventIDs[e] + ".";
+                            type = "cancellation";
+                        }
+                        stmt.setInt(1, userIDs[u]);
+                        stmt.setString(2, "Event Registration");
+                        stmt.setString(3, title);
+                        stmt.setString(4, message);
+                        // Newer notifications are more likely: squared uniform over the 90 days before the epoch
+                        double age = rnd.nextDouble();
+                        stmt.setTimestamp(5, new Timestamp(now - (long) (age * age * 90L * 24 * 3600 * 1000)));
+                        stmt.setString(6, type);
+                        stmt.addBatch();
+                        batched = flush(conn, stmt, batched);
+                    }
+                    notificationsInserted.addAndGet(count);
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        return null;
+    }
+
+    // Event.seatsTaken counts every Registration row, as RegistrationRepository.cancel expects
+    private void syncSeatCounts() throws SQLException {
+        try (Connection conn = DBConnection.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE Event SET seatsTaken = "
+                    + "(SELECT COUNT(*) FROM Registration R WHERE R.eventID = Event.eventID) "
+                    + "WHERE eventID >= " + eventIDs[0]);
+        }
+    }
+
+    // This user's share of the total, rounded up or down at random so the sum stays on target
+    private static long share(long total, double weight, SplittableRandom rnd) {
+        double exact = total * weight;
+        long whole = (long) exact;
+        return whole + (rnd.nextDouble() < exact - whole ? 1 : 0);
+    }
+
+    private static SplittableRandom random(long stream, long index) {
+        return new SplittableRandom(SEED * 0x9E3779B97F4A7C15L + stream * 0xBF58476D1CE4E5B9L + index);
+    }
+
+    private static String pick(SplittableRandom rnd, String[] values) {
+        return values[rnd.nextInt(values.length)];
+    }
+
+    // A seeded permutation: rank[i] is item i's popularity rank, so hot items are spread over the ids
+    private static int[] shuffled(int n, long stream) {
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            rank[i] = i;
+        }
+        SplittableRandom rnd = random(SHUFFLE_STREAM, stream);
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = rank[i];
+            rank[i] = rank[j];
+            rank[j] = t;
+        }
+        return rank;
+    }
+
+    // Normalized Zipf weight of each item given its rank
+    private static double[] zipfWeights(int n, double skew, int[] rank) {
+        double[] weight = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            weight[i] = 1.0 / Math.pow(rank[i] + 1, skew);
+            sum += weight[i];
+        }
+        for (int i = 0; i < n; i++) {
+            weight[i] /= sum;
+        }
+        return weight;
+    }
+
+    private static int maxID(String sql) throws SQLException {
+        try (Connection conn = DBConnection.getConnection(); Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery(sql);
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static int[] readIDs(String sql, int after, int expected) throws SQLException {
+        int[] ids = new int[expected];
+        int n = 0;
+        try (Connection conn = DBConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, after);
+            stmt.setFetchSize(10_000);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next() && n < expected) {
+                ids[n++] = rs.getInt(1);
+            }
+        }
+        if (n != expected) {
+            throw new SQLException("Expected " + expected + " new rows but found " + n
+                    + "; was something else writing to the database?");
+        }
+        return ids;
+    }
+
+    // Commits every BATCH_SIZE rows so no single transaction grows with the data set
+    private static int flush(Connection conn, PreparedStatement stmt, int batched) throws SQLException {
+        if (++batched < BATCH_SIZE) {
+            return batched;
+        }
+        stmt.executeBatch();
+        conn.commit();
+        return 0;
+    }
+
+    private static void await(List<Future<?>> tasks) throws Exception {
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+    }
+
+    private static void report(String what, long rows, long startNanos) {
+        long ms = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        System.out.printf("  %-14s %,12d rows in %,7d ms (%,.0f rows/s)%n", what, rows, ms, rows * 1000.0 / ms);
+    }
+
+    // Samples item indexes so that the item of popularity rank r comes up with weight 1/(r+1)^skew
+    private static final class ZipfSampler {
+        private final double[] cumulative; // by rank
+        private final int[] itemAtRank;
+        private final int[] rankOfItem;
+
+        ZipfSampler(int n, double skew, int[] rank) {
+            rankOfItem = rank;
+            itemAtRank = new int[n];
+            for (int i = 0; i < n; i++) {
+                itemAtRank[rank[i]] = i;
+            }
+            cumulative = new double[n];
+            double sum = 0;
+            for (int r = 0; r < n; r++) {
+                sum += 1.0 / Math.pow(r + 1, skew);
+                cumulative[r] = sum;
+            }
+            for (int r = 0; r < n; r++) {
+                cumulative[r] /= sum;
+            }
+        }
+
+        int sample(SplittableRandom rnd) {
+            int r = Arrays.binarySearch(cumulative, rnd.nextDouble());
+            if (r < 0) {
+                r = -r - 1;
+            }
+            return itemAtRank[Math.min(r, itemAtRank.length - 1)];
+        }
+
+        int rankOf(int item) {
+            return rankOfItem[item];
+        }
+    }
+}
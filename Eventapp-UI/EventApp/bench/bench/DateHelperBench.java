@@ -0,0 +1,60 @@
+package bench;
+
+import models.DateFormats;
+import models.Event;
+import models.Notification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// What a table or list cell does with dates on every render. The cached runs read the
+// strings an event or notification keeps after its first render; the cold run formats a
+// date the way a first render does, with the shared formatter.
+//   java -jar target/benchmarks.jar DateHelperBench
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DateHelperBench {
+
+    private static final LocalDate[] DATES = { LocalDate.of(2025, 1, 15), LocalDate.of(2025, 6, 30),
+            LocalDate.of(2024, 12, 1), LocalDate.of(2026, 2, 28) };
+
+    private final Event[] events = new Event[DATES.length];
+    private final Notification notification = new Notification(1, 1, "Title", "Message",
+            new Timestamp(System.currentTimeMillis()), false, "event");
+    private int i;
+
+    public DateHelperBench() {
+        for (int d = 0; d < DATES.length; d++) {
+            events[d] = new Event(d + 1, "Event " + d, DATES[d], DATES[d]);
+        }
+    }
+
+    @Benchmark
+    public String eventStartDateDisplayCached() {
+        return events[i++ & 3].getStartDateDisplay();
+    }
+
+    @Benchmark
+    public String notificationCreatedAtDisplayCached() {
+        return notification.getCreatedAtDisplay();
+    }
+
+    @Benchmark
+    public String dateFormatsFirstRender() {
+        return DateFormats.date(DATES[i++ & 3]);
+    }
+}
@@ -0,0 +1,140 @@
+package bench;
+
+import db.DBConnection;
+import db.EmbeddedBackend;
+import db.EventRepository;
+import db.MigrationRunner;
+import db.Query;
+import db.RegistrationQueue;
+import db.RegistrationRepository;
+import models.Event;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Load test for a ticket drop: burst.clients threads click Register as fast as they can
+// until burst.attendees attendees are each registered for one of burst.events events.
+// Runs the burst once through RegistrationRepository.register (one transaction per click)
+// and once through RegistrationQueue (group commit), each on its own fresh events, and
+// prints throughput and click latency for both.
+//   java -cp target/benchmarks.jar bench.RegistrationBurst
+// Settings: burst.clients (200), burst.attendees (20000), burst.events (20).
+// -Deventure.db.backend=h2-file measures with real commits to disk; in memory by default.
+public class RegistrationBurst {
+
+    private static final int CLIENTS = Integer.getInteger("burst.clients", 200);
+    private static final int ATTENDEES = Integer.getInteger("burst.attendees", 20_000);
+    private static final int EVENTS = Integer.getInteger("burst.events", 20);
+
+    private interface Click {
+        Object register(int userID, int eventID) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("eventure.db.backend") == null) {
+            DBConnection.useBackend(EmbeddedBackend.inMemory("burst"));
+        }
+        MigrationRunner.migrate();
+        try {
+            int firstAttendee = seedUsers();
+            RegistrationRepository registrations = new RegistrationRepository();
+            RegistrationQueue queue = RegistrationQueue.shared();
+
+            double direct = burst("per-click transaction", firstAttendee, registrations::register);
+            double grouped = burst("group commit queue", firstAttendee, (u, e) -> queue.submit(u, e).join());
+            System.out.printf("Group commit throughput: %.1fx the per-click path%n", grouped / direct);
+        } finally {
+            RegistrationQueue.shutdown();
+            System.out.println("Pool: " + DBConnection.poolStats());
+            DBConnection.shutdown();
+        }
+    }
+
+    // Returns registrations per second
+    private static double burst(String label, int firstAttendee, Click click) throws Exception {
+        int[] eventIDs = createEvents(label, firstAttendee - 1);
+        long[] latencies = new long[ATTENDEES];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(CLIENTS);
+        for (int c = 0; c < CLIENTS; c++) {
+            Thread client = new Thread(() -> {
+                try {
+                    go.await();
+                    for (int i = next.getAndIncrement(); i < ATTENDEES; i = next.getAndIncrement()) {
+                        long start = System.nanoTime();
+                        if (click.register(firstAttendee + i, eventIDs[i % eventIDs.length]) == null) {
+                            failed.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - start;
+                    }
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    e.printStackTrace();
+                } finally {
+                    finished.countDown();
+                }
+            }, "client-" + c);
+            client.setDaemon(true);
+            client.start();
+        }
+        long start = System.nanoTime();
+        go.countDown();
+        finished.await();
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        double perSecond = ATTENDEES / (elapsed / 1e9);
+        System.out.printf("%-22s %d registrations by %d clients in %d ms: %.0f reg/s, "
+                        + "latency p50 %.2f ms, p99 %.2f ms, failed %d%n",
+                label, ATTENDEES, CLIENTS, elapsed / 1_000_000, perSecond,
+                latencies[ATTENDEES / 2] / 1e6, latencies[(int) (ATTENDEES * 0.99)] / 1e6, failed.get());
+        return perSecond;
+    }
+
+    // Unlimited capacity so every click inserts a registration
+    private static int[] createEvents(String label, int organizerID) throws SQLException {
+        EventRepository events = new EventRepository();
+        LocalDate day = LocalDate.now().plusDays(30);
+        int[] ids = new int[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            ids[i] = events.create(new Event(0, label + " " + i, day, day, "Burst", "Arena", organizerID),
+                    new ArrayList<>());
+        }
+        return ids;
+    }
+
+    // userID of the first attendee; an organizer is inserted first to own the events
+    private static int seedUsers() throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = DBConnection.prepare(conn, Query.USER_INSERT)) {
+                for (int i = 0; i <= ATTENDEES; i++) {
+                    stmt.setString(1, i == 0 ? "Burst Organizer" : "Burst Attendee " + i);
+                    stmt.setString(2, "burst" + i + "@bench.local");
+                    stmt.setString(3, "burst" + i);
+                    stmt.setString(4, "pw");
+                    stmt.setString(5, i == 0 ? "Organizer" : "Attendee");
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            conn.commit();
+            conn.setAutoCommit(true);
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT userID FROM [User] WHERE username = 'burst0'")) {
+                ResultSet rs = stmt.executeQuery();
+                rs.next();
+                return rs.getInt(1) + 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package bench;
+
+import db.DBConnection;
+import db.EmbeddedBackend;
+import db.EventRepository;
+import db.MigrationRunner;
+import db.Query;
+import models.Event;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Latency of the event search boxes: seeds events events whose descriptions draw from a
+// vocabulary of vocabulary made-up words, builds the search index once, then samples
+// search latency for one kind of query: exact, prefix, multi-word or misspelled. The
+// target is every kind under 10 ms at 100k events.
+//   java -jar target/benchmarks.jar SearchBench -p events=100000 -p kind=typo
+// Each kind seeds its own database in its own fork; the queries are drawn up front from a
+// fixed seed so every run searches for the same text.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBench {
+
+    private static final long SEED = 42;
+    private static final int QUERIES = 1024; // cycled through; a power of two
+
+    private static final String[] TOPICS = {"Tech", "Marketing", "Data Science", "Design", "Music", "Startup",
+            "Gaming", "Health", "Finance", "Education", "Photography", "Robotics"};
+    private static final String[] KINDS = {"Conference", "Summit", "Workshop", "Meetup", "Expo", "Bootcamp",
+            "Festival", "Forum", "Seminar", "Hackathon"};
+    private static final String[] CITIES = {"Manila", "Cebu", "Davao", "Baguio", "Iloilo", "Quezon City",
+            "Makati", "Taguig", "Pasig", "Bacolod"};
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ra", "to", "ben", "sar", "vel", "qui", "dor",
+            "an", "es", "tri", "mon", "zu", "pal", "ger", "nix", "ho", "sta"};
+
+    @Param({"100000"})
+    public int events;
+
+    @Param({"20000"})
+    public int vocabulary;
+
+    @Param({"exact", "prefix", "partial", "topicCity", "threeWords", "typo", "noMatch"})
+    public String kind;
+
+    private final EventRepository repository = new EventRepository();
+    private final String[] queries = new String[QUERIES];
+    private int next;
+
+    @Setup
+    public void seed() throws Exception {
+        if (System.getProperty("eventure.db.backend") == null) {
+            DBConnection.useBackend(EmbeddedBackend.inMemory("search"));
+        }
+        MigrationRunner.migrate();
+        String[] words = vocabulary();
+        seed(words);
+
+        long start = System.nanoTime();
+        repository.search("warmup");
+        System.out.printf("%nIndex built over %d events in %d ms%n", events, (System.nanoTime() - start) / 1_000_000);
+
+        SplittableRandom rnd = new SplittableRandom(SEED + 1);
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = query(words, rnd);
+        }
+    }
+
+    @TearDown
+    public void shutdown() {
+        DBConnection.shutdown();
+    }
+
+    @Benchmark
+    public List<Event> search() throws SQLException {
+        return repository.search(queries[next++ & (QUERIES - 1)]);
+    }
+
+    private String query(String[] words, SplittableRandom rnd) {
+        switch (kind) {
+            case "exact":
+                return words[rnd.nextInt(words.length)];
+            case "prefix": // two letters
+                return words[rnd.nextInt(words.length)].substring(0, 2);
+            case "partial": {
+                String w = words[rnd.nextInt(words.length)];
+                return w.substring(0, Math.max(2, w.length() - 2));
+            }
+            case "topicCity":
+                return pick(rnd, TOPICS) + " " + pick(rnd, CITIES);
+            case "threeWords":
+                return pick(rnd, KINDS) + " " + words[rnd.nextInt(words.length)]
+                        + " " + words[rnd.nextInt(words.length)].substring(0, 3);
+            case "typo":
+                return typo(words[rnd.nextInt(words.length)], rnd);
+            case "noMatch":
+                return "qqq" + rnd.nextInt(1000);
+            default:
+                throw new IllegalArgumentException("Unknown query kind " + kind);
+        }
+    }
+
+    // Pronounceable words of two to four syllables, all distinct
+    private String[] vocabulary() {
+        SplittableRandom rnd = new SplittableRandom(SEED);
+        Set<String> words = new LinkedHashSet<>();
+        while (words.size() < vocabulary) {
+            StringBuilder word = new StringBuilder();
+            int syllables = 2 + rnd.nextInt(3);
+            for (int s = 0; s < syllables; s++) {
+                word.append(pick(rnd, SYLLABLES));
+            }
+            words.add(word.toString());
+        }
+        return words.toArray(new String[0]);
+    }
+
+    private void seed(String[] words) throws SQLException {
+        SplittableRandom rnd = new SplittableRandom(SEED);
+        LocalDate first = LocalDate.now().minusYears(1);
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            int organizerID;
+            try (PreparedStatement stmt = DBConnection.prepare(conn, Query.USER_INSERT)) {
+                stmt.setString(1, "Search Organizer");
+                stmt.setString(2, "search@bench.local");
+                stmt.setString(3, "search-organizer");
+                stmt.setString(4, "pw");
+                stmt.setString(5, "Organizer");
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT userID FROM [User] WHERE username = 'search-organizer'")) {
+                ResultSet rs = stmt.executeQuery();
+                rs.next();
+                organizerID = rs.getInt(1);
+            }
+            try (PreparedStatement stmt = DBConnection.prepare(conn, Query.EVENT_INSERT)) {
+                for (int i = 0; i < events; i++) {
+                    StringBuilder description = new StringBuilder();
+                    int length = 8 + rnd.nextInt(25);
+                    for (int w = 0; w < length; w++) {
+                        description.append(w == 0 ? "" : " ").append(words[rnd.nextInt(words.length)]);
+                    }
+                    LocalDate day = first.plusDays(rnd.nextInt(730));
+                    stmt.setString(1, pick(rnd, TOPICS) + " " + pick(rnd, KINDS) + " "
+                            + words[rnd.nextInt(words.length)] + " #" + i);
+                    stmt.setString(2, description.toString());
+                    stmt.setDate(3, Date.valueOf(day));
+                    stmt.setDate(4, Date.valueOf(day.plusDays(rnd.nextInt(3))));
+                    stmt.setString(5, "Hall " + (1 + rnd.nextInt(20)) + ", " + pick(rnd, CITIES));
+                    stmt.setInt(6, organizerID);
+                    stmt.setNull(7, Types.INTEGER);
+                    stmt.addBatch();
+                    if (i % 1000 == 999) {
+                        stmt.executeBatch();
+                        conn.commit();
+                    }
+                }
+                stmt.executeBatch();
+            }
+            conn.commit();
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // Replaces one letter after the first, the kind of slip the fuzzy match forgives
+    private static String typo(String word, SplittableRandom rnd) {
+        int at = 1 + rnd.nextInt(word.length() - 1);
+        char replacement = (char) ('a' + rnd.nextInt(26));
+        return word.substring(0, at) + replacement + word.substring(at + 1);
+    }
+
+    private static String pick(SplittableRandom rnd, String[] values) {
+        return values[rnd.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,111 @@
+package db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// The sessions of every event one attendee is registered for, in an interval tree, so
+// checking an event's sessions against them costs O(log n) per session however full the
+// attendee's agenda is. AttendeeSchedules keeps it in step with the attendee's
+// registrations one event at a time. Safe to read from any thread.
+public final class AttendeeSchedule {
+
+    private final int userID;
+    private final IntervalTree<SessionSlot> slots = new IntervalTree<>();
+    private final Map<Integer, List<SessionSlot>> byEvent = new HashMap<>();
+    private long version; // registration change version the schedule is current as of
+
+    AttendeeSchedule(int userID) {
+        this.userID = userID;
+    }
+
+    public int getUserID() { return userID; }
+
+    // The attendee's sessions that overlap these ones, other than sessions of the same
+    // event (an event's own parallel tracks are not a clash)
+    public synchronized List<Clash> clashesWith(List<SessionSlot> wanted) {
+        List<Clash> clashes = new ArrayList<>();
+        for (SessionSlot slot : wanted) {
+            slots.overlapping(slot.startKey(), slot.endKey(), existing -> {
+                if (existing.getEventID() != slot.getEventID()) {
+                    clashes.add(new Clash(slot, existing));
+                }
+            });
+        }
+        return clashes;
+    }
+
+    // Every session, earliest first
+    public synchronized List<SessionSlot> getAgenda() {
+        return slots.values();
+    }
+
+    // Sessions that overlap a session of another registered event
+    public synchronized Set<Integer> getClashingSessionIDs() {
+        Set<Integer> clashing = new HashSet<>();
+        for (SessionSlot slot : slots.values()) {
+            slots.overlapping(slot.startKey(), slot.endKey(), other -> {
+                if (other.getEventID() != slot.getEventID()) {
+                    clashing.add(slot.getSessionID());
+                }
+            });
+        }
+        return clashing;
+    }
+
+    public synchronized int size() {
+        return slots.size();
+    }
+
+    // Replaces the sessions of one event, e.g. after registering or after it was rescheduled
+    synchronized void putEvent(int eventID, List<SessionSlot> sessions) {
+        removeEvent(eventID);
+        if (sessions.isEmpty()) {
+            return;
+        }
+        for (SessionSlot slot : sessions) {
+            slots.insert(slot.startKey(), slot.endKey(), slot.getSessionID(), slot);
+        }
+        byEvent.put(eventID, new ArrayList<>(sessions));
+    }
+
+    synchronized void removeEvent(int eventID) {
+        List<SessionSlot> removed = byEvent.remove(eventID);
+        if (removed == null) {
+            return;
+        }
+        for (SessionSlot slot : removed) {
+            slots.remove(slot.startKey(), slot.getSessionID());
+        }
+    }
+
+    synchronized Set<Integer> eventIDs() {
+        return Collections.unmodifiableSet(new HashSet<>(byEvent.keySet()));
+    }
+
+    synchronized long version() {
+        return version;
+    }
+
+    synchronized void setVersion(long version) {
+        this.version = version;
+    }
+
+    // A wanted session and a session already on the attendee's agenda that overlaps it
+    public static final class Clash {
+        private final SessionSlot wanted;
+        private final SessionSlot existing;
+
+        Clash(SessionSlot wanted, SessionSlot existing) {
+            this.wanted = wanted;
+            this.existing = existing;
+        }
+
+        public SessionSlot getWanted() { return wanted; }
+        public SessionSlot getExisting() { return existing; }
+    }
+}
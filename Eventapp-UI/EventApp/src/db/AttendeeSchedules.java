@@ -0,0 +1,89 @@
+package db;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Attendee schedules kept between registration checks. Each use first applies the
+// registrations the attendee made or cancelled since the schedule's change version (see
+// ChangeVersions), reading only the sessions of the events that came or went; the whole
+// agenda is only read again for a full change set. Holds the
+// -Deventure.schedule.maxUsers (default 200) most recently used attendees.
+public final class AttendeeSchedules {
+
+    private static final int MAX_USERS = Integer.getInteger("eventure.schedule.maxUsers", 200);
+
+    private static final AttendeeSchedules SHARED = new AttendeeSchedules();
+
+    private final RegistrationRepository registrations = new RegistrationRepository();
+    private final SessionRepository sessions = new SessionRepository();
+    private final LinkedHashMap<Integer, AttendeeSchedule> schedules = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, AttendeeSchedule> eldest) {
+            return size() > MAX_USERS;
+        }
+    };
+
+    private AttendeeSchedules() {
+    }
+
+    public static AttendeeSchedules shared() {
+        return SHARED;
+    }
+
+    // The attendee's schedule with their latest registrations applied
+    public AttendeeSchedule current(int userID) throws SQLException {
+        AttendeeSchedule schedule;
+        synchronized (this) {
+            schedule = schedules.computeIfAbsent(userID, AttendeeSchedule::new);
+        }
+        synchronized (schedule) {
+            sync(schedule);
+        }
+        return schedule;
+    }
+
+    // Sessions of the event that overlap the attendee's agenda, for a warning before registering
+    public List<AttendeeSchedule.Clash> clashes(int userID, int eventID) throws SQLException {
+        List<SessionSlot> wanted = sessions.findSlotsByEvent(eventID);
+        if (wanted.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return current(userID).clashesWith(wanted);
+    }
+
+    // Drops the attendee's schedule, e.g. after one of their events was rescheduled
+    public synchronized void forget(int userID) {
+        schedules.remove(userID);
+    }
+
+    private void sync(AttendeeSchedule schedule) throws SQLException {
+        int userID = schedule.getUserID();
+        ChangeSet<Integer> changes = registrations.changesSince(userID, schedule.version());
+        if (changes.isFull()) {
+            Map<Integer, List<SessionSlot>> byEvent = new HashMap<>();
+            for (SessionSlot slot : sessions.findSlotsByUser(userID)) {
+                byEvent.computeIfAbsent(slot.getEventID(), id -> new ArrayList<>()).add(slot);
+            }
+            for (int eventID : schedule.eventIDs()) {
+                if (!byEvent.containsKey(eventID)) {
+                    schedule.removeEvent(eventID);
+                }
+            }
+            for (Map.Entry<Integer, List<SessionSlot>> entry : byEvent.entrySet()) {
+                schedule.putEvent(entry.getKey(), entry.getValue());
+            }
+        } else {
+            for (int eventID : changes.getDeletedIDs()) {
+                schedule.removeEvent(eventID);
+            }
+            for (int eventID : changes.getChanged()) {
+                schedule.putEvent(eventID, sessions.findSlotsByEvent(eventID));
+            }
+        }
+        schedule.setVersion(changes.getVersion());
+    }
+}
@@ -0,0 +1,25 @@
+package db;
+
+// Two sessions that would use the same room or the same speaker at the same time. The
+// session is one being saved; the other is already scheduled or is saved with it.
+public final class BookingConflict {
+
+    public enum Resource { ROOM, SPEAKER }
+
+    private final Resource resource;
+    private final SessionSlot session;
+    private final SessionSlot other;
+    private final boolean otherInBatch;
+
+    BookingConflict(Resource resource, SessionSlot session, SessionSlot other, boolean otherInBatch) {
+        this.resource = resource;
+        this.session = session;
+        this.other = other;
+        this.otherInBatch = otherInBatch;
+    }
+
+    public Resource getResource() { return resource; }
+    public SessionSlot getSession() { return session; }
+    public SessionSlot getOther() { return other; }
+    public boolean isOtherInBatch() { return otherInBatch; }   // both sessions are being saved
+}
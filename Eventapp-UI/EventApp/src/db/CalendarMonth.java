@@ -0,0 +1,46 @@
+package db;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+// Registered events per day of one month, looked up by day of month. An event that runs
+// over several days counts on each of them; days outside the month are ignored.
+public final class CalendarMonth {
+
+    private final YearMonth month;
+    private final int[] events; // index is day of month - 1
+
+    CalendarMonth(YearMonth month) {
+        this.month = month;
+        this.events = new int[month.lengthOfMonth()];
+    }
+
+    // Counts an event from start to end inclusive (a missing end means a one-day event)
+    void mark(LocalDate start, LocalDate end) {
+        LocalDate first = month.atDay(1);
+        LocalDate last = month.atEndOfMonth();
+        LocalDate from = start.isBefore(first) ? first : start;
+        LocalDate to = end == null || end.isBefore(start) ? start : end;
+        to = to.isAfter(last) ? last : to;
+        if (from.isAfter(to)) {
+            return;
+        }
+        for (int day = from.getDayOfMonth(); day <= to.getDayOfMonth(); day++) {
+            events[day - 1]++;
+        }
+    }
+
+    public YearMonth getMonth() { return month; }
+
+    // Registered events on that day; 0 for days of other months
+    public int eventsOn(LocalDate date) {
+        if (date == null || date.getYear() != month.getYear() || date.getMonth() != month.getMonth()) {
+            return 0;
+        }
+        return events[date.getDayOfMonth() - 1];
+    }
+
+    public boolean hasEvents(LocalDate date) {
+        return eventsOn(date) > 0;
+    }
+}
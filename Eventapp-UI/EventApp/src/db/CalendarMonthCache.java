@@ -0,0 +1,96 @@
+package db;
+
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// Calendar months already read for an attendee, so flipping back and forth between
+// months does not go to the database again. Every month asked for also starts loading
+// the month before and after it on DbExecutor, so the next flip is usually a cache hit.
+// Holds the -Deventure.calendar.maxMonths (default 120) most recently used months across
+// all users. Loads that fail are dropped so the next request retries them.
+public final class CalendarMonthCache {
+
+    private static final int MAX_MONTHS = Integer.getInteger("eventure.calendar.maxMonths", 120);
+
+    private static final CalendarMonthCache SHARED = new CalendarMonthCache();
+
+    private final RegistrationRepository registrations = new RegistrationRepository();
+    private final LinkedHashMap<Key, CompletableFuture<CalendarMonth>> months =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, CompletableFuture<CalendarMonth>> eldest) {
+                    return size() > MAX_MONTHS;
+                }
+            };
+
+    private CalendarMonthCache() {
+    }
+
+    public static CalendarMonthCache shared() {
+        return SHARED;
+    }
+
+    // The month, loading it in the background if needed, and prefetches its neighbours.
+    // The returned future is the caller's own copy: cancelling it leaves the cached load running.
+    public CompletableFuture<CalendarMonth> month(int userID, YearMonth month) {
+        CompletableFuture<CalendarMonth> load = load(userID, month);
+        load(userID, month.minusMonths(1));
+        load(userID, month.plusMonths(1));
+        return load.copy();
+    }
+
+    // Forgets the user's months, e.g. after they registered, cancelled or an event moved
+    public synchronized void invalidate(int userID) {
+        months.keySet().removeIf(key -> key.userID == userID);
+    }
+
+    private synchronized CompletableFuture<CalendarMonth> load(int userID, YearMonth month) {
+        if (MAX_MONTHS <= 0) {
+            return DbExecutor.submit(() -> registrations.findCalendarMonth(userID, month));
+        }
+        Key key = new Key(userID, month);
+        CompletableFuture<CalendarMonth> load = months.get(key);
+        if (load == null) {
+            CompletableFuture<CalendarMonth> submitted =
+                    DbExecutor.submit(() -> registrations.findCalendarMonth(userID, month));
+            months.put(key, submitted);
+            submitted.whenComplete((result, error) -> {
+                if (error != null) {
+                    forget(key, submitted);
+                }
+            });
+            load = submitted;
+        }
+        return load;
+    }
+
+    private synchronized void forget(Key key, CompletableFuture<CalendarMonth> load) {
+        months.remove(key, load);
+    }
+
+    private static final class Key {
+        private final int userID;
+        private final YearMonth month;
+
+        Key(int userID, YearMonth month) {
+            this.userID = userID;
+            this.month = month;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return userID == other.userID && month.equals(other.month);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * userID + month.hashCode();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+// Live updates for open windows. Registration, event and notification writes append a
+// ChangeLog row in their own transaction; one poller thread per application reads the log
+// every -Deventure.feed.pollMs (default 2000) from its cursor and hands each subscriber the
+// changes it asked for. Like change versions, a changeID is taken before its transaction
+// commits, so every read starts -Deventure.feed.overlap IDs (default 200) behind the cursor
+// and skips what it already delivered. The poller starts at the end of the log: windows
+// load their own data first and only hear about what changes after that.
+public final class ChangeFeed {
+
+    public enum Kind { EVENT, REGISTRATION, NOTIFICATION }
+
+    private static final long POLL_MS = Long.getLong("eventure.feed.pollMs", 2000);
+    private static final long OVERLAP = Long.getLong("eventure.feed.overlap", 200);
+    private static final long RETENTION_MS = Long.getLong("eventure.feed.retentionMs", 86_400_000L);
+    // Rows per read; matches the limit in CHANGE_LOG_SINCE
+    private static final int READ_LIMIT = 1000;
+
+    private static final ChangeFeed SHARED = new ChangeFeed();
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Set<Long> delivered = new HashSet<>(); // IDs inside the overlap window, poller thread only
+    private long cursor = -1; // highest changeID read, -1 until the poller has found the end of the log
+    private Thread poller;
+    private volatile boolean stopped;
+
+    private ChangeFeed() {
+    }
+
+    public static ChangeFeed shared() {
+        return SHARED;
+    }
+
+    // Calls the listener through the executor (e.g. Platform::runLater) with the changes of
+    // these kinds. Changes that arrive before the previous call ran are added to it instead
+    // of queueing another, so a burst of writes reaches the page as one list.
+    public Subscription subscribe(Set<Kind> kinds, Executor executor, Consumer<List<Change>> listener) {
+        Subscription subscription = new Subscription(EnumSet.copyOf(kinds), executor, listener);
+        subscriptions.add(subscription);
+        startPoller();
+        return subscription;
+    }
+
+    public static void shutdown() {
+        SHARED.stopped = true;
+        Thread p;
+        synchronized (SHARED) {
+            p = SHARED.poller;
+        }
+        if (p != null) {
+            p.interrupt();
+        }
+    }
+
+    // Drops log rows past the retention period; returns how many were removed
+    public static int pruneLog() throws SQLException {
+        return Jdbc.update(Query.CHANGE_LOG_PRUNE, new Timestamp(System.currentTimeMillis() - RETENTION_MS));
+    }
+
+    // Appends a log row on the writer's connection, so it commits or rolls back with the change
+    static void record(Connection conn, Kind kind, Integer eventID, Integer userID) throws SQLException {
+        Jdbc.update(conn, Query.CHANGE_LOG_INSERT, kind.name(), eventID, userID);
+    }
+
+    // Logs an edit or delete of the event under its organizer
+    static void recordEvent(Connection conn, int eventID) throws SQLException {
+        Jdbc.update(conn, Query.CHANGE_LOG_INSERT_EVENT, eventID);
+    }
+
+    private synchronized void startPoller() {
+        if (poller == null && !stopped) {
+            poller = new Thread(this::pollLoop, "change-feed");
+            poller.setDaemon(true);
+            poller.start();
+        }
+    }
+
+    private void pollLoop() {
+        while (!stopped) {
+            try {
+                poll();
+            } catch (SQLException | RuntimeException e) {
+                e.printStackTrace(); // try again on the next tick
+            }
+            try {
+                Thread.sleep(POLL_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void poll() throws SQLException {
+        subscriptions.removeIf(Subscription::isClosed);
+        if (cursor < 0) {
+            cursor = Jdbc.first(Query.CHANGE_LOG_LATEST, rs -> rs.getLong(1)).orElse(0L);
+            return;
+        }
+        List<Change> fresh = new ArrayList<>();
+        long from = Math.max(0, cursor - OVERLAP);
+        while (true) {
+            List<Change> rows = Jdbc.list(Query.CHANGE_LOG_SINCE, rs -> new Change(rs.getLong("changeID"),
+                    Kind.valueOf(rs.getString("kind")), rs.getInt("eventID"), rs.getInt("userID")), from);
+            for (Change c : rows) {
+                if (delivered.add(c.changeID)) {
+                    fresh.add(c);
+                }
+                cursor = Math.max(cursor, c.changeID);
+            }
+            if (rows.size() < READ_LIMIT) {
+                break;
+            }
+            from = rows.get(rows.size() - 1).changeID;
+        }
+        long horizon = cursor - OVERLAP;
+        delivered.removeIf(id -> id <= horizon);
+        if (!fresh.isEmpty()) {
+            for (Subscription s : subscriptions) {
+                s.offer(fresh);
+            }
+        }
+    }
+
+    public static final class Subscription {
+        private final Set<Kind> kinds;
+        private final Executor executor;
+        private final Consumer<List<Change>> listener;
+        private List<Change> pending = new ArrayList<>();
+        private boolean scheduled;
+        private volatile boolean closed;
+
+        Subscription(Set<Kind> kinds, Executor executor, Consumer<List<Change>> listener) {
+            this.kinds = kinds;
+            this.executor = executor;
+            this.listener = listener;
+        }
+
+        // No calls after this one, including any already handed to the executor
+        public void close() {
+            closed = true;
+        }
+
+        boolean isClosed() {
+            return closed;
+        }
+
+        private void offer(List<Change> changes) {
+            boolean schedule;
+            synchronized (this) {
+                for (Change c : changes) {
+                    if (kinds.contains(c.kind)) {
+                        pending.add(c);
+                    }
+                }
+                schedule = !scheduled && !pending.isEmpty();
+                scheduled |= schedule;
+            }
+            if (schedule) {
+                executor.execute(this::flush);
+            }
+        }
+
+        private void flush() {
+            List<Change> batch;
+            synchronized (this) {
+                batch = pending;
+                pending = new ArrayList<>();
+                scheduled = false;
+            }
+            if (!closed) {
+                listener.accept(batch);
+            }
+        }
+    }
+
+    public static final class Change {
+        private final long changeID;
+        private final Kind kind;
+        private final int eventID;
+        private final int userID;
+
+        Change(long changeID, Kind kind, int eventID, int userID) {
+            this.changeID = changeID;
+            this.kind = kind;
+            this.eventID = eventID;
+            this.userID = userID;
+        }
+
+        public long getChangeID() { return changeID; }
+        public Kind getKind() { return kind; }
+        public int getEventID() { return eventID; }   // 0 for notifications
+        public int getUserID() { return userID; }     // organizer, attendee or recipient by kind
+    }
+}
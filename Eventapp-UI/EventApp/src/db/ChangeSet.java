@@ -0,0 +1,30 @@
+package db;
+
+import java.util.List;
+
+// What changed in a table since a client's last sync: rows inserted or edited after that
+// version, the IDs of rows deleted after it, and the version to pass next time. A full
+// change set holds every current row instead, and the caller replaces what it had.
+public final class ChangeSet<T> {
+
+    private final List<T> changed;
+    private final List<Integer> deletedIDs;
+    private final long version;
+    private final boolean full;
+
+    ChangeSet(List<T> changed, List<Integer> deletedIDs, long version, boolean full) {
+        this.changed = changed;
+        this.deletedIDs = deletedIDs;
+        this.version = version;
+        this.full = full;
+    }
+
+    public List<T> getChanged() { return changed; }
+    public List<Integer> getDeletedIDs() { return deletedIDs; }   // empty for a full change set
+    public long getVersion() { return version; }
+    public boolean isFull() { return full; }
+
+    public boolean isEmpty() {
+        return !full && changed.isEmpty() && deletedIDs.isEmpty();
+    }
+}
@@ -0,0 +1,82 @@
+package db;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+// Reads "what changed since version N" for the delta refreshes (see V3__change_versions.sql).
+// Versions come from one sequence but are taken when a statement runs, not when its
+// transaction commits, so a slow transaction can commit a version lower than one a client
+// has already seen. Each read therefore starts -Deventure.sync.overlap versions (default
+// 500) before the client's version and callers merge idempotently. Tombstones older than
+// -Deventure.sync.tombstoneRetentionMs (default one day) are pruned at startup; a client
+// whose version is older than the pruned ones gets a full change set.
+public final class ChangeVersions {
+
+    private static final long OVERLAP = Long.getLong("eventure.sync.overlap", 500);
+    private static final long RETENTION_MS = Long.getLong("eventure.sync.tombstoneRetentionMs", 86_400_000L);
+
+    private ChangeVersions() {
+    }
+
+    // Drops tombstones past the retention period; returns how many were removed
+    public static int pruneTombstones() throws SQLException {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - RETENTION_MS);
+        return Jdbc.inTransaction(conn -> {
+            Jdbc.update(conn, Query.TOMBSTONE_RAISE_HORIZON, cutoff);
+            return Jdbc.update(conn, Query.TOMBSTONE_PRUNE);
+        });
+    }
+
+    // Rows of the changed query and IDs of the tombstone query newer than since. Both
+    // queries take the scope parameters followed by the version. A row deleted and then
+    // inserted again (a re-registration) counts as whichever happened last.
+    static <T> ChangeSet<T> since(long since, Query changedQuery, RowMapper<T> mapper, ToIntFunction<T> idOf,
+                                  Query deletedQuery, Object... scope) throws SQLException {
+        long from = Math.max(0, since - OVERLAP);
+        boolean full = since <= 0 || from < Jdbc.first(Query.TOMBSTONE_HORIZON, rs -> rs.getLong(1)).orElse(0L);
+        long[] version = {since};
+        Map<Integer, Long> changedAt = new HashMap<>();
+        List<T> changed = new ArrayList<>();
+        Jdbc.forEach(changedQuery, rs -> {
+            long v = rs.getLong("changeVersion");
+            version[0] = Math.max(version[0], v);
+            T row = mapper.map(rs);
+            changedAt.put(idOf.applyAsInt(row), v);
+            return row;
+        }, changed::add, withVersion(scope, full ? 0 : from));
+        if (full) {
+            return new ChangeSet<>(changed, List.of(), version[0], true);
+        }
+
+        Map<Integer, Long> deletedAt = new HashMap<>();
+        Jdbc.forEach(deletedQuery, rs -> {
+            long v = rs.getLong("changeVersion");
+            version[0] = Math.max(version[0], v);
+            deletedAt.merge(rs.getInt("deletedID"), v, Math::max);
+            return null;
+        }, row -> { }, withVersion(scope, from));
+        List<Integer> deletedIDs = new ArrayList<>();
+        deletedAt.forEach((id, v) -> {
+            if (changedAt.getOrDefault(id, -1L) < v) {
+                deletedIDs.add(id);
+            }
+        });
+        changed.removeIf(row -> {
+            int id = idOf.applyAsInt(row);
+            return changedAt.get(id) < deletedAt.getOrDefault(id, -1L);
+        });
+        return new ChangeSet<>(changed, deletedIDs, version[0], false);
+    }
+
+    private static Object[] withVersion(Object[] scope, long version) {
+        Object[] params = new Object[scope.length + 1];
+        System.arraycopy(scope, 0, params, 0, scope.length);
+        params[scope.length] = version;
+        return params;
+    }
+}
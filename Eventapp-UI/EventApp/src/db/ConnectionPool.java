@@ -0,0 +1,463 @@
+package db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Bounded pool of physical connections. Pages keep calling DBConnection.getConnection()
+// and closing the result; close() hands the connection back here instead of hanging up.
+public class ConnectionPool {
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final SqlDialect dialect;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long borrowTimeoutMillis;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    // Most recently returned connection sits on top, so the warmest one is reused first
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    private final ScheduledExecutorService evictor;
+
+    private int total;
+    private int active;
+    private int waiting;
+    private boolean closed;
+
+    private long borrowCount;
+    private long createdCount;
+    private long evictedCount;
+    private long timeoutCount;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+
+    public ConnectionPool(String url, String user, String password, SqlDialect dialect, int minSize, int maxSize,
+                          long idleTimeoutMillis, long borrowTimeoutMillis, int validationTimeoutSeconds,
+                          int statementCacheSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.dialect = dialect;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        // Warm up the minimum in the background so the first page does not wait on it
+        evictor.execute(this::fillToMinimum);
+    }
+
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+
+        while (true) {
+            IdleConnection candidate = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                if (closed) {
+                    throw new SQLException("Connection pool is shut down");
+                }
+                while (idle.isEmpty() && total >= maxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timeoutCount++;
+                        throw new SQLException("Timed out after " + borrowTimeoutMillis
+                                + " ms waiting for a database connection (pool size " + maxSize + ")");
+                    }
+                    waiting++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    } finally {
+                        waiting--;
+                    }
+                    if (closed) {
+                        throw new SQLException("Connection pool is shut down");
+                    }
+                }
+                if (!idle.isEmpty()) {
+                    candidate = idle.pop();
+                } else {
+                    total++;
+                    create = true;
+                }
+                active++;
+            } finally {
+                lock.unlock();
+            }
+
+            PhysicalConnection physical;
+            if (create) {
+                try {
+                    physical = openPhysical();
+                } catch (SQLException | RuntimeException e) {
+                    discardSlot();
+                    throw e;
+                }
+            } else {
+                physical = candidate.physical;
+                if (!isUsable(physical.connection)) {
+                    physical.close();
+                    discardSlot();
+                    continue;
+                }
+            }
+
+            recordBorrow(System.nanoTime() - start);
+            return wrap(physical);
+        }
+    }
+
+    public SqlDialect dialect() {
+        return dialect;
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(active, idle.size(), total, waiting, borrowCount, createdCount,
+                    evictedCount, timeoutCount, totalWaitNanos, maxWaitNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void shutdown() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (IdleConnection c : idle) {
+                c.physical.close();
+            }
+            total -= idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        evictor.shutdownNow();
+    }
+
+    // Called by the proxy when a page closes its connection
+    void release(PhysicalConnection physical) {
+        physical.statements.releaseAll();
+        boolean reusable = resetState(physical.connection);
+
+        lock.lock();
+        try {
+            active--;
+            if (reusable && !closed) {
+                idle.push(new IdleConnection(physical, System.currentTimeMillis()));
+            } else {
+                total--;
+                physical.close();
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private PhysicalConnection openPhysical() throws SQLException {
+        Connection c = DriverManager.getConnection(url, user, password);
+        lock.lock();
+        try {
+            createdCount++;
+        } finally {
+            lock.unlock();
+        }
+        return new PhysicalConnection(c, new StatementCache(c, dialect, statementCacheSize));
+    }
+
+    private boolean isUsable(Connection c) {
+        try {
+            return !c.isClosed() && c.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // A page may hand back a connection mid-transaction or with autocommit off
+    private boolean resetState(Connection c) {
+        try {
+            if (c.isClosed()) {
+                return false;
+            }
+            if (!c.getAutoCommit()) {
+                c.rollback();
+                c.setAutoCommit(true);
+            }
+            c.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discardSlot() {
+        lock.lock();
+        try {
+            total--;
+            active--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordBorrow(long waitNanos) {
+        lock.lock();
+        try {
+            borrowCount++;
+            totalWaitNanos += waitNanos;
+            maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        lock.lock();
+        try {
+            // Oldest idle connections are at the bottom of the stack
+            Iterator<IdleConnection> it = idle.descendingIterator();
+            while (it.hasNext() && total > minSize) {
+                IdleConnection c = it.next();
+                if (c.returnedAt > cutoff) {
+                    break;
+                }
+                it.remove();
+                total--;
+                evictedCount++;
+                c.physical.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+        fillToMinimum();
+    }
+
+    private void fillToMinimum() {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || total >= minSize) {
+                    return;
+                }
+                total++;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                PhysicalConnection c = openPhysical();
+                lock.lock();
+                try {
+                    idle.addLast(new IdleConnection(c, System.currentTimeMillis()));
+                    available.signal();
+                } finally {
+                    lock.unlock();
+                }
+            } catch (SQLException e) {
+                lock.lock();
+                try {
+                    total--;
+                } finally {
+                    lock.unlock();
+                }
+                System.err.println("Could not pre-open pooled connection: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private Connection wrap(PhysicalConnection physical) {
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new PooledConnection(this, physical));
+    }
+
+    // Prepares a catalog query, going through the connection's statement cache when it is pooled
+    static PreparedStatement prepare(Connection conn, Query query, SqlDialect dialect) throws SQLException {
+        if (Proxy.isProxyClass(conn.getClass())
+                && Proxy.getInvocationHandler(conn) instanceof PooledConnection pooled) {
+            return pooled.prepare(query);
+        }
+        return StatementCache.prepareUncached(conn, query, dialect);
+    }
+
+    // A physical connection together with the statements cached on it
+    static class PhysicalConnection {
+        final Connection connection;
+        final StatementCache statements;
+
+        PhysicalConnection(Connection connection, StatementCache statements) {
+            this.connection = connection;
+            this.statements = statements;
+        }
+
+        void close() {
+            statements.closeAll();
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    private static class IdleConnection {
+        final PhysicalConnection physical;
+        final long returnedAt;
+
+        IdleConnection(PhysicalConnection physical, long returnedAt) {
+            this.physical = physical;
+            this.returnedAt = returnedAt;
+        }
+    }
+
+    // Logical connection handed to callers; close() returns the physical one to the pool
+    static class PooledConnection implements InvocationHandler {
+        private final ConnectionPool pool;
+        private final PhysicalConnection physical;
+        private boolean released;
+
+        PooledConnection(ConnectionPool pool, PhysicalConnection physical) {
+            this.pool = pool;
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        pool.release(physical);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || physical.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical.connection + "]";
+                default:
+                    break;
+            }
+            if (released) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            Object result;
+            try {
+                result = method.invoke(physical.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            // Ad-hoc statements outside the catalog are timed too
+            if (result instanceof PreparedStatement ps && "prepareStatement".equals(method.getName())) {
+                return InstrumentedStatement.wrap(ps, (String) args[0]);
+            }
+            return result;
+        }
+
+        PreparedStatement prepare(Query query) throws SQLException {
+            if (released) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            return physical.statements.prepare(query);
+        }
+    }
+
+    public static class Stats {
+        private final int active;
+        private final int idle;
+        private final int total;
+        private final int waiting;
+        private final long borrowCount;
+        private final long createdCount;
+        private final long evictedCount;
+        private final long timeoutCount;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+
+        Stats(int active, int idle, int total, int waiting, long borrowCount, long createdCount,
+              long evictedCount, long timeoutCount, long totalWaitNanos, long maxWaitNanos) {
+            this.active = active;
+            this.idle = idle;
+            this.total = total;
+            this.waiting = waiting;
+            this.borrowCount = borrowCount;
+            this.createdCount = createdCount;
+            this.evictedCount = evictedCount;
+            this.timeoutCount = timeoutCount;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+        }
+
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public int getTotal() { return total; }
+        public int getWaiting() { return waiting; }
+        public long getBorrowCount() { return borrowCount; }
+        public long getCreatedCount() { return createdCount; }
+        public long getEvictedCount() { return evictedCount; }
+        public long getTimeoutCount() { return timeoutCount; }
+
+        public double getAverageWaitMillis() {
+            return borrowCount == 0 ? 0 : totalWaitNanos / 1_000_000.0 / borrowCount;
+        }
+
+        public double getMaxWaitMillis() {
+            return maxWaitNanos / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("active=%d idle=%d total=%d waiting=%d borrows=%d created=%d evicted=%d timeouts=%d avgWait=%.2fms maxWait=%.2fms",
+                    active, idle, total, waiting, borrowCount, createdCount, evictedCount, timeoutCount,
+                    getAverageWaitMillis(), getMaxWaitMillis());
+        }
+    }
+}
@@ -1,22 +1,118 @@
 package db;
 
 import java.sql.*;
+import java.util.List;
 
 
 public class DBConnection {
-	private static final String URL = "jdbc:sqlserver://localhost:1433;databaseName=EventManagementSystem;encrypt=true;trustServerCertificate=true";
-	private static final String USER = "marc";
-	private static final String PASSWORD = "222";
+	// Which database to talk to: sqlserver (default), h2-file or h2-mem
+	private static final String BACKEND = System.getProperty("eventure.db.backend", "sqlserver");
+	private static final String H2_FILE = System.getProperty("eventure.db.h2.file", "./data/eventure");
 
+	// Pool sizing, overridable with -Deventure.db.pool.* on the command line
+	private static final int POOL_MIN_SIZE = Integer.getInteger("eventure.db.pool.min", 2);
+	private static final int POOL_MAX_SIZE = Integer.getInteger("eventure.db.pool.max", 10);
+	private static final long POOL_IDLE_TIMEOUT_MS = Long.getLong("eventure.db.pool.idleTimeoutMs", 5 * 60 * 1000L);
+	private static final long POOL_BORROW_TIMEOUT_MS = Long.getLong("eventure.db.pool.borrowTimeoutMs", 10 * 1000L);
+	private static final int POOL_VALIDATION_TIMEOUT_S = Integer.getInteger("eventure.db.pool.validationTimeoutS", 2);
+	private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("eventure.db.statementCacheSize", 32);
 
+	private static volatile DatabaseBackend backend;
+	private static volatile ConnectionPool pool;
+
+
+    // Borrows a pooled connection; closing it returns it to the pool
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        return pool().borrow();
+    }
+
+    // Prepares a catalog query on the connection; close the statement as usual to hand it back to the cache
+    public static PreparedStatement prepare(Connection conn, Query query) throws SQLException {
+        return ConnectionPool.prepare(conn, query, dialect());
+    }
+
+    public static ConnectionPool.Stats poolStats() throws SQLException {
+        return pool().stats();
+    }
+
+    // Per-statement latency/row/error counters, busiest first
+    public static List<QueryMetrics.Snapshot> queryMetrics() {
+        return QueryMetrics.snapshot();
+    }
+
+    public static SqlDialect dialect() {
+        return backend().dialect();
+    }
+
+    // Points the app at another database, e.g. an in-memory one for benchmarks.
+    // Must be called before the first connection is borrowed.
+    public static synchronized void useBackend(DatabaseBackend newBackend) {
+        if (pool != null) {
+            throw new IllegalStateException("Connection pool already started on " + backend.url());
+        }
+        backend = newBackend;
+    }
+
+    public static void shutdown() {
+        ConnectionPool p = pool;
+        if (p != null) {
+            p.shutdown();
+        }
+    }
+
+    private static DatabaseBackend backend() {
+        DatabaseBackend b = backend;
+        if (b == null) {
+            synchronized (DBConnection.class) {
+                b = backend;
+                if (b == null) {
+                    b = backendFor(BACKEND);
+                    backend = b;
+                }
+            }
+        }
+        return b;
+    }
+
+    private static DatabaseBackend backendFor(String name) {
+        switch (name) {
+            case "sqlserver":
+                return new SqlServerBackend();
+            case "h2-file":
+                return EmbeddedBackend.file(H2_FILE);
+            case "h2-mem":
+                return EmbeddedBackend.inMemory("eventure");
+            default:
+                throw new IllegalArgumentException("Unknown eventure.db.backend: " + name);
+        }
+    }
+
+    private static ConnectionPool pool() throws SQLException {
+        ConnectionPool p = pool;
+        if (p == null) {
+            synchronized (DBConnection.class) {
+                p = pool;
+                if (p == null) {
+                    DatabaseBackend b = backend();
+                    p = new ConnectionPool(b.url(), b.user(), b.password(), b.dialect(),
+                            POOL_MIN_SIZE, POOL_MAX_SIZE, POOL_IDLE_TIMEOUT_MS, POOL_BORROW_TIMEOUT_MS,
+                            POOL_VALIDATION_TIMEOUT_S, STATEMENT_CACHE_SIZE);
+                    try (Connection conn = p.borrow()) {
+                        b.initialize(conn);
+                    } catch (SQLException | RuntimeException e) {
+                        p.shutdown();
+                        throw e;
+                    }
+                    pool = p;
+                }
+            }
+        }
+        return p;
     }
 
     public static boolean registerUser(String name, String email, String username, String password, String role) {
-        try (Connection conn = getConnection()) {
-            String sql = "INSERT INTO [User] (name, email, username, password, userType) VALUES (?, ?, ?, ?, ?)";
-            PreparedStatement stmt = conn.prepareStatement(sql);
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = prepare(conn, Query.USER_INSERT)) {
             stmt.setString(1, name);
             stmt.setString(2, email);
             stmt.setString(3, username);
@@ -30,18 +126,9 @@ public class DBConnection {
         }
     }
     
-    public static ResultSet getUserByID(int userID) throws SQLException {
-        Connection conn = DriverManager.getConnection(URL, USER, PASSWORD);
-        String sql = "SELECT * FROM [User] WHERE userID = ?";
-        PreparedStatement stmt = conn.prepareStatement(sql);
-        stmt.setInt(1, userID);
-        return stmt.executeQuery(); // caller must close connection
-    }
-
     public static boolean updateUserProfile(int userID, String name, String email, String username, String password) {
-        try (Connection conn = DriverManager.getConnection(URL, USER, PASSWORD)) {
-            String sql = "UPDATE [User] SET name = ?, email = ?, username = ?, password = ? WHERE userID = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = prepare(conn, Query.USER_UPDATE_ACCOUNT)) {
             stmt.setString(1, name);
             stmt.setString(2, email);
             stmt.setString(3, username);
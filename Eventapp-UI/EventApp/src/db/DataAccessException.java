@@ -0,0 +1,19 @@
+package db;
+
+import java.sql.SQLException;
+
+// Carries a SQLException out of code that cannot throw checked exceptions,
+// such as a Stream returned by a repository
+public class DataAccessException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DataAccessException(SQLException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
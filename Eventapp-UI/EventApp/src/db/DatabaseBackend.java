@@ -0,0 +1,21 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Where the app's data lives: connection settings plus the SQL dialect to speak.
+// DBConnection picks one from -Deventure.db.backend (sqlserver, h2-file or h2-mem).
+public interface DatabaseBackend {
+
+    String url();
+
+    String user();
+
+    String password();
+
+    SqlDialect dialect();
+
+    // Runs once on the first pooled connection, e.g. to create the schema
+    default void initialize(Connection conn) throws SQLException {
+    }
+}
@@ -0,0 +1,73 @@
+package db;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs JDBC work on a small bounded pool of background threads so pages never
+// block the JavaFX Application Thread. Sized below the connection pool so workers
+// do not queue up on borrow().
+public final class DbExecutor {
+
+    private static final int WORKERS = Integer.getInteger("eventure.db.workers", 8);
+
+    private static final ThreadPoolExecutor EXECUTOR;
+
+    static {
+        AtomicInteger counter = new AtomicInteger();
+        EXECUTOR = new ThreadPoolExecutor(WORKERS, WORKERS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "db-worker-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private DbExecutor() {
+    }
+
+    // cancel(true) on the returned future also interrupts the worker running the query
+    public static <T> CompletableFuture<T> submit(SqlWork<T> work) {
+        Task<T> task = new Task<>(work);
+        task.worker = EXECUTOR.submit(task::execute);
+        return task;
+    }
+
+    public static void shutdown() {
+        EXECUTOR.shutdownNow();
+    }
+
+    private static class Task<T> extends CompletableFuture<T> {
+        private final SqlWork<T> work;
+        private volatile Future<?> worker;
+
+        Task(SqlWork<T> work) {
+            this.work = work;
+        }
+
+        void execute() {
+            if (isDone()) {
+                return;
+            }
+            try {
+                complete(work.run());
+            } catch (Throwable e) {
+                completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Future<?> w = worker;
+            if (cancelled && w != null) {
+                w.cancel(mayInterruptIfRunning);
+            }
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// H2 running inside the app, either in a local file or purely in memory. H2's
+// MSSQLServer mode accepts the T-SQL schema as written, so an empty database is
+// created from "OOP Create database.txt" the first time it is opened.
+public class EmbeddedBackend implements DatabaseBackend {
+
+    private static final String MODE_FLAGS = ";MODE=MSSQLServer;DATABASE_TO_UPPER=FALSE;CASE_INSENSITIVE_IDENTIFIERS=TRUE";
+
+    private final String url;
+
+    private EmbeddedBackend(String url) {
+        this.url = url;
+    }
+
+    // Data survives restarts in <path>.mv.db
+    public static EmbeddedBackend file(String path) {
+        return new EmbeddedBackend("jdbc:h2:file:" + path + MODE_FLAGS);
+    }
+
+    // Data lives as long as the JVM; each name is a separate database
+    public static EmbeddedBackend inMemory(String name) {
+        return new EmbeddedBackend("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1" + MODE_FLAGS);
+    }
+
+    @Override
+    public String url() {
+        return url;
+    }
+
+    @Override
+    public String user() {
+        return "sa";
+    }
+
+    @Override
+    public String password() {
+        return "";
+    }
+
+    @Override
+    public SqlDialect dialect() {
+        return SqlDialect.H2;
+    }
+
+    @Override
+    public void initialize(Connection conn) throws SQLException {
+        if (hasTable(conn, "User")) {
+            return;
+        }
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : SchemaScript.load()) {
+                stmt.execute(sql);
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static boolean hasTable(Connection conn, String table) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getTables(null, null, table, new String[] { "TABLE" })) {
+            return rs.next();
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package db;
+
+import models.Event;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Process-wide copy of the Event table, keyed by eventID, with per-organizer and
+// upcoming/past views built once per load. EventRepository reads through it and
+// updates it after its own writes. After -Deventure.catalog.ttlMs (default 60 s) the rows
+// changed or deleted since the copy's change version are read and applied to pick up
+// changes made by other clients; the whole table is only read again when that delta
+// comes back full (see ChangeVersions).
+// A catalog larger than -Deventure.catalog.maxEvents (default 50000, 0 disables the
+// cache) is not kept and every read goes to the database instead.
+final class EventCatalogCache {
+
+    private static final long TTL_MS = Long.getLong("eventure.catalog.ttlMs", 60_000);
+    private static final int MAX_EVENTS = Integer.getInteger("eventure.catalog.maxEvents", 50_000);
+
+    private static final EventCatalogCache SHARED = new EventCatalogCache();
+
+    private volatile Snapshot snapshot;
+    // Set when the last load overflowed MAX_EVENTS; no retry until the TTL passes
+    private volatile long oversizedUntil;
+
+    private EventCatalogCache() {
+    }
+
+    static EventCatalogCache shared() {
+        return SHARED;
+    }
+
+    // Current catalog, loading it if needed; empty when the cache is off or the table is too big
+    Optional<Snapshot> current() throws SQLException {
+        if (MAX_EVENTS <= 0) {
+            return Optional.empty();
+        }
+        Snapshot s = snapshot;
+        long now = System.currentTimeMillis();
+        if (s != null && now - s.loadedAt < TTL_MS) {
+            return Optional.of(s.forToday());
+        }
+        if (now < oversizedUntil) {
+            return Optional.empty();
+        }
+        synchronized (this) {
+            s = snapshot;
+            if (s == null) {
+                s = load();
+                snapshot = s;
+            } else if (System.currentTimeMillis() - s.loadedAt >= TTL_MS) {
+                s = refresh(s);
+                snapshot = s;
+            }
+        }
+        return Optional.ofNullable(s).map(Snapshot::forToday);
+    }
+
+    // Stores the row EventRepository re-read after creating or editing an event
+    synchronized void put(int eventID, Optional<Event> row) {
+        Snapshot s = snapshot;
+        if (s == null) {
+            return;
+        }
+        Map<Integer, Event> rows = new LinkedHashMap<>(s.byId);
+        if (row.isPresent()) {
+            rows.put(eventID, row.get());
+        } else {
+            rows.remove(eventID);
+        }
+        snapshot = rows.size() > MAX_EVENTS ? null : new Snapshot(rows, s.loadedAt, s.version);
+    }
+
+    synchronized void remove(int eventID) {
+        Snapshot s = snapshot;
+        if (s == null || !s.byId.containsKey(eventID)) {
+            return;
+        }
+        Map<Integer, Event> rows = new LinkedHashMap<>(s.byId);
+        rows.remove(eventID);
+        snapshot = new Snapshot(rows, s.loadedAt, s.version);
+    }
+
+    // Drops everything; the next read reloads the table
+    synchronized void invalidate() {
+        snapshot = null;
+        oversizedUntil = 0;
+    }
+
+    private Snapshot load() throws SQLException {
+        Map<Integer, Event> rows = new LinkedHashMap<>();
+        long loadedAt = System.currentTimeMillis();
+        long[] version = {0};
+        try {
+            Jdbc.forEach(Query.EVENT_CATALOG, rs -> {
+                version[0] = Math.max(version[0], rs.getLong("changeVersion"));
+                return EventRepository.FULL.map(rs);
+            }, event -> {
+                if (rows.size() >= MAX_EVENTS) {
+                    throw new CatalogTooLarge();
+                }
+                rows.put(event.getEventID(), event);
+            });
+        } catch (CatalogTooLarge e) {
+            oversizedUntil = loadedAt + TTL_MS;
+            return null;
+        }
+        return new Snapshot(rows, loadedAt, version[0]);
+    }
+
+    // Applies what changed since the snapshot was taken
+    private Snapshot refresh(Snapshot s) throws SQLException {
+        long loadedAt = System.currentTimeMillis();
+        ChangeSet<Event> changes = ChangeVersions.since(s.version, Query.EVENT_CHANGED_SINCE, EventRepository.FULL,
+                Event::getEventID, Query.TOMBSTONE_EVENTS_SINCE);
+        if (changes.isFull()) {
+            return load();
+        }
+        if (changes.isEmpty()) {
+            return new Snapshot(s.byId, loadedAt, changes.getVersion());
+        }
+        Map<Integer, Event> rows = new LinkedHashMap<>(s.byId);
+        for (Event event : changes.getChanged()) {
+            rows.put(event.getEventID(), event);
+        }
+        rows.keySet().removeAll(changes.getDeletedIDs());
+        if (rows.size() > MAX_EVENTS) {
+            oversizedUntil = loadedAt + TTL_MS;
+            return null;
+        }
+        return new Snapshot(rows, loadedAt, changes.getVersion());
+    }
+
+    private static class CatalogTooLarge extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        CatalogTooLarge() {
+            super(null, null, false, false);
+        }
+    }
+
+    // Immutable view of the catalog. The upcoming/past split depends on the date, so a
+    // snapshot built on an earlier day is re-split (in memory) before it is served.
+    static final class Snapshot {
+        private final Map<Integer, Event> byId;
+        private final long loadedAt;
+        private final long version;
+        private final LocalDate today;
+        private final List<Event> all;
+        private final List<Event> newestFirst;
+        private final List<Event> upcoming;
+        private final List<Event> past;
+        private final Map<Integer, List<Event>> byOrganizer;
+
+        Snapshot(Map<Integer, Event> byId, long loadedAt, long version) {
+            this(byId, loadedAt, version, LocalDate.now());
+        }
+
+        private Snapshot(Map<Integer, Event> byId, long loadedAt, long version, LocalDate today) {
+            this.byId = byId;
+            this.loadedAt = loadedAt;
+            this.version = version;
+            this.today = today;
+
+            List<Event> all = new ArrayList<>(byId.values());
+            all.sort(Comparator.comparingInt(Event::getEventID));
+            List<Event> newestFirst = new ArrayList<>(all);
+            Collections.reverse(newestFirst);
+            List<Event> upcoming = new ArrayList<>();
+            List<Event> past = new ArrayList<>();
+            Map<Integer, List<Event>> byOrganizer = new HashMap<>();
+            for (Event e : all) {
+                (isUpcoming(e, today) ? upcoming : past).add(e);
+                byOrganizer.computeIfAbsent(e.getOrganizerID(), k -> new ArrayList<>()).add(e);
+            }
+            byOrganizer.replaceAll((k, v) -> Collections.unmodifiableList(v));
+
+            this.all = Collections.unmodifiableList(all);
+            this.newestFirst = Collections.unmodifiableList(newestFirst);
+            this.upcoming = Collections.unmodifiableList(upcoming);
+            this.past = Collections.unmodifiableList(past);
+            this.byOrganizer = byOrganizer;
+        }
+
+        private Snapshot forToday() {
+            LocalDate now = LocalDate.now();
+            return now.equals(today) ? this : new Snapshot(byId, loadedAt, version, now);
+        }
+
+        long version() {
+            return version;
+        }
+
+        Optional<Event> get(int eventID) {
+            return Optional.ofNullable(byId.get(eventID));
+        }
+
+        List<Event> all() {
+            return all;
+        }
+
+        List<Event> newestFirst() {
+            return newestFirst;
+        }
+
+        // Up to limit events with a smaller eventID than the cursor, newest first
+        List<Event> olderThan(int eventID, int limit) {
+            int from = firstBelow(eventID);
+            return newestFirst.subList(from, Math.min(newestFirst.size(), from + limit));
+        }
+
+        // Up to limit events with a larger eventID than the cursor, the ones nearest it; newest first
+        List<Event> newerThan(int eventID, int limit) {
+            int to = firstBelow(eventID + 1);
+            return newestFirst.subList(Math.max(0, to - limit), to);
+        }
+
+        // Index in newestFirst of the first event whose id is below eventID
+        private int firstBelow(int eventID) {
+            int lo = 0;
+            int hi = newestFirst.size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (newestFirst.get(mid).getEventID() >= eventID) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        int size() {
+            return all.size();
+        }
+
+        List<Event> upcoming() {
+            return upcoming;
+        }
+
+        List<Event> past() {
+            return past;
+        }
+
+        List<Event> byOrganizer(int organizerID) {
+            return byOrganizer.getOrDefault(organizerID, List.of());
+        }
+
+        List<Event> upcomingByOrganizer(int organizerID) {
+            return filter(byOrganizer(organizerID), true);
+        }
+
+        List<Event> pastByOrganizer(int organizerID) {
+            return filter(byOrganizer(organizerID), false);
+        }
+
+        private List<Event> filter(List<Event> events, boolean upcoming) {
+            List<Event> result = new ArrayList<>();
+            for (Event e : events) {
+                if (isUpcoming(e, today) == upcoming) {
+                    result.add(e);
+                }
+            }
+            return result;
+        }
+
+        // Same rule as "startDate >= {now}": a DATE compares as midnight, so today counts as past
+        private static boolean isUpcoming(Event e, LocalDate today) {
+            return e.getStartDate() != null && e.getStartDate().isAfter(today);
+        }
+    }
+}
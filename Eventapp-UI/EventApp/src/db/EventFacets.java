@@ -0,0 +1,372 @@
+package db;
+
+import models.Event;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+// Process-wide facet index behind EventListPage's filters. Every event gets an ordinal in
+// eventID order; each facet value (start day, location group, organizer) keeps the sorted
+// ordinals of its events and availability is a BitSet of full events. A filter turns each
+// facet's selection into a BitSet, so combining facets is a bitwise AND and a click never
+// runs SQL. EventRepository keeps it current after its own writes and RegistrationRepository
+// after seats change; the whole index is rebuilt after -Deventure.facets.ttlMs (default 60 s).
+final class EventFacets {
+
+    private static final long TTL_MS = Long.getLong("eventure.facets.ttlMs", 60_000);
+
+    private static final EventFacets SHARED = new EventFacets();
+
+    private final List<Event> events = new ArrayList<>();          // by ordinal, null once deleted
+    private final Map<Integer, Integer> ordinalOf = new HashMap<>(); // eventID -> ordinal
+    private final BitSet live = new BitSet();
+    private final BitSet full = new BitSet();
+    private final TreeMap<LocalDate, Ordinals> byDay = new TreeMap<>();
+    private final Map<String, Ordinals> byLocation = new HashMap<>();    // keyed by lower-case group
+    private final Map<String, String> locationLabels = new HashMap<>();
+    private final Map<Integer, Ordinals> byOrganizer = new HashMap<>();
+    private final Map<Integer, String> organizerNames = new HashMap<>();
+    private long loadedAt;
+    private boolean loaded;
+
+    private EventFacets() {
+    }
+
+    static EventFacets shared() {
+        return SHARED;
+    }
+
+    // Up to limit matching events, newest first, with the facet counts for the filter
+    synchronized FacetedEvents query(EventFilter filter, int limit) throws SQLException {
+        ready();
+        BitSet date = filter.hasDateRange() ? dateRange(filter.getFrom(), filter.getTo()) : null;
+        BitSet location = filter.getLocations().isEmpty() ? null : locations(filter.getLocations());
+        BitSet organizer = filter.getOrganizerIDs().isEmpty() ? null : organizers(filter.getOrganizerIDs());
+        BitSet availability = availability(filter.getAvailability());
+
+        BitSet all = intersect(date, location, organizer, availability);
+        List<Event> page = new ArrayList<>(Math.min(limit, all.cardinality()));
+        for (int i = all.length() - 1; i >= 0 && page.size() < limit; i = all.previousSetBit(i - 1)) {
+            page.add(events.get(i));
+        }
+        return new FacetedEvents(page, all.cardinality(),
+                monthCounts(intersect(null, location, organizer, availability)),
+                locationCounts(intersect(date, null, organizer, availability)),
+                organizerCounts(intersect(date, location, null, availability)),
+                availabilityCounts(intersect(date, location, organizer, null)));
+    }
+
+    // Membership test for the filter as it stands now, for narrowing search results
+    synchronized Predicate<Event> matcher(EventFilter filter) throws SQLException {
+        ready();
+        BitSet all = intersect(filter.hasDateRange() ? dateRange(filter.getFrom(), filter.getTo()) : null,
+                filter.getLocations().isEmpty() ? null : locations(filter.getLocations()),
+                filter.getOrganizerIDs().isEmpty() ? null : organizers(filter.getOrganizerIDs()),
+                availability(filter.getAvailability()));
+        return e -> {
+            Integer ordinal = ordinal(e.getEventID());
+            return ordinal != null && all.get(ordinal);
+        };
+    }
+
+    // Indexes a created or edited event; an empty row means it no longer exists
+    void put(int eventID, Optional<Event> row) throws SQLException {
+        // An organizer's first event: look the name up before taking the lock
+        String organizerName = null;
+        if (row.isPresent() && !knowsOrganizer(row.get().getOrganizerID())) {
+            organizerName = Jdbc.first(Query.USER_PROFILE, rs -> rs.getString("name"),
+                    row.get().getOrganizerID()).orElse(null);
+        }
+        synchronized (this) {
+            if (!loaded) {
+                return;
+            }
+            if (organizerName != null) {
+                organizerNames.put(row.get().getOrganizerID(), organizerName);
+            }
+            Integer ordinal = ordinalOf.get(eventID);
+            if (ordinal != null) {
+                unindex(ordinal);
+            }
+            if (row.isPresent()) {
+                // An edit keeps its ordinal so the list order stays eventID order
+                index(ordinal != null ? ordinal : events.size(), row.get());
+            } else if (ordinal != null) {
+                ordinalOf.remove(eventID);
+                events.set(ordinal, null);
+                full.clear(ordinal);
+            }
+        }
+    }
+
+    void remove(int eventID) throws SQLException {
+        put(eventID, Optional.empty());
+    }
+
+    // Called after a commit that changed the event's seatsTaken
+    synchronized void markFull(int eventID, boolean isFull) {
+        Integer ordinal = ordinalOf.get(eventID);
+        if (ordinal != null) {
+            full.set(ordinal, isFull);
+        }
+    }
+
+    private synchronized Integer ordinal(int eventID) {
+        return ordinalOf.get(eventID);
+    }
+
+    private synchronized boolean knowsOrganizer(int organizerID) {
+        return organizerNames.containsKey(organizerID);
+    }
+
+    private void ready() throws SQLException {
+        if (loaded && System.currentTimeMillis() - loadedAt < TTL_MS) {
+            return;
+        }
+        loaded = false;
+        events.clear();
+        ordinalOf.clear();
+        live.clear();
+        full.clear();
+        byDay.clear();
+        byLocation.clear();
+        locationLabels.clear();
+        byOrganizer.clear();
+        organizerNames.clear();
+        loadedAt = System.currentTimeMillis();
+
+        Optional<EventCatalogCache.Snapshot> catalog = EventCatalogCache.shared().current();
+        if (catalog.isPresent()) {
+            for (Event e : catalog.get().all()) {
+                index(events.size(), e);
+            }
+        } else {
+            Jdbc.forEach(Query.EVENT_CATALOG, EventRepository.FULL, e -> index(events.size(), e));
+        }
+        Jdbc.forEach(Query.EVENT_FULL_IDS, rs -> rs.getInt("eventID"), eventID -> markFull(eventID, true));
+        Jdbc.forEach(Query.EVENT_ORGANIZER_NAMES,
+                rs -> Map.entry(rs.getInt("userID"), String.valueOf(rs.getString("name"))),
+                organizer -> organizerNames.put(organizer.getKey(), organizer.getValue()));
+        loaded = true;
+    }
+
+    private void index(int ordinal, Event e) {
+        if (ordinal == events.size()) {
+            events.add(e);
+        } else {
+            events.set(ordinal, e);
+        }
+        ordinalOf.put(e.getEventID(), ordinal);
+        live.set(ordinal);
+        LocalDate day = e.getStartDate();
+        if (day != null) {
+            byDay.computeIfAbsent(day, d -> new Ordinals()).add(ordinal);
+        }
+        String group = locationGroup(e.getLocation());
+        if (group != null) {
+            String key = group.toLowerCase(Locale.ROOT);
+            locationLabels.putIfAbsent(key, group);
+            byLocation.computeIfAbsent(key, k -> new Ordinals()).add(ordinal);
+        }
+        byOrganizer.computeIfAbsent(e.getOrganizerID(), k -> new Ordinals()).add(ordinal);
+    }
+
+    private void unindex(int ordinal) {
+        Event e = events.get(ordinal);
+        live.clear(ordinal);
+        LocalDate day = e.getStartDate();
+        if (day != null) {
+            removeFrom(byDay, day, ordinal);
+        }
+        String group = locationGroup(e.getLocation());
+        if (group != null) {
+            removeFrom(byLocation, group.toLowerCase(Locale.ROOT), ordinal);
+        }
+        removeFrom(byOrganizer, e.getOrganizerID(), ordinal);
+    }
+
+    private static <K> void removeFrom(Map<K, Ordinals> facet, K value, int ordinal) {
+        Ordinals ordinals = facet.get(value);
+        if (ordinals != null && ordinals.remove(ordinal) && ordinals.size == 0) {
+            facet.remove(value);
+        }
+    }
+
+    private BitSet dateRange(LocalDate from, LocalDate to) {
+        BitSet bits = new BitSet(events.size());
+        if (from != null && to != null && from.isAfter(to)) {
+            return bits;
+        }
+        Map<LocalDate, Ordinals> days = from == null && to == null ? byDay
+                : from == null ? byDay.headMap(to, true)
+                : to == null ? byDay.tailMap(from, true)
+                : byDay.subMap(from, true, to, true);
+        for (Ordinals ordinals : days.values()) {
+            ordinals.setIn(bits);
+        }
+        return bits;
+    }
+
+    private BitSet locations(Set<String> selected) {
+        BitSet bits = new BitSet(events.size());
+        for (String location : selected) {
+            Ordinals ordinals = byLocation.get(location.toLowerCase(Locale.ROOT));
+            if (ordinals != null) {
+                ordinals.setIn(bits);
+            }
+        }
+        return bits;
+    }
+
+    private BitSet organizers(Set<Integer> selected) {
+        BitSet bits = new BitSet(events.size());
+        for (int organizerID : selected) {
+            Ordinals ordinals = byOrganizer.get(organizerID);
+            if (ordinals != null) {
+                ordinals.setIn(bits);
+            }
+        }
+        return bits;
+    }
+
+    private BitSet availability(EventFilter.Availability wanted) {
+        switch (wanted) {
+            case FULL:
+                return (BitSet) full.clone();
+            case AVAILABLE:
+                BitSet open = (BitSet) live.clone();
+                open.andNot(full);
+                return open;
+            default:
+                return null;
+        }
+    }
+
+    // live AND every selection that is set
+    private BitSet intersect(BitSet... selections) {
+        BitSet result = (BitSet) live.clone();
+        for (BitSet selection : selections) {
+            if (selection != null) {
+                result.and(selection);
+            }
+        }
+        return result;
+    }
+
+    private List<FacetedEvents.FacetCount<YearMonth>> monthCounts(BitSet within) {
+        TreeMap<YearMonth, Integer> counts = new TreeMap<>();
+        for (Map.Entry<LocalDate, Ordinals> day : byDay.entrySet()) {
+            int count = day.getValue().countIn(within);
+            if (count > 0) {
+                counts.merge(YearMonth.from(day.getKey()), count, Integer::sum);
+            }
+        }
+        List<FacetedEvents.FacetCount<YearMonth>> result = new ArrayList<>(counts.size());
+        counts.forEach((month, count) -> result.add(new FacetedEvents.FacetCount<>(month, month.toString(), count)));
+        return result;
+    }
+
+    private List<FacetedEvents.FacetCount<String>> locationCounts(BitSet within) {
+        List<FacetedEvents.FacetCount<String>> result = new ArrayList<>();
+        for (Map.Entry<String, Ordinals> location : byLocation.entrySet()) {
+            String label = locationLabels.get(location.getKey());
+            result.add(new FacetedEvents.FacetCount<>(label, label, location.getValue().countIn(within)));
+        }
+        return mostFirst(result);
+    }
+
+    private List<FacetedEvents.FacetCount<Integer>> organizerCounts(BitSet within) {
+        List<FacetedEvents.FacetCount<Integer>> result = new ArrayList<>();
+        for (Map.Entry<Integer, Ordinals> organizer : byOrganizer.entrySet()) {
+            int organizerID = organizer.getKey();
+            String label = organizerNames.getOrDefault(organizerID, "Organizer #" + organizerID);
+            result.add(new FacetedEvents.FacetCount<>(organizerID, label, organizer.getValue().countIn(within)));
+        }
+        return mostFirst(result);
+    }
+
+    private List<FacetedEvents.FacetCount<EventFilter.Availability>> availabilityCounts(BitSet within) {
+        BitSet fullWithin = (BitSet) within.clone();
+        fullWithin.and(full);
+        int fullCount = fullWithin.cardinality();
+        return List.of(
+                new FacetedEvents.FacetCount<>(EventFilter.Availability.AVAILABLE, "Available",
+                        within.cardinality() - fullCount),
+                new FacetedEvents.FacetCount<>(EventFilter.Availability.FULL, "Full", fullCount));
+    }
+
+    private static <T> List<FacetedEvents.FacetCount<T>> mostFirst(List<FacetedEvents.FacetCount<T>> counts) {
+        counts.sort(Comparator.comparingInt((FacetedEvents.FacetCount<T> c) -> c.getCount()).reversed()
+                .thenComparing(FacetedEvents.FacetCount::getLabel, String.CASE_INSENSITIVE_ORDER));
+        return Collections.unmodifiableList(counts);
+    }
+
+    // "Tech Hub, Hall 3" and "tech hub, Hall 9" are both the "Tech Hub" group
+    private static String locationGroup(String location) {
+        if (location == null) {
+            return null;
+        }
+        int comma = location.indexOf(',');
+        String group = (comma < 0 ? location : location.substring(0, comma)).trim();
+        return group.isEmpty() ? null : group;
+    }
+
+    // Sorted ordinals of one facet value
+    private static final class Ordinals {
+        int[] values = new int[4];
+        int size;
+
+        void add(int ordinal) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            int at = size;
+            if (size > 0 && values[size - 1] > ordinal) {
+                at = -Arrays.binarySearch(values, 0, size, ordinal) - 1; // an edited event keeps an old ordinal
+                System.arraycopy(values, at, values, at + 1, size - at);
+            }
+            values[at] = ordinal;
+            size++;
+        }
+
+        boolean remove(int ordinal) {
+            int at = Arrays.binarySearch(values, 0, size, ordinal);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(values, at + 1, values, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        void setIn(BitSet bits) {
+            for (int i = 0; i < size; i++) {
+                bits.set(values[i]);
+            }
+        }
+
+        int countIn(BitSet bits) {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (bits.get(values[i])) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
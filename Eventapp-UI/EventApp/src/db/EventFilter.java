@@ -0,0 +1,41 @@
+package db;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// What the event list is narrowed to: a start-date range (either end may be open), any
+// of the selected location groups, any of the selected organizers, and seat availability.
+// An empty selection does not filter. Locations are FacetedEvents location values.
+public final class EventFilter {
+
+    public enum Availability { ANY, AVAILABLE, FULL }
+
+    public static final EventFilter NONE = new EventFilter(null, null, Set.of(), Set.of(), Availability.ANY);
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final Set<String> locations;
+    private final Set<Integer> organizerIDs;
+    private final Availability availability;
+
+    public EventFilter(LocalDate from, LocalDate to, Set<String> locations, Set<Integer> organizerIDs,
+                       Availability availability) {
+        this.from = from;
+        this.to = to;
+        this.locations = Collections.unmodifiableSet(new LinkedHashSet<>(locations));
+        this.organizerIDs = Collections.unmodifiableSet(new LinkedHashSet<>(organizerIDs));
+        this.availability = availability == null ? Availability.ANY : availability;
+    }
+
+    public LocalDate getFrom() { return from; }             // inclusive, null for no lower bound
+    public LocalDate getTo() { return to; }                 // inclusive, null for no upper bound
+    public Set<String> getLocations() { return locations; }
+    public Set<Integer> getOrganizerIDs() { return organizerIDs; }
+    public Availability getAvailability() { return availability; }
+
+    boolean hasDateRange() {
+        return from != null || to != null;
+    }
+}
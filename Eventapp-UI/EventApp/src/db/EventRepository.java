@@ -0,0 +1,399 @@
+package db;
+
+import models.DateFormats;
+import models.Event;
+import models.Session;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class EventRepository {
+
+    static final RowMapper<Event> SUMMARY = rs -> new Event(
+            rs.getInt("eventID"),
+            rs.getString("name"),
+            rs.getObject("startDate", LocalDate.class),
+            rs.getObject("endDate", LocalDate.class));
+
+    static final RowMapper<Event> WITH_LOCATION = rs -> new Event(
+            rs.getInt("eventID"),
+            rs.getString("name"),
+            rs.getObject("startDate", LocalDate.class),
+            rs.getObject("endDate", LocalDate.class),
+            null,
+            rs.getString("location"),
+            0);
+
+    static final RowMapper<Event> FULL = rs -> new Event(
+            rs.getInt("eventID"),
+            rs.getString("name"),
+            rs.getObject("startDate", LocalDate.class),
+            rs.getObject("endDate", LocalDate.class),
+            rs.getString("description"),
+            rs.getString("location"),
+            rs.getInt("organizerID"));
+
+    // Rows per keyset page; the EVENT_PAGE_* queries use the same limit
+    public static final int PAGE_SIZE = 100;
+
+    // Rows the search boxes show for one query
+    public static final int SEARCH_LIMIT = 100;
+    // Rows EventListPage shows for one filter; the facet counts cover every match
+    public static final int FILTER_LIMIT = 1000;
+    // Longest session a schedule may hold; the booking check relies on it to bound its read
+    public static final Duration MAX_SESSION_LENGTH = Duration.ofHours(24);
+
+    private final EventCatalogCache cache = EventCatalogCache.shared();
+    private final EventSearchIndex searchIndex = EventSearchIndex.shared();
+    private final EventFacets facets = EventFacets.shared();
+
+    // Whole catalog, newest first
+    public List<Event> findAll() throws SQLException {
+        Optional<EventCatalogCache.Snapshot> catalog = cache.current();
+        if (catalog.isPresent()) {
+            return catalog.get().newestFirst();
+        }
+        return Jdbc.list(Query.EVENT_ALL_NEWEST_FIRST, SUMMARY);
+    }
+
+    // The page of the newest-first catalog that follows the event with this ID.
+    // Seeks on the primary key, so every page costs the same however deep the user scrolls.
+    // Pass Integer.MAX_VALUE for the first page.
+    public List<Event> findPageOlderThan(int eventID) throws SQLException {
+        Optional<EventCatalogCache.Snapshot> catalog = cache.current();
+        if (catalog.isPresent()) {
+            return new ArrayList<>(catalog.get().olderThan(eventID, PAGE_SIZE));
+        }
+        return Jdbc.list(Query.EVENT_PAGE_OLDER, SUMMARY, eventID);
+    }
+
+    // The page that precedes the event with this ID, for scrolling back up; newest first
+    public List<Event> findPageNewerThan(int eventID) throws SQLException {
+        Optional<EventCatalogCache.Snapshot> catalog = cache.current();
+        if (catalog.isPresent()) {
+            return new ArrayList<>(catalog.get().newerThan(eventID, PAGE_SIZE));
+        }
+        List<Event> page = Jdbc.list(Query.EVENT_PAGE_NEWER, SUMMARY, eventID);
+        Collections.reverse(page);
+        return page;
+    }
+
+    // Exact when the catalog is cached, otherwise the engine's row count statistics
+    public int estimateCount() throws SQLException {
+        Optional<EventCatalogCache.Snapshot> catalog = cache.current();
+        if (catalog.isPresent()) {
+            return catalog.get().size();
+        }
+        return Jdbc.count(Query.EVENT_COUNT_ESTIMATE);
+    }
+
+    // Events matching every word of the text in their name, location or description, best
+    // match first. The last word may be partial and single typos are forgiven. Empty when
+    // the text has no words to look for.
+    public List<Event> search(String text) throws SQLException {
+        return searchIndex.search(text, SEARCH_LIMIT, e -> true);
+    }
+
+    // The filtered catalog with facet counts, answered from memory (see EventFacets). With
+    // search text the events are the best search matches that pass the filter instead of the
+    // newest ones; the counts still describe the filter alone.
+    public FacetedEvents filter(EventFilter filter, String searchText) throws SQLException {
+        FacetedEvents faceted = facets.query(filter, FILTER_LIMIT);
+        if (searchText == null || searchText.isBlank()) {
+            return faceted;
+        }
+        List<Event> matches = searchIndex.search(searchText, SEARCH_LIMIT, facets.matcher(filter));
+        return faceted.withEvents(matches, matches.size());
+    }
+
+    // Change version of what the catalog reads return right now; pass it to changesSince later
+    public long catalogVersion() throws SQLException {
+        Optional<EventCatalogCache.Snapshot> catalog = cache.current();
+        if (catalog.isPresent()) {
+            return catalog.get().version();
+        }
+        return Jdbc.first(Query.EVENT_MAX_VERSION, rs -> rs.getLong(1)).orElse(0L);
+    }
+
+    // Events inserted, edited or deleted since the version of an earlier change set (0 for
+    // the first call), for merging into a list already on screen
+    public ChangeSet<Event> changesSince(long version) throws SQLException {
+        return ChangeVersions.since(version, Query.EVENT_CHANGED_SINCE, FULL, Event::getEventID,
+                Query.TOMBSTONE_EVENTS_SINCE);
+    }
+
+    // The same for one organizer's events
+    public ChangeSet<Event> changesByOrganizerSince(int organizerID, long version) throws SQLException {
+        return ChangeVersions.since(version, Query.EVENT_CHANGED_SINCE_BY_ORGANIZER, FULL, Event::getEventID,
+                Query.TOMBSTONE_EVENTS_SINCE_BY_ORGANIZER, organizerID);
+    }
+
+    // Always reads the table, for callers that walk it once (exports, benchmarks)
+    public void forEach(Consumer<? super Event> action) throws SQLException {
+        Jdbc.forEach(Query.EVENT_ALL_NEWEST_FIRST, SUMMARY, action);
+    }
+
+    // Close the stream (try-with-resources) to release its connection
+    public Stream<Event> streamAll() throws SQLException {
+        return Jdbc.stream(Query.EVENT_ALL_NEWEST_FIRST, SUMMARY);
+    }
+
+    public List<Event> findUpcoming() throws SQLException {
+        Optional<EventCatalogCache.Snapshot> catalog = cache.current();
+        if (catalog.isPresent()) {
+            return catalog.get().upcoming();
+        }
+        return Jdbc.list(Query.EVENT_UPCOMING, SUMMARY);
+    }
+
+    public List<Event> findPast() throws SQLException {
+        Optional<EventCatalogCache.Snapshot> catalog = cache.current();
+        if (catalog.isPresent()) {
+            return catalog.get().past();
+        }
+        return Jdbc.list(Query.EVENT_PAST, SUMMARY);
+    }
+
+    public List<Event> findByOrganizer(int organizerID) throws SQLException {
+        Optional<EventCatalogCache.Snapshot> catalog = cache.current();
+        if (catalog.isPresent()) {
+            return catalog.get().byOrganizer(organizerID);
+        }
+        return Jdbc.list(Query.EVENT_BY_ORGANIZER, SUMMARY, organizerID);
+    }
+
+    // Includes location, latest start date first
+    public List<Event> findByOrganizerWithLocation(int organizerID) throws SQLException {
+        Optional<EventCatalogCache.Snapshot> catalog = cache.current();
+        if (catalog.isPresent()) {
+            List<Event> events = new ArrayList<>(catalog.get().byOrganizer(organizerID));
+            events.sort(Comparator.comparing(Event::getStartDate).reversed());
+            return events;
+        }
+        return Jdbc.list(Query.EVENT_BY_ORGANIZER_WITH_LOCATION, WITH_LOCATION, organizerID);
+    }
+
+    public List<Event> findUpcomingByOrganizer(int organizerID) throws SQLException {
+        Optional<EventCatalogCache.Snapshot> catalog = cache.current();
+        if (catalog.isPresent()) {
+            return catalog.get().upcomingByOrganizer(organizerID);
+        }
+        return Jdbc.list(Query.EVENT_UPCOMING_BY_ORGANIZER, SUMMARY, organizerID);
+    }
+
+    public List<Event> findPastByOrganizer(int organizerID) throws SQLException {
+        Optional<EventCatalogCache.Snapshot> catalog = cache.current();
+        if (catalog.isPresent()) {
+            return catalog.get().pastByOrganizer(organizerID);
+        }
+        return Jdbc.list(Query.EVENT_PAST_BY_ORGANIZER, SUMMARY, organizerID);
+    }
+
+    public Optional<Event> findById(int eventID) throws SQLException {
+        Optional<EventCatalogCache.Snapshot> catalog = cache.current();
+        if (catalog.isPresent()) {
+            return catalog.get().get(eventID);
+        }
+        return Jdbc.first(Query.EVENT_BY_ID, FULL, eventID);
+    }
+
+    public Optional<String> findName(int eventID) throws SQLException {
+        return findById(eventID).map(Event::getEventName);
+    }
+
+    public int countByOrganizer(int organizerID) throws SQLException {
+        Optional<EventCatalogCache.Snapshot> catalog = cache.current();
+        if (catalog.isPresent()) {
+            return catalog.get().byOrganizer(organizerID).size();
+        }
+        return Jdbc.count(Query.EVENT_COUNT_BY_ORGANIZER, organizerID);
+    }
+
+    // Inserts the event with its sessions and tells the organizer, all in one transaction.
+    // Session times are "yyyy-MM-dd HH:mm" text (see DateFormats.SESSION_TIME). Returns the
+    // new eventID. Throws SessionConflictException, writing nothing, when a session would
+    // double-book a room or speaker.
+    public int create(Event event, List<Session> sessions) throws SQLException {
+        List<SessionSlot> slots = new ArrayList<>();
+        for (Session session : sessions) {
+            slots.add(slot(session, event.getEventName()));
+        }
+        int eventID = saveBooked(slots, conn -> {
+            int id;
+            try (PreparedStatement stmt = DBConnection.prepare(conn, Query.EVENT_INSERT)) {
+                Jdbc.bind(stmt, event.getEventName(), event.getDescription(), Date.valueOf(event.getStartDate()),
+                        Date.valueOf(event.getEndDate()), event.getLocation(), event.getOrganizerID(),
+                        event.getCapacity());
+                stmt.executeUpdate();
+                ResultSet keys = stmt.getGeneratedKeys();
+                if (!keys.next()) {
+                    throw new SQLException("Failed to get event ID.");
+                }
+                id = keys.getInt(1);
+            }
+            ChangeFeed.recordEvent(conn, id);
+            try (PreparedStatement stmt = DBConnection.prepare(conn, Query.SESSION_INSERT)) {
+                for (Session session : sessions) {
+                    Jdbc.bind(stmt, id, session.getTitle(), session.getDescription(), session.getLocation(),
+                            timestamp(session.getStartTime()), timestamp(session.getEndTime()),
+                            session.getSpeakerID());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            NotificationRepository.insert(conn, event.getOrganizerID(), "Event Created",
+                    "New Event: " + event.getEventName(),
+                    "You have successfully created the event \"" + event.getEventName() + "\" with "
+                            + sessions.size() + " sessions.", "Organizer");
+            return id;
+        });
+        reindex(eventID);
+        return eventID;
+    }
+
+    public boolean update(int eventID, String name, String description, LocalDate startDate, LocalDate endDate,
+                          String location) throws SQLException {
+        boolean updated = Jdbc.inTransaction(conn -> {
+            ChangeFeed.recordEvent(conn, eventID);
+            return Jdbc.update(conn, Query.EVENT_UPDATE, name, description, Date.valueOf(startDate),
+                    Date.valueOf(endDate), location, eventID) > 0;
+        });
+        reindex(eventID);
+        return updated;
+    }
+
+    // Saves name and dates and the session list from EditEventPage in one transaction.
+    // Sessions with sessionID -1 are new and get inserted; the rest are updated in place.
+    // Throws SessionConflictException, writing nothing, when a new or edited session would
+    // double-book a room or speaker.
+    public void updateSchedule(int eventID, String name, LocalDate startDate, LocalDate endDate,
+                               List<Session> sessions) throws SQLException {
+        List<SessionSlot> slots = new ArrayList<>();
+        for (Session session : sessions) {
+            slots.add(slot(session, name));
+        }
+        saveBooked(slots, conn -> {
+            Jdbc.update(conn, Query.EVENT_UPDATE_SCHEDULE, name, Date.valueOf(startDate), Date.valueOf(endDate), eventID);
+            ChangeFeed.recordEvent(conn, eventID);
+            for (Session session : sessions) {
+                if (session.getSessionID() == -1) {
+                    Jdbc.update(conn, Query.SESSION_INSERT, eventID, session.getTitle(), session.getDescription(),
+                            session.getLocation(), timestamp(session.getStartTime()), timestamp(session.getEndTime()),
+                            session.getSpeakerID());
+                } else {
+                    updateSession(conn, session);
+                }
+            }
+            return null;
+        });
+        reindex(eventID);
+    }
+
+    // Saves one session edited on its own (EditSessionPage), with the same booking check as
+    // updateSchedule. Returns false when the session no longer exists.
+    public boolean updateSession(Session session) throws SQLException {
+        Optional<Session> stored = Jdbc.first(Query.SESSION_BY_ID, SessionRepository.SESSION, session.getSessionID());
+        if (!stored.isPresent()) {
+            return false;
+        }
+        int eventID = stored.get().getEventID();
+        List<SessionSlot> slots = new ArrayList<>();
+        slots.add(slot(session, findName(eventID).orElse("")));
+        boolean updated = saveBooked(slots, conn -> {
+            if (updateSession(conn, session) == 0) {
+                return false;
+            }
+            ChangeFeed.recordEvent(conn, eventID);
+            return true;
+        });
+        if (updated) {
+            reindex(eventID);
+        }
+        return updated;
+    }
+
+    // Removes the event with its registrations, waitlist and sessions in one transaction,
+    // leaving tombstones for the delta refreshes
+    public void delete(int eventID) throws SQLException {
+        Jdbc.inTransaction(conn -> {
+            Jdbc.update(conn, Query.WAITLIST_DELETE_BY_EVENT, eventID);
+            Jdbc.update(conn, Query.TOMBSTONE_REGISTRATIONS_BY_EVENT, eventID);
+            Jdbc.update(conn, Query.REGISTRATION_DELETE_BY_EVENT, eventID);
+            Jdbc.update(conn, Query.TOMBSTONE_SESSIONS_BY_EVENT, eventID);
+            Jdbc.update(conn, Query.SESSION_DELETE_BY_EVENT, eventID);
+            Jdbc.update(conn, Query.TOMBSTONE_EVENT, eventID);
+            ChangeFeed.recordEvent(conn, eventID);
+            return Jdbc.update(conn, Query.EVENT_DELETE, eventID);
+        });
+        cache.remove(eventID);
+        searchIndex.remove(eventID);
+        facets.remove(eventID);
+    }
+
+    // Runs the write in one transaction after the booking check, holding the sessions' rooms
+    // and speakers from before the check until after the commit so no other save can book
+    // them in between (see SessionBookings). Throws SessionConflictException, writing
+    // nothing, on a double booking.
+    private static <T> T saveBooked(List<SessionSlot> slots, Jdbc.TransactionWork<T> write) throws SQLException {
+        SessionBookings.Hold hold = SessionBookings.lock(slots);
+        try {
+            return Jdbc.inTransaction(conn -> {
+                List<BookingConflict> conflicts = SessionBookings.check(conn, slots);
+                if (!conflicts.isEmpty()) {
+                    throw new SessionConflictException(conflicts);
+                }
+                return write.run(conn);
+            });
+        } finally {
+            hold.release();
+        }
+    }
+
+    private static int updateSession(Connection conn, Session session) throws SQLException {
+        return Jdbc.update(conn, Query.SESSION_UPDATE, session.getTitle(), timestamp(session.getStartTime()),
+                timestamp(session.getEndTime()), session.getLocation(), session.getDescription(),
+                session.getSpeakerID(), session.getSessionID());
+    }
+
+    private static SessionSlot slot(Session session, String eventName) throws SQLException {
+        LocalDateTime start = timestamp(session.getStartTime()).toLocalDateTime();
+        LocalDateTime end = timestamp(session.getEndTime()).toLocalDateTime();
+        if (Duration.between(start, end).compareTo(MAX_SESSION_LENGTH) > 0) {
+            throw new SQLException("Session \"" + session.getTitle() + "\" runs longer than "
+                    + MAX_SESSION_LENGTH.toHours() + " hours");
+        }
+        return new SessionSlot(session.getSessionID(), session.getEventID(), eventName, session.getTitle(),
+                session.getLocation(), start, end, session.getSpeakerID());
+    }
+
+    // Session times arrive as text from the forms (see DateFormats.SESSION_TIME)
+    private static Timestamp timestamp(String sessionTime) throws SQLException {
+        LocalDateTime time = DateFormats.parseSessionTime(sessionTime);
+        if (time == null) {
+            throw new SQLException("Invalid session time \"" + sessionTime + "\", expected yyyy-MM-dd HH:mm");
+        }
+        return Timestamp.valueOf(time);
+    }
+
+    // Re-reads an event this client created or edited into the catalog cache, search index and facets
+    private void reindex(int eventID) throws SQLException {
+        Optional<Event> row = Jdbc.first(Query.EVENT_BY_ID, FULL, eventID);
+        cache.put(eventID, row);
+        searchIndex.put(eventID, row);
+        facets.put(eventID, row);
+    }
+}
@@ -0,0 +1,399 @@
+package db;
+
+import models.Event;
+
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+// Process-wide inverted index over event name, location and description, so the search
+// boxes never run LIKE '%...%' scans. Terms live in a sorted map: a query word matches the
+// term itself, every term it is a prefix of (search-as-you-type), and, when neither exists,
+// terms within one or two typos that share its first letter. An event has to match every
+// query word; hits are ranked by field (name > location > description) and term rarity.
+// EventRepository updates the index after its own writes; the whole index is rebuilt in the
+// background after -Deventure.search.ttlMs (default 5 min) to pick up other clients' changes.
+final class EventSearchIndex {
+
+    private static final long TTL_MS = Long.getLong("eventure.search.ttlMs", 300_000);
+
+    private static final int NAME = 1;
+    private static final int LOCATION = 2;
+    private static final int DESCRIPTION = 4;
+
+    private static final int MIN_TOKEN = 2;
+    private static final int MIN_FUZZY = 4;
+    // A one- or two-letter prefix can match thousands of terms; only this many are scored
+    private static final int MAX_EXPANSIONS = 512;
+    private static final float EXACT = 1.0f;
+    private static final float PREFIX = 0.75f;
+    private static final float FUZZY = 0.5f;
+
+    private static final EventSearchIndex SHARED = new EventSearchIndex();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index;     // guarded by lock
+    private long builtAt;    // guarded by lock
+    private Set<Integer> touchedDuringRebuild; // non-null while a background rebuild runs
+
+    private EventSearchIndex() {
+    }
+
+    static EventSearchIndex shared() {
+        return SHARED;
+    }
+
+    // Up to limit events matching every word of the text and the filter, best match first.
+    // Empty when the text has no searchable words.
+    List<Event> search(String text, int limit, Predicate<Event> filter) throws SQLException {
+        List<String> words = tokenize(text);
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        ready();
+        lock.readLock().lock();
+        try {
+            return index.search(words, limit, filter);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Indexes a created or edited event; an empty row means it no longer exists
+    void put(int eventID, Optional<Event> row) {
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringRebuild != null) {
+                touchedDuringRebuild.add(eventID);
+            }
+            if (index != null) {
+                index.remove(eventID);
+                row.ifPresent(index::add);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(int eventID) {
+        put(eventID, Optional.empty());
+    }
+
+    // The first search builds the index in the caller's thread. After the TTL the old index
+    // keeps answering while a new one is built; writes made meanwhile are replayed onto it.
+    private void ready() throws SQLException {
+        lock.writeLock().lock();
+        try {
+            if (index == null) {
+                index = load();
+                builtAt = System.currentTimeMillis();
+                return;
+            }
+            if (touchedDuringRebuild != null || System.currentTimeMillis() - builtAt < TTL_MS) {
+                return;
+            }
+            touchedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Thread rebuild = new Thread(this::rebuild, "search-index-rebuild");
+        rebuild.setDaemon(true);
+        rebuild.start();
+    }
+
+    private void rebuild() {
+        try {
+            Index fresh = load();
+            while (true) {
+                Set<Integer> touched;
+                lock.writeLock().lock();
+                try {
+                    touched = touchedDuringRebuild;
+                    if (touched.isEmpty()) {
+                        index = fresh;
+                        builtAt = System.currentTimeMillis();
+                        return;
+                    }
+                    touchedDuringRebuild = new HashSet<>();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                for (int eventID : touched) {
+                    fresh.remove(eventID);
+                    Jdbc.first(Query.EVENT_BY_ID, EventRepository.FULL, eventID).ifPresent(fresh::add);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            lock.writeLock().lock();
+            try {
+                touchedDuringRebuild = null;
+                builtAt = System.currentTimeMillis(); // a failed rebuild waits a full TTL too
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // Reuses the catalog cache when it holds the table, otherwise streams it once
+    private static Index load() throws SQLException {
+        Index fresh = new Index();
+        Optional<EventCatalogCache.Snapshot> catalog = EventCatalogCache.shared().current();
+        if (catalog.isPresent()) {
+            catalog.get().all().forEach(fresh::add);
+        } else {
+            Jdbc.forEach(Query.EVENT_CATALOG, EventRepository.FULL, fresh::add);
+        }
+        return fresh;
+    }
+
+    // Lower-case words of at least MIN_TOKEN letters or digits, accents stripped
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String folded = text;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7f) {
+                folded = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+                break;
+            }
+        }
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start >= MIN_TOKEN) {
+                    words.add(folded.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static float fieldWeight(int fields) {
+        float weight = 0;
+        if ((fields & NAME) != 0) {
+            weight += 3;
+        }
+        if ((fields & LOCATION) != 0) {
+            weight += 2;
+        }
+        if ((fields & DESCRIPTION) != 0) {
+            weight += 1;
+        }
+        return weight;
+    }
+
+    // Edit distance between a and b, or max + 1 as soon as it is known to exceed max
+    static int boundedDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] prev = new int[b.length() + 1];
+        int[] cur = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            cur[0] = i;
+            int rowMin = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                cur[j] = Math.min(Math.min(cur[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+                rowMin = Math.min(rowMin, cur[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = prev;
+            prev = cur;
+            cur = swap;
+        }
+        return prev[b.length()];
+    }
+
+    // Documents are numbered in the order they are added, so every posting list stays
+    // sorted. Removing an event only clears its slot; the index is compacted once a quarter
+    // of the slots are empty.
+    private static final class Index {
+        private final List<Event> docs = new ArrayList<>();
+        private final Map<Integer, Integer> docByEvent = new HashMap<>();
+        private final TreeMap<String, Postings> terms = new TreeMap<>();
+        private int removed;
+
+        void add(Event event) {
+            int doc = docs.size();
+            docs.add(event);
+            docByEvent.put(event.getEventID(), doc);
+            Map<String, Integer> fields = new LinkedHashMap<>();
+            collect(fields, event.getEventName(), NAME);
+            collect(fields, event.getLocation(), LOCATION);
+            collect(fields, event.getDescription(), DESCRIPTION);
+            fields.forEach((term, mask) -> terms.computeIfAbsent(term, t -> new Postings()).add(doc, mask));
+        }
+
+        void remove(int eventID) {
+            Integer doc = docByEvent.remove(eventID);
+            if (doc == null) {
+                return;
+            }
+            docs.set(doc, null);
+            removed++;
+            if (removed > 1000 && removed * 4 > docs.size()) {
+                compact();
+            }
+        }
+
+        private void compact() {
+            List<Event> live = new ArrayList<>(docByEvent.size());
+            for (Event e : docs) {
+                if (e != null) {
+                    live.add(e);
+                }
+            }
+            docs.clear();
+            docByEvent.clear();
+            terms.clear();
+            removed = 0;
+            live.forEach(this::add);
+        }
+
+        private static void collect(Map<String, Integer> fields, String text, int field) {
+            for (String word : tokenize(text)) {
+                fields.merge(word, field, (a, b) -> a | b);
+            }
+        }
+
+        List<Event> search(List<String> words, int limit, Predicate<Event> filter) {
+            int size = docs.size();
+            int live = size - removed;
+            float[] total = new float[size];
+            float[] best = new float[size];  // best score of the current word, per doc
+            int[] matched = new int[size];   // how many query words the doc matched so far
+
+            for (int w = 0; w < words.size(); w++) {
+                String word = words.get(w);
+                int round = w + 1;
+                boolean found = false;
+                for (Map.Entry<Postings, Float> hit : expand(word).entrySet()) {
+                    Postings p = hit.getKey();
+                    float weight = hit.getValue() * (float) Math.log(1 + (double) live / p.size);
+                    for (int i = 0; i < p.size; i++) {
+                        int doc = p.docs[i];
+                        if (matched[doc] < w) {
+                            continue; // missed an earlier word, can no longer match them all
+                        }
+                        float score = weight * fieldWeight(p.fields[i]);
+                        if (matched[doc] < round) {
+                            matched[doc] = round;
+                            best[doc] = score;
+                            total[doc] += score;
+                        } else if (score > best[doc]) {
+                            total[doc] += score - best[doc];
+                            best[doc] = score;
+                        }
+                        found = true;
+                    }
+                }
+                if (!found) {
+                    return List.of();
+                }
+            }
+
+            // Min-heap of the best limit hits. Slots are walked newest first so that on equal
+            // score the most recently added event wins without a single extra heap operation.
+            Comparator<Integer> worstFirst = (a, b) -> total[a] != total[b]
+                    ? Float.compare(total[a], total[b])
+                    : Integer.compare(a, b);
+            PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1, worstFirst);
+            int all = words.size();
+            for (int doc = size - 1; doc >= 0; doc--) {
+                if (matched[doc] != all || (top.size() == limit && total[doc] <= total[top.peek()])) {
+                    continue;
+                }
+                Event e = docs.get(doc);
+                if (e == null || !filter.test(e)) {
+                    continue;
+                }
+                top.add(doc);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<Event> result = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                result.add(docs.get(top.poll()));
+            }
+            Collections.reverse(result);
+            return result;
+        }
+
+        // Posting lists a query word matches, each with its match factor
+        private Map<Postings, Float> expand(String word) {
+            Map<Postings, Float> hits = new LinkedHashMap<>();
+            Postings exact = terms.get(word);
+            if (exact != null) {
+                hits.put(exact, EXACT);
+            }
+            int expansions = 0;
+            for (Postings p : terms.subMap(word, false, word + Character.MAX_VALUE, false).values()) {
+                if (++expansions > MAX_EXPANSIONS) {
+                    break;
+                }
+                hits.put(p, PREFIX);
+            }
+            if (hits.isEmpty() && word.length() >= MIN_FUZZY) {
+                int maxDistance = word.length() < 8 ? 1 : 2;
+                String first = word.substring(0, 1);
+                NavigableMap<String, Postings> sameLetter =
+                        terms.subMap(first, true, first + Character.MAX_VALUE, false);
+                for (Map.Entry<String, Postings> term : sameLetter.entrySet()) {
+                    int distance = boundedDistance(word, term.getKey(), maxDistance);
+                    if (distance <= maxDistance) {
+                        hits.put(term.getValue(), FUZZY / distance);
+                    }
+                }
+            }
+            return hits;
+        }
+    }
+
+    private static final class Postings {
+        int[] docs = new int[2];
+        byte[] fields = new byte[2];
+        int size;
+
+        void add(int doc, int mask) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            docs[size] = doc;
+            fields[size] = (byte) mask;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package db;
+
+import models.Event;
+
+import java.time.YearMonth;
+import java.util.List;
+
+// One page of filtered events plus, for every facet, how many events each value would
+// match given the other facets' selections (so picking a value never zeroes its siblings).
+public final class FacetedEvents {
+
+    private final List<Event> events;
+    private final int total;
+    private final List<FacetCount<YearMonth>> months;
+    private final List<FacetCount<String>> locations;
+    private final List<FacetCount<Integer>> organizers;
+    private final List<FacetCount<EventFilter.Availability>> availability;
+
+    FacetedEvents(List<Event> events, int total, List<FacetCount<YearMonth>> months,
+                  List<FacetCount<String>> locations, List<FacetCount<Integer>> organizers,
+                  List<FacetCount<EventFilter.Availability>> availability) {
+        this.events = events;
+        this.total = total;
+        this.months = months;
+        this.locations = locations;
+        this.organizers = organizers;
+        this.availability = availability;
+    }
+
+    FacetedEvents withEvents(List<Event> events, int total) {
+        return new FacetedEvents(events, total, months, locations, organizers, availability);
+    }
+
+    public List<Event> getEvents() { return events; }   // newest first, at most the requested limit
+    public int getTotal() { return total; }             // all matching events, beyond the limit too
+    public List<FacetCount<YearMonth>> getMonths() { return months; }         // chronological
+    public List<FacetCount<String>> getLocations() { return locations; }      // most events first
+    public List<FacetCount<Integer>> getOrganizers() { return organizers; }   // most events first
+    public List<FacetCount<EventFilter.Availability>> getAvailability() { return availability; }
+
+    public static final class FacetCount<T> {
+        private final T value;
+        private final String label;
+        private final int count;
+
+        FacetCount(T value, String label, int count) {
+            this.value = value;
+            this.label = label;
+            this.count = count;
+        }
+
+        public T getValue() { return value; }
+        public String getLabel() { return label; }
+        public int getCount() { return count; }
+    }
+}
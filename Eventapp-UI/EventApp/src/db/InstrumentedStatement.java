@@ -0,0 +1,147 @@
+package db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+// Times every execute* call on a prepared statement and reports it to QueryMetrics
+// under the statement's SQL text. Result sets are wrapped to count the rows read.
+final class InstrumentedStatement implements InvocationHandler {
+
+    private final PreparedStatement statement;
+    private final String sql;
+
+    private InstrumentedStatement(PreparedStatement statement, String sql) {
+        this.statement = statement;
+        this.sql = sql;
+    }
+
+    static PreparedStatement wrap(PreparedStatement statement, String sql) {
+        if (!QueryMetrics.ENABLED) {
+            return statement;
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(
+                InstrumentedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class },
+                new InstrumentedStatement(statement, sql));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        switch (name) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                break;
+        }
+        if (!name.startsWith("execute")) {
+            return call(method, args);
+        }
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = call(method, args);
+        } catch (Throwable e) {
+            QueryMetrics.recordExecution(sql, System.nanoTime() - start, 0, true);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        if (result instanceof ResultSet rs) {
+            QueryMetrics.recordExecution(sql, elapsed, 0, false);
+            return CountingResultSet.wrap(rs, sql);
+        }
+        QueryMetrics.recordExecution(sql, elapsed, updateCount(result), false);
+        return result;
+    }
+
+    private Object call(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(statement, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static long updateCount(Object result) {
+        if (result instanceof Integer n) {
+            return Math.max(0, n);
+        }
+        if (result instanceof Long n) {
+            return Math.max(0, n);
+        }
+        long total = 0;
+        if (result instanceof int[] counts) {
+            for (int n : counts) {
+                total += Math.max(0, n);
+            }
+        } else if (result instanceof long[] counts) {
+            for (long n : counts) {
+                total += Math.max(0, n);
+            }
+        }
+        return total;
+    }
+
+    // Counts next() == true and reports the total once the result set is exhausted or closed
+    private static final class CountingResultSet implements InvocationHandler {
+        private final ResultSet rs;
+        private final String sql;
+        private long rows;
+        private boolean reported;
+
+        private CountingResultSet(ResultSet rs, String sql) {
+            this.rs = rs;
+            this.sql = sql;
+        }
+
+        static ResultSet wrap(ResultSet rs, String sql) {
+            return (ResultSet) Proxy.newProxyInstance(
+                    InstrumentedStatement.class.getClassLoader(),
+                    new Class<?>[] { ResultSet.class },
+                    new CountingResultSet(rs, sql));
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    report();
+                    break;
+                default:
+                    break;
+            }
+            Object result;
+            try {
+                result = method.invoke(rs, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if ("next".equals(method.getName())) {
+                if (Boolean.TRUE.equals(result)) {
+                    rows++;
+                } else {
+                    report();
+                }
+            }
+            return result;
+        }
+
+        private void report() {
+            if (!reported) {
+                reported = true;
+                QueryMetrics.recordRows(sql, rows);
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Half-open [start, end) intervals in an AVL tree ordered by (start, id), each node also
+// holding the latest end below it, so an overlap search skips every subtree that ends
+// before the query starts: O(log n + matches) per search, O(log n) per insert or remove.
+// Intervals that only touch (one ends when the next starts) do not overlap. The id only
+// has to be unique among intervals with the same start. Not thread-safe.
+final class IntervalTree<T> {
+
+    private Node<T> root;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    // Replaces the value when an interval with this start and id is already in the tree
+    void insert(long start, long end, long id, T value) {
+        root = insert(root, start, Math.max(end, start + 1), id, value);
+    }
+
+    // Returns false when no interval with this start and id is in the tree
+    boolean remove(long start, long id) {
+        int before = size;
+        root = remove(root, start, id);
+        return size < before;
+    }
+
+    void overlapping(long start, long end, Consumer<? super T> action) {
+        overlapping(root, start, Math.max(end, start + 1), action);
+    }
+
+    List<T> overlapping(long start, long end) {
+        List<T> found = new ArrayList<>();
+        overlapping(start, end, found::add);
+        return found;
+    }
+
+    // Every value, earliest start first
+    List<T> values() {
+        List<T> values = new ArrayList<>(size);
+        inOrder(root, values);
+        return values;
+    }
+
+    private void overlapping(Node<T> node, long start, long end, Consumer<? super T> action) {
+        while (node != null && node.maxEnd > start) {
+            overlapping(node.left, start, end, action);
+            if (node.start >= end) {
+                return; // this node and everything right of it starts too late
+            }
+            if (node.end > start) {
+                action.accept(node.value);
+            }
+            node = node.right;
+        }
+    }
+
+    private Node<T> insert(Node<T> node, long start, long end, long id, T value) {
+        if (node == null) {
+            size++;
+            return new Node<>(start, end, id, value);
+        }
+        int c = compare(start, id, node);
+        if (c < 0) {
+            node.left = insert(node.left, start, end, id, value);
+        } else if (c > 0) {
+            node.right = insert(node.right, start, end, id, value);
+        } else {
+            node.end = end;
+            node.value = value;
+        }
+        return balance(node);
+    }
+
+    private Node<T> remove(Node<T> node, long start, long id) {
+        if (node == null) {
+            return null;
+        }
+        int c = compare(start, id, node);
+        if (c < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (c > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node<T> next = node.right;
+            while (next.left != null) {
+                next = next.left;
+            }
+            node.start = next.start;
+            node.end = next.end;
+            node.id = next.id;
+            node.value = next.value;
+            size++; // removed again below
+            node.right = remove(node.right, next.start, next.id);
+        }
+        return balance(node);
+    }
+
+    private static int compare(long start, long id, Node<?> node) {
+        int c = Long.compare(start, node.start);
+        return c != 0 ? c : Long.compare(id, node.id);
+    }
+
+    private static <T> void inOrder(Node<T> node, List<T> values) {
+        while (node != null) {
+            inOrder(node.left, values);
+            values.add(node.value);
+            node = node.right;
+        }
+    }
+
+    private static <T> Node<T> balance(Node<T> node) {
+        update(node);
+        int skew = height(node.left) - height(node.right);
+        if (skew > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static <T> Node<T> rotateLeft(Node<T> node) {
+        Node<T> top = node.right;
+        node.right = top.left;
+        top.left = node;
+        update(node);
+        update(top);
+        return top;
+    }
+
+    private static <T> Node<T> rotateRight(Node<T> node) {
+        Node<T> top = node.left;
+        node.left = top.right;
+        top.right = node;
+        update(node);
+        update(top);
+        return top;
+    }
+
+    private static void update(Node<?> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node<T> {
+        private long start;
+        private long end;
+        private long id;
+        private T value;
+        private long maxEnd;
+        private int height = 1;
+        private Node<T> left;
+        private Node<T> right;
+
+        Node(long start, long end, long id, T value) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.value = value;
+            this.maxEnd = end;
+        }
+    }
+}
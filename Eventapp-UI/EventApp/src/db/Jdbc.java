@@ -0,0 +1,165 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Shared plumbing for the repositories: borrow a pooled connection, bind parameters,
+// map rows and always give the connection back. The overloads taking a Connection
+// let a repository run several statements on one connection (e.g. in a transaction).
+final class Jdbc {
+
+    // Rows pulled per round-trip while iterating, overridable with -Deventure.db.fetchSize
+    static final int FETCH_SIZE = Integer.getInteger("eventure.db.fetchSize", 100);
+
+    private Jdbc() {
+    }
+
+    static <T> List<T> list(Query query, RowMapper<T> mapper, Object... params) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            return list(conn, query, mapper, params);
+        }
+    }
+
+    static <T> List<T> list(Connection conn, Query query, RowMapper<T> mapper, Object... params) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        forEach(conn, query, mapper, rows::add, params);
+        return rows;
+    }
+
+    static <T> Optional<T> first(Query query, RowMapper<T> mapper, Object... params) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            return first(conn, query, mapper, params);
+        }
+    }
+
+    static <T> Optional<T> first(Connection conn, Query query, RowMapper<T> mapper, Object... params) throws SQLException {
+        try (PreparedStatement stmt = DBConnection.prepare(conn, query)) {
+            bind(stmt, params);
+            ResultSet rs = stmt.executeQuery();
+            return rs.next() ? Optional.ofNullable(mapper.map(rs)) : Optional.empty();
+        }
+    }
+
+    // First column of the first row as an int, 0 when there is no row (COUNT queries)
+    static int count(Query query, Object... params) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            return count(conn, query, params);
+        }
+    }
+
+    static int count(Connection conn, Query query, Object... params) throws SQLException {
+        return first(conn, query, rs -> rs.getInt(1), params).orElse(0);
+    }
+
+    // Hands each row to the consumer as it is read, without collecting them first
+    static <T> void forEach(Query query, RowMapper<T> mapper, Consumer<? super T> action, Object... params) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            forEach(conn, query, mapper, action, params);
+        }
+    }
+
+    static <T> void forEach(Connection conn, Query query, RowMapper<T> mapper, Consumer<? super T> action,
+                            Object... params) throws SQLException {
+        try (PreparedStatement stmt = DBConnection.prepare(conn, query)) {
+            bind(stmt, params);
+            stmt.setFetchSize(FETCH_SIZE);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                action.accept(mapper.map(rs));
+            }
+        }
+    }
+
+    // Lazily mapped rows backed by an open cursor. The connection stays borrowed until
+    // the stream is closed, so always use it in a try-with-resources block.
+    static <T> Stream<T> stream(Query query, RowMapper<T> mapper, Object... params) throws SQLException {
+        Connection conn = DBConnection.getConnection();
+        try {
+            PreparedStatement stmt = DBConnection.prepare(conn, query);
+            bind(stmt, params);
+            stmt.setFetchSize(FETCH_SIZE);
+            ResultSet rs = stmt.executeQuery();
+            Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    try {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        action.accept(mapper.map(rs));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new DataAccessException(e);
+                    }
+                }
+            };
+            return StreamSupport.stream(rows, false).onClose(() -> {
+                try {
+                    stmt.close();
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new DataAccessException(e);
+                }
+            });
+        } catch (SQLException | RuntimeException e) {
+            conn.close();
+            throw e;
+        }
+    }
+
+    static int update(Query query, Object... params) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            return update(conn, query, params);
+        }
+    }
+
+    static int update(Connection conn, Query query, Object... params) throws SQLException {
+        try (PreparedStatement stmt = DBConnection.prepare(conn, query)) {
+            bind(stmt, params);
+            return stmt.executeUpdate();
+        }
+    }
+
+    // Runs the work on one connection and commits it as a single transaction
+    static <T> T inTransaction(TransactionWork<T> work) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                T result = work.run(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    static void bind(PreparedStatement stmt, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            if (params[i] == null) {
+                stmt.setNull(i + 1, Types.VARCHAR);
+            } else {
+                stmt.setObject(i + 1, params[i]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface TransactionWork<T> {
+        T run(Connection conn) throws SQLException;
+    }
+}
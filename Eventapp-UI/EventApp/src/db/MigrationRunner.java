@@ -0,0 +1,123 @@
+package db;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.HashSet;
+import java.util.Set;
+
+// Brings the schema up to date at startup. Each script in db/migration is named
+// V<version>__<description>.sql, runs once, and is recorded in schema_version.
+// New scripts are appended to MIGRATIONS; applied ones must never be edited.
+public final class MigrationRunner {
+
+    private static final String[] MIGRATIONS = {
+        "V1__add_lookup_indexes.sql",
+        "V2__event_capacity_and_waitlist.sql",
+        "V3__change_versions.sql",
+        "V4__change_log.sql",
+        "V5__event_date_range_index.sql",
+        "V6__session_time_index.sql",
+    };
+
+    private static final String VERSION_TABLE = "schema_version";
+
+    private MigrationRunner() {
+    }
+
+    // Applies every pending script in order; returns how many were applied
+    public static int migrate() throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            ensureVersionTable(conn);
+            Set<Integer> applied = appliedVersions(conn);
+            int count = 0;
+            for (String script : MIGRATIONS) {
+                int version = versionOf(script);
+                if (!applied.contains(version)) {
+                    apply(conn, version, script);
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    private static void apply(Connection conn, int version, String script) throws SQLException {
+        SqlDialect dialect = DBConnection.dialect();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : SchemaScript.parse(read(script))) {
+                stmt.execute(dialect.render(sql));
+            }
+            try (PreparedStatement insert = conn.prepareStatement("INSERT INTO " + VERSION_TABLE
+                    + " (version, description, appliedAt) VALUES (?, ?, ?)")) {
+                insert.setInt(1, version);
+                insert.setString(2, descriptionOf(script));
+                insert.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+                insert.executeUpdate();
+            }
+            conn.commit();
+            System.out.println("Applied schema migration " + script);
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Schema migration " + script + " failed: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static void ensureVersionTable(Connection conn) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getTables(null, null, VERSION_TABLE, new String[] { "TABLE" })) {
+            if (rs.next()) {
+                return;
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE " + VERSION_TABLE + " ("
+                    + "version INT PRIMARY KEY, "
+                    + "description VARCHAR(200) NOT NULL, "
+                    + "appliedAt DATETIME NOT NULL)");
+        }
+    }
+
+    private static Set<Integer> appliedVersions(Connection conn) throws SQLException {
+        Set<Integer> versions = new HashSet<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version FROM " + VERSION_TABLE)) {
+            while (rs.next()) {
+                versions.add(rs.getInt(1));
+            }
+        }
+        return versions;
+    }
+
+    private static String read(String script) {
+        try (InputStream in = MigrationRunner.class.getResourceAsStream("migration/" + script)) {
+            if (in == null) {
+                throw new IllegalStateException("Migration script not on the classpath: db/migration/" + script);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // "V12__add_capacity.sql" -> 12
+    private static int versionOf(String script) {
+        return Integer.parseInt(script.substring(1, script.indexOf("__")));
+    }
+
+    // "V12__add_capacity.sql" -> "add capacity"
+    private static String descriptionOf(String script) {
+        return script.substring(script.indexOf("__") + 2, script.lastIndexOf('.')).replace('_', ' ');
+    }
+}
@@ -0,0 +1,80 @@
+package db;
+
+import models.Notification;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class NotificationRepository {
+
+    static final RowMapper<Notification> NOTIFICATION = rs -> new Notification(
+            rs.getInt("notificationID"),
+            rs.getInt("userID"),
+            rs.getString("title"),
+            rs.getString("message"),
+            rs.getTimestamp("createdAt"),
+            rs.getBoolean("isRead"),
+            rs.getString("notificationType"));
+
+    // The two most recent notifications, for the attendee dashboard panel
+    public List<Notification> findLatest(int userID) throws SQLException {
+        return Jdbc.list(Query.NOTIFICATION_LATEST_FOR_USER, NOTIFICATION, userID);
+    }
+
+    public List<Notification> findInbox(int userID) throws SQLException {
+        return Jdbc.list(Query.NOTIFICATION_INBOX, NOTIFICATION, userID);
+    }
+
+    public void forEachInInbox(int userID, Consumer<? super Notification> action) throws SQLException {
+        Jdbc.forEach(Query.NOTIFICATION_INBOX, NOTIFICATION, action, userID);
+    }
+
+    public List<Notification> findRecentUnreadForOrganizer(int organizerID) throws SQLException {
+        return Jdbc.list(Query.NOTIFICATION_ORGANIZER_UNREAD_RECENT, NOTIFICATION, organizerID);
+    }
+
+    // read == null lists every organizer notification regardless of status
+    public List<Notification> findForOrganizer(int organizerID, Boolean read) throws SQLException {
+        Query query = read == null ? Query.NOTIFICATION_ORGANIZER_ALL
+                : read ? Query.NOTIFICATION_ORGANIZER_READ : Query.NOTIFICATION_ORGANIZER_UNREAD;
+        return Jdbc.list(query, NOTIFICATION, organizerID);
+    }
+
+    public void insert(int userID, String name, String title, String message, String notificationType) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            insert(conn, userID, name, title, message, notificationType);
+        }
+    }
+
+    // Returns the stored row so callers can show it without reading the inbox back
+    static Notification insert(Connection conn, int userID, String name, String title, String message,
+                               String notificationType) throws SQLException {
+        Timestamp createdAt = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement stmt = DBConnection.prepare(conn, Query.NOTIFICATION_INSERT)) {
+            Jdbc.bind(stmt, userID, name, title, message, createdAt, notificationType);
+            stmt.executeUpdate();
+            ResultSet keys = stmt.getGeneratedKeys();
+            int notificationID = keys.next() ? keys.getInt(1) : 0;
+            ChangeFeed.record(conn, ChangeFeed.Kind.NOTIFICATION, null, userID);
+            return new Notification(notificationID, userID, title, message, createdAt, false, notificationType);
+        }
+    }
+
+    public void setRead(int notificationID, boolean read) throws SQLException {
+        Jdbc.update(Query.NOTIFICATION_SET_READ, read, notificationID);
+    }
+
+    public void delete(int notificationID) throws SQLException {
+        Jdbc.update(Query.NOTIFICATION_DELETE, notificationID);
+    }
+
+    // Returns how many read notifications were removed
+    public int deleteRead(int userID) throws SQLException {
+        return Jdbc.update(Query.NOTIFICATION_DELETE_READ, userID);
+    }
+}
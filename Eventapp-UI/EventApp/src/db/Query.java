@@ -0,0 +1,218 @@
+package db;
+
+// Every SQL statement the app runs, defined once. Pages prepare them with
+// DBConnection.prepare(conn, Query.X) so the statement is cached per connection.
+// The text is a SqlDialect template ({now}, {limit:N}, [Name]) rendered for the active backend.
+public enum Query {
+
+    // --- User ---
+    USER_PROFILE("SELECT name, email, username, userType FROM [User] WHERE userID = ?"),
+    USER_BY_ID("SELECT * FROM [User] WHERE userID = ?"),
+    USER_ID_BY_EMAIL("SELECT userID FROM [User] WHERE email = ?"),
+    USER_LOGIN("SELECT userID, name, email, username, userType FROM [User] WHERE username = ? AND password = ?"),
+    USER_INSERT("INSERT INTO [User] (name, email, username, password, userType) VALUES (?, ?, ?, ?, ?)"),
+    // Users a session can name as its speaker: organizer accounts and anyone already speaking
+    USER_SPEAKERS("SELECT userID, name, email, username, userType FROM [User] WHERE userType = 'Organizer' "
+            + "OR userID IN (SELECT speakerID FROM Session) ORDER BY name"),
+    USER_UPDATE_PROFILE("UPDATE [User] SET name = ?, email = ?, username = ? WHERE userID = ?"),
+    USER_UPDATE_ACCOUNT("UPDATE [User] SET name = ?, email = ?, username = ?, password = ? WHERE userID = ?"),
+    USER_UPDATE_PASSWORD("UPDATE [User] SET password = ? WHERE userID = ?"),
+    USER_UPDATE_BY_EMAIL("UPDATE [User] SET name = ?, email = ? WHERE email = ?"),
+
+    // --- Event ---
+    EVENT_CATALOG("SELECT eventID, name, description, startDate, endDate, location, organizerID, changeVersion "
+            + "FROM Event ORDER BY eventID"),
+    EVENT_ALL_NEWEST_FIRST("SELECT eventID, name, startDate, endDate FROM Event ORDER BY eventID DESC"),
+    // Keyset pages of the newest-first catalog; the limit matches EventRepository.PAGE_SIZE
+    EVENT_PAGE_OLDER("SELECT eventID, name, startDate, endDate FROM Event WHERE eventID < ? "
+            + "ORDER BY eventID DESC {limit:100}"),
+    EVENT_PAGE_NEWER("SELECT eventID, name, startDate, endDate FROM Event WHERE eventID > ? "
+            + "ORDER BY eventID ASC {limit:100}"),
+    EVENT_COUNT_ESTIMATE("{rowEstimate:Event}"),
+    // Seed data for the in-memory facets (EventFacets)
+    EVENT_FULL_IDS("SELECT eventID FROM Event WHERE capacity IS NOT NULL AND seatsTaken >= capacity"),
+    EVENT_ORGANIZER_NAMES("SELECT DISTINCT u.userID, u.name FROM [User] u JOIN Event e ON e.organizerID = u.userID"),
+    EVENT_BY_ORGANIZER("SELECT eventID, name, startDate, endDate FROM Event WHERE organizerID = ?"),
+    EVENT_BY_ORGANIZER_WITH_LOCATION("SELECT eventID, name, startDate, endDate, location FROM Event "
+            + "WHERE organizerID = ? ORDER BY startDate DESC"),
+    EVENT_UPCOMING("SELECT eventID, name, startDate, endDate FROM Event WHERE startDate >= {now}"),
+    EVENT_PAST("SELECT eventID, name, startDate, endDate FROM Event WHERE startDate < {now}"),
+    EVENT_UPCOMING_BY_ORGANIZER("SELECT eventID, name, startDate, endDate FROM Event "
+            + "WHERE organizerID = ? AND startDate >= {now}"),
+    EVENT_PAST_BY_ORGANIZER("SELECT eventID, name, startDate, endDate FROM Event "
+            + "WHERE organizerID = ? AND startDate < {now}"),
+    EVENT_BY_ID("SELECT * FROM Event WHERE eventID = ?"),
+    EVENT_NAME("SELECT name FROM Event WHERE eventID = ?"),
+    EVENT_COUNT_BY_ORGANIZER("SELECT COUNT(*) as totalEvents FROM Event WHERE organizerID = ?"),
+    EVENT_INSERT("INSERT INTO Event (name, description, startDate, endDate, location, organizerID, capacity) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)", true),
+    // Edits take a new change version; inserts get one from the column default
+    EVENT_UPDATE("UPDATE Event SET name = ?, description = ?, startDate = ?, endDate = ?, location = ?, "
+            + "changeVersion = NEXT VALUE FOR ChangeVersionSeq WHERE eventID = ?"),
+    EVENT_UPDATE_SCHEDULE("UPDATE Event SET name = ?, startDate = ?, endDate = ?, "
+            + "changeVersion = NEXT VALUE FOR ChangeVersionSeq WHERE eventID = ?"),
+    EVENT_DELETE("DELETE FROM Event WHERE eventID = ?"),
+    // Seat bookkeeping. Each is a conditional UPDATE on the event row, so concurrent
+    // registrations for one event serialize on that row lock and never oversell.
+    EVENT_TAKE_SEAT("UPDATE Event SET seatsTaken = seatsTaken + 1 "
+            + "WHERE eventID = ? AND (capacity IS NULL OR seatsTaken < capacity)"),
+    EVENT_RELEASE_SEAT("UPDATE Event SET seatsTaken = seatsTaken - 1 WHERE eventID = ? AND seatsTaken > 0"),
+    // RegistrationQueue seats a whole batch at once; optimistic on the seatsTaken it read
+    EVENT_SEATS("SELECT capacity, seatsTaken FROM Event WHERE eventID = ?"),
+    EVENT_RESERVE_SEATS("UPDATE Event SET seatsTaken = seatsTaken + ? WHERE eventID = ? AND seatsTaken = ?"),
+    // Gives back seats reserved for attendees who turned out to be registered already: binds n, eventID, n
+    EVENT_RELEASE_SEATS("UPDATE Event SET seatsTaken = seatsTaken - ? WHERE eventID = ? AND seatsTaken >= ?"),
+    EVENT_JOIN_WAITLIST("UPDATE Event SET waitlisted = waitlisted + 1 "
+            + "WHERE eventID = ? AND capacity IS NOT NULL AND seatsTaken >= capacity"),
+    EVENT_LEAVE_WAITLIST("UPDATE Event SET waitlisted = waitlisted - 1 WHERE eventID = ? AND waitlisted > 0"),
+
+    // --- Registration ---
+    REGISTRATION_COUNT_BY_USER("SELECT COUNT(*) FROM Registration WHERE userID = ?"),
+    REGISTRATION_UPCOMING_COUNT_BY_USER("SELECT COUNT(*) FROM Event E "
+            + "JOIN Registration R ON E.eventID = R.eventID "
+            + "WHERE R.userID = ? AND E.startDate >= {now}"),
+    REGISTRATION_EVENTS_BY_USER("SELECT E.eventID, E.name, E.startDate, E.endDate FROM Event E "
+            + "JOIN Registration R ON E.eventID = R.eventID "
+            + "WHERE R.userID = ? ORDER BY E.startDate ASC"),
+    // Registered events overlapping [?, ?]: binds userID, last day, first day
+    REGISTRATION_EVENT_DAYS_IN_RANGE("SELECT e.startDate, e.endDate FROM Event e "
+            + "JOIN Registration r ON e.eventID = r.eventID "
+            + "WHERE r.userID = ? AND e.startDate <= ? AND e.endDate >= ?"),
+    REGISTRATION_ATTENDEES_BY_EVENT("SELECT u.name as fullName, u.email FROM Registration r "
+            + "JOIN [User] u ON r.userID = u.userID WHERE r.eventID = ? ORDER BY u.name"),
+    REGISTRATION_ATTENDEE_COUNT_BY_ORGANIZER("SELECT COUNT(DISTINCT r.userID) as totalAttendees "
+            + "FROM Registration r JOIN Event e ON r.eventID = e.eventID WHERE e.organizerID = ?"),
+    REGISTRATION_INSERT("INSERT INTO Registration (userID, eventID, registrationDate, registrationStatus) VALUES (?, ?, ?, ?)"),
+    // Inserts nothing (update count 0) when the attendee is already registered: binds the
+    // four values, then userID, eventID again
+    REGISTRATION_INSERT_IF_ABSENT("INSERT INTO Registration (userID, eventID, registrationDate, registrationStatus) "
+            + "SELECT ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM Registration WHERE userID = ? AND eventID = ?)"),
+    REGISTRATION_DELETE("DELETE FROM Registration WHERE userID = ? AND eventID = ?"),
+    REGISTRATION_DELETE_BY_EVENT("DELETE FROM Registration WHERE eventID = ?"),
+
+    // --- Waitlist ---
+    // Inserts nothing when the user already holds a seat or a place on the waitlist
+    WAITLIST_INSERT("INSERT INTO Waitlist (userID, eventID, joinedAt) SELECT ?, ?, ? "
+            + "WHERE NOT EXISTS (SELECT 1 FROM Registration WHERE userID = ? AND eventID = ?) "
+            + "AND NOT EXISTS (SELECT 1 FROM Waitlist WHERE userID = ? AND eventID = ?)", true),
+    WAITLIST_POSITION("SELECT COUNT(*) FROM Waitlist WHERE eventID = ? AND waitlistID <= ?"),
+    WAITLIST_HEAD("SELECT waitlistID, userID FROM Waitlist WHERE eventID = ? ORDER BY waitlistID {limit:1}"),
+    WAITLIST_EVENT_IDS_BY_USER("SELECT eventID FROM Waitlist WHERE userID = ?"),
+    WAITLIST_DELETE("DELETE FROM Waitlist WHERE waitlistID = ?"),
+    WAITLIST_DELETE_USER("DELETE FROM Waitlist WHERE userID = ? AND eventID = ?"),
+    WAITLIST_DELETE_BY_EVENT("DELETE FROM Waitlist WHERE eventID = ?"),
+
+    // --- Session ---
+    SESSION_BY_EVENT("SELECT sessionID, eventID, title, startTime, endTime, location, description, speakerID "
+            + "FROM Session WHERE eventID = ?"),
+    SESSION_BY_ID("SELECT sessionID, eventID, title, startTime, endTime, location, description, speakerID "
+            + "FROM Session WHERE sessionID = ?"),
+    SESSION_INSERT("INSERT INTO Session (eventID, title, description, location, startTime, endTime, speakerID) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)"),
+    SESSION_UPDATE("UPDATE Session SET title = ?, startTime = ?, endTime = ?, location = ?, description = ?, "
+            + "speakerID = ?, changeVersion = NEXT VALUE FOR ChangeVersionSeq WHERE sessionID = ?"),
+    SESSION_DELETE_BY_EVENT("DELETE FROM Session WHERE eventID = ?"),
+    // Sessions with their event's name, for the schedule indexes (see SessionSlot)
+    SESSION_SLOTS_BY_EVENT("SELECT s.sessionID, s.eventID, e.name AS eventName, s.title, s.location, s.startTime, "
+            + "s.endTime, s.speakerID FROM Session s JOIN Event e ON s.eventID = e.eventID WHERE s.eventID = ?"),
+    SESSION_SLOTS_BY_USER("SELECT s.sessionID, s.eventID, e.name AS eventName, s.title, s.location, s.startTime, "
+            + "s.endTime, s.speakerID FROM Session s JOIN Registration r ON s.eventID = r.eventID "
+            + "JOIN Event e ON s.eventID = e.eventID WHERE r.userID = ?"),
+    // Sessions of any event overlapping a window: binds window end, window start minus the
+    // longest allowed session, window start. The lower bound on startTime lets the seek on
+    // IX_Session_Start_End stop at the window instead of reading every earlier session; the
+    // range lock then covers only those keys until the caller's transaction ends.
+    SESSION_SLOTS_IN_RANGE("SELECT s.sessionID, s.eventID, e.name AS eventName, s.title, s.location, s.startTime, "
+            + "s.endTime, s.speakerID FROM Session s {rangeLock} JOIN Event e ON s.eventID = e.eventID "
+            + "WHERE s.startTime < ? AND s.startTime > ? AND s.endTime > ?"),
+
+    // --- Change versions (see ChangeVersions) ---
+    EVENT_MAX_VERSION("SELECT MAX(changeVersion) FROM Event"),
+    EVENT_CHANGED_SINCE("SELECT eventID, name, description, startDate, endDate, location, organizerID, changeVersion "
+            + "FROM Event WHERE changeVersion > ?"),
+    EVENT_CHANGED_SINCE_BY_ORGANIZER("SELECT eventID, name, description, startDate, endDate, location, organizerID, "
+            + "changeVersion FROM Event WHERE organizerID = ? AND changeVersion > ?"),
+    SESSION_CHANGED_SINCE("SELECT sessionID, eventID, title, startTime, endTime, location, description, speakerID, "
+            + "changeVersion FROM Session WHERE eventID = ? AND changeVersion > ?"),
+    REGISTRATION_CHANGED_SINCE("SELECT eventID, changeVersion FROM Registration WHERE userID = ? AND changeVersion > ?"),
+    // Deletes, each read as (changeVersion, deletedID)
+    TOMBSTONE_EVENTS_SINCE("SELECT changeVersion, rowID AS deletedID FROM Tombstone "
+            + "WHERE entity = 'Event' AND changeVersion > ?"),
+    TOMBSTONE_EVENTS_SINCE_BY_ORGANIZER("SELECT changeVersion, rowID AS deletedID FROM Tombstone "
+            + "WHERE entity = 'Event' AND parentID = ? AND changeVersion > ?"),
+    TOMBSTONE_SESSIONS_SINCE("SELECT changeVersion, rowID AS deletedID FROM Tombstone "
+            + "WHERE entity = 'Session' AND parentID = ? AND changeVersion > ?"),
+    TOMBSTONE_REGISTRATIONS_SINCE("SELECT changeVersion, parentID AS deletedID FROM Tombstone "
+            + "WHERE entity = 'Registration' AND rowID = ? AND changeVersion > ?"),
+    // Written in the same transaction as the delete, before it
+    TOMBSTONE_EVENT("INSERT INTO Tombstone (changeVersion, entity, rowID, parentID, deletedAt) "
+            + "SELECT NEXT VALUE FOR ChangeVersionSeq, 'Event', eventID, organizerID, {now} FROM Event WHERE eventID = ?"),
+    TOMBSTONE_SESSIONS_BY_EVENT("INSERT INTO Tombstone (changeVersion, entity, rowID, parentID, deletedAt) "
+            + "SELECT NEXT VALUE FOR ChangeVersionSeq, 'Session', sessionID, eventID, {now} FROM Session WHERE eventID = ?"),
+    TOMBSTONE_REGISTRATIONS_BY_EVENT("INSERT INTO Tombstone (changeVersion, entity, rowID, parentID, deletedAt) "
+            + "SELECT NEXT VALUE FOR ChangeVersionSeq, 'Registration', userID, eventID, {now} "
+            + "FROM Registration WHERE eventID = ?"),
+    TOMBSTONE_REGISTRATION("INSERT INTO Tombstone (changeVersion, entity, rowID, parentID, deletedAt) "
+            + "VALUES (NEXT VALUE FOR ChangeVersionSeq, 'Registration', ?, ?, {now})"),
+    TOMBSTONE_HORIZON("SELECT prunedThrough FROM TombstoneHorizon"),
+    TOMBSTONE_RAISE_HORIZON("UPDATE TombstoneHorizon SET prunedThrough = "
+            + "COALESCE((SELECT MAX(changeVersion) FROM Tombstone WHERE deletedAt < ?), prunedThrough)"),
+    TOMBSTONE_PRUNE("DELETE FROM Tombstone WHERE changeVersion <= (SELECT prunedThrough FROM TombstoneHorizon)"),
+
+    // --- Change log (see ChangeFeed) ---
+    CHANGE_LOG_INSERT("INSERT INTO ChangeLog (kind, eventID, userID, createdAt) VALUES (?, ?, ?, {now})"),
+    // Logs an event change with its organizer; runs before a delete
+    CHANGE_LOG_INSERT_EVENT("INSERT INTO ChangeLog (kind, eventID, userID, createdAt) "
+            + "SELECT 'EVENT', eventID, organizerID, {now} FROM Event WHERE eventID = ?"),
+    CHANGE_LOG_LATEST("SELECT MAX(changeID) FROM ChangeLog"),
+    CHANGE_LOG_SINCE("SELECT changeID, kind, eventID, userID FROM ChangeLog WHERE changeID > ? "
+            + "ORDER BY changeID {limit:1000}"),
+    CHANGE_LOG_PRUNE("DELETE FROM ChangeLog WHERE createdAt < ?"),
+
+    // --- Notification ---
+    NOTIFICATION_LATEST_FOR_USER("SELECT notificationID, userID, title, message, createdAt, isRead, notificationType "
+            + "FROM Notification WHERE userID = ? ORDER BY createdAt DESC {limit:2}"),
+    NOTIFICATION_INBOX("SELECT notificationID, userID, title, message, createdAt, isRead, notificationType "
+            + "FROM Notification WHERE userID = ? ORDER BY createdAt DESC"),
+    NOTIFICATION_ORGANIZER_UNREAD_RECENT("SELECT notificationID, userID, title, message, createdAt, isRead, notificationType "
+            + "FROM Notification WHERE userID = ? AND notificationType = 'Organizer' AND isRead = 0 "
+            + "ORDER BY createdAt DESC {limit:5}"),
+    NOTIFICATION_ORGANIZER_ALL(organizerInbox("")),
+    NOTIFICATION_ORGANIZER_UNREAD(organizerInbox("AND [isRead] = 0 ")),
+    NOTIFICATION_ORGANIZER_READ(organizerInbox("AND [isRead] = 1 ")),
+    NOTIFICATION_INSERT("INSERT INTO Notification (userID, name, title, message, createdAt, isRead, notificationType) "
+            + "VALUES (?, ?, ?, ?, ?, 0, ?)", true),
+    // Same insert without generated keys, for executeBatch
+    NOTIFICATION_INSERT_BATCH("INSERT INTO Notification (userID, name, title, message, createdAt, isRead, notificationType) "
+            + "VALUES (?, ?, ?, ?, ?, 0, ?)"),
+    NOTIFICATION_SET_READ("UPDATE Notification SET isRead = ? WHERE notificationID = ?"),
+    NOTIFICATION_DELETE("DELETE FROM Notification WHERE notificationID = ?"),
+    NOTIFICATION_DELETE_READ("DELETE FROM Notification WHERE userID = ? AND isRead = 1");
+
+    private final String template;
+    private final boolean returnsGeneratedKeys;
+
+    Query(String template) {
+        this(template, false);
+    }
+
+    Query(String template, boolean returnsGeneratedKeys) {
+        this.template = template;
+        this.returnsGeneratedKeys = returnsGeneratedKeys;
+    }
+
+    public String sql(SqlDialect dialect) {
+        return dialect.render(template);
+    }
+
+    public boolean returnsGeneratedKeys() {
+        return returnsGeneratedKeys;
+    }
+
+    private static String organizerInbox(String filter) {
+        return "SELECT [notificationID], [title], [message], [createdAt], [isRead], "
+                + "[notificationType], [userID] "
+                + "FROM [Notification] WHERE [userID] = ? AND [notificationType] = 'Organizer' "
+                + filter + "ORDER BY [createdAt] DESC {limit:1000}";
+    }
+}
@@ -0,0 +1,158 @@
+package db;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency, row and error counts per SQL text, fed by InstrumentedStatement.
+// Statements slower than -Deventure.db.slowQueryMs (default 500) are logged to stderr.
+// snapshot() is what a diagnostics view or exporter reads.
+public final class QueryMetrics {
+
+    static final boolean ENABLED = !Boolean.getBoolean("eventure.db.metrics.disabled");
+    private static final long SLOW_QUERY_NANOS = Long.getLong("eventure.db.slowQueryMs", 500) * 1_000_000;
+
+    // Bucket i counts executions that took [2^i, 2^(i+1)) microseconds
+    private static final int BUCKETS = 32;
+
+    private static final Map<String, QueryStats> STATS = new ConcurrentHashMap<>();
+
+    private QueryMetrics() {
+    }
+
+    static void recordExecution(String sql, long nanos, long rows, boolean failed) {
+        QueryStats stats = stats(sql);
+        stats.count.increment();
+        stats.totalNanos.add(nanos);
+        stats.maxNanos.accumulate(nanos);
+        stats.histogram.incrementAndGet(bucket(nanos));
+        if (rows > 0) {
+            stats.rows.add(rows);
+        }
+        if (failed) {
+            stats.errors.increment();
+        }
+        if (nanos >= SLOW_QUERY_NANOS) {
+            System.err.printf("Slow query (%.1f ms)%s: %s%n", nanos / 1e6, failed ? " [failed]" : "", sql);
+        }
+    }
+
+    // Rows read from a result set are only known once the caller is done with it
+    static void recordRows(String sql, long rows) {
+        if (rows > 0) {
+            stats(sql).rows.add(rows);
+        }
+    }
+
+    // Busiest statements first (by total time spent)
+    public static List<Snapshot> snapshot() {
+        List<Snapshot> result = new ArrayList<>(STATS.size());
+        STATS.forEach((sql, stats) -> result.add(stats.snapshot(sql)));
+        result.sort(Comparator.comparingDouble(Snapshot::getTotalMillis).reversed());
+        return result;
+    }
+
+    public static void reset() {
+        STATS.clear();
+    }
+
+    private static QueryStats stats(String sql) {
+        return STATS.computeIfAbsent(sql, k -> new QueryStats());
+    }
+
+    private static int bucket(long nanos) {
+        long micros = Math.max(1, nanos / 1000);
+        return Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+    }
+
+    private static class QueryStats {
+        final LongAdder count = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        Snapshot snapshot(String sql) {
+            long[] buckets = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = histogram.get(i);
+            }
+            return new Snapshot(sql, count.sum(), errors.sum(), rows.sum(), totalNanos.sum(),
+                    maxNanos.get(), buckets);
+        }
+    }
+
+    public static class Snapshot {
+        private final String sql;
+        private final long count;
+        private final long errors;
+        private final long rows;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long[] histogram;
+
+        Snapshot(String sql, long count, long errors, long rows, long totalNanos, long maxNanos, long[] histogram) {
+            this.sql = sql;
+            this.count = count;
+            this.errors = errors;
+            this.rows = rows;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.histogram = histogram;
+        }
+
+        public String getSql() { return sql; }
+        public long getCount() { return count; }
+        public long getErrors() { return errors; }
+        public long getRows() { return rows; }
+
+        public double getTotalMillis() {
+            return totalNanos / 1e6;
+        }
+
+        public double getMeanMillis() {
+            return count == 0 ? 0 : totalNanos / 1e6 / count;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos / 1e6;
+        }
+
+        // Upper bound of the histogram bucket holding the p-th percentile (0 < p <= 1)
+        public double getPercentileMillis(double p) {
+            long total = 0;
+            for (long c : histogram) {
+                total += c;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long target = (long) Math.ceil(p * total);
+            long seen = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                seen += histogram[i];
+                if (seen >= target) {
+                    return Math.min((1L << (i + 1)) / 1000.0, getMaxMillis());
+                }
+            }
+            return getMaxMillis();
+        }
+
+        // Copy of the raw bucket counts, bucket i covering [2^i, 2^(i+1)) microseconds
+        public long[] getHistogram() {
+            return histogram.clone();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%6d calls %5d errors %8d rows  mean %.2f ms  p95 %.2f ms  max %.2f ms  %s",
+                    count, errors, rows, getMeanMillis(), getPercentileMillis(0.95), getMaxMillis(), sql);
+        }
+    }
+}
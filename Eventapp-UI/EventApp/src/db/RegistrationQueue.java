@@ -0,0 +1,319 @@
+package db;
+
+import db.RegistrationRepository.Confirmation;
+import db.RegistrationRepository.Status;
+import models.Notification;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Group commit for registration bursts. Register clicks are queued and one writer thread
+// commits them together: it waits up to -Deventure.registration.windowMs (default 2 ms)
+// after the first click for more, up to -Deventure.registration.maxBatch (default 256).
+// Seats for each event are reserved with one optimistic UPDATE on seatsTaken, then every
+// Registration and Notification row goes in as one JDBC batch. A Registration row is only
+// inserted when the attendee has none yet, so an attendee who was already registered just
+// gets an update count of 0: their seat is given back and they alone see the duplicate.
+// Attendees who do not fit go through RegistrationRepository's single-attendee path
+// (waitlist) in the same transaction, after the seats of any duplicates were released; one
+// already on the waitlist is reported as a duplicate there too. Only if another writer
+// registers or waitlists the same attendee between the check and the insert does the batch
+// roll back and replay one registration at a time. Events are seat-locked in eventID order,
+// whatever order the clicks arrived in, so two writers sharing events cannot deadlock.
+// The notification of an attendee seated by the batch comes back with notificationID 0:
+// batched inserts return no generated keys, and the dashboards only show title and message.
+public final class RegistrationQueue {
+
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            Long.getLong("eventure.registration.windowMs", 2));
+    private static final int MAX_BATCH = Integer.getInteger("eventure.registration.maxBatch", 256);
+    private static final int MAX_ATTEMPTS = 5;
+
+    private static final RegistrationQueue SHARED = new RegistrationQueue();
+
+    private final LinkedBlockingQueue<Request> pending = new LinkedBlockingQueue<>();
+    private final RegistrationRepository registrations = new RegistrationRepository();
+    private Thread writer;
+    private volatile boolean stopped;
+
+    private RegistrationQueue() {
+    }
+
+    public static RegistrationQueue shared() {
+        return SHARED;
+    }
+
+    // Completes with the confirmation, or null when the attendee was already registered
+    // or waitlisted, like RegistrationRepository.register (but see notificationID above)
+    public CompletableFuture<Confirmation> submit(int userID, int eventID) {
+        Request request = new Request(userID, eventID);
+        if (stopped) {
+            request.future.completeExceptionally(new SQLException("Registration queue is shut down."));
+            return request.future;
+        }
+        startWriter();
+        pending.add(request);
+        return request.future;
+    }
+
+    // Commits what is already queued, then stops the writer
+    public static void shutdown() {
+        SHARED.stopped = true;
+        Thread w;
+        synchronized (SHARED) {
+            w = SHARED.writer;
+        }
+        if (w != null) {
+            w.interrupt();
+            try {
+                w.join(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private synchronized void startWriter() {
+        if (writer == null) {
+            writer = new Thread(this::drain, "registration-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    private void drain() {
+        while (!stopped || !pending.isEmpty()) {
+            List<Request> batch = new ArrayList<>();
+            try {
+                batch.add(pending.take());
+                long deadline = System.nanoTime() + WINDOW_NANOS;
+                while (batch.size() < MAX_BATCH) {
+                    long left = deadline - System.nanoTime();
+                    Request next = left > 0 ? pending.poll(left, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // shutdown(): fall through and commit whatever is left
+            }
+            pending.drainTo(batch, Math.max(0, MAX_BATCH - batch.size()));
+            if (!batch.isEmpty()) {
+                commit(batch);
+            }
+        }
+    }
+
+    private void commit(List<Request> batch) {
+        try {
+            Jdbc.inTransaction(conn -> {
+                write(conn, batch);
+                return null;
+            });
+            for (Request r : batch) {
+                r.finish();
+            }
+        } catch (SQLException e) {
+            // Another writer registered one of these attendees after the insert checked
+            if (RegistrationRepository.isDuplicate(e)) {
+                replayOneByOne(batch);
+            } else {
+                e.printStackTrace();
+                for (Request r : batch) {
+                    r.future.completeExceptionally(e);
+                }
+            }
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            for (Request r : batch) {
+                r.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void replayOneByOne(List<Request> batch) {
+        for (Request r : batch) {
+            try {
+                r.future.complete(registrations.register(r.userID, r.eventID));
+            } catch (SQLException | RuntimeException e) {
+                r.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static void write(Connection conn, List<Request> batch) throws SQLException {
+        // Group by event in eventID order, the order every writer locks Event rows in; within an
+        // event clicks keep their arrival order, and a second click by the same attendee is a duplicate
+        Map<Integer, List<Request>> byEvent = new TreeMap<>();
+        Set<Long> seen = new HashSet<>();
+        for (Request r : batch) {
+            r.reset();
+            if (seen.add(((long) r.userID << 32) | r.eventID)) {
+                byEvent.computeIfAbsent(r.eventID, id -> new ArrayList<>()).add(r);
+            } // else result stays null: reported as already registered
+        }
+
+        List<Request> seated = new ArrayList<>();
+        List<Request> overflow = new ArrayList<>();
+        Map<Integer, Optional<String>> cachedNames = new HashMap<>();
+        for (Map.Entry<Integer, List<Request>> entry : byEvent.entrySet()) {
+            int eventID = entry.getKey();
+            List<Request> requests = entry.getValue();
+            Optional<String> cachedName = RegistrationRepository.cachedEventName(eventID);
+            cachedNames.put(eventID, cachedName);
+            int granted = reserveSeats(conn, eventID, requests.size());
+            if (granted < 0) {
+                SQLException gone = new SQLException("Event " + eventID + " no longer exists.");
+                for (Request r : requests) {
+                    r.error = gone;
+                }
+                continue;
+            }
+            String eventName = granted > 0 ? RegistrationRepository.eventName(conn, eventID, cachedName) : null;
+            for (int i = 0; i < requests.size(); i++) {
+                Request r = requests.get(i);
+                if (i < granted) {
+                    r.eventName = eventName;
+                    seated.add(r);
+                } else {
+                    overflow.add(r);
+                }
+            }
+        }
+        if (!seated.isEmpty()) {
+            insertSeated(conn, seated);
+        }
+        // Event full: the single-attendee path puts them on the waitlist, or seats them if
+        // a duplicate above gave its seat back
+        for (Request r : overflow) {
+            r.result = RegistrationRepository.register(conn, r.userID, r.eventID, cachedNames.get(r.eventID));
+        }
+    }
+
+    // Reserves up to wanted seats with one optimistic UPDATE; -1 when the event does not exist
+    private static int reserveSeats(Connection conn, int eventID, int wanted) throws SQLException {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Optional<int[]> seats = Jdbc.first(conn, Query.EVENT_SEATS, rs -> {
+                int capacity = rs.getInt("capacity");
+                return new int[] { rs.wasNull() ? Integer.MAX_VALUE : capacity, rs.getInt("seatsTaken") };
+            }, eventID);
+            if (!seats.isPresent()) {
+                return -1;
+            }
+            int taken = seats.get()[1];
+            int granted = (int) Math.min(wanted, Math.max(0L, (long) seats.get()[0] - taken));
+            if (granted == 0 || Jdbc.update(conn, Query.EVENT_RESERVE_SEATS, granted, eventID, taken) == 1) {
+                return granted;
+            }
+            // Another writer moved seatsTaken since we read it; read again
+        }
+        throw new SQLException("Event " + eventID + " is busy, please try again.");
+    }
+
+    private static void insertSeated(Connection conn, List<Request> reserved) throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Request> seated = new ArrayList<>();
+        Map<Integer, Integer> duplicatesByEvent = new TreeMap<>();
+        try (PreparedStatement stmt = DBConnection.prepare(conn, Query.REGISTRATION_INSERT_IF_ABSENT)) {
+            for (Request r : reserved) {
+                Jdbc.bind(stmt, r.userID, r.eventID, now, "Registered", r.userID, r.eventID);
+                stmt.addBatch();
+            }
+            int[] counts = stmt.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                Request r = reserved.get(i);
+                if (counts[i] == 0) {
+                    duplicatesByEvent.merge(r.eventID, 1, Integer::sum); // result stays null: already registered
+                } else {
+                    seated.add(r);
+                }
+            }
+        }
+        for (Map.Entry<Integer, Integer> entry : duplicatesByEvent.entrySet()) {
+            int n = entry.getValue();
+            Jdbc.update(conn, Query.EVENT_RELEASE_SEATS, n, entry.getKey(), n);
+        }
+        if (seated.isEmpty()) {
+            return;
+        }
+        // A seat also ends any waitlist place the attendee held for the same event
+        try (PreparedStatement stmt = DBConnection.prepare(conn, Query.WAITLIST_DELETE_USER)) {
+            for (Request r : seated) {
+                Jdbc.bind(stmt, r.userID, r.eventID);
+                stmt.addBatch();
+            }
+            int[] counts = stmt.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    Jdbc.update(conn, Query.EVENT_LEAVE_WAITLIST, seated.get(i).eventID);
+                }
+            }
+        }
+        try (PreparedStatement stmt = DBConnection.prepare(conn, Query.CHANGE_LOG_INSERT)) {
+            for (Request r : seated) {
+                Jdbc.bind(stmt, ChangeFeed.Kind.REGISTRATION.name(), r.eventID, r.userID);
+                stmt.addBatch();
+                Jdbc.bind(stmt, ChangeFeed.Kind.NOTIFICATION.name(), null, r.userID);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        try (PreparedStatement stmt = DBConnection.prepare(conn, Query.NOTIFICATION_INSERT_BATCH)) {
+            for (Request r : seated) {
+                String message = RegistrationRepository.registeredMessage(r.eventName);
+                Jdbc.bind(stmt, r.userID, "Event Registration", "Registration Successful!", message, now, "event");
+                stmt.addBatch();
+                // Batched rows have no generated key; the dashboard only shows title and message
+                r.result = new Confirmation(Status.REGISTERED, r.eventName,
+                        new Notification(0, r.userID, "Registration Successful!", message, now, false, "event"), 0);
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private static final class Request {
+        final int userID;
+        final int eventID;
+        final CompletableFuture<Confirmation> future = new CompletableFuture<>();
+        // Outcome inside the current transaction, published by finish() after commit
+        String eventName;
+        Confirmation result;
+        SQLException error;
+
+        Request(int userID, int eventID) {
+            this.userID = userID;
+            this.eventID = eventID;
+        }
+
+        void reset() {
+            eventName = null;
+            result = null;
+            error = null;
+        }
+
+        void finish() {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                if (result != null && result.getStatus() == Status.WAITLISTED) {
+                    EventFacets.shared().markFull(eventID, true);
+                }
+                future.complete(result);
+            }
+        }
+    }
+}
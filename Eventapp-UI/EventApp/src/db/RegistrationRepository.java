@@ -0,0 +1,283 @@
+package db;
+
+import models.Attendee;
+import models.Event;
+import models.Notification;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+public class RegistrationRepository {
+
+    static final RowMapper<Attendee> ATTENDEE = rs -> new Attendee(
+            rs.getString("fullName"),
+            rs.getString("email"));
+
+    // IDs of the events the user registered for or cancelled since the version of an
+    // earlier change set; pass 0 for every current registration
+    public ChangeSet<Integer> changesSince(int userID, long version) throws SQLException {
+        return ChangeVersions.since(version, Query.REGISTRATION_CHANGED_SINCE, rs -> rs.getInt("eventID"),
+                eventID -> eventID, Query.TOMBSTONE_REGISTRATIONS_SINCE, userID);
+    }
+
+    // Events the user is waiting for a seat at
+    public List<Integer> findWaitlistedEventIDs(int userID) throws SQLException {
+        return Jdbc.list(Query.WAITLIST_EVENT_IDS_BY_USER, rs -> rs.getInt("eventID"), userID);
+    }
+
+    // Events the user registered for, earliest first
+    public List<Event> findEventsByUser(int userID) throws SQLException {
+        return Jdbc.list(Query.REGISTRATION_EVENTS_BY_USER, EventRepository.SUMMARY, userID);
+    }
+
+    // Days of the month covered by the user's registered events, multi-day events on every day
+    public CalendarMonth findCalendarMonth(int userID, YearMonth month) throws SQLException {
+        CalendarMonth days = new CalendarMonth(month);
+        Jdbc.forEach(Query.REGISTRATION_EVENT_DAYS_IN_RANGE, rs -> new LocalDate[] {
+                        rs.getObject("startDate", LocalDate.class), rs.getObject("endDate", LocalDate.class)},
+                span -> days.mark(span[0], span[1]),
+                userID, Date.valueOf(month.atEndOfMonth()), Date.valueOf(month.atDay(1)));
+        return days;
+    }
+
+    public List<Attendee> findAttendees(int eventID) throws SQLException {
+        return Jdbc.list(Query.REGISTRATION_ATTENDEES_BY_EVENT, ATTENDEE, eventID);
+    }
+
+    public int countByUser(int userID) throws SQLException {
+        return Jdbc.count(Query.REGISTRATION_COUNT_BY_USER, userID);
+    }
+
+    public int countUpcomingByUser(int userID) throws SQLException {
+        return Jdbc.count(Query.REGISTRATION_UPCOMING_COUNT_BY_USER, userID);
+    }
+
+    // Distinct attendees across all of an organizer's events
+    public int countAttendeesByOrganizer(int organizerID) throws SQLException {
+        return Jdbc.count(Query.REGISTRATION_ATTENDEE_COUNT_BY_ORGANIZER, organizerID);
+    }
+
+    // Rounds of the seat/waitlist race tried before giving up. A round only repeats when a
+    // seat was freed between the two conditional updates, so one retry is almost always enough.
+    private static final int MAX_ATTEMPTS = 5;
+
+    // Takes a seat, or a waitlist place when the event is full, and writes the confirmation
+    // notification in the same transaction. Seats are allocated with a conditional UPDATE on
+    // the event row instead of a COUNT check, and duplicates are caught by the UNIQUE
+    // (userID, eventID) constraints. The event name comes from the catalog cache when it is warm.
+    // Returns null when the attendee was already registered or waitlisted.
+    public Confirmation register(int userID, int eventID) throws SQLException {
+        Optional<String> cachedName = cachedEventName(eventID);
+        try {
+            Confirmation confirmation = Jdbc.inTransaction(conn -> register(conn, userID, eventID, cachedName));
+            if (confirmation != null && confirmation.getStatus() == Status.WAITLISTED) {
+                EventFacets.shared().markFull(eventID, true);
+            }
+            return confirmation;
+        } catch (SQLException e) {
+            if (!isDuplicate(e)) {
+                throw e;
+            }
+            return null;
+        }
+    }
+
+    // The single-attendee path, also used by RegistrationQueue for attendees it cannot seat in bulk
+    static Confirmation register(Connection conn, int userID, int eventID, Optional<String> cachedName)
+            throws SQLException {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            if (Jdbc.update(conn, Query.EVENT_TAKE_SEAT, eventID) == 1) {
+                Timestamp now = new Timestamp(System.currentTimeMillis());
+                Jdbc.update(conn, Query.REGISTRATION_INSERT, userID, eventID, now, "Registered");
+                ChangeFeed.record(conn, ChangeFeed.Kind.REGISTRATION, eventID, userID);
+                if (Jdbc.update(conn, Query.WAITLIST_DELETE_USER, userID, eventID) > 0) {
+                    Jdbc.update(conn, Query.EVENT_LEAVE_WAITLIST, eventID);
+                }
+                String eventName = eventName(conn, eventID, cachedName);
+                Notification notification = NotificationRepository.insert(conn, userID, "Event Registration",
+                        "Registration Successful!", registeredMessage(eventName), "event");
+                return new Confirmation(Status.REGISTERED, eventName, notification, 0);
+            }
+            if (Jdbc.update(conn, Query.EVENT_JOIN_WAITLIST, eventID) == 1) {
+                return joinWaitlist(conn, userID, eventID, cachedName);
+            }
+            // Neither matched: a seat was freed in between, or the event is gone
+            if (!Jdbc.first(conn, Query.EVENT_NAME, rs -> rs.getString("name"), eventID).isPresent()) {
+                throw new SQLException("Event " + eventID + " no longer exists.");
+            }
+        }
+        throw new SQLException("Event " + eventID + " is busy, please try again.");
+    }
+
+    static String registeredMessage(String eventName) {
+        return "You have successfully registered for " + eventName
+                + ". Check 'My Events' to view your registered events.";
+    }
+
+    // True when the failure (or any statement of a failed batch) hit a UNIQUE constraint
+    static boolean isDuplicate(SQLException e) {
+        SqlDialect dialect = DBConnection.dialect();
+        for (SQLException x = e; x != null; x = x.getNextException()) {
+            if (dialect.isUniqueViolation(x)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Runs after EVENT_JOIN_WAITLIST has locked the full event's row
+    private static Confirmation joinWaitlist(Connection conn, int userID, int eventID, Optional<String> cachedName)
+            throws SQLException {
+        int waitlistID;
+        try (PreparedStatement stmt = DBConnection.prepare(conn, Query.WAITLIST_INSERT)) {
+            Jdbc.bind(stmt, userID, eventID, new Timestamp(System.currentTimeMillis()), userID, eventID,
+                    userID, eventID);
+            if (stmt.executeUpdate() == 0) {
+                // Already holds a seat or a place: undo the waitlist count and report a duplicate
+                Jdbc.update(conn, Query.EVENT_LEAVE_WAITLIST, eventID);
+                return null;
+            }
+            ResultSet keys = stmt.getGeneratedKeys();
+            if (!keys.next()) {
+                throw new SQLException("Failed to get waitlist ID.");
+            }
+            waitlistID = keys.getInt(1);
+        }
+        ChangeFeed.record(conn, ChangeFeed.Kind.REGISTRATION, eventID, userID);
+        int position = Jdbc.count(conn, Query.WAITLIST_POSITION, eventID, waitlistID);
+        String eventName = eventName(conn, eventID, cachedName);
+        Notification notification = NotificationRepository.insert(conn, userID, "Event Waitlist",
+                "Added to Waitlist", eventName + " is full. You are number " + position
+                        + " on the waitlist and will be registered automatically when a seat opens up.", "event");
+        return new Confirmation(Status.WAITLISTED, eventName, notification, position);
+    }
+
+    // Cancels the registration and hands the freed seat to the head of the waitlist in the
+    // same transaction; for an attendee without a seat, gives up their waitlist place
+    // instead. Returns false when the user was neither registered nor waitlisted.
+    public boolean cancel(int userID, int eventID) throws SQLException {
+        boolean cancelled = Jdbc.inTransaction(conn -> cancel(conn, userID, eventID));
+        if (cancelled) {
+            refreshAvailability(eventID);
+        }
+        return cancelled;
+    }
+
+    private static boolean cancel(Connection conn, int userID, int eventID) throws SQLException {
+        // Event row first, the same lock order register uses
+        boolean released = Jdbc.update(conn, Query.EVENT_RELEASE_SEAT, eventID) == 1;
+        if (Jdbc.update(conn, Query.REGISTRATION_DELETE, userID, eventID) == 0) {
+            if (released) {
+                Jdbc.update(conn, Query.EVENT_TAKE_SEAT, eventID);
+            }
+            // Not seated, but they may be waiting for a seat
+            if (Jdbc.update(conn, Query.WAITLIST_DELETE_USER, userID, eventID) == 0) {
+                return false;
+            }
+            Jdbc.update(conn, Query.EVENT_LEAVE_WAITLIST, eventID);
+            ChangeFeed.record(conn, ChangeFeed.Kind.REGISTRATION, eventID, userID);
+            return true;
+        }
+        Jdbc.update(conn, Query.TOMBSTONE_REGISTRATION, userID, eventID);
+        ChangeFeed.record(conn, ChangeFeed.Kind.REGISTRATION, eventID, userID);
+        promoteWaitlist(conn, eventID);
+        return true;
+    }
+
+    // Moves waitlisted attendees into free seats, oldest first. The caller holds the event
+    // row lock, so no other transaction can promote the same entry. Returns how many moved.
+    private static int promoteWaitlist(Connection conn, int eventID) throws SQLException {
+        int promoted = 0;
+        while (true) {
+            Optional<WaitlistEntry> head = Jdbc.first(conn, Query.WAITLIST_HEAD,
+                    rs -> new WaitlistEntry(rs.getInt("waitlistID"), rs.getInt("userID")), eventID);
+            if (!head.isPresent() || Jdbc.update(conn, Query.EVENT_TAKE_SEAT, eventID) == 0) {
+                return promoted;
+            }
+            WaitlistEntry entry = head.get();
+            Jdbc.update(conn, Query.WAITLIST_DELETE, entry.waitlistID);
+            Jdbc.update(conn, Query.EVENT_LEAVE_WAITLIST, eventID);
+            Jdbc.update(conn, Query.REGISTRATION_INSERT, entry.userID, eventID,
+                    new Timestamp(System.currentTimeMillis()), "Registered");
+            ChangeFeed.record(conn, ChangeFeed.Kind.REGISTRATION, eventID, entry.userID);
+            String eventName = eventName(conn, eventID, Optional.empty());
+            NotificationRepository.insert(conn, entry.userID, "Event Registration", "Off the Waitlist!",
+                    "A seat opened up for " + eventName + " and you are now registered. "
+                            + "Check 'My Events' to view your registered events.", "event");
+            promoted++;
+        }
+    }
+
+    static String eventName(Connection conn, int eventID, Optional<String> cachedName) throws SQLException {
+        if (cachedName.isPresent()) {
+            return cachedName.get();
+        }
+        return Jdbc.first(conn, Query.EVENT_NAME, rs -> rs.getString("name"), eventID).orElse("");
+    }
+
+    // Looked up before the transaction starts so a catalog reload never holds a second connection
+    static Optional<String> cachedEventName(int eventID) throws SQLException {
+        Optional<EventCatalogCache.Snapshot> catalog = EventCatalogCache.shared().current();
+        return catalog.isPresent() ? catalog.get().get(eventID).map(Event::getEventName) : Optional.empty();
+    }
+
+    // Removes the attendee with this email from the event, promoting the waitlist
+    public boolean deleteByEmail(String email, int eventID) throws SQLException {
+        boolean removed = Jdbc.inTransaction(conn -> {
+            Optional<Integer> userID = Jdbc.first(conn, Query.USER_ID_BY_EMAIL, rs -> rs.getInt("userID"), email);
+            return userID.isPresent() && cancel(conn, userID.get(), eventID);
+        });
+        if (removed) {
+            refreshAvailability(eventID);
+        }
+        return removed;
+    }
+
+    // A freed seat may have gone to the waitlist: re-read whether the event is still full
+    private static void refreshAvailability(int eventID) throws SQLException {
+        Jdbc.first(Query.EVENT_SEATS, rs -> {
+            int capacity = rs.getInt("capacity");
+            return !rs.wasNull() && rs.getInt("seatsTaken") >= capacity;
+        }, eventID).ifPresent(isFull -> EventFacets.shared().markFull(eventID, isFull));
+    }
+
+    public enum Status { REGISTERED, WAITLISTED }
+
+    // What a successful registration produced, for updating the page in place
+    public static final class Confirmation {
+        private final Status status;
+        private final String eventName;
+        private final Notification notification;
+        private final int waitlistPosition;
+
+        Confirmation(Status status, String eventName, Notification notification, int waitlistPosition) {
+            this.status = status;
+            this.eventName = eventName;
+            this.notification = notification;
+            this.waitlistPosition = waitlistPosition;
+        }
+
+        public Status getStatus() { return status; }
+        public String getEventName() { return eventName; }
+        public Notification getNotification() { return notification; }
+        public int getWaitlistPosition() { return waitlistPosition; } // 1-based, 0 when registered
+    }
+
+    private static final class WaitlistEntry {
+        final int waitlistID;
+        final int userID;
+
+        WaitlistEntry(int waitlistID, int userID) {
+            this.waitlistID = waitlistID;
+            this.userID = userID;
+        }
+    }
+}
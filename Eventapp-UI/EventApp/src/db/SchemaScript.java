@@ -0,0 +1,67 @@
+package db;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads the schema from "OOP Create database.txt" as individual statements.
+// The CREATE DATABASE / USE / GO lines only make sense on SQL Server and are dropped.
+final class SchemaScript {
+
+    static final String FILE_NAME = "OOP Create database.txt";
+
+    private SchemaScript() {
+    }
+
+    static List<String> load() {
+        Path file = locate();
+        try {
+            return parse(Files.readString(file, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read schema " + file, e);
+        }
+    }
+
+    static List<String> parse(String script) {
+        StringBuilder body = new StringBuilder();
+        for (String line : script.split("\\R")) {
+            String trimmed = line.trim();
+            String upper = trimmed.toUpperCase();
+            if (trimmed.startsWith("--") || upper.equals("GO")
+                    || upper.startsWith("CREATE DATABASE") || upper.startsWith("USE ")) {
+                continue;
+            }
+            body.append(line).append('\n');
+        }
+        List<String> statements = new ArrayList<>();
+        for (String sql : body.toString().split(";")) {
+            if (!sql.isBlank()) {
+                statements.add(sql.trim());
+            }
+        }
+        return statements;
+    }
+
+    // -Deventure.db.schemaFile wins; otherwise look in the working directory and its parents
+    private static Path locate() {
+        String configured = System.getProperty("eventure.db.schemaFile");
+        if (configured != null) {
+            return Paths.get(configured);
+        }
+        Path dir = Paths.get("").toAbsolutePath();
+        while (dir != null) {
+            Path candidate = dir.resolve(FILE_NAME);
+            if (Files.isRegularFile(candidate)) {
+                return candidate;
+            }
+            dir = dir.getParent();
+        }
+        throw new IllegalStateException("Schema file \"" + FILE_NAME
+                + "\" not found; set -Deventure.db.schemaFile to its path");
+    }
+}
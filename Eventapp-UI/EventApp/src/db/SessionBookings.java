@@ -0,0 +1,173 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Room and speaker double-booking check for a batch of sessions about to be written.
+// Reads, on the writer's connection, only the sessions of any event that overlap the
+// batch's overall time window (a session starts at most MAX_SESSION_LENGTH before it ends,
+// which bounds the index seek on both sides), groups them with the batch by room (location, ignoring
+// case and outer spaces) and by speaker, and sweeps each group in start order keeping the
+// sessions still running: O(n log n) for n sessions in the window, plus the conflicts.
+// Sessions that only touch do not conflict. Edited sessions replace their stored rows.
+// The check and the write must not interleave with another save's: the read range-locks the
+// window on SQL Server, and lock() serializes saves of the same rooms and speakers within
+// this application, which also covers the embedded database.
+final class SessionBookings {
+
+    // Room and speaker keys hash onto these; a few unrelated saves sharing a stripe only wait
+    private static final ReentrantLock[] STRIPES = new ReentrantLock[64];
+
+    static {
+        for (int i = 0; i < STRIPES.length; i++) {
+            STRIPES[i] = new ReentrantLock();
+        }
+    }
+
+    private SessionBookings() {
+    }
+
+    // Holds every room and speaker of the batch against other saves until released; take it
+    // before the transaction and release it after the commit. Stripes are taken in index order
+    // so two saves never wait on each other in a cycle.
+    static Hold lock(List<SessionSlot> batch) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (SessionSlot slot : batch) {
+            for (String key : keys(slot)) {
+                stripes.add(Math.floorMod(key.hashCode(), STRIPES.length));
+            }
+        }
+        List<ReentrantLock> held = new ArrayList<>();
+        for (int stripe : stripes) {
+            STRIPES[stripe].lock();
+            held.add(STRIPES[stripe]);
+        }
+        return new Hold(held);
+    }
+
+    // Conflicts that involve at least one session of the batch, in the batch's time order
+    static List<BookingConflict> check(Connection conn, List<SessionSlot> batch) throws SQLException {
+        List<BookingConflict> conflicts = new ArrayList<>();
+        if (batch.isEmpty()) {
+            return conflicts;
+        }
+        LocalDateTime from = batch.get(0).getStart();
+        LocalDateTime to = batch.get(0).getEnd();
+        Set<Integer> replaced = new HashSet<>();
+        for (SessionSlot slot : batch) {
+            from = slot.getStart().isBefore(from) ? slot.getStart() : from;
+            to = slot.getEnd().isAfter(to) ? slot.getEnd() : to;
+            if (slot.getSessionID() > 0) {
+                replaced.add(slot.getSessionID());
+            }
+        }
+        if (!to.isAfter(from)) {
+            to = from.plusSeconds(1); // the window of a batch of instants
+        }
+
+        Map<String, List<Booking>> groups = new HashMap<>();
+        for (SessionSlot slot : batch) {
+            group(groups, slot, true);
+        }
+        for (SessionSlot slot : Jdbc.list(conn, Query.SESSION_SLOTS_IN_RANGE, SessionRepository.SLOT,
+                Timestamp.valueOf(to), Timestamp.valueOf(from.minus(EventRepository.MAX_SESSION_LENGTH)),
+                Timestamp.valueOf(from))) {
+            if (!replaced.contains(slot.getSessionID())) {
+                group(groups, slot, false);
+            }
+        }
+
+        Comparator<Booking> byStart = Comparator.comparingLong((Booking b) -> b.slot.startKey())
+                .thenComparingLong(b -> b.slot.endKey());
+        for (Map.Entry<String, List<Booking>> entry : groups.entrySet()) {
+            List<Booking> bookings = entry.getValue();
+            if (!containsBatch(bookings)) {
+                continue;
+            }
+            BookingConflict.Resource resource = entry.getKey().startsWith("room:")
+                    ? BookingConflict.Resource.ROOM : BookingConflict.Resource.SPEAKER;
+            bookings.sort(byStart);
+            List<Booking> running = new ArrayList<>();
+            for (Booking next : bookings) {
+                long start = next.slot.startKey();
+                running.removeIf(b -> Math.max(b.slot.endKey(), b.slot.startKey() + 1) <= start);
+                for (Booking b : running) {
+                    if (next.inBatch) {
+                        conflicts.add(new BookingConflict(resource, next.slot, b.slot, b.inBatch));
+                    } else if (b.inBatch) {
+                        conflicts.add(new BookingConflict(resource, b.slot, next.slot, false));
+                    }
+                }
+                running.add(next);
+            }
+        }
+        conflicts.sort(Comparator.comparingLong((BookingConflict c) -> c.getSession().startKey())
+                .thenComparingLong(c -> c.getOther().startKey()));
+        return conflicts;
+    }
+
+    private static void group(Map<String, List<Booking>> groups, SessionSlot slot, boolean inBatch) {
+        Booking booking = new Booking(slot, inBatch);
+        for (String key : keys(slot)) {
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(booking);
+        }
+    }
+
+    // The room and the speaker the session books, each as a group key
+    private static List<String> keys(SessionSlot slot) {
+        List<String> keys = new ArrayList<>(2);
+        String location = slot.getLocation() == null ? "" : slot.getLocation().trim().toLowerCase(Locale.ROOT);
+        if (!location.isEmpty()) {
+            keys.add("room:" + location);
+        }
+        if (slot.getSpeakerID() != null) {
+            keys.add("speaker:" + slot.getSpeakerID());
+        }
+        return keys;
+    }
+
+    private static boolean containsBatch(List<Booking> bookings) {
+        for (Booking b : bookings) {
+            if (b.inBatch) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static final class Hold {
+        private final List<ReentrantLock> held;
+
+        private Hold(List<ReentrantLock> held) {
+            this.held = held;
+        }
+
+        void release() {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+        }
+    }
+
+    private static final class Booking {
+        private final SessionSlot slot;
+        private final boolean inBatch;
+
+        Booking(SessionSlot slot, boolean inBatch) {
+            this.slot = slot;
+            this.inBatch = inBatch;
+        }
+    }
+}
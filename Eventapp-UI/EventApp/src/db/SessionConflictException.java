@@ -0,0 +1,51 @@
+package db;
+
+import models.DateFormats;
+
+import java.sql.SQLException;
+import java.util.List;
+
+// Thrown instead of writing a schedule that double-books a room or a speaker; nothing
+// is written. The message lists the first conflicts for showing as is.
+public class SessionConflictException extends SQLException {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int LISTED = 10;
+
+    private final List<BookingConflict> conflicts;
+
+    SessionConflictException(List<BookingConflict> conflicts) {
+        super(describe(conflicts));
+        this.conflicts = conflicts;
+    }
+
+    public List<BookingConflict> getConflicts() {
+        return conflicts;
+    }
+
+    private static String describe(List<BookingConflict> conflicts) {
+        StringBuilder message = new StringBuilder();
+        message.append(conflicts.size()).append(conflicts.size() == 1 ? " double booking:" : " double bookings:");
+        for (int i = 0; i < Math.min(conflicts.size(), LISTED); i++) {
+            BookingConflict c = conflicts.get(i);
+            SessionSlot other = c.getOther();
+            message.append("\n\u2022 \"").append(c.getSession().getTitle()).append("\" (")
+                    .append(DateFormats.timeRange(c.getSession().getStart(), c.getSession().getEnd()))
+                    .append(") and \"").append(other.getTitle()).append('"');
+            if (!c.isOtherInBatch()) {
+                message.append(" of ").append(other.getEventName());
+            }
+            message.append(" (").append(DateFormats.timeRange(other.getStart(), other.getEnd())).append(") ");
+            if (c.getResource() == BookingConflict.Resource.ROOM) {
+                message.append("are both in ").append(other.getLocation().trim());
+            } else {
+                message.append("have the same speaker");
+            }
+        }
+        if (conflicts.size() > LISTED) {
+            message.append("\n...and ").append(conflicts.size() - LISTED).append(" more");
+        }
+        return message.toString();
+    }
+}
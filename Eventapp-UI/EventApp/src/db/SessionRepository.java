@@ -0,0 +1,54 @@
+package db;
+
+import models.Session;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public class SessionRepository {
+
+    static final RowMapper<Session> SESSION = rs -> new Session(
+            rs.getInt("sessionID"),
+            rs.getInt("eventID"),
+            rs.getString("title"),
+            rs.getString("description"),
+            rs.getString("location"),
+            rs.getString("startTime"),
+            rs.getString("endTime"),
+            rs.getObject("speakerID", Integer.class));
+
+    static final RowMapper<SessionSlot> SLOT = rs -> new SessionSlot(
+            rs.getInt("sessionID"),
+            rs.getInt("eventID"),
+            rs.getString("eventName"),
+            rs.getString("title"),
+            rs.getString("location"),
+            rs.getObject("startTime", LocalDateTime.class),
+            rs.getObject("endTime", LocalDateTime.class),
+            rs.getObject("speakerID", Integer.class));
+
+    public List<Session> findByEvent(int eventID) throws SQLException {
+        return Jdbc.list(Query.SESSION_BY_EVENT, SESSION, eventID);
+    }
+
+    public Optional<Session> findById(int sessionID) throws SQLException {
+        return Jdbc.first(Query.SESSION_BY_ID, SESSION, sessionID);
+    }
+
+    public List<SessionSlot> findSlotsByEvent(int eventID) throws SQLException {
+        return Jdbc.list(Query.SESSION_SLOTS_BY_EVENT, SLOT, eventID);
+    }
+
+    // Sessions of every event the user is registered for (not waitlisted)
+    public List<SessionSlot> findSlotsByUser(int userID) throws SQLException {
+        return Jdbc.list(Query.SESSION_SLOTS_BY_USER, SLOT, userID);
+    }
+
+    // Sessions of the event added, edited or removed since the version of an earlier change set
+    public ChangeSet<Session> changesSince(int eventID, long version) throws SQLException {
+        return ChangeVersions.since(version, Query.SESSION_CHANGED_SINCE, SESSION, Session::getSessionID,
+                Query.TOMBSTONE_SESSIONS_SINCE, eventID);
+    }
+}
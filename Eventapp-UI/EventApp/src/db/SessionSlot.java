@@ -0,0 +1,47 @@
+package db;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// A session placed in time, with the event it belongs to, as the schedule indexes see it
+public final class SessionSlot {
+
+    private final int sessionID;
+    private final int eventID;
+    private final String eventName;
+    private final String title;
+    private final String location;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final Integer speakerID;
+
+    SessionSlot(int sessionID, int eventID, String eventName, String title, String location,
+                LocalDateTime start, LocalDateTime end, Integer speakerID) {
+        this.sessionID = sessionID;
+        this.eventID = eventID;
+        this.eventName = eventName;
+        this.title = title;
+        this.location = location;
+        this.start = start;
+        this.end = end == null || end.isBefore(start) ? start : end;
+        this.speakerID = speakerID;
+    }
+
+    public int getSessionID() { return sessionID; }
+    public int getEventID() { return eventID; }
+    public String getEventName() { return eventName; }
+    public String getTitle() { return title; }
+    public String getLocation() { return location; }
+    public LocalDateTime getStart() { return start; }
+    public LocalDateTime getEnd() { return end; }
+    public Integer getSpeakerID() { return speakerID; }   // null when no speaker is assigned
+
+    // Interval keys for IntervalTree; only the order matters, so the offset is arbitrary
+    long startKey() {
+        return start.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    long endKey() {
+        return end.toEpochSecond(ZoneOffset.UTC);
+    }
+}
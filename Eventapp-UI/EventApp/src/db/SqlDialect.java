@@ -0,0 +1,142 @@
+package db;
+
+import java.sql.SQLException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// The SQL that differs between database products. Catalog queries are written as
+// templates: {now} for the current timestamp, {limit:N} after ORDER BY for a row cap,
+// {rowEstimate:Table} for a whole query returning the table's approximate row count,
+// {rangeLock} after a table name in a read that must block concurrent writers of the rows
+// it covers until the transaction ends, and [Name] for identifiers that need quoting;
+// render() turns them into this dialect.
+public abstract class SqlDialect {
+
+    private static final Pattern TOKEN = Pattern.compile(
+            "\\{now\\}|\\{limit:(\\d+)\\}|\\[([^\\]]+)\\]|\\{rowEstimate:(\\w+)\\}|(\\{rangeLock\\})");
+
+    public abstract String name();
+
+    // Expression for the current date and time
+    public abstract String now();
+
+    public abstract String quote(String identifier);
+
+    // Clause placed after ORDER BY that returns at most rows rows
+    public abstract String limit(int rows);
+
+    // True when the statement failed on a UNIQUE or PRIMARY KEY constraint
+    public abstract boolean isUniqueViolation(SQLException e);
+
+    // Query for the row count the engine keeps in its metadata, without scanning the table
+    public abstract String rowCountEstimate(String table);
+
+    // Table hint that key-range locks what the read covers until commit, or "" where the
+    // engine has none (callers then serialize in the application, see SessionBookings)
+    public abstract String rangeLock();
+
+    public final String render(String template) {
+        Matcher m = TOKEN.matcher(template);
+        StringBuilder sql = new StringBuilder(template.length() + 16);
+        while (m.find()) {
+            String replacement;
+            if (m.group(1) != null) {
+                replacement = limit(Integer.parseInt(m.group(1)));
+            } else if (m.group(2) != null) {
+                replacement = quote(m.group(2));
+            } else if (m.group(3) != null) {
+                replacement = rowCountEstimate(m.group(3));
+            } else if (m.group(4) != null) {
+                replacement = rangeLock();
+            } else {
+                replacement = now();
+            }
+            m.appendReplacement(sql, Matcher.quoteReplacement(replacement));
+        }
+        m.appendTail(sql);
+        return sql.toString();
+    }
+
+    @Override
+    public String toString() {
+        return name();
+    }
+
+    public static final SqlDialect SQL_SERVER = new SqlDialect() {
+        @Override
+        public String name() {
+            return "SQL Server";
+        }
+
+        @Override
+        public String now() {
+            return "GETDATE()";
+        }
+
+        @Override
+        public String quote(String identifier) {
+            return "[" + identifier + "]";
+        }
+
+        @Override
+        public String limit(int rows) {
+            return "OFFSET 0 ROWS FETCH NEXT " + rows + " ROWS ONLY";
+        }
+
+        @Override
+        public boolean isUniqueViolation(SQLException e) {
+            // 2627: UNIQUE/PRIMARY KEY constraint, 2601: unique index
+            return e.getErrorCode() == 2627 || e.getErrorCode() == 2601;
+        }
+
+        @Override
+        public String rowCountEstimate(String table) {
+            return "SELECT SUM(rows) FROM sys.partitions WHERE object_id = OBJECT_ID('" + table + "') "
+                    + "AND index_id IN (0, 1)";
+        }
+
+        @Override
+        public String rangeLock() {
+            // UPDLOCK so two writers checking the same range queue instead of deadlocking
+            return "WITH (UPDLOCK, HOLDLOCK)";
+        }
+    };
+
+    public static final SqlDialect H2 = new SqlDialect() {
+        @Override
+        public String name() {
+            return "H2";
+        }
+
+        @Override
+        public String now() {
+            return "CURRENT_TIMESTAMP";
+        }
+
+        @Override
+        public String quote(String identifier) {
+            return "\"" + identifier + "\"";
+        }
+
+        @Override
+        public String limit(int rows) {
+            return "FETCH FIRST " + rows + " ROWS ONLY";
+        }
+
+        @Override
+        public boolean isUniqueViolation(SQLException e) {
+            return "23505".equals(e.getSQLState());
+        }
+
+        @Override
+        public String rowCountEstimate(String table) {
+            return "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES "
+                    + "WHERE UPPER(TABLE_NAME) = UPPER('" + table + "') AND TABLE_SCHEMA = SCHEMA()";
+        }
+
+        @Override
+        public String rangeLock() {
+            return "";
+        }
+    };
+}
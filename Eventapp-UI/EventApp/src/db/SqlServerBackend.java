@@ -0,0 +1,29 @@
+package db;
+
+// The shared SQL Server instance the app was built against
+public class SqlServerBackend implements DatabaseBackend {
+
+    private static final String URL = "jdbc:sqlserver://localhost:1433;databaseName=EventManagementSystem;encrypt=true;trustServerCertificate=true";
+    private static final String USER = "marc";
+    private static final String PASSWORD = "222";
+
+    @Override
+    public String url() {
+        return System.getProperty("eventure.db.url", URL);
+    }
+
+    @Override
+    public String user() {
+        return System.getProperty("eventure.db.user", USER);
+    }
+
+    @Override
+    public String password() {
+        return System.getProperty("eventure.db.password", PASSWORD);
+    }
+
+    @Override
+    public SqlDialect dialect() {
+        return SqlDialect.SQL_SERVER;
+    }
+}
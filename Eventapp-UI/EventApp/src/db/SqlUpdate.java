@@ -0,0 +1,9 @@
+package db;
+
+import java.sql.SQLException;
+
+// A unit of database work with no result (an update or delete), run off the UI thread
+@FunctionalInterface
+public interface SqlUpdate {
+    void run() throws SQLException;
+}
@@ -0,0 +1,9 @@
+package db;
+
+import java.sql.SQLException;
+
+// A unit of database work run off the UI thread by DbExecutor
+@FunctionalInterface
+public interface SqlWork<T> {
+    T run() throws SQLException;
+}
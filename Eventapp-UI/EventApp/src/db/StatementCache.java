@@ -0,0 +1,180 @@
+package db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// LRU cache of prepared statements for one physical connection, keyed by catalog query.
+// Callers get a handle whose close() parks the statement for reuse instead of closing it.
+class StatementCache {
+
+    private final Connection connection;
+    private final SqlDialect dialect;
+    private final int capacity;
+    private final LinkedHashMap<Query, CachedStatement> cache;
+    // Statements handed out while the cached one for the same query was already in use
+    private final List<PreparedStatement> uncached = new ArrayList<>();
+
+    StatementCache(Connection connection, SqlDialect dialect, int capacity) {
+        this.connection = connection;
+        this.dialect = dialect;
+        this.capacity = capacity;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Query, CachedStatement> eldest) {
+                if (size() <= StatementCache.this.capacity) {
+                    return false;
+                }
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    synchronized PreparedStatement prepare(Query query) throws SQLException {
+        if (capacity <= 0) {
+            return trackUncached(prepareUncached(connection, query, dialect));
+        }
+        CachedStatement cached = cache.get(query);
+        if (cached != null && cached.evicted) {
+            cache.remove(query);
+            cached = null;
+        }
+        if (cached != null && cached.inUse) {
+            return trackUncached(prepareUncached(connection, query, dialect));
+        }
+        if (cached == null) {
+            cached = new CachedStatement(prepareUncached(connection, query, dialect));
+            cache.put(query, cached);
+        }
+        cached.inUse = true;
+        return cached.handle;
+    }
+
+    // Runs when the connection goes back to the pool: anything a page forgot to close is reclaimed
+    synchronized void releaseAll() {
+        for (CachedStatement cached : cache.values()) {
+            if (cached.inUse) {
+                cached.giveBack();
+            }
+        }
+        for (PreparedStatement ps : uncached) {
+            closeQuietly(ps);
+        }
+        uncached.clear();
+    }
+
+    synchronized void closeAll() {
+        for (CachedStatement cached : cache.values()) {
+            closeQuietly(cached.statement);
+        }
+        cache.clear();
+        for (PreparedStatement ps : uncached) {
+            closeQuietly(ps);
+        }
+        uncached.clear();
+    }
+
+    static PreparedStatement prepareUncached(Connection conn, Query query, SqlDialect dialect) throws SQLException {
+        String sql = query.sql(dialect);
+        PreparedStatement ps = query.returnsGeneratedKeys()
+                ? conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                : conn.prepareStatement(sql);
+        return InstrumentedStatement.wrap(ps, sql);
+    }
+
+    private PreparedStatement trackUncached(PreparedStatement ps) {
+        uncached.add(ps);
+        return ps;
+    }
+
+    private static void closeQuietly(Statement s) {
+        try {
+            s.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private class CachedStatement implements InvocationHandler {
+        final PreparedStatement statement;
+        final PreparedStatement handle;
+        boolean inUse;
+        boolean evicted;
+        ResultSet lastResult;
+
+        CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+            this.handle = (PreparedStatement) Proxy.newProxyInstance(
+                    StatementCache.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class },
+                    this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (StatementCache.this) {
+                        if (inUse) {
+                            giveBack();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return !inUse || statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (!inUse) {
+                throw new SQLException("Statement has been closed");
+            }
+            try {
+                Object result = method.invoke(statement, args);
+                if (result instanceof ResultSet rs) {
+                    lastResult = rs;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        void giveBack() {
+            inUse = false;
+            try {
+                if (lastResult != null) {
+                    lastResult.close();
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+            } catch (SQLException e) {
+                evicted = true;
+            }
+            lastResult = null;
+            if (evicted) {
+                closeQuietly(statement);
+            }
+        }
+
+        void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly(statement);
+            }
+        }
+    }
+}
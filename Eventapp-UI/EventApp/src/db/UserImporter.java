@@ -0,0 +1,285 @@
+package db;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Bulk sign-up from a CSV file with the header name,email,username,password,userType.
+// The file is streamed; valid rows are inserted in JDBC batches, one transaction per
+// chunk. Rows that fail validation or hit a UNIQUE constraint are written, with the
+// reason, to a rejection file next to the input. Run from the command line:
+//   java db.UserImporter users.csv [chunkSize]
+public class UserImporter {
+
+    private static final String HEADER = "name,email,username,password,userType";
+
+    private final int chunkSize;
+    private final ProgressListener listener;
+
+    public UserImporter(int chunkSize, ProgressListener listener) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.listener = listener;
+    }
+
+    public Report importCsv(Path csv, Path rejects) throws IOException, SQLException {
+        Report report = new Report(rejects);
+        // Keys already seen in this file, so duplicates inside it never reach the database
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+
+        try (BufferedReader in = Files.newBufferedReader(csv, StandardCharsets.UTF_8);
+             BufferedWriter rejected = Files.newBufferedWriter(rejects, StandardCharsets.UTF_8)) {
+            rejected.write(HEADER + ",reason");
+            rejected.newLine();
+
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            String line;
+            long lineNumber = 0;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && line.trim().equalsIgnoreCase(HEADER))) {
+                    continue;
+                }
+                report.processed++;
+                Row row;
+                try {
+                    row = Row.parse(line);
+                } catch (IllegalArgumentException e) {
+                    reject(rejected, report, line, e.getMessage());
+                    continue;
+                }
+                String problem = row.validate();
+                if (problem == null && !usernames.add(row.username.toLowerCase(Locale.ROOT))) {
+                    problem = "Username repeated in file";
+                }
+                if (problem == null && !emails.add(row.email.toLowerCase(Locale.ROOT))) {
+                    problem = "Email repeated in file";
+                }
+                if (problem != null) {
+                    reject(rejected, report, line, problem);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    insertChunk(chunk, rejected, report);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                insertChunk(chunk, rejected, report);
+            }
+        }
+        return report;
+    }
+
+    // Whole chunk as one batch; if any row is refused the chunk is rolled back and
+    // retried row by row so the good rows still get in and the bad ones are reported
+    private void insertChunk(List<Row> chunk, BufferedWriter rejected, Report report) throws IOException, SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = DBConnection.prepare(conn, Query.USER_INSERT)) {
+                    for (Row row : chunk) {
+                        row.bind(stmt);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                conn.commit();
+                report.imported += chunk.size();
+            } catch (BatchUpdateException e) {
+                conn.rollback();
+                insertOneByOne(conn, chunk, rejected, report);
+            } catch (SQLException e) {
+                conn.rollback();
+                if (!DBConnection.dialect().isUniqueViolation(e)) {
+                    throw e;
+                }
+                insertOneByOne(conn, chunk, rejected, report);
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        listener.onProgress(report.processed, report.imported, report.rejected);
+    }
+
+    private void insertOneByOne(Connection conn, List<Row> chunk, BufferedWriter rejected, Report report)
+            throws IOException, SQLException {
+        for (Row row : chunk) {
+            try (PreparedStatement stmt = DBConnection.prepare(conn, Query.USER_INSERT)) {
+                row.bind(stmt);
+                stmt.executeUpdate();
+                conn.commit();
+                report.imported++;
+            } catch (SQLException e) {
+                conn.rollback();
+                if (!DBConnection.dialect().isUniqueViolation(e)) {
+                    throw e;
+                }
+                switch (UserRepository.duplicateField(e, row.username, row.email)) {
+                    case USERNAME_TAKEN:
+                        reject(rejected, report, row.line, "Username already exists");
+                        break;
+                    case EMAIL_TAKEN:
+                        reject(rejected, report, row.line, "Email already exists");
+                        break;
+                    default:
+                        reject(rejected, report, row.line, "Username or email already exists");
+                        break;
+                }
+            }
+        }
+    }
+
+    private static void reject(BufferedWriter rejected, Report report, String line, String reason) throws IOException {
+        rejected.write(line + "," + Row.quote(reason));
+        rejected.newLine();
+        report.rejected++;
+    }
+
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long processed, long imported, long rejected);
+    }
+
+    public static class Report {
+        private final Path rejectFile;
+        private long processed;
+        private long imported;
+        private long rejected;
+
+        Report(Path rejectFile) {
+            this.rejectFile = rejectFile;
+        }
+
+        public Path getRejectFile() { return rejectFile; }
+        public long getProcessed() { return processed; }
+        public long getImported() { return imported; }
+        public long getRejected() { return rejected; }
+
+        @Override
+        public String toString() {
+            return processed + " rows read, " + imported + " imported, " + rejected + " rejected"
+                    + (rejected > 0 ? " (see " + rejectFile + ")" : "");
+        }
+    }
+
+    private static class Row {
+        final String line;
+        final String name;
+        final String email;
+        final String username;
+        final String password;
+        final String userType;
+
+        private Row(String line, List<String> fields) {
+            this.line = line;
+            this.name = fields.get(0).trim();
+            this.email = fields.get(1).trim();
+            this.username = fields.get(2).trim();
+            this.password = fields.get(3).trim();
+            this.userType = capitalize(fields.get(4).trim());
+        }
+
+        static Row parse(String line) {
+            List<String> fields = split(line);
+            if (fields.size() != 5) {
+                throw new IllegalArgumentException("Expected 5 columns but found " + fields.size());
+            }
+            return new Row(line, fields);
+        }
+
+        // Same rules as the registration form
+        String validate() {
+            if (name.isEmpty() || email.isEmpty() || username.isEmpty() || password.isEmpty() || userType.isEmpty()) {
+                return "Missing field";
+            }
+            if (!email.contains("@") || !email.contains(".")) {
+                return "Invalid email address";
+            }
+            if (!userType.equals("Organizer") && !userType.equals("Attendee")) {
+                return "userType must be organizer or attendee";
+            }
+            return null;
+        }
+
+        void bind(PreparedStatement stmt) throws SQLException {
+            Jdbc.bind(stmt, name, email, username, password, userType);
+        }
+
+        private static String capitalize(String role) {
+            String lower = role.toLowerCase(Locale.ROOT);
+            return lower.isEmpty() ? lower : Character.toUpperCase(lower.charAt(0)) + lower.substring(1);
+        }
+
+        // Comma separated; a field may be wrapped in double quotes, with "" for a literal quote
+        private static List<String> split(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("Unterminated quoted field");
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        static String quote(String value) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: java db.UserImporter <users.csv> [chunkSize]");
+            System.exit(2);
+        }
+        Path csv = Paths.get(args[0]);
+        int chunkSize = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        Path rejects = csv.resolveSibling(csv.getFileName() + ".rejected.csv");
+        try {
+            MigrationRunner.migrate();
+            UserImporter importer = new UserImporter(chunkSize, (processed, imported, rejected) ->
+                    System.out.printf("%d rows read, %d imported, %d rejected%n", processed, imported, rejected));
+            System.out.println("Done: " + importer.importCsv(csv, rejects));
+        } finally {
+            DBConnection.shutdown();
+        }
+    }
+}
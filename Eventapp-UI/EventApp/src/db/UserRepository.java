@@ -0,0 +1,85 @@
+package db;
+
+import models.User;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+public class UserRepository {
+
+    static final RowMapper<User> USER = rs -> new User(
+            rs.getInt("userID"),
+            rs.getString("name"),
+            rs.getString("email"),
+            rs.getString("username"),
+            rs.getString("userType"));
+
+    public Optional<User> findById(int userID) throws SQLException {
+        return Jdbc.first(Query.USER_BY_ID, USER, userID);
+    }
+
+    // Matches the credentials entered on the login page
+    public Optional<User> login(String username, String password) throws SQLException {
+        return Jdbc.first(Query.USER_LOGIN, USER, username, password);
+    }
+
+    // One INSERT; the UNIQUE constraints on username and email decide whether it is taken
+    public SignUpResult signUp(String name, String email, String username, String password, String userType)
+            throws SQLException {
+        try {
+            Jdbc.update(Query.USER_INSERT, name, email, username, password, userType);
+            return SignUpResult.CREATED;
+        } catch (SQLException e) {
+            if (!DBConnection.dialect().isUniqueViolation(e)) {
+                throw e;
+            }
+            return duplicateField(e, username, email);
+        }
+    }
+
+    // Works out which UNIQUE column was hit from the duplicate value quoted in the driver message:
+    // SQL Server reports "The duplicate key value is (x)", H2 lists the offending 'x'
+    static SignUpResult duplicateField(SQLException e, String username, String email) {
+        String message = String.valueOf(e.getMessage());
+        if (quotes(message, username)) {
+            return SignUpResult.USERNAME_TAKEN;
+        }
+        if (quotes(message, email)) {
+            return SignUpResult.EMAIL_TAKEN;
+        }
+        return SignUpResult.DUPLICATE;
+    }
+
+    private static boolean quotes(String message, String value) {
+        return message.contains("(" + value + ")") || message.contains("'" + value + "'");
+    }
+
+    public enum SignUpResult {
+        CREATED,
+        USERNAME_TAKEN,
+        EMAIL_TAKEN,
+        DUPLICATE // taken, but the driver message did not say which field
+    }
+
+    // Organizer accounts and current speakers, by name, for the speaker pickers on the session forms
+    public List<User> findSpeakers() throws SQLException {
+        return Jdbc.list(Query.USER_SPEAKERS, USER);
+    }
+
+    public Optional<Integer> findIdByEmail(String email) throws SQLException {
+        return Jdbc.first(Query.USER_ID_BY_EMAIL, rs -> rs.getInt("userID"), email);
+    }
+
+    public boolean updateProfile(int userID, String name, String email, String username) throws SQLException {
+        return Jdbc.update(Query.USER_UPDATE_PROFILE, name, email, username, userID) > 0;
+    }
+
+    public boolean updatePassword(int userID, String password) throws SQLException {
+        return Jdbc.update(Query.USER_UPDATE_PASSWORD, password, userID) > 0;
+    }
+
+    public boolean updateByEmail(String currentEmail, String name, String email) throws SQLException {
+        return Jdbc.update(Query.USER_UPDATE_BY_EMAIL, name, email, currentEmail) > 0;
+    }
+}
@@ -0,0 +1,18 @@
+-- Indexes for the predicates every inbox, dashboard and event page filters on.
+-- The base schema only has primary keys, UNIQUE username and email on [User] and
+-- UNIQUE (userID, eventID) on Registration.
+
+-- NotificationPage inbox, dashboard "latest" and organizer unread/read tabs
+CREATE INDEX IX_Notification_User_Read_Created ON Notification (userID, isRead, createdAt);
+
+-- Organizer notification filter on notificationType
+CREATE INDEX IX_Notification_User_Type ON Notification (userID, notificationType);
+
+-- Attendee lists and attendee counts per event
+CREATE INDEX IX_Registration_Event ON Registration (eventID);
+
+-- Organizer dashboard and "my events" upcoming/past splits
+CREATE INDEX IX_Event_Organizer_Start ON Event (organizerID, startDate);
+
+-- Sessions of an event
+CREATE INDEX IX_Session_Event ON Session (eventID);
@@ -0,0 +1,27 @@
+-- Optional seat limit per event with a FIFO waitlist.
+-- capacity NULL means unlimited. seatsTaken and waitlisted are kept in step with the
+-- Registration and Waitlist rows by RegistrationRepository, always through conditional
+-- UPDATEs on the event row, and the CHECK makes overselling impossible even for other writers.
+
+ALTER TABLE Event ADD capacity INT NULL;
+
+ALTER TABLE Event ADD seatsTaken INT NOT NULL DEFAULT 0;
+
+ALTER TABLE Event ADD waitlisted INT NOT NULL DEFAULT 0;
+
+UPDATE Event SET seatsTaken = (SELECT COUNT(*) FROM Registration R WHERE R.eventID = Event.eventID);
+
+ALTER TABLE Event ADD CONSTRAINT CK_Event_Seats CHECK (capacity IS NULL OR seatsTaken <= capacity);
+
+-- Attendees waiting for a seat; the lowest waitlistID is promoted first
+CREATE TABLE Waitlist (
+    waitlistID INT PRIMARY KEY IDENTITY(1,1),
+    userID INT NOT NULL,
+    eventID INT NOT NULL,
+    joinedAt DATETIME NOT NULL,
+    FOREIGN KEY (userID) REFERENCES [User](userID),
+    FOREIGN KEY (eventID) REFERENCES Event(eventID),
+    UNIQUE (userID, eventID)
+);
+
+CREATE INDEX IX_Waitlist_Event ON Waitlist (eventID, waitlistID);
@@ -0,0 +1,40 @@
+-- Change versions for delta refreshes. Every insert or edit of an Event, Session or
+-- Registration row stamps it with the next value of one shared sequence, and every delete
+-- leaves a Tombstone row stamped the same way, so "what changed since version N" is an
+-- index seek on changeVersion > N. Seat counter updates do not count as event edits.
+
+CREATE SEQUENCE ChangeVersionSeq AS BIGINT START WITH 1 INCREMENT BY 1;
+
+ALTER TABLE Event ADD changeVersion BIGINT DEFAULT (NEXT VALUE FOR ChangeVersionSeq) NOT NULL;
+
+ALTER TABLE Session ADD changeVersion BIGINT DEFAULT (NEXT VALUE FOR ChangeVersionSeq) NOT NULL;
+
+ALTER TABLE Registration ADD changeVersion BIGINT DEFAULT (NEXT VALUE FOR ChangeVersionSeq) NOT NULL;
+
+CREATE INDEX IX_Event_ChangeVersion ON Event (changeVersion);
+
+CREATE INDEX IX_Session_Event_ChangeVersion ON Session (eventID, changeVersion);
+
+CREATE INDEX IX_Registration_User_ChangeVersion ON Registration (userID, changeVersion);
+
+-- One row per deleted row, keyed by entity:
+--   'Event'        rowID = eventID,   parentID = organizerID
+--   'Session'      rowID = sessionID, parentID = eventID
+--   'Registration' rowID = userID,    parentID = eventID
+CREATE TABLE Tombstone (
+    changeVersion BIGINT PRIMARY KEY,
+    entity VARCHAR(20) NOT NULL,
+    rowID INT NOT NULL,
+    parentID INT NULL,
+    deletedAt DATETIME NOT NULL
+);
+
+CREATE INDEX IX_Tombstone_Entity_Version ON Tombstone (entity, changeVersion);
+
+-- Highest tombstone version pruned so far. A client that last synced before it may have
+-- missed deletes and has to reload in full.
+CREATE TABLE TombstoneHorizon (
+    prunedThrough BIGINT NOT NULL
+);
+
+INSERT INTO TombstoneHorizon (prunedThrough) VALUES (0);
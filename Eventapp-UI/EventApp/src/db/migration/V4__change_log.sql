@@ -0,0 +1,13 @@
+-- Append-only log of writes other windows care about, read by ChangeFeed's poller with
+-- a cursor on changeID. kind is EVENT (eventID, userID = organizer), REGISTRATION
+-- (eventID, userID = attendee; seats and waitlist places) or NOTIFICATION (userID =
+-- recipient). Rows are written in the same transaction as the change they describe.
+CREATE TABLE ChangeLog (
+    changeID BIGINT PRIMARY KEY IDENTITY(1,1),
+    kind VARCHAR(20) NOT NULL,
+    eventID INT NULL,
+    userID INT NULL,
+    createdAt DATETIME NOT NULL
+);
+
+CREATE INDEX IX_ChangeLog_CreatedAt ON ChangeLog (createdAt);
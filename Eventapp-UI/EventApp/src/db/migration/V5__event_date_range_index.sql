@@ -0,0 +1,4 @@
+-- Calendar months are read as a date range overlap (startDate <= last day AND
+-- endDate >= first day) so a month can be found by seeking instead of computing
+-- MONTH()/YEAR() on every row.
+CREATE INDEX IX_Event_Start_End ON Event (startDate, endDate);
@@ -0,0 +1,5 @@
+-- Room and speaker double-booking checks read the sessions overlapping the new
+-- schedule's time window. Sessions are at most EventRepository.MAX_SESSION_LENGTH
+-- long, so the check seeks startTime between (window start - that length) and the
+-- window end, and filters on endTime > window start from the same index entries.
+CREATE INDEX IX_Session_Start_End ON Session (startTime, endTime);
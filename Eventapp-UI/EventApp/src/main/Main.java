@@ -2,16 +2,42 @@ package main;
 
 import javafx.application.Application;
 import javafx.stage.Stage;
+import db.ChangeFeed;
+import db.ChangeVersions;
+import db.DBConnection;
+import db.DbExecutor;
+import db.MigrationRunner;
+import db.RegistrationQueue;
 import ui.MainPage;
 
 public class Main extends Application {
 
+    @Override
+    public void init() {
+        // Runs on the launcher thread before the first page is shown
+        try {
+            MigrationRunner.migrate();
+            ChangeVersions.pruneTombstones();
+            ChangeFeed.pruneLog();
+        } catch (Exception e) {
+            e.printStackTrace(); // pages still report their own connection errors
+        }
+    }
+
     @Override
     //OOP EVENTURE SYSTEM 
     public void start(Stage primaryStage) {
         new MainPage(primaryStage); // ✅ Pass the primaryStage here
     }
 
+    @Override
+    public void stop() {
+        RegistrationQueue.shutdown(); // commit queued registrations first
+        ChangeFeed.shutdown();
+        DbExecutor.shutdown(); // stop background queries before the pool goes away
+        DBConnection.shutdown(); // close pooled connections on exit
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,65 @@
+package models;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+
+// Display formats shared by every page. DateTimeFormatter is immutable and thread-safe,
+// so one instance of each serves all cells instead of a new one per render.
+public final class DateFormats {
+
+    public static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+    public static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' h:mm a");
+    public static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("h:mm a");
+    // How session times are stored and typed: "2025-03-01 09:00", seconds and fraction optional
+    public static final DateTimeFormatter SESSION_TIME = new DateTimeFormatterBuilder()
+            .append(DateTimeFormatter.ISO_LOCAL_DATE)
+            .optionalStart().appendLiteral(' ').optionalEnd()
+            .optionalStart().appendLiteral('T').optionalEnd()
+            .appendPattern("HH:mm")
+            .optionalStart().appendPattern(":ss")
+            .optionalStart().appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true).optionalEnd()
+            .optionalEnd()
+            .toFormatter();
+    private static final DateTimeFormatter SESSION_TIME_TEXT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private DateFormats() {
+    }
+
+    // "" for a missing date
+    public static String date(LocalDate date) {
+        return date == null ? "" : date.format(DATE);
+    }
+
+    // "2025-03-01 09:00", the text session forms show and parseSessionTime reads back
+    public static String sessionTime(LocalDateTime time) {
+        return time == null ? "" : time.format(SESSION_TIME_TEXT);
+    }
+
+    // null when the text is not a session time
+    public static LocalDateTime parseSessionTime(String text) {
+        if (text == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(text.trim(), SESSION_TIME);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // "Mar 03, 2025 at 9:00 AM - 10:30 AM", repeating the date only when the end is on another day
+    public static String timeRange(LocalDateTime start, LocalDateTime end) {
+        if (start == null) {
+            return "";
+        }
+        if (end == null) {
+            return start.format(DATE_TIME);
+        }
+        DateTimeFormatter endFormat = end.toLocalDate().equals(start.toLocalDate()) ? TIME : DATE_TIME;
+        return start.format(DATE_TIME) + " - " + end.format(endFormat);
+    }
+}
@@ -1,20 +1,87 @@
 package models;
 
+import java.time.LocalDate;
+
+// One event row, immutable. Dates are typed; the strings tables show are built on first
+// use and kept, so re-rendering a cell while scrolling neither parses nor formats.
 public class Event {
-    private int eventID;
-    private String eventName;
-    private String startDate;
-    private String endDate;
+    private final int eventID;
+    private final String eventName;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final String description;
+    private final String location;
+    private final int organizerID;
+    private final Integer capacity; // null = unlimited seats
+
+    // Display strings, filled in lazily. A race only computes the same string twice.
+    private String startDateText;
+    private String endDateText;
+    private String startDateDisplay;
+    private String endDateDisplay;
+
+    public Event(int eventID, String eventName, LocalDate startDate, LocalDate endDate) {
+        this(eventID, eventName, startDate, endDate, null, null, 0);
+    }
 
-    public Event(int eventID, String eventName, String startDate, String endDate) {
+    public Event(int eventID, String eventName, LocalDate startDate, LocalDate endDate,
+                 String description, String location, int organizerID) {
+        this(eventID, eventName, startDate, endDate, description, location, organizerID, null);
+    }
+
+    public Event(int eventID, String eventName, LocalDate startDate, LocalDate endDate,
+                 String description, String location, int organizerID, Integer capacity) {
         this.eventID = eventID;
         this.eventName = eventName;
         this.startDate = startDate;
         this.endDate = endDate;
+        this.description = description;
+        this.location = location;
+        this.organizerID = organizerID;
+        this.capacity = capacity;
     }
 
     public int getEventID() { return eventID; }
     public String getEventName() { return eventName; }
-    public String getStartDate() { return startDate; }
-    public String getEndDate() { return endDate; }
+    public String getName() { return eventName; } // some tables bind the column as "name"
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public String getDescription() { return description; }
+    public String getLocation() { return location; }
+    public int getOrganizerID() { return organizerID; }
+    public Integer getCapacity() { return capacity; }
+
+    // yyyy-MM-dd, as the event tables show it
+    public String getStartDateText() {
+        String s = startDateText;
+        if (s == null) {
+            s = startDateText = startDate == null ? "" : startDate.toString();
+        }
+        return s;
+    }
+
+    public String getEndDateText() {
+        String s = endDateText;
+        if (s == null) {
+            s = endDateText = endDate == null ? "" : endDate.toString();
+        }
+        return s;
+    }
+
+    // "Mar 05, 2025" (DateFormats.DATE)
+    public String getStartDateDisplay() {
+        String s = startDateDisplay;
+        if (s == null) {
+            s = startDateDisplay = DateFormats.date(startDate);
+        }
+        return s;
+    }
+
+    public String getEndDateDisplay() {
+        String s = endDateDisplay;
+        if (s == null) {
+            s = endDateDisplay = DateFormats.date(endDate);
+        }
+        return s;
+    }
 }
@@ -0,0 +1,49 @@
+package models;
+
+import java.sql.Timestamp;
+
+public class Notification {
+    private int notificationID;
+    private int userID;
+    private String title;
+    private String message;
+    private Timestamp createdAt;
+    private boolean read;
+    private String notificationType;
+    private String createdAtDisplay; // built on first use, see DateFormats.DATE_TIME
+
+    public Notification(int notificationID, int userID, String title, String message,
+                        Timestamp createdAt, boolean read, String notificationType) {
+        this.notificationID = notificationID;
+        this.userID = userID;
+        this.title = title;
+        this.message = message;
+        this.createdAt = createdAt;
+        this.read = read;
+        this.notificationType = notificationType;
+    }
+
+    public int getNotificationID() { return notificationID; }
+    public int getUserID() { return userID; }
+    public String getTitle() { return title; }
+    public String getMessage() { return message; }
+    public Timestamp getCreatedAt() { return createdAt; }
+
+    // "Mar 05, 2025 at 3:30 PM", "" without a timestamp (e.g. an empty-state placeholder)
+    public String getCreatedAtDisplay() {
+        String s = createdAtDisplay;
+        if (s == null) {
+            s = createdAtDisplay = createdAt == null ? "" : createdAt.toLocalDateTime().format(DateFormats.DATE_TIME);
+        }
+        return s;
+    }
+    public boolean isRead() { return read; }
+    public String getNotificationType() { return notificationType; }
+
+    public void setRead(boolean read) { this.read = read; }
+
+    @Override
+    public String toString() {
+        return title;
+    }
+}
@@ -0,0 +1,38 @@
+package models;
+
+public class Session {
+    private final int sessionID;
+    private final int eventID;
+    private final String title;
+    private final String description;
+    private final String location;
+    private final String startTime;
+    private final String endTime;
+    private final Integer speakerID; // [User] giving the session, null when nobody is named
+
+    public Session(int sessionID, int eventID, String title, String description,
+                   String location, String startTime, String endTime) {
+        this(sessionID, eventID, title, description, location, startTime, endTime, null);
+    }
+
+    public Session(int sessionID, int eventID, String title, String description,
+                   String location, String startTime, String endTime, Integer speakerID) {
+        this.sessionID = sessionID;
+        this.eventID = eventID;
+        this.title = title;
+        this.description = description;
+        this.location = location;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.speakerID = speakerID;
+    }
+
+    public int getSessionID() { return sessionID; }
+    public int getEventID() { return eventID; }
+    public String getTitle() { return title; }
+    public String getDescription() { return description; }
+    public String getLocation() { return location; }
+    public String getStartTime() { return startTime; }
+    public String getEndTime() { return endTime; }
+    public Integer getSpeakerID() { return speakerID; }
+}
@@ -0,0 +1,23 @@
+package models;
+
+public class User {
+    private final int userID;
+    private final String name;
+    private final String email;
+    private final String username;
+    private final String userType;
+
+    public User(int userID, String name, String email, String username, String userType) {
+        this.userID = userID;
+        this.name = name;
+        this.email = email;
+        this.username = username;
+        this.userType = userType;
+    }
+
+    public int getUserID() { return userID; }
+    public String getName() { return name; }
+    public String getEmail() { return email; }
+    public String getUsername() { return username; }
+    public String getUserType() { return userType; }
+}
@@ -0,0 +1,35 @@
+package models;
+
+// Who is logged in. Built once by LoginPage and handed from page to page, so no page
+// has to look the user up again; ProfilePage swaps in a new one after a profile edit.
+public final class UserSession {
+    private final int userID;
+    private final String name;
+    private final String email;
+    private final String userType;
+
+    public UserSession(int userID, String name, String email, String userType) {
+        this.userID = userID;
+        this.name = name;
+        this.email = email;
+        this.userType = userType;
+    }
+
+    public static UserSession of(User user) {
+        return new UserSession(user.getUserID(), user.getName(), user.getEmail(), user.getUserType());
+    }
+
+    // Same user after ProfilePage saved a new name/email
+    public UserSession withProfile(String name, String email) {
+        return new UserSession(userID, name, email, userType);
+    }
+
+    public int getUserID() { return userID; }
+    public String getName() { return name; }
+    public String getEmail() { return email; }
+    public String getUserType() { return userType; }
+
+    public boolean isOrganizer() {
+        return "Organizer".equalsIgnoreCase(userType);
+    }
+}
@@ -1,5 +1,13 @@
 package ui;
-import db.DBConnection;
+import db.AttendeeSchedule;
+import db.AttendeeSchedules;
+import db.CalendarMonth;
+import db.CalendarMonthCache;
+import db.ChangeFeed;
+import db.EventRepository;
+import db.NotificationRepository;
+import db.RegistrationQueue;
+import db.RegistrationRepository;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -10,13 +18,20 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.stage.Stage;
+import models.DateFormats;
+import models.Event;
+import models.Notification;
+import models.UserSession;
 import java.io.FileInputStream;
-import java.sql.*;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public class AttendeeDashboard {
     // UI color constants based on the design
@@ -25,30 +40,33 @@ public class AttendeeDashboard {
     private static final String WHITE_COLOR = "#FFFFFF";
     private static final String DARK_TEXT = "#333333";
     
+    private UserSession session;
     private int attendeeID;
     private String attendeeName = "";
     private Stage currentStage; // Store reference to current stage
+    private PageTasks tasks; // Background loads for this page
+    private final EventRepository eventRepository = new EventRepository();
+    private final RegistrationRepository registrationRepository = new RegistrationRepository();
+    private final NotificationRepository notificationRepository = new NotificationRepository();
     
-    public void show(Stage stage) {
-        show(stage, 1); // Default attendeeID for testing
-    }
+    // Kept so a registration can update the panels in place instead of rebuilding the scene
+    private final Set<Integer> registeredEventIDs = new HashSet<>();
+    private final Set<Integer> waitlistedEventIDs = new HashSet<>();
+    private long registrationsVersion; // change version registeredEventIDs is current as of
+    private final List<Notification> latestNotifications = new ArrayList<>();
+    private VBox notificationsList;
+    private GridPane calendarGrid;
+    private Label monthYearLabel;
+    private YearMonth calendarMonth = YearMonth.now(); // month the calendar shows
+    private CompletableFuture<?> pendingMonth; // superseded by the next month flip
+    private CompletableFuture<?> pendingSearch; // superseded by the next keystroke
     
-    public void show(Stage stage, int attendeeID) {
-        this.attendeeID = attendeeID;
+    public void show(Stage stage, UserSession session) {
+        this.session = session;
+        this.attendeeID = session.getUserID();
+        this.attendeeName = session.getName();
         this.currentStage = stage; // Store the stage reference
-        
-        // Fetch attendee name from database
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT firstName, lastName FROM [User] WHERE userID = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, attendeeID);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                attendeeName = rs.getString("firstName") + " " + rs.getString("lastName");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        this.tasks = new PageTasks(stage);
         
         // Main layout
         BorderPane mainLayout = new BorderPane();
@@ -153,10 +171,11 @@ public class AttendeeDashboard {
         // Navigation Buttons with white background
         Button calendarBtn = createNavButton("Calendar");
         Button myEventsBtn = createNavButton("My Events");
+        Button agendaBtn = createNavButton("My Agenda");
         Button notificationsBtn = createNavButton("Notification");
         Button profileBtn = createNavButton("Profile");
         
-        navButtonsSection.getChildren().addAll(calendarBtn, myEventsBtn, notificationsBtn, profileBtn);
+        navButtonsSection.getChildren().addAll(calendarBtn, myEventsBtn, agendaBtn, notificationsBtn, profileBtn);
         
         // Switch Account button - right aligned
         Button switchAccountBtn = createNavButton("Switch Account");
@@ -179,22 +198,27 @@ public class AttendeeDashboard {
         
         calendarBtn.setOnAction(e -> {
             CalendarPage calendarPage = new CalendarPage();
-            calendarPage.show(currentStage, attendeeID);
+            calendarPage.show(currentStage, session);
         });
         
         myEventsBtn.setOnAction(e -> {
             MyEventsPage myEventsPage = new MyEventsPage();
-            myEventsPage.show(currentStage, attendeeID);
+            myEventsPage.show(currentStage, session);
+        });
+        
+        agendaBtn.setOnAction(e -> {
+            MyAgendaPage agendaPage = new MyAgendaPage();
+            agendaPage.show(currentStage, session);
         });
         
         notificationsBtn.setOnAction(e -> {
             NotificationPage notificationPage = new NotificationPage();
-            notificationPage.show(currentStage, attendeeID);
+            notificationPage.show(currentStage, session);
         });
         
         profileBtn.setOnAction(e -> {
             ProfilePage profilePage = new ProfilePage();
-            profilePage.show(currentStage, attendeeID);
+            profilePage.show(currentStage, session);
         });
         
         return navBar;
@@ -269,7 +293,13 @@ public class AttendeeDashboard {
             "-fx-background-radius: 5px;"
         );
         
-        headerBox.getChildren().addAll(availableEventsLabel, spacer, refreshBtn);
+        TextField searchField = new TextField();
+        searchField.setPromptText("Search events...");
+        searchField.setPrefWidth(200);
+        searchField.setStyle("-fx-font-size: 11px; -fx-background-radius: 5px;");
+        
+        headerBox.getChildren().addAll(availableEventsLabel, spacer, searchField, refreshBtn);
+        headerBox.setSpacing(8);
         
         // Create table with yellow background container
         VBox tableContainer = new VBox();
@@ -298,12 +328,12 @@ public class AttendeeDashboard {
         nameCol.setStyle("-fx-font-size: 11px;");
         
         TableColumn<Event, String> startDateCol = new TableColumn<>("Start Date");
-        startDateCol.setCellValueFactory(new javafx.scene.control.cell.PropertyValueFactory<>("startDate"));
+        startDateCol.setCellValueFactory(new javafx.scene.control.cell.PropertyValueFactory<>("startDateText"));
         startDateCol.setPrefWidth(90);
         startDateCol.setStyle("-fx-font-size: 11px;");
         
         TableColumn<Event, String> endDateCol = new TableColumn<>("End Date");
-        endDateCol.setCellValueFactory(new javafx.scene.control.cell.PropertyValueFactory<>("endDate"));
+        endDateCol.setCellValueFactory(new javafx.scene.control.cell.PropertyValueFactory<>("endDateText"));
         endDateCol.setPrefWidth(90);
         endDateCol.setStyle("-fx-font-size: 11px;");
         
@@ -359,7 +389,7 @@ public class AttendeeDashboard {
                 
                 registerBtn.setOnAction(e -> {
                     Event event = getTableView().getItems().get(getIndex());
-                    registerToEvent(event.getEventID(), attendeeID);
+                    registerToEvent(getTableView(), event);
                 });
                 
                 viewBtn.setOnAction(e -> {
@@ -374,6 +404,11 @@ public class AttendeeDashboard {
                 if (empty) {
                     setGraphic(null);
                 } else {
+                    int eventID = getTableView().getItems().get(getIndex()).getEventID();
+                    boolean registered = registeredEventIDs.contains(eventID);
+                    boolean waitlisted = waitlistedEventIDs.contains(eventID);
+                    registerBtn.setText(registered ? "Registered" : waitlisted ? "Waitlisted" : "Register");
+                    registerBtn.setDisable(registered || waitlisted);
                     setGraphic(pane);
                 }
             }
@@ -381,12 +416,69 @@ public class AttendeeDashboard {
         
         eventTable.getColumns().addAll(nameCol, startDateCol, endDateCol, actionCol);
         
-        // Load Events from DB
-        loadEventsFromDatabase(eventTable);
+        // Newest events first, fetched a page at a time as the table scrolls
+        EventCatalogPager pager = new EventCatalogPager(eventTable, tasks, eventRepository,
+                count -> availableEventsLabel.setText("Available Events (~" + count + ")"));
+        pager.reload();
+        syncRegistrations(eventTable);
+        loadWaitlist(eventTable);
+        
+        // Answered from the in-memory search index on every keystroke; clearing the box
+        // goes back to the paged catalog
+        searchField.textProperty().addListener((obs, oldText, text) -> {
+            if (pendingSearch != null) {
+                pendingSearch.cancel(true);
+            }
+            if (text.isBlank()) {
+                pendingSearch = null;
+                pager.reload();
+                return;
+            }
+            pendingSearch = tasks.run(() -> eventRepository.search(text), results -> {
+                pager.showResults(results);
+                availableEventsLabel.setText("Available Events (" + results.size()
+                        + (results.size() == EventRepository.SEARCH_LIMIT ? "+" : "") + " found)");
+            }, err -> {
+                err.printStackTrace();
+                eventTable.setPlaceholder(new Label("Error searching events."));
+            });
+        });
+        
+        // Events edited elsewhere merge in as they happen, and so do seats this attendee
+        // got or lost (a waitlist promotion, an organizer removing them)
+        tasks.listen(EnumSet.of(ChangeFeed.Kind.EVENT, ChangeFeed.Kind.REGISTRATION), changes -> {
+            boolean eventsChanged = false;
+            boolean registeredEventChanged = false;
+            boolean mine = false;
+            for (ChangeFeed.Change c : changes) {
+                eventsChanged |= c.getKind() == ChangeFeed.Kind.EVENT;
+                registeredEventChanged |= c.getKind() == ChangeFeed.Kind.EVENT
+                        && registeredEventIDs.contains(c.getEventID());
+                mine |= c.getKind() == ChangeFeed.Kind.REGISTRATION && c.getUserID() == attendeeID;
+            }
+            if (eventsChanged && searchField.getText().isBlank()) {
+                pager.refresh();
+            }
+            if (mine) {
+                syncRegistrations(eventTable); // reloads the calendar when something changed
+                loadWaitlist(eventTable);
+            } else if (registeredEventChanged) {
+                reloadCalendar(); // an event this attendee goes to may have moved
+            }
+            if (registeredEventChanged) {
+                AttendeeSchedules.shared().forget(attendeeID); // and so may its sessions
+            }
+        });
         
         // Refresh Button Action
         refreshBtn.setOnAction(e -> {
-            loadEventsFromDatabase(eventTable);
+            syncRegistrations(eventTable);
+            loadWaitlist(eventTable);
+            if (searchField.getText().isBlank()) {
+                pager.refresh(); // only the events that changed since the last load
+            } else {
+                searchField.clear(); // the listener reloads the catalog
+            }
             Alert alert = new Alert(Alert.AlertType.INFORMATION);
             alert.setTitle("Refreshed");
             alert.setHeaderText(null);
@@ -437,28 +529,35 @@ public class AttendeeDashboard {
         Label notificationLabel = new Label("Notification");
         notificationLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px; -fx-text-fill: white;");
         
-        VBox notificationsList = new VBox(8);
+        notificationsList = new VBox(8);
+        notificationsList.getChildren().add(loadingLabel("Loading notifications..."));
         
         // Fetch notifications from database
-        List<Notification> notifications = new ArrayList<>();
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT TOP 2 notificationID, title, message, createdAt FROM Notification " +
-                         "WHERE userID = ? ORDER BY createdAt DESC";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, attendeeID);
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                notifications.add(new Notification(
-                    rs.getInt("notificationID"),
-                    rs.getString("title"),
-                    rs.getString("message"),
-                    rs.getTimestamp("createdAt")
-                ));
-            }
-        } catch (SQLException e) {
+        tasks.run(() -> notificationRepository.findLatest(attendeeID), notifications -> {
+            latestNotifications.addAll(0, notifications);
+            showNotifications(notificationsList, latestNotifications);
+        }, e -> {
             e.printStackTrace();
-        }
+            showNotifications(notificationsList, latestNotifications);
+        });
+        
+        // New notifications for this attendee (e.g. off the waitlist) show up without a refresh
+        tasks.listen(EnumSet.of(ChangeFeed.Kind.NOTIFICATION), changes -> {
+            if (changes.stream().anyMatch(c -> c.getUserID() == attendeeID)) {
+                tasks.run(() -> notificationRepository.findLatest(attendeeID), notifications -> {
+                    latestNotifications.clear();
+                    latestNotifications.addAll(notifications);
+                    showNotifications(notificationsList, latestNotifications);
+                }, Throwable::printStackTrace);
+            }
+        });
+        
+        notificationsSection.getChildren().addAll(notificationLabel, notificationsList);
+        return notificationsSection;
+    }
+    
+    private void showNotifications(VBox notificationsList, List<Notification> notifications) {
+        notificationsList.getChildren().clear();
         
         // Add notification items
         for (Notification notification : notifications) {
@@ -487,9 +586,12 @@ public class AttendeeDashboard {
             noNotifLabel.setStyle("-fx-font-style: italic; -fx-text-fill: white;");
             notificationsList.getChildren().add(noNotifLabel);
         }
-        
-        notificationsSection.getChildren().addAll(notificationLabel, notificationsList);
-        return notificationsSection;
+    }
+    
+    private Label loadingLabel(String text) {
+        Label label = new Label(text);
+        label.setStyle("-fx-font-style: italic; -fx-text-fill: white;");
+        return label;
     }
     
     private VBox createCalendarSection() {
@@ -514,13 +616,19 @@ public class AttendeeDashboard {
             "-fx-background-radius: 6px;"
         );
         
-        // Current date information
-        LocalDate today = LocalDate.now();
-        YearMonth yearMonth = YearMonth.from(today);
-        
-        // Month and year header
-        Label monthYearLabel = new Label(yearMonth.getMonth().toString() + " " + yearMonth.getYear());
+        // Month and year header between the previous/next month buttons
+        Button prevMonthBtn = createMonthButton("<");
+        Button nextMonthBtn = createMonthButton(">");
+        monthYearLabel = new Label();
         monthYearLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 12px;");
+        Region leftSpacer = new Region();
+        Region rightSpacer = new Region();
+        HBox.setHgrow(leftSpacer, Priority.ALWAYS);
+        HBox.setHgrow(rightSpacer, Priority.ALWAYS);
+        HBox monthHeader = new HBox(8, prevMonthBtn, leftSpacer, monthYearLabel, rightSpacer, nextMonthBtn);
+        monthHeader.setAlignment(Pos.CENTER);
+        prevMonthBtn.setOnAction(e -> showCalendarMonth(calendarMonth.minusMonths(1)));
+        nextMonthBtn.setOnAction(e -> showCalendarMonth(calendarMonth.plusMonths(1)));
         
         // Days of week header
         String[] daysOfWeek = {"Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat"};
@@ -538,35 +646,52 @@ public class AttendeeDashboard {
         }
         
         // Calendar grid
-        GridPane calendarGrid = new GridPane();
+        calendarGrid = new GridPane();
         calendarGrid.setHgap(8);
         calendarGrid.setVgap(8);
         
-        // Get the first day of the month
-        LocalDate firstOfMonth = yearMonth.atDay(1);
-        int dayOfWeek = firstOfMonth.getDayOfWeek().getValue() % 7; // Convert to 0-based Sunday start
+        showCalendarMonth(calendarMonth);
         
-        // Get the number of days in the month
-        int daysInMonth = yearMonth.lengthOfMonth();
+        calendarContainer.getChildren().addAll(monthHeader, daysOfWeekGrid, calendarGrid);
+        calendarSection.getChildren().addAll(calendarLabel, calendarContainer);
         
-        // Fetch registered events for highlighting
-        List<LocalDate> eventDates = new ArrayList<>();
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT e.startDate FROM Event e " +
-                         "JOIN Registration r ON e.eventID = r.eventID " +
-                         "WHERE r.userID = ? AND MONTH(e.startDate) = MONTH(GETDATE()) AND YEAR(e.startDate) = YEAR(GETDATE())";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, attendeeID);
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                String dateStr = rs.getString("startDate");
-                LocalDate eventDate = LocalDate.parse(dateStr.split(" ")[0]);
-                eventDates.add(eventDate);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+        return calendarSection;
+    }
+
+    private Button createMonthButton(String text) {
+        Button button = new Button(text);
+        button.setStyle("-fx-background-color: transparent; -fx-font-weight: bold; -fx-font-size: 12px; -fx-cursor: hand;");
+        return button;
+    }
+    
+    // Draws the month right away, then highlights registered days once the month is read
+    // (straight away when the cache already has it, which is the usual case after a flip)
+    private void showCalendarMonth(YearMonth month) {
+        calendarMonth = month;
+        monthYearLabel.setText(month.getMonth().toString() + " " + month.getYear());
+        if (pendingMonth != null) {
+            pendingMonth.cancel(true);
+        }
+        CompletableFuture<CalendarMonth> load = CalendarMonthCache.shared().month(attendeeID, month);
+        CalendarMonth loaded = load.getNow(null);
+        populateCalendarGrid(calendarGrid, month, LocalDate.now(), loaded);
+        if (loaded != null) {
+            pendingMonth = null;
+            return;
         }
+        pendingMonth = tasks.track(load, days -> {
+            if (month.equals(calendarMonth)) {
+                populateCalendarGrid(calendarGrid, month, LocalDate.now(), days);
+            }
+        }, Throwable::printStackTrace);
+    }
+    
+    // Registered days are highlighted from the month's per-day counts; null draws plain days
+    private void populateCalendarGrid(GridPane calendarGrid, YearMonth yearMonth, LocalDate today,
+                                      CalendarMonth eventDays) {
+        calendarGrid.getChildren().clear();
+        int dayOfWeek = yearMonth.atDay(1).getDayOfWeek().getValue() % 7; // Convert to 0-based Sunday start
+        int daysInMonth = yearMonth.lengthOfMonth();
         
         // Create calendar grid
         int day = 1;
@@ -580,21 +705,21 @@ public class AttendeeDashboard {
                     // No more days in month
                     break;
                 }
-                
+            
                 StackPane dayPane = new StackPane();
                 dayPane.setPrefSize(35, 35);
-                
+            
                 // Check if this day has an event
                 LocalDate currentDate = LocalDate.of(yearMonth.getYear(), yearMonth.getMonth(), day);
-                boolean hasEvent = eventDates.contains(currentDate);
-                
+                boolean hasEvent = eventDays != null && eventDays.hasEvents(currentDate);
+            
                 // Check if this is today
                 boolean isToday = currentDate.equals(today);
-                
+            
                 Label dayNumber = new Label(String.valueOf(day));
                 dayNumber.setAlignment(Pos.CENTER);
                 dayNumber.setStyle("-fx-font-size: 10px;");
-                
+            
                 if (hasEvent) {
                     // Highlight days with events using white background
                     dayPane.setStyle("-fx-background-color: " + WHITE_COLOR + "; -fx-background-radius: 17;");
@@ -607,166 +732,132 @@ public class AttendeeDashboard {
                     // Regular days with transparent background
                     dayPane.setStyle("-fx-background-color: transparent;");
                 }
-                
+            
                 dayPane.getChildren().add(dayNumber);
                 calendarGrid.add(dayPane, col, row);
                 day++;
             }
         }
-        
-        calendarContainer.getChildren().addAll(monthYearLabel, daysOfWeekGrid, calendarGrid);
-        calendarSection.getChildren().addAll(calendarLabel, calendarContainer);
-        
-        return calendarSection;
     }
     
-    private void loadEventsFromDatabase(TableView<Event> eventTable) {
-        eventTable.getItems().clear(); // Clear existing items
-        
-        try (Connection conn = DBConnection.getConnection()) {
-            // Order by eventID DESC to show newest events first
-            String sql = "SELECT eventID, name, startDate, endDate FROM Event ORDER BY eventID DESC";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                eventTable.getItems().add(new Event(
-                        rs.getInt("eventID"),
-                        rs.getString("name"),
-                        rs.getString("startDate"),
-                        rs.getString("endDate")
-                ));
+    // Catches up the registered marks with registrations made or cancelled elsewhere,
+    // including seats given to this attendee off a waitlist
+    private void syncRegistrations(TableView<Event> eventTable) {
+        long since = registrationsVersion;
+        tasks.run(() -> registrationRepository.changesSince(attendeeID, since), changes -> {
+            if (changes.isFull()) {
+                registeredEventIDs.clear();
             }
-            
-            // Auto-scroll to top to show newest events
-            if (!eventTable.getItems().isEmpty()) {
-                eventTable.scrollTo(0);
+            registeredEventIDs.addAll(changes.getChanged());
+            waitlistedEventIDs.removeAll(changes.getChanged());
+            registeredEventIDs.removeAll(changes.getDeletedIDs());
+            registrationsVersion = changes.getVersion();
+            if (!changes.isEmpty()) {
+                eventTable.refresh();
+                reloadCalendar();
             }
-            
-        } catch (SQLException e) {
+        }, Throwable::printStackTrace);
+    }
+    
+    // Waitlist places are not in the registration change sets, so they are read whole;
+    // an attendee waits for few events
+    private void loadWaitlist(TableView<Event> eventTable) {
+        tasks.run(() -> registrationRepository.findWaitlistedEventIDs(attendeeID), eventIDs -> {
+            waitlistedEventIDs.clear();
+            waitlistedEventIDs.addAll(eventIDs);
+            waitlistedEventIDs.removeAll(registeredEventIDs);
+            eventTable.refresh();
+        }, Throwable::printStackTrace);
+    }
+    
+    // Checks the event's sessions against the attendee's agenda first and asks before
+    // registering into a clash. A failed check does not stand in the way of registering.
+    private void registerToEvent(TableView<Event> eventTable, Event event) {
+        tasks.run(() -> AttendeeSchedules.shared().clashes(attendeeID, event.getEventID()), clashes -> {
+            if (clashes.isEmpty() || confirmClashes(event, clashes)) {
+                submitRegistration(eventTable, event);
+            }
+        }, e -> {
             e.printStackTrace();
-            Alert alert = new Alert(Alert.AlertType.ERROR);
-            alert.setTitle("Database Error");
-            alert.setHeaderText(null);
-            alert.setContentText("Failed to load events: " + e.getMessage());
-            alert.showAndWait();
+            submitRegistration(eventTable, event);
+        });
+    }
+    
+    private boolean confirmClashes(Event event, List<AttendeeSchedule.Clash> clashes) {
+        StringBuilder details = new StringBuilder();
+        int shown = Math.min(clashes.size(), 5);
+        for (int i = 0; i < shown; i++) {
+            AttendeeSchedule.Clash clash = clashes.get(i);
+            details.append("\u2022 ").append(clash.getWanted().getTitle()).append(" (")
+                    .append(DateFormats.timeRange(clash.getWanted().getStart(), clash.getWanted().getEnd()))
+                    .append(")\n    overlaps ").append(clash.getExisting().getTitle()).append(" at ")
+                    .append(clash.getExisting().getEventName()).append(" (")
+                    .append(DateFormats.timeRange(clash.getExisting().getStart(), clash.getExisting().getEnd()))
+                    .append(")\n");
+        }
+        if (clashes.size() > shown) {
+            details.append("...and ").append(clashes.size() - shown).append(" more\n");
         }
+        
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("Schedule Clash");
+        alert.setHeaderText(event.getEventName() + " overlaps events you are registered for");
+        alert.setContentText(details + "\nRegister anyway?");
+        return alert.showAndWait().filter(button -> button == ButtonType.OK).isPresent();
     }
     
-    private void registerToEvent(int eventId, int attendeeId) {
-        try (Connection conn = DBConnection.getConnection()) {
-            // First check if already registered
-            String checkSql = "SELECT COUNT(*) FROM Registration WHERE userID = ? AND eventID = ?";
-            PreparedStatement checkStmt = conn.prepareStatement(checkSql);
-            checkStmt.setInt(1, attendeeId);
-            checkStmt.setInt(2, eventId);
-            ResultSet checkRs = checkStmt.executeQuery();
-            
-            if (checkRs.next() && checkRs.getInt(1) > 0) {
+    private void submitRegistration(TableView<Event> eventTable, Event event) {
+        // Committed together with other clicks by the queue; null means already registered or waitlisted
+        tasks.track(RegistrationQueue.shared().submit(attendeeID, event.getEventID()), confirmation -> {
+            if (confirmation == null) {
                 Alert alert = new Alert(Alert.AlertType.WARNING);
                 alert.setTitle("Already Registered");
                 alert.setHeaderText(null);
-                alert.setContentText("You are already registered for this event!");
+                alert.setContentText("You are already registered or on the waitlist for this event!");
                 alert.showAndWait();
                 return;
             }
+            boolean waitlisted = confirmation.getStatus() == RegistrationRepository.Status.WAITLISTED;
+            (waitlisted ? waitlistedEventIDs : registeredEventIDs).add(event.getEventID());
+            eventTable.refresh();
             
-            // Get event name for notification
-            String eventName = "";
-            String getEventSql = "SELECT name FROM Event WHERE eventID = ?";
-            PreparedStatement getEventStmt = conn.prepareStatement(getEventSql);
-            getEventStmt.setInt(1, eventId);
-            ResultSet eventRs = getEventStmt.executeQuery();
-            if (eventRs.next()) {
-                eventName = eventRs.getString("name");
+            // Put the new notification on top of the panel, keeping the same two the panel loads
+            latestNotifications.add(0, confirmation.getNotification());
+            while (latestNotifications.size() > 2) {
+                latestNotifications.remove(latestNotifications.size() - 1);
             }
+            showNotifications(notificationsList, latestNotifications);
             
-            // Step 1: Insert into Registration
-            String sql = "INSERT INTO Registration (userID, eventID, registrationDate, registrationStatus) VALUES (?, ?, ?, ?)";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, attendeeId);
-            stmt.setInt(2, eventId);
-            stmt.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
-            stmt.setString(4, "Registered");
-            stmt.executeUpdate();
-            
-            // Step 2: Insert a Notification for the user
-            String notifSql = "INSERT INTO Notification (name, title, message, createdAt, notificationType, userID) VALUES (?, ?, ?, ?, ?, ?)";
-            PreparedStatement notifStmt = conn.prepareStatement(notifSql);
-            notifStmt.setString(1, "Event Registration");
-            notifStmt.setString(2, "Registration Successful!");
-            notifStmt.setString(3, "You have successfully registered for " + eventName + ". Check 'My Events' to view your registered events.");
-            notifStmt.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
-            notifStmt.setString(5, "event");
-            notifStmt.setInt(6, attendeeId);
-            notifStmt.executeUpdate();
+            if (waitlisted) {
+                Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                alert.setTitle("Event Full");
+                alert.setHeaderText("You're on the waitlist");
+                alert.setContentText(confirmation.getEventName() + " is full. You are number "
+                        + confirmation.getWaitlistPosition() + " on the waitlist and will be registered automatically when a seat opens up.");
+                alert.showAndWait();
+                return;
+            }
+            reloadCalendar();
             
             // Show confirmation
             Alert alert = new Alert(Alert.AlertType.INFORMATION);
             alert.setTitle("Registration Successful");
             alert.setHeaderText("Welcome to the Event!");
-            alert.setContentText("You have successfully registered for " + eventName + "!\nA confirmation notification has been sent to your notifications panel.");
+            alert.setContentText("You have successfully registered for " + confirmation.getEventName() + "!\nA confirmation notification has been sent to your notifications panel.");
             alert.showAndWait();
-            
-            // Refresh the dashboard to show the new notification
-            show(currentStage, attendeeId);
-            
-        } catch (SQLException e) {
-        	e.printStackTrace();
+        }, e -> {
+            e.printStackTrace();
             Alert alert = new Alert(Alert.AlertType.ERROR);
             alert.setTitle("Registration Failed");
             alert.setHeaderText(null);
             alert.setContentText("Failed to register for event: " + e.getMessage());
             alert.showAndWait();
-        }
-    }
-    
-    // Event class for TableView
-    public static class Event {
-        private int eventID;
-        private String name;
-        private String startDate;
-        private String endDate;
-        
-        public Event(int eventID, String name, String startDate, String endDate) {
-            this.eventID = eventID;
-            this.name = name;
-            this.startDate = startDate;
-            this.endDate = endDate;
-        }
-        
-        public int getEventID() { return eventID; }
-        public String getName() { return name; }
-        public String getStartDate() { return startDate; }
-        public String getEndDate() { return endDate; }
-        
-        public void setEventID(int eventID) { this.eventID = eventID; }
-        public void setName(String name) { this.name = name; }
-        public void setStartDate(String startDate) { this.startDate = startDate; }
-        public void setEndDate(String endDate) { this.endDate = endDate; }
+        });
     }
     
-    // Notification class for displaying notifications
-    public static class Notification {
-        private int notificationID;
-        private String title;
-        private String message;
-        private java.sql.Timestamp createdAt;
-        
-        public Notification(int notificationID, String title, String message, java.sql.Timestamp createdAt) {
-            this.notificationID = notificationID;
-            this.title = title;
-            this.message = message;
-            this.createdAt = createdAt;
-        }
-        
-        public int getNotificationID() { return notificationID; }
-        public String getTitle() { return title; }
-        public String getMessage() { return message; }
-        public java.sql.Timestamp getCreatedAt() { return createdAt; }
-        
-        public void setNotificationID(int notificationID) { this.notificationID = notificationID; }
-        public void setTitle(String title) { this.title = title; }
-        public void setMessage(String message) { this.message = message; }
-        public void setCreatedAt(java.sql.Timestamp createdAt) { this.createdAt = createdAt; }
+    // Re-reads the shown month after this attendee's registrations or their events changed
+    private void reloadCalendar() {
+        CalendarMonthCache.shared().invalidate(attendeeID);
+        showCalendarMonth(calendarMonth);
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,6 @@
 package ui;
 
-import db.DBConnection;
+import db.RegistrationRepository;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
@@ -13,15 +13,13 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.stage.Stage;
+import javafx.util.Callback;
+import models.DateFormats;
+import models.Event;
+import models.UserSession;
 
 import java.io.FileInputStream;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.List;
 
 public class CalendarPage {
@@ -31,24 +29,25 @@ public class CalendarPage {
     private static final String WHITE_COLOR = "#FFFFFF";
     private static final String DARK_TEXT = "#333333";
     
+    private UserSession session;
     private int attendeeID;
     private String attendeeName = "";
+    private final RegistrationRepository registrationRepository = new RegistrationRepository();
+    private PageTasks tasks; // Background loads for this page
     
-    public void show(Stage stage, int attendeeID) {
-        this.attendeeID = attendeeID;
-        
-        // Fetch attendee name from database
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT firstName, lastName FROM [User] WHERE userID = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, attendeeID);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                attendeeName = rs.getString("firstName") + " " + rs.getString("lastName");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    // All registered events, and the same events by day for the date cells and day filter
+    private final ObservableList<Event> registeredEvents = FXCollections.observableArrayList();
+    private EventDayIndex dayIndex = EventDayIndex.EMPTY;
+    private ListView<Event> eventListView;
+    private DatePicker calendar;
+    private Label listFilterLabel;
+    private boolean followingSelection; // the picker is moving to the selected event, not filtering
+    
+    public void show(Stage stage, UserSession session) {
+        this.session = session;
+        this.attendeeID = session.getUserID();
+        this.attendeeName = session.getName();
+        this.tasks = new PageTasks(stage);
         
         // Main layout
         BorderPane mainLayout = new BorderPane();
@@ -85,6 +84,7 @@ public class CalendarPage {
         VBox calendarSection = createCalendarSection();
         
         mainContent.getChildren().addAll(eventSection, calendarSection);
+        loadRegisteredEvents();
         contentPane.getChildren().addAll(titleLabel, mainContent);
         
         contentWrapper.getChildren().add(contentPane);
@@ -151,7 +151,7 @@ public class CalendarPage {
         // Navigation actions
         dashboardBtn.setOnAction(e -> {
             AttendeeDashboard dashboard = new AttendeeDashboard();
-            dashboard.show(new Stage(), attendeeID);
+            dashboard.show(new Stage(), session);
             Stage currentStage = (Stage) dashboardBtn.getScene().getWindow();
             currentStage.close();
         });
@@ -164,17 +164,17 @@ public class CalendarPage {
         
         myEventsBtn.setOnAction(e -> {
             MyEventsPage myEventsPage = new MyEventsPage();
-            myEventsPage.show(new Stage(), attendeeID);
+            myEventsPage.show(new Stage(), session);
         });
         
         notificationsBtn.setOnAction(e -> {
             NotificationPage notificationPage = new NotificationPage();
-            notificationPage.show(new Stage(), attendeeID);
+            notificationPage.show(new Stage(), session);
         });
         
         profileBtn.setOnAction(e -> {
             ProfilePage profilePage = new ProfilePage();
-            profilePage.show(new Stage(), attendeeID);
+            profilePage.show(new Stage(), session);
         });
         
         return navBar;
@@ -230,8 +230,17 @@ public class CalendarPage {
                              "-fx-font-weight: bold;" +
                              "-fx-text-fill: white;");
         
+        // Shows every registered event until a day is picked on the calendar
+        listFilterLabel = new Label("All events");
+        listFilterLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: white;");
+        Hyperlink showAllLink = new Hyperlink("Show all");
+        showAllLink.setStyle("-fx-text-fill: white; -fx-font-size: 12px;");
+        showAllLink.setOnAction(e -> showAllEvents());
+        HBox filterBar = new HBox(8, listFilterLabel, showAllLink);
+        filterBar.setAlignment(Pos.CENTER_LEFT);
+        
         // Custom styled ListView
-        ListView<String> eventListView = new ListView<>();
+        eventListView = new ListView<>();
         eventListView.setPrefHeight(400);
         eventListView.setStyle(
             "-fx-background-color: " + WHITE_COLOR + ";" +
@@ -241,33 +250,28 @@ public class CalendarPage {
             "-fx-faint-focus-color: transparent;"
         );
         
-        ObservableList<String> eventNames = FXCollections.observableArrayList();
-        eventListView.setItems(eventNames);
+        eventListView.setItems(registeredEvents);
+        eventListView.setPlaceholder(PageTasks.loadingPlaceholder("Loading your events..."));
         
         // Custom cell factory for better styling
-        eventListView.setCellFactory(listView -> new ListCell<String>() {
+        eventListView.setCellFactory(listView -> new ListCell<Event>() {
             @Override
-            protected void updateItem(String item, boolean empty) {
+            protected void updateItem(Event item, boolean empty) {
                 super.updateItem(item, empty);
                 if (empty || item == null) {
                     setText(null);
                     setGraphic(null);
                     setStyle("-fx-background-color: transparent;");
                 } else {
-                    // Parse event info
-                    String[] parts = item.split(" - ");
-                    String eventName = parts[0];
-                    String dateStr = parts.length > 1 ? parts[1] : "";
-                    
                     VBox cellContent = new VBox(3);
                     cellContent.setPadding(new Insets(8));
                     
-                    Label nameLabel = new Label(eventName);
+                    Label nameLabel = new Label(item.getEventName());
                     nameLabel.setStyle("-fx-font-weight: bold;" +
                                      "-fx-font-size: 14px;" +
                                      "-fx-text-fill: " + DARK_TEXT + ";");
                     
-                    Label dateLabel = new Label("Date: " + formatDate(dateStr));
+                    Label dateLabel = new Label("Date: " + item.getStartDateDisplay());
                     dateLabel.setStyle("-fx-font-size: 12px;" +
                                      "-fx-text-fill: #666666;");
                     
@@ -284,38 +288,7 @@ public class CalendarPage {
             }
         });
         
-        // Fetch registered events from DB
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = """
-                SELECT E.name, E.startDate
-                FROM Event E
-                JOIN Registration R ON E.eventID = R.eventID
-                WHERE R.userID = ?
-                ORDER BY E.startDate ASC
-            """;
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, attendeeID);
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                String name = rs.getString("name");
-                String date = rs.getString("startDate");
-                eventNames.add(name + " - " + date);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        
-        // No events message
-        if (eventNames.isEmpty()) {
-            Label noEventsLabel = new Label("No registered events found");
-            noEventsLabel.setStyle("-fx-font-style: italic;" +
-                                  "-fx-text-fill: white;" +
-                                  "-fx-font-size: 14px;");
-            eventSection.getChildren().addAll(sectionTitle, noEventsLabel);
-        } else {
-            eventSection.getChildren().addAll(sectionTitle, eventListView);
-        }
+        eventSection.getChildren().addAll(sectionTitle, filterBar, eventListView);
         
         return eventSection;
     }
@@ -343,8 +316,22 @@ public class CalendarPage {
         );
         
         // Date picker with custom styling
-        DatePicker calendar = new DatePicker();
+        calendar = new DatePicker();
         calendar.setEditable(false);
+        // Registered days are looked up in the day index, so flipping months reads nothing
+        calendar.setDayCellFactory(picker -> new DateCell() {
+            @Override
+            public void updateItem(LocalDate date, boolean empty) {
+                super.updateItem(date, empty);
+                if (!empty && dayIndex.hasEvents(date)) {
+                    setStyle("-fx-background-color: " + BLUE_COLOR + "; -fx-text-fill: white; -fx-font-weight: bold;");
+                    setTooltip(new Tooltip(dayIndex.eventsOn(date).size() + " registered event(s)"));
+                } else {
+                    setStyle(null);
+                    setTooltip(null);
+                }
+            }
+        });
         calendar.setValue(LocalDate.now());
         calendar.setPrefWidth(500);
         calendar.setStyle(
@@ -374,26 +361,22 @@ public class CalendarPage {
         
         eventInfo.getChildren().addAll(selectedEventLabel, eventDetails);
         
-        // Get event list reference for interaction
-        ListView<String> eventListView = getEventListView();
-        if (eventListView != null) {
-            eventListView.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
-                if (newVal != null && newVal.contains(" - ")) {
-                    String[] parts = newVal.split(" - ");
-                    if (parts.length == 2) {
-                        try {
-                            LocalDate eventDate = LocalDate.parse(parts[1].split(" ")[0]);
-                            calendar.setValue(eventDate);
-                            
-                            // Update event details
-                            eventDetails.setText("Event: " + parts[0] + "\nDate: " + formatDate(parts[1]));
-                        } catch (Exception e) {
-                            System.err.println("Invalid date format: " + parts[1]);
-                        }
-                    }
-                }
-            });
-        }
+        // Selecting an event moves the calendar to it; picking a day narrows the list to that day
+        eventListView.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
+            if (newVal != null && newVal.getStartDate() != null) {
+                followingSelection = true;
+                calendar.setValue(newVal.getStartDate());
+                followingSelection = false;
+                
+                // Update event details
+                eventDetails.setText("Event: " + newVal.getEventName() + "\nDate: " + newVal.getStartDateDisplay());
+            }
+        });
+        calendar.valueProperty().addListener((obs, oldDate, date) -> {
+            if (!followingSelection && date != null) {
+                showEventsOn(date);
+            }
+        });
         
         calendarContainer.getChildren().addAll(calendar, eventInfo);
         calendarSection.getChildren().addAll(sectionTitle, calendarContainer);
@@ -401,18 +384,31 @@ public class CalendarPage {
         return calendarSection;
     }
     
-    private ListView<String> getEventListView() {
-        // This is a helper method to get reference to the event list
-        // In a real implementation, you might want to store this as a class field
-        return null;
+    private void loadRegisteredEvents() {
+        tasks.run(() -> registrationRepository.findEventsByUser(attendeeID), events -> {
+            dayIndex = EventDayIndex.of(events);
+            registeredEvents.setAll(events);
+            showAllEvents();
+        }, e -> {
+            e.printStackTrace();
+            eventListView.setPlaceholder(new Label("Error loading your events."));
+        });
     }
     
-    private String formatDate(String dateStr) {
-        try {
-            LocalDate date = LocalDate.parse(dateStr.split(" ")[0]);
-            return date.format(DateTimeFormatter.ofPattern("MMM dd, yyyy"));
-        } catch (Exception e) {
-            return dateStr;
-        }
+    private void showAllEvents() {
+        eventListView.setItems(registeredEvents);
+        listFilterLabel.setText("All events (" + registeredEvents.size() + ")");
+        eventListView.setPlaceholder(new Label("No registered events found"));
+        // Re-setting the factory makes an open popup rebuild its cells with the loaded index
+        Callback<DatePicker, DateCell> dayCells = calendar.getDayCellFactory();
+        calendar.setDayCellFactory(null);
+        calendar.setDayCellFactory(dayCells);
+    }
+    
+    private void showEventsOn(LocalDate date) {
+        List<Event> events = dayIndex.eventsOn(date);
+        eventListView.setItems(FXCollections.observableArrayList(events));
+        listFilterLabel.setText(DateFormats.date(date) + " (" + events.size() + ")");
+        eventListView.setPlaceholder(new Label("No registered events on this day"));
     }
-}
\ No newline at end of file
+}
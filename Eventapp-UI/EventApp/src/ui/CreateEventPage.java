@@ -1,6 +1,7 @@
 package ui;
 
-import db.DBConnection;
+import db.EventRepository;
+import db.SessionConflictException;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -11,10 +12,15 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.stage.Stage;
+import models.DateFormats;
+import models.Event;
+import models.Session;
+import models.User;
+import models.UserSession;
 
 import java.io.FileInputStream;
-import java.sql.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -29,6 +35,7 @@ public class CreateEventPage {
     private static final String DARK_TEXT = "#333333";
     
     private Stage stage;
+    private UserSession session;
     private int organizerID;
     private Consumer<Void> onBackToDashboard; // Callback function for navigation
     private TextField eventNameField = new TextField();
@@ -36,23 +43,29 @@ public class CreateEventPage {
     private DatePicker eventStartDatePicker = new DatePicker();
     private DatePicker eventEndDatePicker = new DatePicker();
     private TextField eventLocationField = new TextField();
+    private TextField eventCapacityField = new TextField(); // blank = unlimited
     private Spinner<Integer> sessionCountSpinner = new Spinner<>(1, 10, 1);
     private VBox sessionsContainer = new VBox(15);
     private final List<SessionForm> sessionForms = new ArrayList<>();
     private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+    private final EventRepository eventRepository = new EventRepository();
+    private SpeakerPicker speakerPicker;
+    private PageTasks tasks; // Background loads and the save for the session details scene
     
     // Modified constructor to accept a callback for navigation
-    public void show(Stage stage, int organizerID, Consumer<Void> onBackToDashboard) {
+    public void show(Stage stage, UserSession session, Consumer<Void> onBackToDashboard) {
         this.stage = stage;
-        this.organizerID = organizerID;
+        this.session = session;
+        this.organizerID = session.getUserID();
         this.onBackToDashboard = onBackToDashboard;
         showInitialForm();
     }
     
     // Keep the original method for backward compatibility
-    public void show(Stage stage, int organizerID) {
+    public void show(Stage stage, UserSession session) {
         this.stage = stage;
-        this.organizerID = organizerID;
+        this.session = session;
+        this.organizerID = session.getUserID();
         this.onBackToDashboard = null; // No callback provided
         showInitialForm();
     }
@@ -106,6 +119,8 @@ public class CreateEventPage {
         styleTextField(eventNameField);
         styleTextArea(eventDescriptionArea);
         styleTextField(eventLocationField);
+        styleTextField(eventCapacityField);
+        eventCapacityField.setPromptText("Leave blank for unlimited");
         styleDatePicker(eventStartDatePicker);
         styleDatePicker(eventEndDatePicker);
         styleSpinner(sessionCountSpinner);
@@ -123,8 +138,10 @@ public class CreateEventPage {
         grid.add(eventEndDatePicker, 1, 3);
         grid.add(createFormLabel("Location:"), 0, 4);
         grid.add(eventLocationField, 1, 4);
-        grid.add(createFormLabel("Number of Sessions:"), 0, 5);
-        grid.add(sessionCountSpinner, 1, 5);
+        grid.add(createFormLabel("Capacity:"), 0, 5);
+        grid.add(eventCapacityField, 1, 5);
+        grid.add(createFormLabel("Number of Sessions:"), 0, 6);
+        grid.add(sessionCountSpinner, 1, 6);
         
         // Make the text field column expandable
         ColumnConstraints col1 = new ColumnConstraints();
@@ -162,6 +179,9 @@ public class CreateEventPage {
         sessionsContainer.getChildren().clear();
         sessionForms.clear();
         
+        // A fresh scene each time, so its loads are tied to a fresh PageTasks
+        tasks = new PageTasks(stage);
+        speakerPicker = new SpeakerPicker(tasks);
         int count = sessionCountSpinner.getValue();
         for (int i = 1; i <= count; i++) {
             SessionForm form = new SessionForm(i);
@@ -223,7 +243,7 @@ public class CreateEventPage {
         Button backButton = createStyledButton("Back to Event Details");
         Button cancelButton = createStyledButton("Cancel");
         
-        submitButton.setOnAction(e -> saveEventAndSessions());
+        submitButton.setOnAction(e -> saveEventAndSessions(submitButton));
         backButton.setOnAction(e -> showInitialForm());
         cancelButton.setOnAction(e -> handleBackToDashboard());
         
@@ -333,7 +353,7 @@ public class CreateEventPage {
         } else {
             // Fallback to the original behavior if no callback is provided
             OrganizerDashboard dashboard = new OrganizerDashboard();
-            dashboard.show(stage, organizerID);
+            dashboard.show(stage, session);
         }
     }
     
@@ -455,7 +475,7 @@ public class CreateEventPage {
         );
     }
     
-    private void saveEventAndSessions() {
+    private void saveEventAndSessions(Button submitButton) {
         String eventName = eventNameField.getText();
         String eventDescription = eventDescriptionArea.getText();
         LocalDate eventStartDate = eventStartDatePicker.getValue();
@@ -467,6 +487,20 @@ public class CreateEventPage {
             return;
         }
         
+        Integer capacity = null;
+        String capacityText = eventCapacityField.getText().trim();
+        if (!capacityText.isEmpty()) {
+            try {
+                capacity = Integer.parseInt(capacityText);
+            } catch (NumberFormatException ex) {
+                capacity = 0;
+            }
+            if (capacity <= 0) {
+                showAlert("Validation Error", "Capacity must be a positive whole number, or blank for unlimited.");
+                return;
+            }
+        }
+        
         for (SessionForm sf : sessionForms) {
             if (!sf.isValid()) {
                 showAlert("Validation Error", "Please fill all fields for Session #" + sf.getSessionNumber());
@@ -474,71 +508,47 @@ public class CreateEventPage {
             }
         }
         
-        try (Connection conn = DBConnection.getConnection()) {
-            conn.setAutoCommit(false);
-            
-            String eventSQL = "INSERT INTO Event (name, description, startDate, endDate, location, organizerID) VALUES (?, ?, ?, ?, ?, ?)";
-            PreparedStatement eventStmt = conn.prepareStatement(eventSQL, Statement.RETURN_GENERATED_KEYS);
-            eventStmt.setString(1, eventName);
-            eventStmt.setString(2, eventDescription);
-            eventStmt.setDate(3, Date.valueOf(eventStartDate));
-            eventStmt.setDate(4, Date.valueOf(eventEndDate));
-            eventStmt.setString(5, eventLocation);
-            eventStmt.setInt(6, organizerID);
-            
-            int affected = eventStmt.executeUpdate();
-            if (affected == 0) {
-                conn.rollback();
-                showAlert("Database Error", "Failed to insert event.");
-                return;
-            }
-            
-            ResultSet keys = eventStmt.getGeneratedKeys();
-            if (!keys.next()) {
-                conn.rollback();
-                showAlert("Database Error", "Failed to get event ID.");
-                return;
-            }
-            int eventID = keys.getInt(1);
-            
-            String sessionSQL = "INSERT INTO Session (eventID, title, description, location, startTime, endTime) VALUES (?, ?, ?, ?, ?, ?)";
-            PreparedStatement sessionStmt = conn.prepareStatement(sessionSQL);
-            
+        List<Session> sessions = new ArrayList<>();
+        try {
             for (SessionForm sf : sessionForms) {
-                sessionStmt.setInt(1, eventID);
-                sessionStmt.setString(2, sf.getTitle());
-                sessionStmt.setString(3, sf.getDescription());
-                sessionStmt.setString(4, sf.getLocation());
-                Time startTime = Time.valueOf(LocalTime.parse(sf.getStartTime(), timeFormatter));
-                Time endTime = Time.valueOf(LocalTime.parse(sf.getEndTime(), timeFormatter));
-                sessionStmt.setTime(5, startTime);
-                sessionStmt.setTime(6, endTime);
-                sessionStmt.addBatch();
+                LocalDateTime startTime = sf.getDate().atTime(LocalTime.parse(sf.getStartTime(), timeFormatter));
+                LocalDateTime endTime = sf.getDate().atTime(LocalTime.parse(sf.getEndTime(), timeFormatter));
+                if (sf.getDate().isBefore(eventStartDate) || sf.getDate().isAfter(eventEndDate)) {
+                    showAlert("Validation Error", "Session #" + sf.getSessionNumber() + " must be within the event's dates.");
+                    return;
+                }
+                if (!endTime.isAfter(startTime)) {
+                    showAlert("Validation Error", "Session #" + sf.getSessionNumber() + " must end after it starts.");
+                    return;
+                }
+                sessions.add(new Session(-1, -1, sf.getTitle(), sf.getDescription(), sf.getLocation(),
+                        DateFormats.sessionTime(startTime), DateFormats.sessionTime(endTime), sf.getSpeakerID()));
             }
-            sessionStmt.executeBatch();
-            
-            String notifSQL = "INSERT INTO Notification (name, title, message, createdAt, isRead, notificationType, userID) VALUES (?, ?, ?, GETDATE(), 0, ?, ?)";
-            PreparedStatement notifStmt = conn.prepareStatement(notifSQL);
-            notifStmt.setString(1, "Event Created");
-            notifStmt.setString(2, "New Event: " + eventName);
-            notifStmt.setString(3, "You have successfully created the event \"" + eventName + "\" with " + sessionForms.size() + " sessions.");
-            notifStmt.setString(4, "Organizer");
-            notifStmt.setInt(5, organizerID);
-            notifStmt.executeUpdate();
-            
-            conn.commit();
-            showAlert("Success", "Event and sessions created successfully!");
-            
-            // Return to dashboard using the callback or fallback
-            handleBackToDashboard();
-            
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            showAlert("Database Error", "Error saving event and sessions: " + ex.getMessage());
         } catch (Exception ex) {
             ex.printStackTrace();
             showAlert("Error", "Invalid time format. Please use HH:mm.");
+            return;
         }
+        
+        // Event, sessions and the organizer's notification are saved in one transaction, after
+        // the sessions are checked against every other session in the same rooms or with the same speakers
+        Event event = new Event(0, eventName, eventStartDate, eventEndDate,
+                eventDescription, eventLocation, organizerID, capacity);
+        submitButton.setDisable(true);
+        tasks.run(() -> eventRepository.create(event, sessions), eventID -> {
+            showAlert("Success", "Event and sessions created successfully!");
+            
+            // Return to dashboard using the callback or fallback
+            handleBackToDashboard();
+        }, ex -> {
+            submitButton.setDisable(false);
+            if (ex instanceof SessionConflictException) {
+                showAlert("Schedule Conflict", "Nothing was saved. " + ex.getMessage());
+            } else {
+                ex.printStackTrace();
+                showAlert("Database Error", "Error saving event and sessions: " + ex.getMessage());
+            }
+        });
     }
     
     private void showAlert(String title, String message) {
@@ -560,8 +570,10 @@ public class CreateEventPage {
         private final TextField titleField = new TextField();
         private final TextArea descriptionArea = new TextArea();
         private final TextField locationField = new TextField();
+        private final DatePicker datePicker = new DatePicker(eventStartDatePicker.getValue());
         private final TextField startTimeField = new TextField();
         private final TextField endTimeField = new TextField();
+        private final ComboBox<User> speakerBox = speakerPicker.create(null);
         
         public SessionForm(int number) {
             this.sessionNumber = number;
@@ -573,6 +585,7 @@ public class CreateEventPage {
             styleTextField(titleField);
             styleTextArea(descriptionArea);
             styleTextField(locationField);
+            datePicker.setEditable(false);
             styleTextField(startTimeField);
             styleTextField(endTimeField);
         }
@@ -601,10 +614,14 @@ public class CreateEventPage {
             grid.add(descriptionArea, 1, 1);
             grid.add(createFormLabel("Location:"), 0, 2);
             grid.add(locationField, 1, 2);
-            grid.add(createFormLabel("Start Time (HH:mm):"), 0, 3);
-            grid.add(startTimeField, 1, 3);
-            grid.add(createFormLabel("End Time (HH:mm):"), 0, 4);
-            grid.add(endTimeField, 1, 4);
+            grid.add(createFormLabel("Date:"), 0, 3);
+            grid.add(datePicker, 1, 3);
+            grid.add(createFormLabel("Start Time (HH:mm):"), 0, 4);
+            grid.add(startTimeField, 1, 4);
+            grid.add(createFormLabel("End Time (HH:mm):"), 0, 5);
+            grid.add(endTimeField, 1, 5);
+            grid.add(createFormLabel("Speaker:"), 0, 6);
+            grid.add(speakerBox, 1, 6);
             
             // Make the text field column expandable
             ColumnConstraints col1 = new ColumnConstraints();
@@ -620,6 +637,7 @@ public class CreateEventPage {
             return !titleField.getText().isEmpty() &&
                    !descriptionArea.getText().isEmpty() &&
                    !locationField.getText().isEmpty() &&
+                   datePicker.getValue() != null &&
                    !startTimeField.getText().isEmpty() &&
                    !endTimeField.getText().isEmpty();
         }
@@ -627,8 +645,10 @@ public class CreateEventPage {
         public String getTitle() { return titleField.getText(); }
         public String getDescription() { return descriptionArea.getText(); }
         public String getLocation() { return locationField.getText(); }
+        public LocalDate getDate() { return datePicker.getValue(); }
         public String getStartTime() { return startTimeField.getText(); }
         public String getEndTime() { return endTimeField.getText(); }
+        public Integer getSpeakerID() { return SpeakerPicker.speakerID(speakerBox); }
         public int getSessionNumber() { return sessionNumber; }
     }
 }
\ No newline at end of file
@@ -1,15 +1,22 @@
 package ui;
 
-import db.DBConnection;
+import db.EventRepository;
+import db.SessionConflictException;
+import db.SessionRepository;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import models.DateFormats;
+import models.Event;
+import models.Session;
+import models.User;
 
-import java.sql.*;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
@@ -24,10 +31,17 @@ public class EditEventPage {
     private static final String DANGER_COLOR = "#F44336";
     
     private static final DateTimeFormatter DATETIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final EventRepository eventRepository = new EventRepository();
+    private final SessionRepository sessionRepository = new SessionRepository();
+    private SpeakerPicker speakerPicker;
+    private PageTasks tasks; // Background loads and the save for this window
+    private Button saveBtn; // Enabled once the existing sessions are loaded
     
-    public void show(Stage owner, MyEventsPage.Event event, Runnable onUpdate) {
+    public void show(Stage owner, Event event, Runnable onUpdate) {
         Stage stage = new Stage();
         stage.setTitle("Eventure - Edit Event");
+        tasks = new PageTasks(stage);
         
         // Main layout - simplified without navigation
         StackPane contentWrapper = new StackPane();
@@ -73,7 +87,7 @@ public class EditEventPage {
         return headerSection;
     }
     
-    private VBox createFormSection(MyEventsPage.Event event, Runnable onUpdate, Stage stage) {
+    private VBox createFormSection(Event event, Runnable onUpdate, Stage stage) {
         VBox formSection = new VBox(20);
         
         // Main form container with blue background
@@ -97,7 +111,7 @@ public class EditEventPage {
         return formSection;
     }
     
-    private VBox createEventDetailsSection(MyEventsPage.Event event) {
+    private VBox createEventDetailsSection(Event event) {
         VBox section = new VBox(15);
         section.setPadding(new Insets(20));
         section.setStyle("-fx-background-color: " + WHITE_COLOR + ";" +
@@ -123,14 +137,14 @@ public class EditEventPage {
         // Start Date
         Label startLabel = new Label("Start Date:");
         startLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: " + DARK_TEXT + ";");
-        DatePicker startDatePicker = new DatePicker(LocalDate.parse(event.getStartDate()));
+        DatePicker startDatePicker = new DatePicker(event.getStartDate());
         startDatePicker.setStyle("-fx-padding: 8px; -fx-font-size: 14px;");
         startDatePicker.setPrefWidth(300);
         
         // End Date
         Label endLabel = new Label("End Date:");
         endLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: " + DARK_TEXT + ";");
-        DatePicker endDatePicker = new DatePicker(LocalDate.parse(event.getEndDate()));
+        DatePicker endDatePicker = new DatePicker(event.getEndDate());
         endDatePicker.setStyle("-fx-padding: 8px; -fx-font-size: 14px;");
         endDatePicker.setPrefWidth(300);
         
@@ -150,7 +164,7 @@ public class EditEventPage {
         return section;
     }
     
-    private VBox createSessionsSection(MyEventsPage.Event event) {
+    private VBox createSessionsSection(Event event) {
         VBox section = new VBox(15);
         section.setPadding(new Insets(20));
         section.setStyle("-fx-background-color: " + WHITE_COLOR + ";" +
@@ -185,34 +199,33 @@ public class EditEventPage {
         sessionBox.setId("sessionBox");
         List<SessionRow> sessionRows = new ArrayList<>();
         
-        // Load sessions with all details
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT sessionID, title, startTime, endTime, location, description FROM Session WHERE eventID = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, event.getEventID());
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                int sessionID = rs.getInt("sessionID");
-                String title = rs.getString("title");
-                String startTime = rs.getString("startTime");
-                String endTime = rs.getString("endTime");
-                String location = rs.getString("location");
-                String description = rs.getString("description");
-                
-                SessionRow row = new SessionRow(sessionID, title, startTime, endTime, location, description);
+        // Load sessions with all details; adding and saving wait for them
+        addSessionBtn.setDisable(true);
+        speakerPicker = new SpeakerPicker(tasks);
+        Label loadingLabel = PageTasks.loadingPlaceholder("Loading sessions...");
+        sessionBox.getChildren().add(loadingLabel);
+        tasks.run(() -> sessionRepository.findByEvent(event.getEventID()), sessions -> {
+            sessionBox.getChildren().remove(loadingLabel);
+            for (Session session : sessions) {
+                SessionRow row = new SessionRow(session.getSessionID(), session.getTitle(), session.getStartTime(),
+                        session.getEndTime(), session.getLocation(), session.getDescription(),
+                        speakerPicker.create(session.getSpeakerID()));
                 sessionBox.getChildren().add(row.getLayout());
                 sessionRows.add(row);
             }
-        } catch (SQLException e) {
+            addSessionBtn.setDisable(false);
+            saveBtn.setDisable(false);
+        }, e -> {
             e.printStackTrace();
-        }
+            loadingLabel.setText("Error loading sessions. Close and reopen to edit them.");
+            showStyledAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load sessions: " + e.getMessage());
+        });
         
         // Store reference for later use
         sessionBox.setUserData(sessionRows);
         
         addSessionBtn.setOnAction(e -> {
-            SessionRow newRow = new SessionRow(-1, "", "", "", "", "");
+            SessionRow newRow = new SessionRow(-1, "", "", "", "", "", speakerPicker.create(null));
             sessionBox.getChildren().add(newRow.getLayout());
             sessionRows.add(newRow);
         });
@@ -227,7 +240,7 @@ public class EditEventPage {
     }
     
     @SuppressWarnings("unchecked")
-    private HBox createButtonSection(MyEventsPage.Event event, Runnable onUpdate, Stage stage, 
+    private HBox createButtonSection(Event event, Runnable onUpdate, Stage stage, 
                                    VBox eventDetailsSection, VBox sessionsSection) {
         HBox buttonBox = new HBox(15);
         buttonBox.setAlignment(Pos.CENTER_RIGHT);
@@ -245,7 +258,8 @@ public class EditEventPage {
         );
         cancelBtn.setOnAction(e -> stage.close());
         
-        Button saveBtn = new Button("Save All Changes");
+        saveBtn = new Button("Save All Changes");
+        saveBtn.setDisable(true);
         saveBtn.setStyle(
             "-fx-background-color: " + SUCCESS_COLOR + ";" +
             "-fx-text-fill: white;" +
@@ -281,57 +295,47 @@ public class EditEventPage {
                 return;
             }
             
-            try (Connection conn = DBConnection.getConnection()) {
-                conn.setAutoCommit(false);
-                
-                // Update event info
-                String updateEvent = "UPDATE Event SET name = ?, startDate = ?, endDate = ? WHERE eventID = ?";
-                PreparedStatement stmt = conn.prepareStatement(updateEvent);
-                stmt.setString(1, newName);
-                stmt.setString(2, newStartDate.toString());
-                stmt.setString(3, newEndDate.toString());
-                stmt.setInt(4, event.getEventID());
-                stmt.executeUpdate();
-                
-                // Update/Insert sessions
-                for (SessionRow row : sessionRows) {
-                    if (row.getTitle().isBlank()) continue;
-                    
-                    if (row.getSessionID() == -1) {
-                        // New session insert
-                        String insertSql = "INSERT INTO Session (title, startTime, endTime, location, description, eventID) VALUES (?, ?, ?, ?, ?, ?)";
-                        PreparedStatement insertStmt = conn.prepareStatement(insertSql);
-                        insertStmt.setString(1, row.getTitle());
-                        insertStmt.setString(2, row.getStartTime());
-                        insertStmt.setString(3, row.getEndTime());
-                        insertStmt.setString(4, row.getLocation());
-                        insertStmt.setString(5, row.getDescription());
-                        insertStmt.setInt(6, event.getEventID());
-                        insertStmt.executeUpdate();
-                    } else {
-                        // Update existing session
-                        String updateSql = "UPDATE Session SET title = ?, startTime = ?, endTime = ?, location = ?, description = ? WHERE sessionID = ?";
-                        PreparedStatement updateStmt = conn.prepareStatement(updateSql);
-                        updateStmt.setString(1, row.getTitle());
-                        updateStmt.setString(2, row.getStartTime());
-                        updateStmt.setString(3, row.getEndTime());
-                        updateStmt.setString(4, row.getLocation());
-                        updateStmt.setString(5, row.getDescription());
-                        updateStmt.setInt(6, row.getSessionID());
-                        updateStmt.executeUpdate();
-                    }
+            List<Session> sessions = new ArrayList<>();
+            for (SessionRow row : sessionRows) {
+                if (row.getTitle().isBlank()) continue;
+                LocalDateTime start = DateFormats.parseSessionTime(row.getStartTime());
+                LocalDateTime end = DateFormats.parseSessionTime(row.getEndTime());
+                if (start == null || end == null) {
+                    showStyledAlert(Alert.AlertType.ERROR, "Validation Error",
+                            "Session \"" + row.getTitle() + "\" needs start and end times as yyyy-MM-dd HH:mm.");
+                    return;
                 }
-                
-                conn.commit();
-                
+                if (!end.isAfter(start)) {
+                    showStyledAlert(Alert.AlertType.ERROR, "Validation Error",
+                            "Session \"" + row.getTitle() + "\" must end after it starts.");
+                    return;
+                }
+                if (Duration.between(start, end).compareTo(EventRepository.MAX_SESSION_LENGTH) > 0) {
+                    showStyledAlert(Alert.AlertType.ERROR, "Validation Error", "Session \"" + row.getTitle()
+                            + "\" cannot run longer than " + EventRepository.MAX_SESSION_LENGTH.toHours() + " hours.");
+                    return;
+                }
+                sessions.add(new Session(row.getSessionID(), event.getEventID(), row.getTitle(), row.getDescription(),
+                        row.getLocation(), row.getStartTime(), row.getEndTime(), row.getSpeakerID()));
+            }
+            
+            // Event info and new/changed sessions are saved in one transaction, after they
+            // are checked against every other session in the same rooms or with the same speakers
+            saveBtn.setDisable(true);
+            tasks.runUpdate(() -> eventRepository.updateSchedule(event.getEventID(), newName, newStartDate,
+                    newEndDate, sessions), () -> {
                 showStyledAlert(Alert.AlertType.INFORMATION, "Success", "Event updated successfully!");
                 stage.close();
                 if (onUpdate != null) onUpdate.run();
-                
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-                showStyledAlert(Alert.AlertType.ERROR, "Database Error", "Failed to save changes: " + ex.getMessage());
-            }
+            }, ex -> {
+                saveBtn.setDisable(false);
+                if (ex instanceof SessionConflictException) {
+                    showStyledAlert(Alert.AlertType.ERROR, "Schedule Conflict", "Nothing was saved. " + ex.getMessage());
+                } else {
+                    ex.printStackTrace();
+                    showStyledAlert(Alert.AlertType.ERROR, "Database Error", "Failed to save changes: " + ex.getMessage());
+                }
+            });
         });
         
         buttonBox.getChildren().addAll(cancelBtn, saveBtn);
@@ -358,14 +362,17 @@ public class EditEventPage {
         private final TextField endTimeField;
         private final TextField locationField;
         private final TextArea descriptionArea;
+        private final ComboBox<User> speakerBox;
         
-        public SessionRow(int sessionID, String title, String startTime, String endTime, String location, String description) {
+        public SessionRow(int sessionID, String title, String startTime, String endTime, String location, String description,
+                          ComboBox<User> speakerBox) {
             this.sessionID = sessionID;
             this.titleField = new TextField(title);
-            this.startTimeField = new TextField(startTime);
-            this.endTimeField = new TextField(endTime);
+            this.startTimeField = new TextField(editableTime(startTime));
+            this.endTimeField = new TextField(editableTime(endTime));
             this.locationField = new TextField(location);
             this.descriptionArea = new TextArea(description);
+            this.speakerBox = speakerBox;
             
             // Style the fields
             String fieldStyle = "-fx-padding: 8px; -fx-font-size: 12px; -fx-background-radius: 5px;";
@@ -379,6 +386,12 @@ public class EditEventPage {
             descriptionArea.setWrapText(true);
         }
         
+        // Stored times read back as "yyyy-MM-dd HH:mm:ss.0"; show them the way they are typed
+        private static String editableTime(String stored) {
+            LocalDateTime time = DateFormats.parseSessionTime(stored);
+            return time == null ? stored : DateFormats.sessionTime(time);
+        }
+        
         public int getSessionID() {
             return sessionID;
         }
@@ -403,6 +416,10 @@ public class EditEventPage {
             return descriptionArea.getText().trim();
         }
         
+        public Integer getSpeakerID() {
+            return SpeakerPicker.speakerID(speakerBox);
+        }
+        
         public VBox getLayout() {
             VBox box = new VBox(10);
             box.setPadding(new Insets(15));
@@ -439,10 +456,15 @@ public class EditEventPage {
             grid.add(locationLabel, 0, 3);
             grid.add(locationField, 1, 3);
             
+            Label speakerLabel = new Label("Speaker:");
+            speakerLabel.setStyle(labelStyle);
+            grid.add(speakerLabel, 0, 4);
+            grid.add(speakerBox, 1, 4);
+            
             Label descLabel = new Label("Description:");
             descLabel.setStyle(labelStyle);
-            grid.add(descLabel, 0, 4);
-            grid.add(descriptionArea, 1, 4);
+            grid.add(descLabel, 0, 5);
+            grid.add(descriptionArea, 1, 5);
             
             box.getChildren().add(grid);
             return box;
@@ -1,13 +1,20 @@
 package ui;
 
-import db.DBConnection;
+import db.EventRepository;
+import db.SessionConflictException;
+import db.SessionRepository;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
-import java.sql.*;
+import models.DateFormats;
+import models.Session;
+import models.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
 
 public class EditSessionPage {
     // UI color constants matching EditEventPage
@@ -16,9 +23,18 @@ public class EditSessionPage {
     private static final String DARK_TEXT = "#333333";
     private static final String SUCCESS_COLOR = "#4CAF50";
     
+    private final EventRepository eventRepository = new EventRepository();
+    private final SessionRepository sessionRepository = new SessionRepository();
+    private SpeakerPicker speakerPicker;
+    private PageTasks tasks; // Background loads and the save for this window
+    private Button saveBtn; // Enabled once the session is loaded
+    private Session loaded; // the session as read, for its eventID
+    
     public void show(Stage owner, int sessionID, Runnable onUpdate) {
         Stage stage = new Stage();
         stage.setTitle("Eventure - Edit Session");
+        tasks = new PageTasks(stage);
+        speakerPicker = new SpeakerPicker(tasks);
         
         // Main layout
         StackPane contentWrapper = new StackPane();
@@ -115,10 +131,8 @@ public class EditSessionPage {
         // Speaker
         Label speakerLabel = new Label("Speaker:");
         speakerLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: " + DARK_TEXT + ";");
-        TextField speakerField = new TextField();
-        speakerField.setStyle("-fx-padding: 8px; -fx-font-size: 14px; -fx-background-radius: 5px;");
-        speakerField.setPrefWidth(350);
-        speakerField.setId("speakerField");
+        ComboBox<User> speakerBox = speakerPicker.create(null);
+        speakerBox.setId("speakerBox");
         
         // Start Time
         Label startLabel = new Label("Start Time (yyyy-MM-dd HH:mm):");
@@ -159,7 +173,7 @@ public class EditSessionPage {
         grid.add(titleLabel, 0, 0);
         grid.add(titleField, 1, 0);
         grid.add(speakerLabel, 0, 1);
-        grid.add(speakerField, 1, 1);
+        grid.add(speakerBox, 1, 1);
         grid.add(startLabel, 0, 2);
         grid.add(startField, 1, 2);
         grid.add(endLabel, 0, 3);
@@ -190,7 +204,8 @@ public class EditSessionPage {
         );
         cancelBtn.setOnAction(e -> stage.close());
         
-        Button saveBtn = new Button("Save Changes");
+        saveBtn = new Button("Save Changes");
+        saveBtn.setDisable(true);
         saveBtn.setStyle(
             "-fx-background-color: " + SUCCESS_COLOR + ";" +
             "-fx-text-fill: white;" +
@@ -202,16 +217,21 @@ public class EditSessionPage {
         );
         
         saveBtn.setOnAction(e -> {
+            if (loaded == null) {
+                showStyledAlert(Alert.AlertType.ERROR, "Error", "Failed to update session. Session may not exist.");
+                return;
+            }
+            
             // Get form data
             TextField titleField = (TextField) sessionDetailsSection.lookup("#titleField");
-            TextField speakerField = (TextField) sessionDetailsSection.lookup("#speakerField");
+            @SuppressWarnings("unchecked")
+            ComboBox<User> speakerBox = (ComboBox<User>) sessionDetailsSection.lookup("#speakerBox");
             TextField startField = (TextField) sessionDetailsSection.lookup("#startField");
             TextField endField = (TextField) sessionDetailsSection.lookup("#endField");
             TextField locationField = (TextField) sessionDetailsSection.lookup("#locationField");
             TextArea descriptionArea = (TextArea) sessionDetailsSection.lookup("#descriptionArea");
             
             String title = titleField.getText().trim();
-            String speaker = speakerField.getText().trim();
             String startTime = startField.getText().trim();
             String endTime = endField.getText().trim();
             String location = locationField.getText().trim();
@@ -223,69 +243,90 @@ public class EditSessionPage {
                 return;
             }
             
-            if (startTime.isBlank() || endTime.isBlank()) {
-                showStyledAlert(Alert.AlertType.ERROR, "Validation Error", "Start and End time must be provided.");
+            LocalDateTime start = DateFormats.parseSessionTime(startTime);
+            LocalDateTime end = DateFormats.parseSessionTime(endTime);
+            if (start == null || end == null) {
+                showStyledAlert(Alert.AlertType.ERROR, "Validation Error",
+                        "Start and End time must be provided as yyyy-MM-dd HH:mm.");
+                return;
+            }
+            if (!end.isAfter(start)) {
+                showStyledAlert(Alert.AlertType.ERROR, "Validation Error", "The session must end after it starts.");
+                return;
+            }
+            if (Duration.between(start, end).compareTo(EventRepository.MAX_SESSION_LENGTH) > 0) {
+                showStyledAlert(Alert.AlertType.ERROR, "Validation Error", "The session cannot run longer than "
+                        + EventRepository.MAX_SESSION_LENGTH.toHours() + " hours.");
                 return;
             }
             
-            // Update session in database
-            try (Connection conn = DBConnection.getConnection()) {
-                String sql = "UPDATE Session SET title = ?, speaker = ?, startTime = ?, endTime = ?, location = ?, description = ? WHERE sessionID = ?";
-                PreparedStatement stmt = conn.prepareStatement(sql);
-                stmt.setString(1, title);
-                stmt.setString(2, speaker);
-                stmt.setString(3, startTime);
-                stmt.setString(4, endTime);
-                stmt.setString(5, location);
-                stmt.setString(6, description);
-                stmt.setInt(7, sessionID);
-                
-                int rowsAffected = stmt.executeUpdate();
-                
-                if (rowsAffected > 0) {
+            // Checked against every other session in the same room or with the same speaker
+            // before it is saved
+            Session edited = new Session(sessionID, loaded.getEventID(), title,
+                    description, location, startTime, endTime, SpeakerPicker.speakerID(speakerBox));
+            saveBtn.setDisable(true);
+            tasks.run(() -> eventRepository.updateSession(edited), updated -> {
+                saveBtn.setDisable(false);
+                if (updated) {
                     showStyledAlert(Alert.AlertType.INFORMATION, "Success", "Session updated successfully!");
                     stage.close();
                     if (onUpdate != null) onUpdate.run();
                 } else {
                     showStyledAlert(Alert.AlertType.ERROR, "Error", "Failed to update session. Session may not exist.");
                 }
-                
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-                showStyledAlert(Alert.AlertType.ERROR, "Database Error", "Failed to save changes: " + ex.getMessage());
-            }
+            }, ex -> {
+                saveBtn.setDisable(false);
+                if (ex instanceof SessionConflictException) {
+                    showStyledAlert(Alert.AlertType.ERROR, "Schedule Conflict", "Nothing was saved. " + ex.getMessage());
+                } else {
+                    ex.printStackTrace();
+                    showStyledAlert(Alert.AlertType.ERROR, "Database Error", "Failed to save changes: " + ex.getMessage());
+                }
+            });
         });
         
         buttonBox.getChildren().addAll(cancelBtn, saveBtn);
         return buttonBox;
     }
     
+    @SuppressWarnings("unchecked")
     private void loadSessionData(int sessionID, VBox sessionDetailsSection) {
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT title, speaker, startTime, endTime, location, description FROM Session WHERE sessionID = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, sessionID);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                TextField titleField = (TextField) sessionDetailsSection.lookup("#titleField");
-                TextField speakerField = (TextField) sessionDetailsSection.lookup("#speakerField");
+        TextField titleField = (TextField) sessionDetailsSection.lookup("#titleField");
+        titleField.setPromptText("Loading...");
+        tasks.run(() -> sessionRepository.findById(sessionID), session -> {
+            titleField.setPromptText(null);
+            if (session.isPresent()) {
+                loaded = session.get();
+                ComboBox<User> speakerBox = (ComboBox<User>) sessionDetailsSection.lookup("#speakerBox");
                 TextField startField = (TextField) sessionDetailsSection.lookup("#startField");
                 TextField endField = (TextField) sessionDetailsSection.lookup("#endField");
                 TextField locationField = (TextField) sessionDetailsSection.lookup("#locationField");
                 TextArea descriptionArea = (TextArea) sessionDetailsSection.lookup("#descriptionArea");
                 
-                titleField.setText(rs.getString("title") != null ? rs.getString("title") : "");
-                speakerField.setText(rs.getString("speaker") != null ? rs.getString("speaker") : "");
-                startField.setText(rs.getString("startTime") != null ? rs.getString("startTime") : "");
-                endField.setText(rs.getString("endTime") != null ? rs.getString("endTime") : "");
-                locationField.setText(rs.getString("location") != null ? rs.getString("location") : "");
-                descriptionArea.setText(rs.getString("description") != null ? rs.getString("description") : "");
+                titleField.setText(loaded.getTitle() != null ? loaded.getTitle() : "");
+                speakerPicker.select(speakerBox, loaded.getSpeakerID());
+                startField.setText(editableTime(loaded.getStartTime()));
+                endField.setText(editableTime(loaded.getEndTime()));
+                locationField.setText(loaded.getLocation() != null ? loaded.getLocation() : "");
+                descriptionArea.setText(loaded.getDescription() != null ? loaded.getDescription() : "");
+                saveBtn.setDisable(false);
+            } else {
+                showStyledAlert(Alert.AlertType.ERROR, "Error", "This session no longer exists.");
             }
-        } catch (SQLException e) {
+        }, e -> {
             e.printStackTrace();
+            titleField.setPromptText(null);
             showStyledAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load session data: " + e.getMessage());
+        });
+    }
+    
+    // Stored times read back as "yyyy-MM-dd HH:mm:ss.0"; show them the way they are typed
+    private static String editableTime(String stored) {
+        if (stored == null) {
+            return "";
         }
+        LocalDateTime time = DateFormats.parseSessionTime(stored);
+        return time == null ? stored : DateFormats.sessionTime(time);
     }
     
     private void showStyledAlert(Alert.AlertType type, String title, String content) {
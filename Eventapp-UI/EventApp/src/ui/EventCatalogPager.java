@@ -0,0 +1,231 @@
+package ui;
+
+import db.EventRepository;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableRow;
+import javafx.scene.control.TableView;
+import models.Event;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+// Feeds a TableView the newest-first event catalog one keyset page at a time. The next
+// page is fetched when a row near the bottom is rendered and the previous one when a row
+// near the top is, so the table only ever holds MAX_PAGES pages however far the user scrolls.
+// The TableView itself already only creates cells for the visible rows. refresh() merges
+// the events changed since the window was loaded into it instead of starting over.
+// The cursors and the trimming read the first and last rows as the newest and oldest
+// loaded events, so the table's columns must be in place before the pager is made, and
+// the pager turns their sorting off.
+class EventCatalogPager {
+
+    private static final int MAX_PAGES = 5;
+    private static final int PREFETCH_ROWS = 20;
+    private static final Comparator<Event> NEWEST_FIRST = Comparator.comparingInt(Event::getEventID).reversed();
+
+    private final TableView<Event> table;
+    private final PageTasks tasks;
+    private final EventRepository eventRepository;
+    private final IntConsumer onCountEstimate;
+
+    private final Deque<Integer> pageSizes = new ArrayDeque<>(); // rows per page in the window, top first
+    private boolean loading;
+    private boolean reachedOldest;
+    private boolean reachedNewest = true;
+    private int generation; // bumped by reload() so late pages of an earlier load are dropped
+    private long version = -1; // change version the window is current as of, -1 while unknown
+
+    EventCatalogPager(TableView<Event> table, PageTasks tasks, EventRepository eventRepository,
+                      IntConsumer onCountEstimate) {
+        this.table = table;
+        this.tasks = tasks;
+        this.eventRepository = eventRepository;
+        this.onCountEstimate = onCountEstimate;
+        table.getSortOrder().clear();
+        for (TableColumn<Event, ?> column : table.getColumns()) {
+            column.setSortable(false);
+        }
+        table.setRowFactory(t -> new TableRow<>() {
+            @Override
+            public void updateIndex(int i) {
+                super.updateIndex(i);
+                if (i >= 0) {
+                    onRowShown(i);
+                }
+            }
+        });
+    }
+
+    void reload() {
+        generation++;
+        loading = false;
+        reachedOldest = false;
+        reachedNewest = true;
+        version = -1;
+        pageSizes.clear();
+        table.getItems().clear();
+        table.setPlaceholder(PageTasks.loadingPlaceholder("Loading events..."));
+        int expected = generation;
+        // Read before the first page so the next refresh covers anything that page misses
+        tasks.run(eventRepository::catalogVersion, v -> {
+            if (expected == generation) {
+                version = v;
+                loadOlder();
+            }
+        }, this::failed);
+        tasks.run(eventRepository::estimateCount, onCountEstimate::accept, Throwable::printStackTrace);
+    }
+
+    // Applies the events added, edited and deleted since the window was loaded, keeping the
+    // rows on screen and the selection. New events appear only when the window reaches the
+    // newest one. Falls back to reload() after showResults() or when the delta is too old.
+    void refresh() {
+        if (version < 0) {
+            reload();
+            return;
+        }
+        int expected = generation;
+        long since = version;
+        tasks.run(() -> eventRepository.changesSince(since), changes -> {
+            if (expected != generation) {
+                return;
+            }
+            if (changes.isFull()) {
+                reload();
+                return;
+            }
+            version = changes.getVersion();
+            if (!changes.isEmpty()) {
+                List<Event> items = table.getItems();
+                int newest = items.isEmpty() ? Integer.MIN_VALUE : items.get(0).getEventID();
+                int oldest = items.isEmpty() ? Integer.MAX_VALUE : items.get(items.size() - 1).getEventID();
+                ListMerge.merge(table, changes, Event::getEventID,
+                        e -> (reachedNewest || e.getEventID() <= newest) && (reachedOldest || e.getEventID() >= oldest),
+                        NEWEST_FIRST);
+                repage();
+                tasks.run(eventRepository::estimateCount, onCountEstimate::accept, Throwable::printStackTrace);
+            }
+        }, this::failed);
+    }
+
+    // Replaces the window with search results; scrolling loads no pages until reload()
+    void showResults(List<Event> results) {
+        generation++;
+        loading = false;
+        reachedOldest = true;
+        reachedNewest = true;
+        pageSizes.clear();
+        version = -1;
+        table.getItems().setAll(results);
+        table.setPlaceholder(new Label("No matching events."));
+    }
+
+    // A merge moved rows between pages; split the window into whole pages again so trimming
+    // still removes exactly the rows of one page
+    private void repage() {
+        pageSizes.clear();
+        for (int left = table.getItems().size(); left > 0; left -= EventRepository.PAGE_SIZE) {
+            pageSizes.addLast(Math.min(left, EventRepository.PAGE_SIZE));
+        }
+    }
+
+    private void onRowShown(int index) {
+        int size = table.getItems().size();
+        if (index >= size - PREFETCH_ROWS) {
+            loadOlder();
+        } else if (index < PREFETCH_ROWS) {
+            loadNewer();
+        }
+    }
+
+    private void loadOlder() {
+        if (loading || reachedOldest) {
+            return;
+        }
+        List<Event> items = table.getItems();
+        int cursor = items.isEmpty() ? Integer.MAX_VALUE : items.get(items.size() - 1).getEventID();
+        int expected = generation;
+        loading = true;
+        tasks.run(() -> eventRepository.findPageOlderThan(cursor), page -> {
+            if (expected != generation) {
+                return;
+            }
+            loading = false;
+            reachedOldest = page.size() < EventRepository.PAGE_SIZE;
+            if (!page.isEmpty()) {
+                int firstVisible = firstVisibleIndex();
+                table.getItems().addAll(page);
+                pageSizes.addLast(page.size());
+                if (pageSizes.size() > MAX_PAGES) {
+                    int rows = pageSizes.removeFirst();
+                    table.getItems().remove(0, rows);
+                    reachedNewest = false;
+                    scrollTo(firstVisible - rows);
+                }
+            }
+            table.setPlaceholder(new Label("No events available."));
+        }, this::failed);
+    }
+
+    private void loadNewer() {
+        if (loading || reachedNewest || table.getItems().isEmpty()) {
+            return;
+        }
+        int cursor = table.getItems().get(0).getEventID();
+        int expected = generation;
+        loading = true;
+        tasks.run(() -> eventRepository.findPageNewerThan(cursor), page -> {
+            if (expected != generation) {
+                return;
+            }
+            loading = false;
+            reachedNewest = page.size() < EventRepository.PAGE_SIZE;
+            if (!page.isEmpty()) {
+                int firstVisible = firstVisibleIndex();
+                table.getItems().addAll(0, page);
+                pageSizes.addFirst(page.size());
+                if (pageSizes.size() > MAX_PAGES) {
+                    int rows = pageSizes.removeLast();
+                    int size = table.getItems().size();
+                    table.getItems().remove(size - rows, size);
+                    reachedOldest = false;
+                }
+                scrollTo(firstVisible + page.size());
+            }
+        }, this::failed);
+    }
+
+    // Rows were added or removed above the viewport: keep the same rows on screen
+    private void scrollTo(int index) {
+        if (index >= 0) {
+            table.scrollTo(index);
+        }
+    }
+
+    // Index of the topmost row on screen, -1 before the table has been laid out
+    private int firstVisibleIndex() {
+        double top = table.localToScene(0, 0).getY();
+        int first = -1;
+        for (Node node : table.lookupAll(".table-row-cell")) {
+            if (node instanceof TableRow && node.isVisible()) {
+                TableRow<?> row = (TableRow<?>) node;
+                if (row.getIndex() >= 0 && row.getItem() != null && row.localToScene(0, 0).getY() >= top
+                        && (first < 0 || row.getIndex() < first)) {
+                    first = row.getIndex();
+                }
+            }
+        }
+        return first;
+    }
+
+    private void failed(Throwable e) {
+        loading = false;
+        e.printStackTrace();
+        table.setPlaceholder(new Label("Error loading events."));
+    }
+}
@@ -0,0 +1,56 @@
+package ui;
+
+import models.Event;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// A user's registered events by epoch day, built once when the events load so date
+// cells and day filters are hash lookups. A multi-day event is listed on every day it
+// spans, up to MAX_SPAN_DAYS so one mistyped end date cannot blow the index up.
+final class EventDayIndex {
+
+    static final EventDayIndex EMPTY = new EventDayIndex(Collections.emptyMap());
+
+    private static final int MAX_SPAN_DAYS = 366;
+
+    private final Map<Long, List<Event>> byDay;
+
+    private EventDayIndex(Map<Long, List<Event>> byDay) {
+        this.byDay = byDay;
+    }
+
+    // Events keep the order of the list on each day
+    static EventDayIndex of(List<Event> events) {
+        Map<Long, List<Event>> byDay = new HashMap<>();
+        for (Event event : events) {
+            LocalDate start = event.getStartDate();
+            if (start == null) {
+                continue;
+            }
+            LocalDate end = event.getEndDate();
+            long first = start.toEpochDay();
+            long last = end == null || end.isBefore(start) ? first
+                    : Math.min(end.toEpochDay(), first + MAX_SPAN_DAYS);
+            for (long day = first; day <= last; day++) {
+                byDay.computeIfAbsent(day, d -> new ArrayList<>(1)).add(event);
+            }
+        }
+        return new EventDayIndex(byDay);
+    }
+
+    boolean hasEvents(LocalDate date) {
+        return date != null && byDay.containsKey(date.toEpochDay());
+    }
+
+    List<Event> eventsOn(LocalDate date) {
+        if (date == null) {
+            return Collections.emptyList();
+        }
+        return byDay.getOrDefault(date.toEpochDay(), Collections.emptyList());
+    }
+}
@@ -1,6 +1,6 @@
 package ui;
 
-import db.DBConnection;
+import db.EventRepository;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -8,44 +8,42 @@ import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
+import java.time.LocalDate;
 
 public class EventDetailsPage {
 
+    private final EventRepository eventRepository = new EventRepository();
+    private PageTasks tasks;
+
     public void show(Stage stage, int eventID) {
+        tasks = new PageTasks(stage);
+
         // Title
         Label title = new Label("Event Details");
         title.setStyle("-fx-font-size: 18px; -fx-font-weight: bold;");
 
         // Event details labels
-        Label nameLabel = new Label("Event Name:");
+        Label nameLabel = new Label("Event Name: Loading...");
         Label descriptionLabel = new Label("Event Description:");
         Label startDateLabel = new Label("Start Date:");
         Label endDateLabel = new Label("End Date:");
         Label locationLabel = new Label("Location:");
 
         // Fetch event details from the database
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT * FROM Event WHERE eventID = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, eventID);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
+        tasks.run(() -> eventRepository.findById(eventID), found -> {
+            nameLabel.setText("Event Name:");
+            found.ifPresent(event -> {
                 // Display current event details
-                nameLabel.setText("Event Name: " + rs.getString("name"));
-                descriptionLabel.setText("Event Description: " + rs.getString("description"));
-                startDateLabel.setText("Start Date: " + rs.getDate("startDate"));
-                endDateLabel.setText("End Date: " + rs.getDate("endDate"));
-                locationLabel.setText("Location: " + rs.getString("location"));
-            }
-
-        } catch (SQLException e) {
+                nameLabel.setText("Event Name: " + event.getEventName());
+                descriptionLabel.setText("Event Description: " + event.getDescription());
+                startDateLabel.setText("Start Date: " + event.getStartDate());
+                endDateLabel.setText("End Date: " + event.getEndDate());
+                locationLabel.setText("Location: " + event.getLocation());
+            });
+        }, e -> {
             e.printStackTrace();
-        }
+            nameLabel.setText("Event Name: (could not be loaded)");
+        });
 
         // Editable fields (Optional, if the organizer wants to update the event)
         TextField editName = new TextField();
@@ -65,8 +63,8 @@ public class EventDetailsPage {
         Button saveChangesButton = new Button("Save Changes");
         saveChangesButton.setOnAction(e -> {
             updateEvent(eventID, editName.getText(), editDescription.getText(),
-                    editStartDate.getValue().toString(), editEndDate.getValue().toString(),
-                    editLocation.getText());
+                    editStartDate.getValue(), editEndDate.getValue(),
+                    editLocation.getText(), saveChangesButton);
         });
 
         // Layout
@@ -82,23 +80,17 @@ public class EventDetailsPage {
     }
 
     // Method to update event details in the database
-    private void updateEvent(int eventID, String name, String description, String startDate, String endDate, String location) {
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "UPDATE Event SET name = ?, description = ?, startDate = ?, endDate = ?, location = ? WHERE eventID = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setString(1, name);
-            stmt.setString(2, description);
-            stmt.setString(3, startDate);
-            stmt.setString(4, endDate);
-            stmt.setString(5, location);
-            stmt.setInt(6, eventID);
-
-            int rowsUpdated = stmt.executeUpdate();
-            if (rowsUpdated > 0) {
+    private void updateEvent(int eventID, String name, String description, LocalDate startDate, LocalDate endDate,
+                             String location, Button saveChangesButton) {
+        saveChangesButton.setDisable(true);
+        tasks.run(() -> eventRepository.update(eventID, name, description, startDate, endDate, location), updated -> {
+            saveChangesButton.setDisable(false);
+            if (updated) {
                 System.out.println("Event updated successfully.");
             }
-        } catch (SQLException e) {
+        }, e -> {
+            saveChangesButton.setDisable(false);
             e.printStackTrace();
-        }
+        });
     }
 }
\ No newline at end of file
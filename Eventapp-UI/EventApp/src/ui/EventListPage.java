@@ -1,6 +1,8 @@
 package ui;
 
-import db.DBConnection;
+import db.EventFilter;
+import db.EventRepository;
+import db.FacetedEvents;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -11,9 +13,17 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.stage.Stage;
+import models.Event;
+import models.UserSession;
 
 import java.io.FileInputStream;
-import java.sql.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public class EventListPage {
     // UI color constants matching organizer dashboard
@@ -24,16 +34,38 @@ public class EventListPage {
     
     private boolean isMyEvents;
     private Stage currentStage;
+    private UserSession session;
     private int organizerID;
     private TableView<Event> eventTable;
+    private PageTasks tasks;
+    private CompletableFuture<?> pendingLoad;
+    private boolean showingUpcoming = true;
+    private TextField searchField;
+    
+    // Facet filters; counts come back with every load, no extra query per click
+    private static final int MAX_FACET_ITEMS = 15;
+    private Label tableLabel;
+    private DatePicker fromPicker;
+    private DatePicker toPicker;
+    private MenuButton monthMenu;
+    private MenuButton locationMenu;
+    private MenuButton organizerMenu;
+    private MenuButton availabilityMenu;
+    private final Set<String> selectedLocations = new LinkedHashSet<>();
+    private final Set<Integer> selectedOrganizers = new LinkedHashSet<>();
+    private EventFilter.Availability selectedAvailability = EventFilter.Availability.ANY;
+    private boolean settingDates; // picker changes made by code load once, not per picker
+    private final EventRepository eventRepository = new EventRepository();
 
     public EventListPage(boolean isMyEvents) {
         this.isMyEvents = isMyEvents;
     }
 
-    public void show(Stage stage, int organizerID) {
+    public void show(Stage stage, UserSession session) {
         this.currentStage = stage;
-        this.organizerID = organizerID;
+        this.session = session;
+        this.organizerID = session.getUserID();
+        this.tasks = new PageTasks(stage);
         
         // Main layout
         BorderPane mainLayout = new BorderPane();
@@ -62,12 +94,13 @@ public class EventListPage {
         
         // Toggle buttons section
         HBox toggleSection = createToggleSection();
+        HBox facetSection = createFacetSection();
         
         // Events table section
         VBox tableSection = createTableSection();
         VBox.setVgrow(tableSection, Priority.ALWAYS);
         
-        contentPane.getChildren().addAll(header, toggleSection, tableSection);
+        contentPane.getChildren().addAll(header, toggleSection, facetSection, tableSection);
         contentWrapper.getChildren().add(contentPane);
         mainLayout.setCenter(contentWrapper);
         
@@ -151,24 +184,24 @@ public class EventListPage {
         // Navigation Button Actions
         dashboardBtn.setOnAction(e -> {
             OrganizerDashboard dashboard = new OrganizerDashboard();
-            dashboard.show(currentStage, organizerID);
+            dashboard.show(currentStage, session);
         });
         
         eventsBtn.setOnAction(e -> {
             if (!isMyEvents) return; // Already on this page
             EventListPage eventsPage = new EventListPage(false);
-            eventsPage.show(currentStage, organizerID);
+            eventsPage.show(currentStage, session);
         });
         
         myEventsBtn.setOnAction(e -> {
             if (isMyEvents) return; // Already on this page
             OrganizerEventsPage page = new OrganizerEventsPage();
-            page.show(currentStage, organizerID);
+            page.show(currentStage, session);
         });
         
         createEventBtn.setOnAction(e -> {
             CreateEventPage page = new CreateEventPage();
-            page.show(new Stage(), organizerID);
+            page.show(new Stage(), session);
         });
         
         attendeesBtn.setOnAction(e -> {
@@ -189,12 +222,12 @@ public class EventListPage {
         
         notificationsBtn.setOnAction(e -> {
             OrganizerNotificationPage notifPage = new OrganizerNotificationPage();
-            notifPage.show(currentStage, organizerID);
+            notifPage.show(currentStage, session);
         });
         
         profileBtn.setOnAction(e -> {
             ProfilePage profilePage = new ProfilePage();
-            profilePage.show(currentStage, organizerID);
+            profilePage.show(currentStage, session);
         });
         
         switchAccountBtn.setOnAction(e -> {
@@ -276,10 +309,138 @@ public class EventListPage {
         upcomingBtn.setOnAction(e -> loadEvents(true));
         pastBtn.setOnAction(e -> loadEvents(false));
         
-        toggleSection.getChildren().addAll(filterLabel, upcomingBtn, pastBtn);
+        // Narrows the selected list to events matching every word typed
+        searchField = new TextField();
+        searchField.setPromptText("Search name, location, description...");
+        searchField.setPrefWidth(260);
+        searchField.textProperty().addListener((obs, oldText, text) -> loadEvents(showingUpcoming));
+        
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        
+        toggleSection.getChildren().addAll(filterLabel, upcomingBtn, pastBtn, spacer, searchField);
         return toggleSection;
     }
     
+    private HBox createFacetSection() {
+        HBox facetSection = new HBox(10);
+        facetSection.setAlignment(Pos.CENTER_LEFT);
+        
+        Label fromLabel = new Label("From:");
+        fromPicker = new DatePicker();
+        fromPicker.setPrefWidth(130);
+        Label toLabel = new Label("To:");
+        toPicker = new DatePicker();
+        toPicker.setPrefWidth(130);
+        fromPicker.setOnAction(e -> reloadUnlessSettingDates());
+        toPicker.setOnAction(e -> reloadUnlessSettingDates());
+        
+        monthMenu = new MenuButton("Month");
+        locationMenu = new MenuButton("Location");
+        organizerMenu = new MenuButton("Organizer");
+        availabilityMenu = new MenuButton("Availability");
+        // My Events is already one organizer's list
+        organizerMenu.setVisible(!isMyEvents);
+        organizerMenu.setManaged(!isMyEvents);
+        
+        Button clearBtn = new Button("Clear Filters");
+        styleActionButton(clearBtn);
+        clearBtn.setOnAction(e -> {
+            selectedLocations.clear();
+            selectedOrganizers.clear();
+            selectedAvailability = EventFilter.Availability.ANY;
+            setDates(null, null);
+        });
+        
+        facetSection.getChildren().addAll(fromLabel, fromPicker, toLabel, toPicker, monthMenu,
+                locationMenu, organizerMenu, availabilityMenu, clearBtn);
+        return facetSection;
+    }
+    
+    private void reloadUnlessSettingDates() {
+        if (!settingDates) {
+            loadEvents(showingUpcoming);
+        }
+    }
+    
+    private void setDates(LocalDate from, LocalDate to) {
+        settingDates = true;
+        fromPicker.setValue(from);
+        toPicker.setValue(to);
+        settingDates = false;
+        loadEvents(showingUpcoming);
+    }
+    
+    // Rebuilds the facet menus with the counts of the last load
+    private void showFacets(FacetedEvents faceted) {
+        // Months are counted without the date range; only offer those on the toggle's side of today
+        monthMenu.getItems().clear();
+        YearMonth thisMonth = YearMonth.now();
+        for (FacetedEvents.FacetCount<YearMonth> month : faceted.getMonths()) {
+            if (showingUpcoming ? month.getValue().isBefore(thisMonth) : month.getValue().isAfter(thisMonth)) {
+                continue;
+            }
+            MenuItem item = new MenuItem(month.getLabel() + " (" + month.getCount() + ")");
+            YearMonth value = month.getValue();
+            item.setOnAction(e -> setDates(value.atDay(1), value.atEndOfMonth()));
+            monthMenu.getItems().add(item);
+        }
+        
+        fillChecks(locationMenu, "Location", faceted.getLocations(), selectedLocations);
+        fillChecks(organizerMenu, "Organizer", faceted.getOrganizers(), selectedOrganizers);
+        
+        availabilityMenu.getItems().clear();
+        ToggleGroup group = new ToggleGroup();
+        int total = 0;
+        for (FacetedEvents.FacetCount<EventFilter.Availability> count : faceted.getAvailability()) {
+            total += count.getCount();
+        }
+        addAvailability(group, EventFilter.Availability.ANY, "Any (" + total + ")");
+        for (FacetedEvents.FacetCount<EventFilter.Availability> count : faceted.getAvailability()) {
+            addAvailability(group, count.getValue(), count.getLabel() + " (" + count.getCount() + ")");
+        }
+        availabilityMenu.setText(selectedAvailability == EventFilter.Availability.ANY ? "Availability"
+                : "Availability: " + (selectedAvailability == EventFilter.Availability.FULL ? "Full" : "Available"));
+    }
+    
+    private void addAvailability(ToggleGroup group, EventFilter.Availability value, String text) {
+        RadioMenuItem item = new RadioMenuItem(text);
+        item.setToggleGroup(group);
+        item.setSelected(value == selectedAvailability);
+        item.setOnAction(e -> {
+            selectedAvailability = value;
+            loadEvents(showingUpcoming);
+        });
+        availabilityMenu.getItems().add(item);
+    }
+    
+    // The values with the most events, plus any selected value that fell outside them
+    private <T> void fillChecks(MenuButton menu, String name, List<FacetedEvents.FacetCount<T>> counts,
+                                Set<T> selected) {
+        menu.getItems().clear();
+        List<FacetedEvents.FacetCount<T>> shown = new ArrayList<>();
+        for (FacetedEvents.FacetCount<T> count : counts) {
+            if (shown.size() < MAX_FACET_ITEMS || selected.contains(count.getValue())) {
+                shown.add(count);
+            }
+        }
+        for (FacetedEvents.FacetCount<T> count : shown) {
+            CheckMenuItem item = new CheckMenuItem(count.getLabel() + " (" + count.getCount() + ")");
+            item.setSelected(selected.contains(count.getValue()));
+            T value = count.getValue();
+            item.setOnAction(e -> {
+                if (item.isSelected()) {
+                    selected.add(value);
+                } else {
+                    selected.remove(value);
+                }
+                loadEvents(showingUpcoming);
+            });
+            menu.getItems().add(item);
+        }
+        menu.setText(selected.isEmpty() ? name : name + " (" + selected.size() + ")");
+    }
+    
     private VBox createTableSection() {
         VBox tableSection = new VBox(12);
         tableSection.setStyle(
@@ -288,7 +449,7 @@ public class EventListPage {
             "-fx-background-radius: 8px;"
         );
         
-        Label tableLabel = new Label("Events List");
+        tableLabel = new Label("Events List");
         tableLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px; -fx-text-fill: white;");
         
         // Events table
@@ -305,11 +466,11 @@ public class EventListPage {
         nameCol.setPrefWidth(300);
         
         TableColumn<Event, String> startCol = new TableColumn<>("Start Date");
-        startCol.setCellValueFactory(new javafx.scene.control.cell.PropertyValueFactory<>("startDate"));
+        startCol.setCellValueFactory(new javafx.scene.control.cell.PropertyValueFactory<>("startDateText"));
         startCol.setPrefWidth(150);
         
         TableColumn<Event, String> endCol = new TableColumn<>("End Date");
-        endCol.setCellValueFactory(new javafx.scene.control.cell.PropertyValueFactory<>("endDate"));
+        endCol.setCellValueFactory(new javafx.scene.control.cell.PropertyValueFactory<>("endDateText"));
         endCol.setPrefWidth(150);
         
         eventTable.getColumns().addAll(idCol, nameCol, startCol, endCol);
@@ -339,8 +500,7 @@ public class EventListPage {
         });
         
         refreshBtn.setOnAction(e -> {
-            // Determine which filter is currently selected
-            loadEvents(true); // You might want to track the current filter state
+            loadEvents(showingUpcoming);
         });
         
         buttonBox.getChildren().addAll(viewDetailsBtn, refreshBtn);
@@ -386,46 +546,51 @@ public class EventListPage {
     }
 
     private void loadEvents(boolean upcoming) {
-        eventTable.getItems().clear();
-        String sql = "SELECT eventID, name, startDate, endDate FROM Event WHERE ";
-
-        if (isMyEvents) {
-            sql += "organizerID = ? AND ";
+        showingUpcoming = upcoming;
+        String query = searchField.getText();
+        EventFilter filter = currentFilter(upcoming);
+        // The old rows stay until the new ones arrive, then only the rows that differ change
+        if (eventTable.getItems().isEmpty()) {
+            eventTable.setPlaceholder(PageTasks.loadingPlaceholder("Loading events..."));
         }
 
-        if (upcoming) {
-            sql += "startDate >= GETDATE()";
-        } else {
-            sql += "startDate < GETDATE()";
+        // Switching between upcoming and past, or typing on, drops whatever was still loading
+        if (pendingLoad != null) {
+            pendingLoad.cancel(true);
         }
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            if (isMyEvents) {
-                stmt.setInt(1, organizerID);
-            }
-
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                eventTable.getItems().add(new Event(
-                        rs.getInt("eventID"),
-                        rs.getString("name"),
-                        rs.getString("startDate"),
-                        rs.getString("endDate")
-                ));
-            }
+        pendingLoad = tasks.run(() -> eventRepository.filter(filter, query), faceted -> {
+            List<Event> events = faceted.getEvents();
+            ListMerge.replace(eventTable, events, Event::getEventID);
+            showFacets(faceted);
+            tableLabel.setText(events.size() < faceted.getTotal()
+                    ? "Events List (first " + events.size() + " of " + faceted.getTotal() + ")"
+                    : "Events List (" + events.size() + ")");
 
             // Add placeholder if no events found
-            if (eventTable.getItems().isEmpty()) {
-                String message = upcoming ? "No upcoming events found." : "No past events found.";
+            if (events.isEmpty()) {
+                String message = !query.isBlank() ? "No matching events found."
+                        : upcoming ? "No upcoming events found." : "No past events found.";
                 eventTable.setPlaceholder(new Label(message));
             }
-
-        } catch (SQLException e) {
+        }, e -> {
             e.printStackTrace();
             eventTable.setPlaceholder(new Label("Error loading events."));
+        });
+    }
+    
+    // The upcoming/past toggle narrows the picked date range: upcoming starts after today
+    // (the same rule as startDate >= GETDATE()), past is today and earlier
+    private EventFilter currentFilter(boolean upcoming) {
+        LocalDate today = LocalDate.now();
+        LocalDate from = fromPicker.getValue();
+        LocalDate to = toPicker.getValue();
+        if (upcoming) {
+            from = from == null || from.isBefore(today.plusDays(1)) ? today.plusDays(1) : from;
+        } else {
+            to = to == null || to.isAfter(today) ? today : to;
         }
+        Set<Integer> organizers = isMyEvents ? Set.of(organizerID) : selectedOrganizers;
+        return new EventFilter(from, to, selectedLocations, organizers, selectedAvailability);
     }
     
     private void showEventDetails(Event event) {
@@ -473,24 +638,4 @@ public class EventListPage {
         detailsStage.setScene(scene);
         detailsStage.show();
     }
-
-    // Event class
-    public static class Event {
-        private int eventID;
-        private String eventName;
-        private String startDate;
-        private String endDate;
-
-        public Event(int eventID, String eventName, String startDate, String endDate) {
-            this.eventID = eventID;
-            this.eventName = eventName;
-            this.startDate = startDate;
-            this.endDate = endDate;
-        }
-
-        public int getEventID() { return eventID; }
-        public String getEventName() { return eventName; }
-        public String getStartDate() { return startDate; }
-        public String getEndDate() { return endDate; }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,160 @@
+package ui;
+
+import db.ChangeSet;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableView;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+// Applies fresh rows to a table that is already on screen without clearing it: rows that
+// stay keep their position (and the table its scroll offset), changed rows are replaced in
+// place, and the selected row is selected again afterwards. Rows are matched by ID.
+final class ListMerge {
+
+    private ListMerge() {
+    }
+
+    // Applies a delta. Rows the predicate rejects (outside the table's filter or window)
+    // are dropped; new rows go where the order puts them, which assumes the table is in that order.
+    static <T> void merge(TableView<T> table, ChangeSet<T> changes, ToIntFunction<? super T> idOf,
+                          Predicate<? super T> belongs, Comparator<? super T> order) {
+        ObservableList<T> items = table.getItems();
+        Integer selected = selectedID(table, idOf);
+
+        Set<Integer> gone = new HashSet<>(changes.getDeletedIDs());
+        Map<Integer, T> changed = new HashMap<>();
+        for (T row : changes.getChanged()) {
+            if (belongs.test(row)) {
+                changed.put(idOf.applyAsInt(row), row);
+            } else {
+                gone.add(idOf.applyAsInt(row));
+            }
+        }
+        if (changes.isFull()) {
+            for (T row : items) {
+                if (!changed.containsKey(idOf.applyAsInt(row))) {
+                    gone.add(idOf.applyAsInt(row));
+                }
+            }
+        }
+        removeAll(items, gone, idOf);
+
+        for (int i = 0; i < items.size() && !changed.isEmpty(); i++) {
+            T row = changed.remove(idOf.applyAsInt(items.get(i)));
+            if (row != null) {
+                items.set(i, row);
+            }
+        }
+        List<T> added = new ArrayList<>(changed.values());
+        added.sort(order);
+        if (items.isEmpty()) {
+            items.setAll(added);
+        } else {
+            for (T row : added) {
+                items.add(insertionPoint(items, row, order), row);
+            }
+        }
+        if (!table.getSortOrder().isEmpty()) {
+            table.sort(); // the user sorted by a column; new rows follow that instead
+        }
+        reselect(table, selected, idOf);
+    }
+
+    // Makes the table show exactly these rows in this order, touching only the rows that differ
+    static <T> void replace(TableView<T> table, List<T> fresh, ToIntFunction<? super T> idOf) {
+        ObservableList<T> items = table.getItems();
+        Integer selected = selectedID(table, idOf);
+
+        Set<Integer> keep = new HashSet<>();
+        for (T row : fresh) {
+            keep.add(idOf.applyAsInt(row));
+        }
+        Set<Integer> gone = new HashSet<>();
+        for (T row : items) {
+            if (!keep.contains(idOf.applyAsInt(row))) {
+                gone.add(idOf.applyAsInt(row));
+            }
+        }
+        removeAll(items, gone, idOf);
+
+        if (items.isEmpty()) {
+            items.setAll(fresh);
+        } else {
+            // The rows left are in fresh already; walk both and fill the gaps
+            for (int i = 0; i < fresh.size(); i++) {
+                T row = fresh.get(i);
+                if (i < items.size() && idOf.applyAsInt(items.get(i)) == idOf.applyAsInt(row)) {
+                    if (items.get(i) != row) {
+                        items.set(i, row);
+                    }
+                } else {
+                    items.add(i, row);
+                }
+            }
+            if (items.size() != fresh.size()) {
+                items.setAll(fresh); // the rows were reordered, not just added or removed
+            }
+        }
+        reselect(table, selected, idOf);
+    }
+
+    private static <T> void removeAll(ObservableList<T> items, Set<Integer> ids, ToIntFunction<? super T> idOf) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<T> doomed = new ArrayList<>();
+        for (T row : items) {
+            if (ids.contains(idOf.applyAsInt(row))) {
+                doomed.add(row);
+            }
+        }
+        if (doomed.size() == items.size()) {
+            items.clear();
+        } else if (!doomed.isEmpty()) {
+            items.removeAll(doomed); // one change event for the lot
+        }
+    }
+
+    // First index whose row sorts after this one
+    private static <T> int insertionPoint(List<T> items, T row, Comparator<? super T> order) {
+        int lo = 0;
+        int hi = items.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (order.compare(items.get(mid), row) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static <T> Integer selectedID(TableView<T> table, ToIntFunction<? super T> idOf) {
+        T row = table.getSelectionModel().getSelectedItem();
+        return row == null ? null : idOf.applyAsInt(row);
+    }
+
+    private static <T> void reselect(TableView<T> table, Integer id, ToIntFunction<? super T> idOf) {
+        if (id == null) {
+            return;
+        }
+        List<T> items = table.getItems();
+        for (int i = 0; i < items.size(); i++) {
+            if (idOf.applyAsInt(items.get(i)) == id) {
+                if (table.getSelectionModel().getSelectedIndex() != i) {
+                    table.getSelectionModel().clearAndSelect(i);
+                }
+                return;
+            }
+        }
+    }
+}
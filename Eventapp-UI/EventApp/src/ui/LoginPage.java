@@ -1,6 +1,6 @@
 package ui;
 
-import db.DBConnection;
+import db.UserRepository;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -10,11 +10,9 @@ import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import models.UserSession;
 import java.io.File;
 import java.io.FileInputStream;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 
 public class LoginPage {
     private static final String BLUE_COLOR = "#97A9D1";
@@ -23,6 +21,9 @@ public class LoginPage {
     private static final String BACKGROUND_COLOR = "#F5F7FA";
 
     public LoginPage(Stage stage) {
+        PageTasks tasks = new PageTasks(stage);
+        UserRepository userRepository = new UserRepository();
+
         HBox mainLayout = new HBox();
         mainLayout.setAlignment(Pos.CENTER);
         mainLayout.setStyle("-fx-background-color: " + BACKGROUND_COLOR + ";");
@@ -157,31 +158,31 @@ public class LoginPage {
                 return;
             }
 
-            try (Connection conn = DBConnection.getConnection()) {
-                String sql = "SELECT userID, userType FROM [User] WHERE username = ? AND password = ?";
-                PreparedStatement stmt = conn.prepareStatement(sql);
-                stmt.setString(1, email);
-                stmt.setString(2, password);
-                ResultSet rs = stmt.executeQuery();
-
-                if (rs.next()) {
-                    int userID = rs.getInt("userID");
-                    String userType = rs.getString("userType");
-
-                    if ("Organizer".equalsIgnoreCase(userType)) {
-                        new OrganizerDashboard().show(stage, userID);
-                    } else if ("Attendee".equalsIgnoreCase(userType)) {
-                        new AttendeeDashboard().show(stage, userID);
-                    } else {
-                        errorMsgLabel.setText("Unknown user type: " + userType);
-                    }
-                } else {
+            loginBtn.setDisable(true);
+            errorMsgLabel.setText("Signing in...");
+
+            tasks.run(() -> userRepository.login(email, password), user -> {
+                loginBtn.setDisable(false);
+                if (user.isEmpty()) {
                     errorMsgLabel.setText("Invalid username or password. Please try again.");
+                    return;
                 }
-            } catch (Exception ex) {
+                // Identity is loaded once here and passed from page to page
+                UserSession session = UserSession.of(user.get());
+                String userType = session.getUserType();
+
+                if (session.isOrganizer()) {
+                    new OrganizerDashboard().show(stage, session);
+                } else if ("Attendee".equalsIgnoreCase(userType)) {
+                    new AttendeeDashboard().show(stage, session);
+                } else {
+                    errorMsgLabel.setText("Unknown user type: " + userType);
+                }
+            }, ex -> {
                 ex.printStackTrace();
+                loginBtn.setDisable(false);
                 errorMsgLabel.setText("Connection error. Please try again later.");
-            }
+            });
         });
 
         passwordField.setOnAction(e -> loginBtn.fire());
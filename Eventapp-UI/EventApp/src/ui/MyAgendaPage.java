@@ -0,0 +1,225 @@
+package ui;
+
+import db.AttendeeSchedule;
+import db.AttendeeSchedules;
+import db.SessionSlot;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.*;
+import javafx.stage.Stage;
+import models.DateFormats;
+import models.UserSession;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Every session of the events the attendee is registered for, in time order, with the
+// ones that overlap a session of another event flagged
+public class MyAgendaPage {
+    // UI color constants matching other pages
+    private static final String BLUE_COLOR = "#97A9D1";
+    private static final String YELLOW_COLOR = "#F1D747";
+    private static final String WHITE_COLOR = "#FFFFFF";
+    private static final String DARK_TEXT = "#333333";
+    private static final String DANGER_COLOR = "#F44336";
+
+    private UserSession session;
+    private int attendeeID;
+    private PageTasks tasks;
+
+    private final List<SessionSlot> agenda = new ArrayList<>();
+    private Set<Integer> clashingSessionIDs = new HashSet<>();
+    private TableView<SessionSlot> table;
+    private CheckBox showPastBox;
+    private Label summaryLabel;
+
+    public void show(Stage stage, UserSession session) {
+        this.session = session;
+        this.attendeeID = session.getUserID();
+        this.tasks = new PageTasks(stage);
+
+        BorderPane mainLayout = new BorderPane();
+        mainLayout.setTop(createNavBar(stage));
+
+        StackPane contentWrapper = new StackPane();
+        contentWrapper.setStyle("-fx-background-color: " + BLUE_COLOR + ";");
+        contentWrapper.setPadding(new Insets(20));
+
+        VBox contentPane = new VBox(20);
+        contentPane.setPadding(new Insets(30));
+        contentPane.setStyle("-fx-background-color: " + WHITE_COLOR + ";" +
+                            "-fx-background-radius: 15px;");
+
+        Label titleLabel = new Label("My Agenda");
+        titleLabel.setStyle("-fx-font-size: 28px;" +
+                           "-fx-font-weight: bold;" +
+                           "-fx-text-fill: " + DARK_TEXT + ";");
+
+        summaryLabel = new Label("Loading your sessions...");
+        summaryLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #666666;");
+
+        showPastBox = new CheckBox("Show past sessions");
+        showPastBox.setStyle("-fx-text-fill: white; -fx-font-size: 12px;");
+        showPastBox.selectedProperty().addListener((obs, was, is) -> showAgenda());
+
+        VBox tableContainer = new VBox(15);
+        tableContainer.setPadding(new Insets(20));
+        tableContainer.setStyle("-fx-background-color: " + BLUE_COLOR + ";" +
+                               "-fx-background-radius: 12px;");
+        table = createTable();
+        VBox.setVgrow(table, Priority.ALWAYS);
+        tableContainer.getChildren().addAll(showPastBox, table);
+        VBox.setVgrow(tableContainer, Priority.ALWAYS);
+
+        contentPane.getChildren().addAll(titleLabel, summaryLabel, tableContainer);
+        contentWrapper.getChildren().add(contentPane);
+        mainLayout.setCenter(contentWrapper);
+
+        loadAgenda();
+
+        Scene scene = new Scene(mainLayout, 1200, 800);
+        stage.setTitle("Eventure - My Agenda");
+        stage.setScene(scene);
+        stage.show();
+    }
+
+    private HBox createNavBar(Stage stage) {
+        HBox navBar = new HBox(12);
+        navBar.setPadding(new Insets(8, 15, 8, 15));
+        navBar.setStyle("-fx-background-color: " + BLUE_COLOR + ";");
+        navBar.setAlignment(Pos.CENTER);
+
+        Button dashboardBtn = createNavButton("Dashboard");
+        Button calendarBtn = createNavButton("Calendar");
+        Button myEventsBtn = createNavButton("My Events");
+        navBar.getChildren().addAll(dashboardBtn, calendarBtn, myEventsBtn);
+
+        dashboardBtn.setOnAction(e -> {
+            AttendeeDashboard dashboard = new AttendeeDashboard();
+            dashboard.show(stage, session);
+        });
+
+        calendarBtn.setOnAction(e -> {
+            CalendarPage calendarPage = new CalendarPage();
+            calendarPage.show(stage, session);
+        });
+
+        myEventsBtn.setOnAction(e -> {
+            MyEventsPage myEventsPage = new MyEventsPage();
+            myEventsPage.show(stage, session);
+        });
+
+        return navBar;
+    }
+
+    private Button createNavButton(String text) {
+        String style =
+            "-fx-text-fill: #333333;" +
+            "-fx-font-weight: bold;" +
+            "-fx-font-size: 12px;" +
+            "-fx-padding: 6px 10px;" +
+            "-fx-cursor: hand;" +
+            "-fx-background-radius: 12px;";
+        Button button = new Button(text);
+        button.setStyle("-fx-background-color: " + WHITE_COLOR + ";" + style);
+        button.setOnMouseEntered(e -> button.setStyle("-fx-background-color: " + YELLOW_COLOR + ";" + style));
+        button.setOnMouseExited(e -> button.setStyle("-fx-background-color: " + WHITE_COLOR + ";" + style));
+        return button;
+    }
+
+    private TableView<SessionSlot> createTable() {
+        TableView<SessionSlot> table = new TableView<>();
+        table.setStyle(
+            "-fx-background-color: " + WHITE_COLOR + ";" +
+            "-fx-border-color: transparent;" +
+            "-fx-background-radius: 8px;" +
+            "-fx-table-cell-border-color: #E0E0E0;"
+        );
+        table.setPlaceholder(PageTasks.loadingPlaceholder("Loading your sessions..."));
+
+        TableColumn<SessionSlot, String> timeCol = new TableColumn<>("When");
+        timeCol.setCellValueFactory(c -> new SimpleStringProperty(
+                DateFormats.timeRange(c.getValue().getStart(), c.getValue().getEnd())));
+        timeCol.setPrefWidth(300);
+
+        TableColumn<SessionSlot, String> titleCol = new TableColumn<>("Session");
+        titleCol.setCellValueFactory(new PropertyValueFactory<>("title"));
+        titleCol.setPrefWidth(230);
+
+        TableColumn<SessionSlot, String> eventCol = new TableColumn<>("Event");
+        eventCol.setCellValueFactory(new PropertyValueFactory<>("eventName"));
+        eventCol.setPrefWidth(230);
+
+        TableColumn<SessionSlot, String> locationCol = new TableColumn<>("Location");
+        locationCol.setCellValueFactory(new PropertyValueFactory<>("location"));
+        locationCol.setPrefWidth(160);
+
+        TableColumn<SessionSlot, String> clashCol = new TableColumn<>("Clash");
+        clashCol.setPrefWidth(150);
+        clashCol.setCellFactory(col -> new TableCell<SessionSlot, String>() {
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                SessionSlot slot = empty ? null : getTableRow().getItem();
+                if (slot == null || !clashingSessionIDs.contains(slot.getSessionID())) {
+                    setGraphic(null);
+                    setText(null);
+                    return;
+                }
+                Label clashLabel = new Label("Overlaps");
+                clashLabel.setStyle(
+                    "-fx-background-color: " + DANGER_COLOR + ";" +
+                    "-fx-text-fill: white;" +
+                    "-fx-padding: 4px 8px;" +
+                    "-fx-background-radius: 12px;" +
+                    "-fx-font-size: 11px;" +
+                    "-fx-font-weight: bold;"
+                );
+                setGraphic(clashLabel);
+                setText(null);
+            }
+        });
+
+        table.getColumns().addAll(timeCol, titleCol, eventCol, locationCol, clashCol);
+        return table;
+    }
+
+    private void loadAgenda() {
+        tasks.run(() -> AttendeeSchedules.shared().current(attendeeID), schedule -> {
+            agenda.clear();
+            agenda.addAll(schedule.getAgenda());
+            clashingSessionIDs = schedule.getClashingSessionIDs();
+            showAgenda();
+        }, e -> {
+            e.printStackTrace();
+            summaryLabel.setText("Error loading your agenda.");
+            table.setPlaceholder(new Label("Error loading your agenda."));
+        });
+    }
+
+    private void showAgenda() {
+        LocalDateTime now = LocalDateTime.now();
+        List<SessionSlot> shown = new ArrayList<>();
+        int clashes = 0;
+        for (SessionSlot slot : agenda) {
+            if (showPastBox.isSelected() || slot.getEnd().isAfter(now)) {
+                shown.add(slot);
+                if (clashingSessionIDs.contains(slot.getSessionID())) {
+                    clashes++;
+                }
+            }
+        }
+        table.getItems().setAll(shown);
+        table.setPlaceholder(new Label(showPastBox.isSelected()
+                ? "None of your registered events have sessions." : "No upcoming sessions."));
+        summaryLabel.setText(shown.size() + " session(s)"
+                + (clashes > 0 ? ", " + clashes + " overlapping another event" : ", no clashes"));
+    }
+}
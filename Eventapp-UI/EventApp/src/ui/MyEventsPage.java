@@ -1,6 +1,8 @@
 package ui;
 
-import db.DBConnection;
+import db.NotificationRepository;
+import db.RegistrationQueue;
+import db.RegistrationRepository;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -12,11 +14,11 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.stage.Stage;
+import models.Event;
+import models.UserSession;
 
 import java.io.FileInputStream;
-import java.sql.*;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 
 public class MyEventsPage {
     // UI color constants matching other pages
@@ -27,25 +29,20 @@ public class MyEventsPage {
     private static final String SUCCESS_COLOR = "#4CAF50";
     private static final String DANGER_COLOR = "#F44336";
     
-    private NotificationPage notificationPage = new NotificationPage();
+    private UserSession session;
     private int attendeeID;
     private String attendeeName = "";
+    private PageTasks tasks;
+    private Label totalCountLabel;
+    private Label upcomingCountLabel;
+    private final RegistrationRepository registrationRepository = new RegistrationRepository();
+    private final NotificationRepository notificationRepository = new NotificationRepository();
     
-    public void show(Stage stage, int userID) {
-        this.attendeeID = userID;
-        
-        // Fetch attendee name from database
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT firstName, lastName FROM [User] WHERE userID = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, userID);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                attendeeName = rs.getString("firstName") + " " + rs.getString("lastName");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    public void show(Stage stage, UserSession session) {
+        this.session = session;
+        this.attendeeID = session.getUserID();
+        this.tasks = new PageTasks(stage);
+        this.attendeeName = session.getName();
         
         // Main layout
         BorderPane mainLayout = new BorderPane();
@@ -68,7 +65,7 @@ public class MyEventsPage {
         VBox headerSection = createHeaderSection();
         
         // Events Table Section
-        VBox tableSection = createTableSection(userID);
+        VBox tableSection = createTableSection(attendeeID);
         
         contentPane.getChildren().addAll(headerSection, tableSection);
         contentWrapper.getChildren().add(contentPane);
@@ -135,7 +132,7 @@ public class MyEventsPage {
         // Navigation actions - all using the same stage
         dashboardBtn.setOnAction(e -> {
             AttendeeDashboard dashboard = new AttendeeDashboard();
-            dashboard.show(stage, attendeeID);
+            dashboard.show(stage, session);
         });
         
         switchAccountBtn.setOnAction(e -> {
@@ -144,17 +141,17 @@ public class MyEventsPage {
         
         calendarBtn.setOnAction(e -> {
             CalendarPage calendarPage = new CalendarPage();
-            calendarPage.show(stage, attendeeID);
+            calendarPage.show(stage, session);
         });
         
         notificationsBtn.setOnAction(e -> {
             NotificationPage notificationPage = new NotificationPage();
-            notificationPage.show(stage, attendeeID);
+            notificationPage.show(stage, session);
         });
         
         profileBtn.setOnAction(e -> {
             ProfilePage profilePage = new ProfilePage();
-            profilePage.show(stage, attendeeID);
+            profilePage.show(stage, session);
         });
         
         return navBar;
@@ -225,13 +222,10 @@ public class MyEventsPage {
                          "-fx-background-radius: 10px;");
         statsBox.setAlignment(Pos.CENTER_LEFT);
         
-        // Get event count
-        int eventCount = getRegisteredEventCount();
-        int upcomingCount = getUpcomingEventCount();
-        
+        // Counts fill in once loadStats() returns
         VBox totalEventsBox = new VBox(2);
         totalEventsBox.setAlignment(Pos.CENTER);
-        Label totalCountLabel = new Label(String.valueOf(eventCount));
+        totalCountLabel = new Label("-");
         totalCountLabel.setStyle("-fx-font-size: 24px;" +
                                 "-fx-font-weight: bold;" +
                                 "-fx-text-fill: " + DARK_TEXT + ";");
@@ -247,7 +241,7 @@ public class MyEventsPage {
         
         VBox upcomingEventsBox = new VBox(2);
         upcomingEventsBox.setAlignment(Pos.CENTER);
-        Label upcomingCountLabel = new Label(String.valueOf(upcomingCount));
+        upcomingCountLabel = new Label("-");
         upcomingCountLabel.setStyle("-fx-font-size: 24px;" +
                                    "-fx-font-weight: bold;" +
                                    "-fx-text-fill: " + SUCCESS_COLOR + ";");
@@ -326,35 +320,13 @@ public class MyEventsPage {
         
         // Start Date Column
         TableColumn<Event, String> startDateCol = new TableColumn<>("Start Date");
-        startDateCol.setCellValueFactory(new PropertyValueFactory<>("startDate"));
+        startDateCol.setCellValueFactory(new PropertyValueFactory<>("startDateDisplay"));
         startDateCol.setPrefWidth(150);
-        startDateCol.setCellFactory(col -> new TableCell<Event, String>() {
-            @Override
-            protected void updateItem(String item, boolean empty) {
-                super.updateItem(item, empty);
-                if (empty || item == null) {
-                    setText(null);
-                } else {
-                    setText(formatDate(item));
-                }
-            }
-        });
         
         // End Date Column
         TableColumn<Event, String> endDateCol = new TableColumn<>("End Date");
-        endDateCol.setCellValueFactory(new PropertyValueFactory<>("endDate"));
+        endDateCol.setCellValueFactory(new PropertyValueFactory<>("endDateDisplay"));
         endDateCol.setPrefWidth(150);
-        endDateCol.setCellFactory(col -> new TableCell<Event, String>() {
-            @Override
-            protected void updateItem(String item, boolean empty) {
-                super.updateItem(item, empty);
-                if (empty || item == null) {
-                    setText(null);
-                } else {
-                    setText(formatDate(item));
-                }
-            }
-        });
         
         // Status Column
         TableColumn<Event, String> statusCol = new TableColumn<>("Status");
@@ -465,141 +437,72 @@ public class MyEventsPage {
         
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                cancelRegistration(userID, event.getEventID(), event.getName());
-                table.getItems().remove(event);
-                
-                // Show success message
-                Alert success = new Alert(Alert.AlertType.INFORMATION);
-                success.setTitle("Success");
-                success.setHeaderText(null);
-                success.setContentText("Registration cancelled successfully!");
-                success.showAndWait();
-                
-                // Refresh the table
-                loadRegisteredEvents(userID, table);
+                cancelRegistration(userID, event, table);
             }
         });
     }
     
     private void loadRegisteredEvents(int userID, TableView<Event> table) {
         table.getItems().clear();
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = """
-                SELECT E.eventID, E.name, E.startDate, E.endDate
-                FROM Event E
-                JOIN Registration R ON E.eventID = R.eventID
-                WHERE R.userID = ?
-                ORDER BY E.startDate ASC
-                """;
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, userID);
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                table.getItems().add(new Event(
-                        rs.getInt("eventID"),
-                        rs.getString("name"),
-                        rs.getString("startDate"),
-                        rs.getString("endDate")
-                ));
-            }
-        } catch (SQLException e) {
+        table.setPlaceholder(PageTasks.loadingPlaceholder("Loading registered events..."));
+        tasks.run(() -> registrationRepository.findEventsByUser(userID), events -> {
+            table.getItems().setAll(events);
+            table.setPlaceholder(new Label("You have not registered for any events yet."));
+        }, e -> {
             e.printStackTrace();
+            table.setPlaceholder(new Label("Error loading events."));
             showError("Failed to load registered events: " + e.getMessage());
-        }
-    }
-    
-    private int getRegisteredEventCount() {
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT COUNT(*) FROM Registration WHERE userID = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, attendeeID);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return 0;
-    }
-    
-    private int getUpcomingEventCount() {
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = """
-                SELECT COUNT(*)
-                FROM Event E
-                JOIN Registration R ON E.eventID = R.eventID
-                WHERE R.userID = ? AND E.startDate >= GETDATE()
-                """;
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, attendeeID);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return 0;
+        });
+        loadStats();
     }
     
-    private boolean isEventUpcoming(String startDate) {
-        try {
-            LocalDate eventDate = LocalDate.parse(startDate.split(" ")[0]);
-            return eventDate.isAfter(LocalDate.now()) || eventDate.isEqual(LocalDate.now());
-        } catch (Exception e) {
-            return false;
-        }
+    // Total and upcoming registrations for the stats banner
+    private void loadStats() {
+        tasks.run(() -> new int[] {registrationRepository.countByUser(attendeeID),
+                registrationRepository.countUpcomingByUser(attendeeID)}, counts -> {
+            totalCountLabel.setText(String.valueOf(counts[0]));
+            upcomingCountLabel.setText(String.valueOf(counts[1]));
+        }, Throwable::printStackTrace);
     }
     
-    private String formatDate(String dateStr) {
-        try {
-            LocalDate date = LocalDate.parse(dateStr.split(" ")[0]);
-            return date.format(DateTimeFormatter.ofPattern("MMM dd, yyyy"));
-        } catch (Exception e) {
-            return dateStr;
-        }
+    // Today still counts as upcoming here, so the attendee can cancel on the day
+    private boolean isEventUpcoming(LocalDate startDate) {
+        return startDate != null && !startDate.isBefore(LocalDate.now());
     }
     
-    private void cancelRegistration(int userID, int eventID, String eventName) {
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "DELETE FROM Registration WHERE userID = ? AND eventID = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, userID);
-            stmt.setInt(2, eventID);
-            int affected = stmt.executeUpdate();
-            
-            if (affected > 0) {
-                notificationPage.insertNotification(
-                        userID, eventName, "Event Cancellation",
-                        "You canceled your registration for event '" + eventName + "'.", "cancellation"
-                );
+    // Frees the seat (promoting the first waitlisted attendee in the same transaction) and
+    // records the cancellation notification, then reloads the table
+    private void cancelRegistration(int userID, Event event, TableView<Event> table) {
+        String eventName = event.getName();
+        tasks.runUpdate(() -> {
+            if (registrationRepository.cancel(userID, event.getEventID())) {
+                notificationRepository.insert(userID, eventName, "Event Cancellation",
+                        "You canceled your registration for event '" + eventName + "'.", "cancellation");
             }
-        } catch (SQLException e) {
+        }, () -> {
+            table.getItems().remove(event);
+            
+            // Show success message
+            Alert success = new Alert(Alert.AlertType.INFORMATION);
+            success.setTitle("Success");
+            success.setHeaderText(null);
+            success.setContentText("Registration cancelled successfully!");
+            success.showAndWait();
+            
+            // Refresh the table
+            loadRegisteredEvents(userID, table);
+        }, e -> {
             e.printStackTrace();
             showError("Failed to cancel registration: " + e.getMessage());
-        }
+        });
     }
     
+    // Goes through the same queue as the dashboard, which also writes the notification
     public void registerForEvent(int userID, int eventID, String eventName) {
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "INSERT INTO Registration (userID, eventID) VALUES (?, ?)";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, userID);
-            stmt.setInt(2, eventID);
-            int affected = stmt.executeUpdate();
-            
-            if (affected > 0) {
-                notificationPage.insertNotification(
-                        userID, eventName, "Event Registration",
-                        "You successfully registered for event '" + eventName + "'.", "registration"
-                );
-            }
-        } catch (SQLException e) {
+        tasks.track(RegistrationQueue.shared().submit(userID, eventID), confirmation -> { }, e -> {
             e.printStackTrace();
             showError("Failed to register for event: " + e.getMessage());
-        }
+        });
     }
     
     private void showError(String message) {
@@ -614,23 +517,4 @@ public class MyEventsPage {
         
         alert.showAndWait();
     }
-    
-    public static class Event {
-        private final int eventID;
-        private final String name;
-        private final String startDate;
-        private final String endDate;
-        
-        public Event(int eventID, String name, String startDate, String endDate) {
-            this.eventID = eventID;
-            this.name = name;
-            this.startDate = startDate;
-            this.endDate = endDate;
-        }
-        
-        public int getEventID() { return eventID; }
-        public String getName() { return name; }
-        public String getStartDate() { return startDate; }
-        public String getEndDate() { return endDate; }
-    }
 }
\ No newline at end of file
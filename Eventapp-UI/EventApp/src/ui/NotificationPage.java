@@ -1,6 +1,7 @@
 package ui;
 
-import db.DBConnection;
+import db.ChangeFeed;
+import db.NotificationRepository;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -11,12 +12,11 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.stage.Stage;
+import models.Notification;
+import models.UserSession;
 
 import java.io.FileInputStream;
-import java.sql.*;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 
 public class NotificationPage {
@@ -30,21 +30,24 @@ public class NotificationPage {
     private static final String INFO_COLOR = "#2196F3";
     private static final String WARNING_COLOR = "#FF9800";
     
+    private UserSession session;
     private int userID;
     private String userName = "";
-    private ListView<NotificationItem> notificationListView;
+    private ListView<Notification> notificationListView;
     private TextArea messageArea;
     private Button markReadBtn;
     private Button markUnreadBtn;
     private Button deleteBtn;
     private Button clearAllBtn;
     private Label unreadCountLabel;
+    private final NotificationRepository notificationRepository = new NotificationRepository();
+    private PageTasks tasks; // Background loads and writes for this page
     
-    public void show(Stage stage, int userID) {
-        this.userID = userID;
-        
-        // Fetch user name from database
-        loadUserName();
+    public void show(Stage stage, UserSession session) {
+        this.session = session;
+        this.userID = session.getUserID();
+        this.userName = session.getName();
+        this.tasks = new PageTasks(stage);
         
         // Main layout
         BorderPane mainLayout = new BorderPane();
@@ -79,21 +82,13 @@ public class NotificationPage {
         stage.show();
         
         loadNotifications();
-    }
-    
-    private void loadUserName() {
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT firstName, lastName FROM [User] WHERE userID = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, userID);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                userName = rs.getString("firstName") + " " + rs.getString("lastName");
+        
+        // Notifications sent from other windows appear while the page is open
+        tasks.listen(EnumSet.of(ChangeFeed.Kind.NOTIFICATION), changes -> {
+            if (changes.stream().anyMatch(c -> c.getUserID() == userID)) {
+                refreshList();
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            userName = "User";
-        }
+        });
     }
     
     private HBox createNavBar() {
@@ -162,7 +157,7 @@ public class NotificationPage {
         // Navigation actions
         dashboardBtn.setOnAction(e -> {
             AttendeeDashboard dashboard = new AttendeeDashboard();
-            dashboard.show(new Stage(), userID);
+            dashboard.show(new Stage(), session);
             Stage currentStage = (Stage) dashboardBtn.getScene().getWindow();
             currentStage.close();
         });
@@ -175,14 +170,14 @@ public class NotificationPage {
         
         calendarBtn.setOnAction(e -> {
             CalendarPage calendarPage = new CalendarPage();
-            calendarPage.show(new Stage(), userID);
+            calendarPage.show(new Stage(), session);
             Stage currentStage = (Stage) calendarBtn.getScene().getWindow();
             currentStage.close();
         });
         
         profileBtn.setOnAction(e -> {
             ProfilePage profilePage = new ProfilePage();
-            profilePage.show(new Stage(), userID);
+            profilePage.show(new Stage(), session);
             Stage currentStage = (Stage) profileBtn.getScene().getWindow();
             currentStage.close();
         });
@@ -325,9 +320,9 @@ public class NotificationPage {
             "-fx-background-radius: 8px;"
         );
         
-        notificationListView.setCellFactory(param -> new ListCell<NotificationItem>() {
+        notificationListView.setCellFactory(param -> new ListCell<Notification>() {
             @Override
-            protected void updateItem(NotificationItem item, boolean empty) {
+            protected void updateItem(Notification item, boolean empty) {
                 super.updateItem(item, empty);
                 if (empty || item == null) {
                     setText(null);
@@ -342,28 +337,28 @@ public class NotificationPage {
                     headerBox.setAlignment(Pos.CENTER_LEFT);
                     
                     // Status indicator
-                    Label statusIndicator = new Label(item.isRead ? "📖" : "📩");
+                    Label statusIndicator = new Label(item.isRead() ? "📖" : "📩");
                     statusIndicator.setStyle("-fx-font-size: 14px;");
                     
                     // Title
-                    Label titleLabel = new Label(item.title);
+                    Label titleLabel = new Label(item.getTitle());
                     titleLabel.setStyle("-fx-font-weight: bold;" +
                                        "-fx-font-size: 14px;" +
                                        "-fx-text-fill: " + DARK_TEXT + ";");
-                    if (!item.isRead) {
+                    if (!item.isRead()) {
                         titleLabel.setStyle(titleLabel.getStyle() + "-fx-text-fill: " + INFO_COLOR + ";");
                     }
                     
                     headerBox.getChildren().addAll(statusIndicator, titleLabel);
                     
                     // Date/time
-                    Label dateLabel = new Label(formatDateTime(item.createdAt));
+                    Label dateLabel = new Label(item.getCreatedAtDisplay());
                     dateLabel.setStyle("-fx-font-size: 11px;" +
                                       "-fx-text-fill: #888888;");
                     
                     // Message preview (first 50 characters)
-                    String preview = item.message.length() > 50 ? 
-                        item.message.substring(0, 50) + "..." : item.message;
+                    String preview = item.getMessage().length() > 50 ? 
+                        item.getMessage().substring(0, 50) + "..." : item.getMessage();
                     Label previewLabel = new Label(preview);
                     previewLabel.setStyle("-fx-font-size: 12px;" +
                                          "-fx-text-fill: #666666;" +
@@ -374,7 +369,7 @@ public class NotificationPage {
                     setText(null);
                     
                     // Style based on read status
-                    if (!item.isRead) {
+                    if (!item.isRead()) {
                         setStyle("-fx-background-color: #E3F2FD;" +
                                 "-fx-border-color: " + INFO_COLOR + ";" +
                                 "-fx-border-width: 0 0 0 3px;");
@@ -387,8 +382,8 @@ public class NotificationPage {
         
         notificationListView.getSelectionModel().selectedItemProperty().addListener((obs, oldSel, newSel) -> {
             if (newSel != null) {
-                messageArea.setText(newSel.message);
-                updateButtons(newSel.isRead);
+                messageArea.setText(newSel.getMessage());
+                updateButtons(newSel.isRead());
                 deleteBtn.setDisable(false);
             } else {
                 messageArea.clear();
@@ -490,27 +485,21 @@ public class NotificationPage {
         
         // Button actions
         markReadBtn.setOnAction(e -> {
-            NotificationItem selected = notificationListView.getSelectionModel().getSelectedItem();
-            if (selected != null && !selected.isRead) {
-                updateNotificationReadStatus(selected.id, true);
-                selected.isRead = true;
-                refreshList();
-                notificationListView.getSelectionModel().select(selected);
+            Notification selected = notificationListView.getSelectionModel().getSelectedItem();
+            if (selected != null && !selected.isRead()) {
+                updateNotificationReadStatus(selected.getNotificationID(), true);
             }
         });
         
         markUnreadBtn.setOnAction(e -> {
-            NotificationItem selected = notificationListView.getSelectionModel().getSelectedItem();
-            if (selected != null && selected.isRead) {
-                updateNotificationReadStatus(selected.id, false);
-                selected.isRead = false;
-                refreshList();
-                notificationListView.getSelectionModel().select(selected);
+            Notification selected = notificationListView.getSelectionModel().getSelectedItem();
+            if (selected != null && selected.isRead()) {
+                updateNotificationReadStatus(selected.getNotificationID(), false);
             }
         });
         
         deleteBtn.setOnAction(e -> {
-            NotificationItem selected = notificationListView.getSelectionModel().getSelectedItem();
+            Notification selected = notificationListView.getSelectionModel().getSelectedItem();
             if (selected != null) {
                 // Show confirmation dialog
                 Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
@@ -524,8 +513,7 @@ public class NotificationPage {
                 
                 confirm.showAndWait().ifPresent(response -> {
                     if (response == ButtonType.OK) {
-                        deleteNotification(selected.id);
-                        refreshList();
+                        deleteNotification(selected.getNotificationID());
                     }
                 });
             }
@@ -540,62 +528,52 @@ public class NotificationPage {
         markUnreadBtn.setDisable(!isRead);
     }
     
+    // Reloads the inbox and keeps the selected notification selected
     private void refreshList() {
-        NotificationItem current = notificationListView.getSelectionModel().getSelectedItem();
-        loadNotifications();
-        if (current != null) {
-            for (NotificationItem item : notificationListView.getItems()) {
-                if (item.id == current.id) {
-                    notificationListView.getSelectionModel().select(item);
-                    break;
-                }
-            }
-        }
+        Notification current = notificationListView.getSelectionModel().getSelectedItem();
+        loadNotifications(current == null ? 0 : current.getNotificationID());
     }
     
     private void loadNotifications() {
+        loadNotifications(0);
+    }
+    
+    private void loadNotifications(int selectID) {
         notificationListView.getItems().clear();
-        String sql = "SELECT notificationID, title, message, createdAt, isRead FROM Notification WHERE userID = ? ORDER BY createdAt DESC";
-        
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, userID);
-            ResultSet rs = stmt.executeQuery();
-            
-            List<NotificationItem> notifications = new ArrayList<>();
+        notificationListView.setPlaceholder(PageTasks.loadingPlaceholder("Loading notifications..."));
+        tasks.run(() -> notificationRepository.findInbox(userID), notifications -> {
             int unreadCount = 0;
             
-            while (rs.next()) {
-                NotificationItem item = new NotificationItem(
-                        rs.getInt("notificationID"),
-                        rs.getString("title"),
-                        rs.getString("message"),
-                        rs.getString("createdAt"),
-                        rs.getBoolean("isRead")
-                );
-                notifications.add(item);
-                if (!item.isRead) unreadCount++;
+            for (Notification item : notifications) {
+                if (!item.isRead()) unreadCount++;
             }
             
             if (notifications.isEmpty()) {
                 // Show empty state
-                NotificationItem emptyItem = new NotificationItem(0, "No notifications yet", 
-                    "You're all caught up! New notifications will appear here.", "", true);
-                notificationListView.getItems().add(emptyItem);
+                Notification emptyItem = new Notification(0, userID, "No notifications yet", 
+                    "You're all caught up! New notifications will appear here.", null, true, null);
+                notificationListView.getItems().setAll(emptyItem);
                 unreadCountLabel.setVisible(false);
             } else {
-                notificationListView.getItems().addAll(notifications);
+                notificationListView.getItems().setAll(notifications);
                 if (unreadCount > 0) {
                     unreadCountLabel.setText(String.valueOf(unreadCount) + " unread");
                     unreadCountLabel.setVisible(true);
                 } else {
                     unreadCountLabel.setVisible(false);
                 }
+                for (Notification item : notifications) {
+                    if (item.getNotificationID() == selectID) {
+                        notificationListView.getSelectionModel().select(item);
+                        break;
+                    }
+                }
             }
-        } catch (SQLException e) {
+        }, e -> {
             e.printStackTrace();
+            notificationListView.setPlaceholder(new Label("Error loading notifications."));
             showStyledError("Failed to load notifications: " + e.getMessage());
-        }
+        });
     }
     
     private void clearAllReadNotifications() {
@@ -609,12 +587,9 @@ public class NotificationPage {
         
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                String sql = "DELETE FROM Notification WHERE userID = ? AND isRead = 1";
-                try (Connection conn = DBConnection.getConnection();
-                     PreparedStatement stmt = conn.prepareStatement(sql)) {
-                    stmt.setInt(1, userID);
-                    int deleted = stmt.executeUpdate();
-                    
+                clearAllBtn.setDisable(true);
+                tasks.run(() -> notificationRepository.deleteRead(userID), deleted -> {
+                    clearAllBtn.setDisable(false);
                     loadNotifications();
                     
                     Alert success = new Alert(Alert.AlertType.INFORMATION);
@@ -622,41 +597,34 @@ public class NotificationPage {
                     success.setHeaderText(null);
                     success.setContentText(deleted + " read notifications have been cleared.");
                     success.showAndWait();
-                    
-                } catch (SQLException e) {
+                }, e -> {
+                    clearAllBtn.setDisable(false);
                     e.printStackTrace();
                     showStyledError("Failed to clear notifications: " + e.getMessage());
-                }
+                });
             }
         });
     }
     
+    // Reloads with the notification still selected once the change is stored
     private void updateNotificationReadStatus(int notificationID, boolean markAsRead) {
-        String sql = "UPDATE Notification SET isRead = ? WHERE notificationID = ?";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setBoolean(1, markAsRead);
-            stmt.setInt(2, notificationID);
-            stmt.executeUpdate();
-            
-            // Update unread count
-            loadNotifications();
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showStyledError("Failed to update notification status: " + e.getMessage());
-        }
+        markReadBtn.setDisable(true);
+        markUnreadBtn.setDisable(true);
+        tasks.runUpdate(() -> notificationRepository.setRead(notificationID, markAsRead),
+                () -> loadNotifications(notificationID), e -> {
+                    e.printStackTrace();
+                    updateButtons(!markAsRead);
+                    showStyledError("Failed to update notification status: " + e.getMessage());
+                });
     }
     
     private void deleteNotification(int notificationID) {
-        String sql = "DELETE FROM Notification WHERE notificationID = ?";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, notificationID);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
+        deleteBtn.setDisable(true);
+        tasks.runUpdate(() -> notificationRepository.delete(notificationID), this::refreshList, e -> {
             e.printStackTrace();
+            deleteBtn.setDisable(false);
             showStyledError("Failed to delete notification: " + e.getMessage());
-        }
+        });
     }
     
     private void showStyledError(String message) {
@@ -670,56 +638,4 @@ public class NotificationPage {
         
         alert.showAndWait();
     }
-    
-    private String formatDateTime(String dateTimeStr) {
-        try {
-            // Assuming the format from database is "yyyy-MM-dd HH:mm:ss"
-            DateTimeFormatter inputFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            DateTimeFormatter outputFormatter = DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' h:mm a");
-            LocalDateTime dateTime = LocalDateTime.parse(dateTimeStr.substring(0, 19), inputFormatter);
-            return dateTime.format(outputFormatter);
-        } catch (Exception e) {
-            return dateTimeStr; // Return original if parsing fails
-        }
-    }
-    
-    // ✅ Updated method to match SQL table
-    public void insertNotification(int userID, String name, String title, String message, String notificationType) {
-        String sql = "INSERT INTO Notification (userID, name, title, message, createdAt, isRead, notificationType) " +
-                     "VALUES (?, ?, ?, ?, ?, 0, ?)";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, userID);
-            stmt.setString(2, name);
-            stmt.setString(3, title);
-            stmt.setString(4, message);
-            stmt.setTimestamp(5, new Timestamp(System.currentTimeMillis()));
-            stmt.setString(6, notificationType);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showStyledError("Failed to insert notification: " + e.getMessage());
-        }
-    }
-    
-    private static class NotificationItem {
-        int id;
-        String title;
-        String message;
-        String createdAt;
-        boolean isRead;
-        
-        NotificationItem(int id, String title, String message, String createdAt, boolean isRead) {
-            this.id = id;
-            this.title = title;
-            this.message = message;
-            this.createdAt = createdAt;
-            this.isRead = isRead;
-        }
-        
-        @Override
-        public String toString() {
-            return title;
-        }
-    }
 }
\ No newline at end of file
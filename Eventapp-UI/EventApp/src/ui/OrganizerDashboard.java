@@ -1,6 +1,9 @@
 package ui;
 
-import db.DBConnection;
+import db.ChangeFeed;
+import db.EventRepository;
+import db.NotificationRepository;
+import db.RegistrationRepository;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -12,15 +15,15 @@ import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.stage.Stage;
 import models.Event;
+import models.Notification;
+import models.UserSession;
 
 import java.io.FileInputStream;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
 
 public class OrganizerDashboard {
@@ -30,30 +33,26 @@ public class OrganizerDashboard {
     private static final String WHITE_COLOR = "#FFFFFF";
     private static final String DARK_TEXT = "#333333";
     
+    private UserSession session;
     private int organizerID;
     private String organizerName = "";
     private Stage currentStage;
     private TableView<Event> eventsTable;
+    private long eventsVersion; // change version eventsTable is current as of
     private ListView<String> notificationsList;
     private Label totalEventsLabel;
     private Label totalAttendeesLabel;
+    private PageTasks tasks; // Background loads for this page
+    private final EventRepository eventRepository = new EventRepository();
+    private final RegistrationRepository registrationRepository = new RegistrationRepository();
+    private final NotificationRepository notificationRepository = new NotificationRepository();
     
-    public void show(Stage stage, int organizerID) {
-        this.organizerID = organizerID;
+    public void show(Stage stage, UserSession session) {
+        this.session = session;
+        this.organizerID = session.getUserID();
+        this.organizerName = session.getName();
         this.currentStage = stage;
-        
-        // Fetch organizer name from database
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT firstName, lastName FROM [User] WHERE userID = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, organizerID);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                organizerName = rs.getString("firstName") + " " + rs.getString("lastName");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        this.tasks = new PageTasks(stage);
         
         // Main layout
         BorderPane mainLayout = new BorderPane();
@@ -125,6 +124,33 @@ public class OrganizerDashboard {
         loadEvents();
         loadUnreadNotifications();
         loadAnalytics();
+        
+        // Then keep up with other windows: edits to this organizer's events, registrations
+        // for them and new notifications arrive without pressing Refresh
+        tasks.listen(EnumSet.allOf(ChangeFeed.Kind.class), this::applyChanges);
+    }
+    
+    private void applyChanges(List<ChangeFeed.Change> changes) {
+        boolean events = false;
+        boolean attendees = false;
+        boolean notifications = false;
+        for (ChangeFeed.Change c : changes) {
+            switch (c.getKind()) {
+                case EVENT -> events |= c.getUserID() == organizerID;
+                case REGISTRATION -> attendees |= eventsTable.getItems().stream()
+                        .anyMatch(e -> e.getEventID() == c.getEventID());
+                case NOTIFICATION -> notifications |= c.getUserID() == organizerID;
+            }
+        }
+        if (events) {
+            loadEvents();
+        }
+        if (events || attendees) {
+            loadAnalytics();
+        }
+        if (notifications) {
+            loadUnreadNotifications();
+        }
     }
     
     private HBox createNavBar() {
@@ -201,17 +227,17 @@ public class OrganizerDashboard {
         
         eventsBtn.setOnAction(e -> {
             EventListPage eventsPage = new EventListPage(false);
-            eventsPage.show(currentStage, organizerID);
+            eventsPage.show(currentStage, session);
         });
         
         myEventsBtn.setOnAction(e -> {
             OrganizerEventsPage page = new OrganizerEventsPage();
-            page.show(currentStage, organizerID);
+            page.show(currentStage, session);
         });
         
         createEventBtn.setOnAction(e -> {
             CreateEventPage page = new CreateEventPage();
-            page.show(new Stage(), organizerID);
+            page.show(new Stage(), session);
         });
         
         attendeesBtn.setOnAction(e -> {
@@ -232,12 +258,12 @@ public class OrganizerDashboard {
         
         notificationsBtn.setOnAction(e -> {
             OrganizerNotificationPage notifPage = new OrganizerNotificationPage();
-            notifPage.show(currentStage, organizerID);
+            notifPage.show(currentStage, session);
         });
         
         profileBtn.setOnAction(e -> {
             ProfilePage profilePage = new ProfilePage();
-            profilePage.show(currentStage, organizerID);
+            profilePage.show(currentStage, session);
         });
         
         return navBar;
@@ -310,11 +336,11 @@ public class OrganizerDashboard {
         nameCol.setPrefWidth(200);
         
         TableColumn<Event, String> startDateCol = new TableColumn<>("Start Date");
-        startDateCol.setCellValueFactory(new javafx.scene.control.cell.PropertyValueFactory<>("startDate"));
+        startDateCol.setCellValueFactory(new javafx.scene.control.cell.PropertyValueFactory<>("startDateText"));
         startDateCol.setPrefWidth(120);
         
         TableColumn<Event, String> endDateCol = new TableColumn<>("End Date");
-        endDateCol.setCellValueFactory(new javafx.scene.control.cell.PropertyValueFactory<>("endDate"));
+        endDateCol.setCellValueFactory(new javafx.scene.control.cell.PropertyValueFactory<>("endDateText"));
         endDateCol.setPrefWidth(120);
         
         eventsTable.getColumns().addAll(idCol, nameCol, startDateCol, endDateCol);
@@ -456,85 +482,56 @@ public class OrganizerDashboard {
         );
     }
     
+    // The first call loads every event of the organizer; later ones (Refresh) merge only
+    // what changed since into the table, so the selection and scroll position stay put
     private void loadEvents() {
-        eventsTable.getItems().clear();
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT eventID, name, startDate, endDate FROM Event WHERE organizerID = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, organizerID);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                eventsTable.getItems().add(new Event(
-                        rs.getInt("eventID"),
-                        rs.getString("name"),
-                        rs.getString("startDate"),
-                        rs.getString("endDate")
-                ));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+        if (eventsTable.getItems().isEmpty()) {
+            eventsTable.setPlaceholder(PageTasks.loadingPlaceholder("Loading events..."));
         }
+        long since = eventsVersion;
+        tasks.run(() -> eventRepository.changesByOrganizerSince(organizerID, since), changes -> {
+            ListMerge.merge(eventsTable, changes, Event::getEventID, e -> true,
+                    Comparator.comparingInt(Event::getEventID));
+            eventsVersion = changes.getVersion();
+            eventsTable.setPlaceholder(new Label("No events yet."));
+        }, e -> {
+            e.printStackTrace();
+            eventsTable.setPlaceholder(new Label("Error loading events."));
+        });
     }
     
     private void loadUnreadNotifications() {
-        notificationsList.getItems().clear();
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = """
-                SELECT title, message, createdAt
-                FROM Notification
-                WHERE userID = ? AND notificationType = 'Organizer' AND isRead = 0
-                ORDER BY createdAt DESC
-                OFFSET 0 ROWS FETCH NEXT 5 ROWS ONLY
-            """;
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, organizerID);
-            ResultSet rs = stmt.executeQuery();
-            boolean hasNotif = false;
-            while (rs.next()) {
-                hasNotif = true;
-                String title = rs.getString("title");
-                String message = rs.getString("message");
-                String timestamp = rs.getString("createdAt");
-                notificationsList.getItems().add("[" + timestamp + "] " + title + ": " + message);
+        notificationsList.getItems().setAll("Loading notifications...");
+        tasks.run(() -> {
+            List<String> items = new ArrayList<>();
+            for (Notification n : notificationRepository.findRecentUnreadForOrganizer(organizerID)) {
+                items.add("[" + n.getCreatedAt() + "] " + n.getTitle() + ": " + n.getMessage());
             }
-            if (!hasNotif) {
-                notificationsList.getItems().add("No new notifications.");
+            return items;
+        }, items -> {
+            if (items.isEmpty()) {
+                notificationsList.getItems().setAll("No new notifications.");
+            } else {
+                notificationsList.getItems().setAll(items);
             }
-        } catch (SQLException ex) {
+        }, ex -> {
             ex.printStackTrace();
-            notificationsList.getItems().add("Error loading notifications.");
-        }
+            notificationsList.getItems().setAll("Error loading notifications.");
+        });
     }
     
     private void loadAnalytics() {
-        try (Connection conn = DBConnection.getConnection()) {
-            // Count total events
-            String eventSql = "SELECT COUNT(*) as totalEvents FROM Event WHERE organizerID = ?";
-            PreparedStatement eventStmt = conn.prepareStatement(eventSql);
-            eventStmt.setInt(1, organizerID);
-            ResultSet eventRs = eventStmt.executeQuery();
-            if (eventRs.next()) {
-                totalEventsLabel.setText("Total Events: " + eventRs.getInt("totalEvents"));
-            }
-            
-            // Count total attendees across all events
-            String attendeeSql = """
-                SELECT COUNT(DISTINCT r.userID) as totalAttendees 
-                FROM Registration r 
-                JOIN Event e ON r.eventID = e.eventID 
-                WHERE e.organizerID = ?
-            """;
-            PreparedStatement attendeeStmt = conn.prepareStatement(attendeeSql);
-            attendeeStmt.setInt(1, organizerID);
-            ResultSet attendeeRs = attendeeStmt.executeQuery();
-            if (attendeeRs.next()) {
-                totalAttendeesLabel.setText("Total Attendees: " + attendeeRs.getInt("totalAttendees"));
-            }
-        } catch (SQLException e) {
+        tasks.run(() -> new int[] {
+            eventRepository.countByOrganizer(organizerID),
+            registrationRepository.countAttendeesByOrganizer(organizerID) // across all events
+        }, totals -> {
+            totalEventsLabel.setText("Total Events: " + totals[0]);
+            totalAttendeesLabel.setText("Total Attendees: " + totals[1]);
+        }, e -> {
             e.printStackTrace();
             totalEventsLabel.setText("Total Events: Error");
             totalAttendeesLabel.setText("Total Attendees: Error");
-        }
+        });
     }
     
     private void showEventDetails(Event event) {
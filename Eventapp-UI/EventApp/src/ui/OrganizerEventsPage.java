@@ -1,6 +1,7 @@
 package ui;
 
-import db.DBConnection;
+import db.EventRepository;
+import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
@@ -13,9 +14,10 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.stage.Stage;
+import models.Event;
+import models.UserSession;
 
 import java.io.FileInputStream;
-import java.sql.*;
 
 public class OrganizerEventsPage {
     // UI color constants matching organizer dashboard
@@ -25,12 +27,17 @@ public class OrganizerEventsPage {
     private static final String DARK_TEXT = "#333333";
     
     private Stage currentStage;
+    private UserSession session;
     private int organizerID;
-    private TableView<EventRow> eventsTable;
+    private TableView<Event> eventsTable;
+    private final EventRepository eventRepository = new EventRepository();
+    private PageTasks tasks; // Background loads and writes for this page
 
-    public void show(Stage stage, int organizerID) {
+    public void show(Stage stage, UserSession session) {
         this.currentStage = stage;
-        this.organizerID = organizerID;
+        this.session = session;
+        this.organizerID = session.getUserID();
+        this.tasks = new PageTasks(stage);
         
         // Main layout
         BorderPane mainLayout = new BorderPane();
@@ -141,12 +148,12 @@ public class OrganizerEventsPage {
         // Navigation Button Actions
         dashboardBtn.setOnAction(e -> {
             OrganizerDashboard dashboard = new OrganizerDashboard();
-            dashboard.show(currentStage, organizerID);
+            dashboard.show(currentStage, session);
         });
         
         eventsBtn.setOnAction(e -> {
             EventListPage eventsPage = new EventListPage(false);
-            eventsPage.show(currentStage, organizerID);
+            eventsPage.show(currentStage, session);
         });
         
         myEventsBtn.setOnAction(e -> {
@@ -156,7 +163,7 @@ public class OrganizerEventsPage {
         
         createEventBtn.setOnAction(e -> {
             CreateEventPage page = new CreateEventPage();
-            page.show(new Stage(), organizerID);
+            page.show(new Stage(), session);
         });
         
         attendeesBtn.setOnAction(e -> {
@@ -177,12 +184,12 @@ public class OrganizerEventsPage {
         
         notificationsBtn.setOnAction(e -> {
             OrganizerNotificationPage notifPage = new OrganizerNotificationPage();
-            notifPage.show(currentStage, organizerID);
+            notifPage.show(currentStage, session);
         });
         
         profileBtn.setOnAction(e -> {
             ProfilePage profilePage = new ProfilePage();
-            profilePage.show(currentStage, organizerID);
+            profilePage.show(currentStage, session);
         });
         
         switchAccountBtn.setOnAction(e -> {
@@ -256,22 +263,22 @@ public class OrganizerEventsPage {
         VBox.setVgrow(eventsTable, Priority.ALWAYS);
         
         // Event Name Column
-        TableColumn<EventRow, String> eventCol = new TableColumn<>("Event Name");
-        eventCol.setCellValueFactory(data -> data.getValue().eventNameProperty());
+        TableColumn<Event, String> eventCol = new TableColumn<>("Event Name");
+        eventCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getEventName()));
         eventCol.setPrefWidth(250);
         
         // Start Date Column
-        TableColumn<EventRow, String> startDateCol = new TableColumn<>("Start Date");
-        startDateCol.setCellValueFactory(data -> data.getValue().startDateProperty());
+        TableColumn<Event, String> startDateCol = new TableColumn<>("Start Date");
+        startDateCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getStartDateText()));
         startDateCol.setPrefWidth(120);
         
         // End Date Column
-        TableColumn<EventRow, String> endDateCol = new TableColumn<>("End Date");
-        endDateCol.setCellValueFactory(data -> data.getValue().endDateProperty());
+        TableColumn<Event, String> endDateCol = new TableColumn<>("End Date");
+        endDateCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getEndDateText()));
         endDateCol.setPrefWidth(120);
         
         // Edit Column
-        TableColumn<EventRow, Void> editCol = new TableColumn<>("Edit");
+        TableColumn<Event, Void> editCol = new TableColumn<>("Edit");
         editCol.setPrefWidth(80);
         editCol.setCellFactory(col -> new TableCell<>() {
             private final Button editBtn = new Button("Edit");
@@ -279,9 +286,9 @@ public class OrganizerEventsPage {
             {
                 styleActionButton(editBtn);
                 editBtn.setOnAction(e -> {
-                    EventRow row = getTableView().getItems().get(getIndex());
+                    Event row = getTableView().getItems().get(getIndex());
                     EditEventPage eventPage = new EditEventPage();
-                    eventPage.show(new Stage(), row.toEvent(), () -> refreshData());
+                    eventPage.show(new Stage(), row, () -> refreshData());
                 });
             }
 
@@ -293,7 +300,7 @@ public class OrganizerEventsPage {
         });
 
         // Delete Column
-        TableColumn<EventRow, Void> deleteCol = new TableColumn<>("Delete");
+        TableColumn<Event, Void> deleteCol = new TableColumn<>("Delete");
         deleteCol.setPrefWidth(80);
         deleteCol.setCellFactory(col -> new TableCell<>() {
             private final Button deleteBtn = new Button("Delete");
@@ -301,7 +308,7 @@ public class OrganizerEventsPage {
             {
                 styleDeleteButton(deleteBtn);
                 deleteBtn.setOnAction(e -> {
-                    EventRow row = getTableView().getItems().get(getIndex());
+                    Event row = getTableView().getItems().get(getIndex());
                     
                     // Confirmation dialog
                     Alert confirmDialog = new Alert(Alert.AlertType.CONFIRMATION);
@@ -312,7 +319,6 @@ public class OrganizerEventsPage {
                     confirmDialog.showAndWait().ifPresent(response -> {
                         if (response == ButtonType.OK) {
                             deleteEvent(row.getEventID());
-                            refreshData();
                         }
                     });
                 });
@@ -343,7 +349,7 @@ public class OrganizerEventsPage {
         refreshBtn.setOnAction(e -> refreshData());
         createEventBtn.setOnAction(e -> {
             CreateEventPage page = new CreateEventPage();
-            page.show(new Stage(), organizerID);
+            page.show(new Stage(), session);
         });
         
         buttonBox.getChildren().addAll(refreshBtn, createEventBtn);
@@ -426,121 +432,40 @@ public class OrganizerEventsPage {
 
     private void refreshData() {
         eventsTable.getItems().clear();
-        ObservableList<EventRow> data = FXCollections.observableArrayList();
-
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT eventID, name, startDate, endDate FROM Event WHERE organizerID = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, organizerID);
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                int eventID = rs.getInt("eventID");
-                String eventName = rs.getString("name");
-                String startDate = rs.getString("startDate");
-                String endDate = rs.getString("endDate");
-
-                data.add(new EventRow(eventID, eventName, startDate, endDate));
-            }
+        eventsTable.setPlaceholder(PageTasks.loadingPlaceholder("Loading events..."));
+        tasks.run(() -> eventRepository.findByOrganizer(organizerID), events -> {
+            ObservableList<Event> data = FXCollections.observableArrayList(events);
             
             // Add placeholder if no events found
             if (data.isEmpty()) {
                 eventsTable.setPlaceholder(new Label("No events found. Create your first event!"));
             }
             
-        } catch (SQLException e) {
+            eventsTable.setItems(data);
+        }, e -> {
             e.printStackTrace();
             eventsTable.setPlaceholder(new Label("Error loading events."));
-        }
-
-        eventsTable.setItems(data);
+        });
     }
 
     private void deleteEvent(int eventID) {
-        try (Connection conn = DBConnection.getConnection()) {
-            // Start transaction
-            conn.setAutoCommit(false);
+        // Registrations, sessions and the event go in one transaction
+        tasks.runUpdate(() -> eventRepository.delete(eventID), () -> {
+            // Show success message
+            Alert successAlert = new Alert(Alert.AlertType.INFORMATION);
+            successAlert.setTitle("Success");
+            successAlert.setHeaderText("Event Deleted");
+            successAlert.setContentText("The event has been successfully deleted.");
+            successAlert.showAndWait();
             
-            try {
-                // Delete registrations first
-                PreparedStatement regStmt = conn.prepareStatement("DELETE FROM Registration WHERE eventID = ?");
-                regStmt.setInt(1, eventID);
-                regStmt.executeUpdate();
-                
-                // Delete sessions
-                PreparedStatement sessionStmt = conn.prepareStatement("DELETE FROM Session WHERE eventID = ?");
-                sessionStmt.setInt(1, eventID);
-                sessionStmt.executeUpdate();
-
-                // Delete event
-                PreparedStatement eventStmt = conn.prepareStatement("DELETE FROM Event WHERE eventID = ?");
-                eventStmt.setInt(1, eventID);
-                eventStmt.executeUpdate();
-                
-                // Commit transaction
-                conn.commit();
-                
-                // Show success message
-                Alert successAlert = new Alert(Alert.AlertType.INFORMATION);
-                successAlert.setTitle("Success");
-                successAlert.setHeaderText("Event Deleted");
-                successAlert.setContentText("The event has been successfully deleted.");
-                successAlert.showAndWait();
-                
-            } catch (SQLException e) {
-                // Rollback on error
-                conn.rollback();
-                throw e;
-            } finally {
-                conn.setAutoCommit(true);
-            }
-
-        } catch (SQLException e) {
+            refreshData();
+        }, e -> {
             e.printStackTrace();
             Alert errorAlert = new Alert(Alert.AlertType.ERROR);
             errorAlert.setTitle("Error");
             errorAlert.setHeaderText("Delete Failed");
             errorAlert.setContentText("Failed to delete the event. Please try again.");
             errorAlert.showAndWait();
-        }
-    }
-
-    public static class EventRow {
-        private final int eventID;
-        private final String eventName;
-        private final String startDate;
-        private final String endDate;
-
-        public EventRow(int eventID, String eventName, String startDate, String endDate) {
-            this.eventID = eventID;
-            this.eventName = eventName;
-            this.startDate = startDate;
-            this.endDate = endDate;
-        }
-
-        public int getEventID() {
-            return eventID;
-        }
-        
-        public String getEventName() {
-            return eventName;
-        }
-
-        public javafx.beans.property.SimpleStringProperty eventNameProperty() {
-            return new javafx.beans.property.SimpleStringProperty(eventName);
-        }
-        
-        public javafx.beans.property.SimpleStringProperty startDateProperty() {
-            return new javafx.beans.property.SimpleStringProperty(startDate);
-        }
-        
-        public javafx.beans.property.SimpleStringProperty endDateProperty() {
-            return new javafx.beans.property.SimpleStringProperty(endDate);
-        }
-
-        // Convert to your event object for passing to EditEventPage
-        public MyEventsPage.Event toEvent() {
-            return new MyEventsPage.Event(eventID, eventName, startDate, endDate);
-        }
+        });
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package ui;
 
-import db.DBConnection;
+import db.ChangeFeed;
+import db.NotificationRepository;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
@@ -13,9 +14,13 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.stage.Stage;
+import models.Notification;
+import models.UserSession;
 
 import java.io.FileInputStream;
-import java.sql.*;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class OrganizerNotificationPage {
     // UI color constants matching dashboard
@@ -24,32 +29,26 @@ public class OrganizerNotificationPage {
     private static final String WHITE_COLOR = "#FFFFFF";
     private static final String DARK_TEXT = "#333333";
     
+    private UserSession session;
     private int userID;
     private String organizerName = "";
     private Stage currentStage;
-    private ListView<NotificationItem> notificationListView;
+    private ListView<Notification> notificationListView;
     private TextArea messageArea;
     private Button markReadBtn;
     private Button markUnreadBtn;
     private Button deleteBtn;
     private ComboBox<String> filterComboBox;
+    private final NotificationRepository notificationRepository = new NotificationRepository();
+    private PageTasks tasks; // Background loads and writes for this page
+    private CompletableFuture<List<Notification>> pendingLoad; // Superseded when the filter changes
 
-    public void show(Stage stage, int userID) {
-        this.userID = userID;
+    public void show(Stage stage, UserSession session) {
+        this.session = session;
+        this.userID = session.getUserID();
         this.currentStage = stage;
-        
-        // Fetch organizer name from database
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT firstName, lastName FROM [User] WHERE userID = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, userID);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                organizerName = rs.getString("firstName") + " " + rs.getString("lastName");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        this.organizerName = session.getName();
+        this.tasks = new PageTasks(stage);
 
         // Main layout
         BorderPane mainLayout = new BorderPane();
@@ -91,6 +90,13 @@ public class OrganizerNotificationPage {
         stage.show();
 
         loadNotifications();
+
+        // Notifications sent from other windows appear while the page is open
+        tasks.listen(EnumSet.of(ChangeFeed.Kind.NOTIFICATION), changes -> {
+            if (changes.stream().anyMatch(c -> c.getUserID() == userID)) {
+                refreshList();
+            }
+        });
     }
     
     private HBox createNavBar() {
@@ -167,22 +173,22 @@ public class OrganizerNotificationPage {
         
         dashboardBtn.setOnAction(e -> {
             OrganizerDashboard dashboard = new OrganizerDashboard();
-            dashboard.show(currentStage, userID);
+            dashboard.show(currentStage, session);
         });
         
         eventsBtn.setOnAction(e -> {
             EventListPage eventsPage = new EventListPage(false);
-            eventsPage.show(currentStage, userID);
+            eventsPage.show(currentStage, session);
         });
         
         myEventsBtn.setOnAction(e -> {
             OrganizerEventsPage page = new OrganizerEventsPage();
-            page.show(currentStage, userID);
+            page.show(currentStage, session);
         });
         
         createEventBtn.setOnAction(e -> {
             CreateEventPage page = new CreateEventPage();
-            page.show(currentStage, userID);  // Use currentStage instead of new Stage()
+            page.show(currentStage, session);  // Use currentStage instead of new Stage()
         });
         
         attendeesBtn.setOnAction(e -> {
@@ -203,7 +209,7 @@ public class OrganizerNotificationPage {
         
         profileBtn.setOnAction(e -> {
             ProfilePage profilePage = new ProfilePage();
-            profilePage.show(currentStage, userID);
+            profilePage.show(currentStage, session);
         });
         
         return navBar;
@@ -300,17 +306,17 @@ public class OrganizerNotificationPage {
         );
         notificationListView.setCellFactory(param -> new ListCell<>() {
             @Override
-            protected void updateItem(NotificationItem item, boolean empty) {
+            protected void updateItem(Notification item, boolean empty) {
                 super.updateItem(item, empty);
                 if (empty || item == null) {
                     setText(null);
                     setStyle("");
                 } else {
-                    String status = item.isRead ? "[Read] " : "[Unread] ";
-                    setText(status + item.title + " (" + item.createdAt + ")");
+                    String status = item.isRead() ? "[Read] " : "[Unread] ";
+                    setText(status + item.getTitle() + " (" + item.getCreatedAt() + ")");
                     
                     // Style based on read status
-                    if (!item.isRead) {
+                    if (!item.isRead()) {
                         setStyle("-fx-font-weight: bold; -fx-text-fill: " + DARK_TEXT + ";");
                     } else {
                         setStyle("-fx-text-fill: #666666;");
@@ -328,8 +334,8 @@ public class OrganizerNotificationPage {
         
         notificationListView.getSelectionModel().selectedItemProperty().addListener((obs, oldSel, newSel) -> {
             if (newSel != null) {
-                messageArea.setText(newSel.message);
-                updateButtons(newSel.isRead);
+                messageArea.setText(newSel.getMessage());
+                updateButtons(newSel.isRead());
                 deleteBtn.setDisable(false);
             } else {
                 messageArea.clear();
@@ -384,27 +390,21 @@ public class OrganizerNotificationPage {
         
         // Button actions
         markReadBtn.setOnAction(e -> {
-            NotificationItem selected = notificationListView.getSelectionModel().getSelectedItem();
-            if (selected != null && !selected.isRead) {
-                updateNotificationReadStatus(selected.id, true);
-                selected.isRead = true;
-                refreshList();
-                notificationListView.getSelectionModel().select(selected);
+            Notification selected = notificationListView.getSelectionModel().getSelectedItem();
+            if (selected != null && !selected.isRead()) {
+                updateNotificationReadStatus(selected.getNotificationID(), true);
             }
         });
 
         markUnreadBtn.setOnAction(e -> {
-            NotificationItem selected = notificationListView.getSelectionModel().getSelectedItem();
-            if (selected != null && selected.isRead) {
-                updateNotificationReadStatus(selected.id, false);
-                selected.isRead = false;
-                refreshList();
-                notificationListView.getSelectionModel().select(selected);
+            Notification selected = notificationListView.getSelectionModel().getSelectedItem();
+            if (selected != null && selected.isRead()) {
+                updateNotificationReadStatus(selected.getNotificationID(), false);
             }
         });
 
         deleteBtn.setOnAction(e -> {
-            NotificationItem selected = notificationListView.getSelectionModel().getSelectedItem();
+            Notification selected = notificationListView.getSelectionModel().getSelectedItem();
             if (selected != null) {
                 Alert confirmDialog = new Alert(Alert.AlertType.CONFIRMATION);
                 confirmDialog.setTitle("Delete Notification");
@@ -413,8 +413,7 @@ public class OrganizerNotificationPage {
                 
                 confirmDialog.showAndWait().ifPresent(response -> {
                     if (response == ButtonType.OK) {
-                        deleteNotification(selected.id);
-                        refreshList();
+                        deleteNotification(selected.getNotificationID());
                     }
                 });
             }
@@ -467,54 +466,32 @@ public class OrganizerNotificationPage {
         markUnreadBtn.setDisable(!isRead);
     }
 
+    // Reloads the list and keeps the selected notification selected
     private void refreshList() {
-        NotificationItem current = notificationListView.getSelectionModel().getSelectedItem();
-        loadNotifications();
-        if (current != null) {
-            for (NotificationItem item : notificationListView.getItems()) {
-                if (item.id == current.id) {
-                    notificationListView.getSelectionModel().select(item);
-                    break;
-                }
-            }
-        }
+        Notification current = notificationListView.getSelectionModel().getSelectedItem();
+        loadNotifications(current == null ? 0 : current.getNotificationID());
     }
 
     private void loadNotifications() {
+        loadNotifications(0);
+    }
+
+    private void loadNotifications(int selectID) {
         notificationListView.getItems().clear();
+        notificationListView.setPlaceholder(PageTasks.loadingPlaceholder("Loading notifications..."));
 
         String filter = filterComboBox.getValue();
-        String sqlBase = "SELECT TOP (1000) [notificationID], [title], [message], [createdAt], [isRead], " +
-                         "[notificationType], [userID] " +
-                         "FROM [EventManagementSystem].[dbo].[Notification] WHERE [userID] = ? AND [notificationType] = 'Organizer' ";
-        String sqlFilter = switch (filter) {
-            case "Unread" -> "AND [isRead] = 0 ";
-            case "Read" -> "AND [isRead] = 1 ";
-            default -> "";
+        Boolean read = switch (filter) {
+            case "Unread" -> false;
+            case "Read" -> true;
+            default -> null;
         };
-        String sqlOrder = "ORDER BY [createdAt] DESC";
-
-        String sql = sqlBase + sqlFilter + sqlOrder;
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, userID);
-            ResultSet rs = stmt.executeQuery();
 
-            ObservableList<NotificationItem> notifications = FXCollections.observableArrayList();
-
-            while (rs.next()) {
-                notifications.add(new NotificationItem(
-                        rs.getInt("notificationID"),
-                        rs.getString("title"),
-                        rs.getString("message"),
-                        rs.getTimestamp("createdAt"),
-                        rs.getBoolean("isRead"),
-                        rs.getString("notificationType"),
-                        rs.getInt("userID")
-                ));
-            }
+        if (pendingLoad != null) {
+            pendingLoad.cancel(true);
+        }
+        pendingLoad = tasks.run(() -> notificationRepository.findForOrganizer(userID, read), found -> {
+            ObservableList<Notification> notifications = FXCollections.observableArrayList(found);
 
             if (notifications.isEmpty()) {
                 messageArea.clear();
@@ -522,53 +499,38 @@ public class OrganizerNotificationPage {
             }
 
             notificationListView.setItems(notifications);
-
-        } catch (SQLException e) {
+            notificationListView.setPlaceholder(new Label("No notifications."));
+            for (Notification item : notifications) {
+                if (item.getNotificationID() == selectID) {
+                    notificationListView.getSelectionModel().select(item);
+                    break;
+                }
+            }
+        }, e -> {
             e.printStackTrace();
+            notificationListView.setPlaceholder(new Label("Error loading notifications."));
             messageArea.setText("Error loading notifications. Please try again.");
-        }
+        });
     }
 
+    // Reloads with the notification still selected once the change is stored
     private void updateNotificationReadStatus(int notificationID, boolean markAsRead) {
-        String sql = "UPDATE [EventManagementSystem].[dbo].[Notification] SET [isRead] = ? WHERE [notificationID] = ?";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setBoolean(1, markAsRead);
-            stmt.setInt(2, notificationID);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        markReadBtn.setDisable(true);
+        markUnreadBtn.setDisable(true);
+        tasks.runUpdate(() -> notificationRepository.setRead(notificationID, markAsRead),
+                () -> loadNotifications(notificationID), e -> {
+                    e.printStackTrace();
+                    updateButtons(!markAsRead);
+                    messageArea.setText("Error updating the notification. Please try again.");
+                });
     }
 
     private void deleteNotification(int notificationID) {
-        String sql = "DELETE FROM [EventManagementSystem].[dbo].[Notification] WHERE [notificationID] = ?";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, notificationID);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
+        deleteBtn.setDisable(true);
+        tasks.runUpdate(() -> notificationRepository.delete(notificationID), this::refreshList, e -> {
             e.printStackTrace();
-        }
-    }
-
-    private static class NotificationItem {
-        int id;
-        String title;
-        String message;
-        Timestamp createdAt;
-        boolean isRead;
-        String type;
-        int userID;
-
-        NotificationItem(int id, String title, String message, Timestamp createdAt, boolean isRead, String type, int userID) {
-            this.id = id;
-            this.title = title;
-            this.message = message;
-            this.createdAt = createdAt;
-            this.isRead = isRead;
-            this.type = type;
-            this.userID = userID;
-        }
+            deleteBtn.setDisable(false);
+            messageArea.setText("Error deleting the notification. Please try again.");
+        });
     }
-}
\ No newline at end of file
+}
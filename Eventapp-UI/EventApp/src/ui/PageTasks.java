@@ -0,0 +1,127 @@
+package ui;
+
+import db.ChangeFeed;
+import db.DbExecutor;
+import db.SqlUpdate;
+import db.SqlWork;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.stage.Stage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+// Background DB loads owned by one page. Results come back on the FX thread; once the
+// user navigates away (the stage switches scene or closes) pending loads are cancelled
+// and their callbacks are dropped, and the page stops hearing from the ChangeFeed.
+public class PageTasks {
+
+    private final Stage stage;
+    private final List<CompletableFuture<?>> pending = new ArrayList<>();
+    private final List<ChangeFeed.Subscription> subscriptions = new ArrayList<>();
+    private Scene ownScene;
+    private boolean cancelled;
+
+    private final ChangeListener<Scene> sceneListener = (obs, oldScene, newScene) -> {
+        if (ownScene == null) {
+            ownScene = newScene; // first scene set after the page was built is ours
+        } else if (newScene != ownScene) {
+            cancelAll();
+        }
+    };
+
+    private final ChangeListener<Boolean> showingListener = (obs, wasShowing, isShowing) -> {
+        if (!isShowing) {
+            cancelAll();
+        }
+    };
+
+    public PageTasks(Stage stage) {
+        this.stage = stage;
+        stage.sceneProperty().addListener(sceneListener);
+        stage.showingProperty().addListener(showingListener);
+    }
+
+    public <T> CompletableFuture<T> run(SqlWork<T> work, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        return track(DbExecutor.submit(work), onSuccess, onError);
+    }
+
+    // run() for writes with no result; onSuccess is called once the write has committed
+    public CompletableFuture<Void> runUpdate(SqlUpdate work, Runnable onSuccess, Consumer<Throwable> onError) {
+        return run(() -> {
+            work.run();
+            return null;
+        }, done -> onSuccess.run(), onError);
+    }
+
+    // Same as run() for work that is already in flight elsewhere (e.g. RegistrationQueue)
+    public <T> CompletableFuture<T> track(CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        if (cancelled) {
+            future.cancel(true);
+            return future;
+        }
+        pending.add(future);
+        future.whenComplete((result, error) -> Platform.runLater(() -> {
+            pending.remove(future);
+            if (cancelled || future.isCancelled()) {
+                return;
+            }
+            if (error != null) {
+                onError.accept(unwrap(error));
+            } else {
+                onSuccess.accept(result);
+            }
+        }));
+        return future;
+    }
+
+    // Calls onChanges on the FX thread with each burst of changes of these kinds made by
+    // this or any other client, for as long as the page is showing
+    public void listen(Set<ChangeFeed.Kind> kinds, Consumer<List<ChangeFeed.Change>> onChanges) {
+        if (cancelled) {
+            return;
+        }
+        subscriptions.add(ChangeFeed.shared().subscribe(kinds, Platform::runLater, changes -> {
+            if (!cancelled) {
+                onChanges.accept(changes);
+            }
+        }));
+    }
+
+    public void cancelAll() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        for (CompletableFuture<?> f : new ArrayList<>(pending)) {
+            f.cancel(true);
+        }
+        pending.clear();
+        for (ChangeFeed.Subscription s : subscriptions) {
+            s.close();
+        }
+        subscriptions.clear();
+        stage.sceneProperty().removeListener(sceneListener);
+        stage.showingProperty().removeListener(showingListener);
+    }
+
+    // Placeholder shown in a TableView/ListView while its rows are loading
+    public static Label loadingPlaceholder(String text) {
+        Label label = new Label(text);
+        label.setStyle("-fx-font-style: italic; -fx-text-fill: #666666;");
+        return label;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+}
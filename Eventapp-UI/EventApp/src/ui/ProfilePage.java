@@ -1,6 +1,6 @@
 package ui;
 
-import db.DBConnection;
+import db.UserRepository;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -11,9 +11,11 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.stage.Stage;
+import models.User;
+import models.UserSession;
 
 import java.io.FileInputStream;
-import java.sql.*;
+import java.util.Optional;
 
 public class ProfilePage {
     // UI color constants matching MyEventsPage
@@ -34,37 +36,30 @@ public class ProfilePage {
     private Button saveBtn;
     private Button cancelBtn;
     private Button changePassBtn;
+    private UserSession session;
     private int userID;
     private String attendeeName = "";
     private Stage stage;
     private Stage previousStage; // Store the previous stage to go back to
+    private final UserRepository userRepository = new UserRepository();
+    private PageTasks tasks; // Background loads and writes for this page
     
     // Store original values for cancel functionality
     private String originalName = "";
     private String originalEmail = "";
     private String originalUsername = "";
     
-    public void show(Stage stage, int userID) {
-        show(stage, userID, null);
+    public void show(Stage stage, UserSession session) {
+        show(stage, session, null);
     }
     
-    public void show(Stage stage, int userID, Stage previousStage) {
-        this.userID = userID;
+    public void show(Stage stage, UserSession session, Stage previousStage) {
+        this.session = session;
+        this.userID = session.getUserID();
         this.stage = stage;
         this.previousStage = previousStage;
-        
-        // Fetch attendee name for display - FIXED to use 'name' column
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT name FROM [User] WHERE userID = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, userID);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                attendeeName = rs.getString("name");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        this.attendeeName = session.getName();
+        this.tasks = new PageTasks(stage);
         
         // Main layout
         BorderPane mainLayout = new BorderPane();
@@ -96,6 +91,9 @@ public class ProfilePage {
         stage.setTitle("Eventure - My Profile");
         stage.setScene(scene);
         stage.show();
+        
+        // Fetch user info
+        loadUserProfile();
     }
     
     private HBox createBackButtonSection() {
@@ -146,16 +144,14 @@ public class ProfilePage {
                 stage.close();
             } else {
                 // Determine where to go based on user type
-                String userType = getUserType(userID);
-                
-                if ("Organizer".equalsIgnoreCase(userType)) {
+                if (session.isOrganizer()) {
                     // Go to organizer dashboard
                     OrganizerDashboard organizerDashboard = new OrganizerDashboard();
-                    organizerDashboard.show(stage, userID);
+                    organizerDashboard.show(stage, session);
                 } else {
                     // Default to attendee dashboard
                     AttendeeDashboard dashboard = new AttendeeDashboard();
-                    dashboard.show(stage, userID);
+                    dashboard.show(stage, session);
                 }
             }
         });
@@ -164,22 +160,6 @@ public class ProfilePage {
         return backSection;
     }
     
-    // Helper method to get user type
-    private String getUserType(int userID) {
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT userType FROM [User] WHERE userID = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, userID);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getString("userType");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return "Attendee"; // Default fallback
-    }
-    
     private VBox createHeaderSection() {
         VBox headerSection = new VBox(10);
         
@@ -259,9 +239,6 @@ public class ProfilePage {
         usernameField.setEditable(false);
         passwordField.setEditable(false);
         
-        // Fetch user info
-        loadUserProfile();
-        
         // Create labels
         Label nameLabel = createFieldLabel("Full Name:");
         Label emailLabel = createFieldLabel("Email Address:");
@@ -448,19 +425,20 @@ public class ProfilePage {
     }
     
     // FIXED: Updated to use 'name' column instead of firstName/lastName
+    // The fields read "Loading..." and editing stays off until the profile arrives
     private void loadUserProfile() {
-        try (Connection conn = DBConnection.getConnection()) {
-            // Use the correct column names based on your database schema
-            String sql = "SELECT name, email, username, userType FROM [User] WHERE userID = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, userID);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                String name = rs.getString("name");
-                String email = rs.getString("email");
-                String username = rs.getString("username");
-                String userType = rs.getString("userType");
+        nameField.setPromptText("Loading...");
+        editBtn.setDisable(true);
+        changePassBtn.setDisable(true);
+        tasks.run(() -> userRepository.findById(userID), user -> {
+            nameField.setPromptText(null);
+            editBtn.setDisable(false);
+            changePassBtn.setDisable(false);
+            if (user.isPresent()) {
+                String name = user.get().getName();
+                String email = user.get().getEmail();
+                String username = user.get().getUsername();
+                String userType = user.get().getUserType();
                 
                 nameField.setText(name != null ? name : "");
                 emailField.setText(email != null ? email : "");
@@ -473,10 +451,11 @@ public class ProfilePage {
                 originalEmail = email != null ? email : "";
                 originalUsername = username != null ? username : "";
             }
-        } catch (SQLException e) {
+        }, e -> {
             e.printStackTrace();
+            nameField.setPromptText(null);
             showError("Failed to load profile", e.getMessage());
-        }
+        });
     }
     
     private void enterEditMode(HBox mainButtons, HBox editButtons) {
@@ -538,24 +517,22 @@ public class ProfilePage {
             return;
         }
         
-        try (Connection conn = DBConnection.getConnection()) {
-            // Update user profile using 'name' column
-            String sql = "UPDATE [User] SET name = ?, email = ?, username = ? WHERE userID = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setString(1, nameField.getText().trim());
-            stmt.setString(2, email);
-            stmt.setString(3, usernameField.getText().trim());
-            stmt.setInt(4, userID);
-            
-            int rowsAffected = stmt.executeUpdate();
-            
-            if (rowsAffected > 0) {
+        String name = nameField.getText().trim();
+        String username = usernameField.getText().trim();
+        saveBtn.setDisable(true);
+        tasks.run(() -> userRepository.updateProfile(userID, name, email, username), updated -> {
+            saveBtn.setDisable(false);
+            if (updated) {
                 showSuccess("Profile updated successfully!");
                 
                 // Update original values with new ones
-                originalName = nameField.getText().trim();
-                originalEmail = emailField.getText().trim();
-                originalUsername = usernameField.getText().trim();
+                originalName = name;
+                originalEmail = email;
+                originalUsername = username;
+                
+                // Pages opened from here on show the new name
+                session = session.withProfile(originalName, originalEmail);
+                attendeeName = originalName;
                 
                 // Exit edit mode
                 passwordField.setText("••••••••");
@@ -571,15 +548,17 @@ public class ProfilePage {
             } else {
                 showError("Update Failed", "Could not update your profile. Please try again.");
             }
-        } catch (SQLException e) {
+        }, e -> {
+            saveBtn.setDisable(false);
             e.printStackTrace();
-            if (e.getMessage().contains("UNIQUE constraint failed") || 
-                e.getMessage().contains("Violation of UNIQUE KEY constraint")) {
+            String message = String.valueOf(e.getMessage());
+            if (message.contains("UNIQUE constraint failed") || 
+                message.contains("Violation of UNIQUE KEY constraint")) {
                 showError("Update Failed", "Username or email already exists. Please choose different values.");
             } else {
-                showError("Update Failed", "Database error: " + e.getMessage());
+                showError("Update Failed", "Database error: " + message);
             }
-        }
+        });
     }
     
     private void showChangePasswordDialog() {
@@ -624,23 +603,19 @@ public class ProfilePage {
         
         dialog.showAndWait().ifPresent(newPassword -> {
             if (newPassword != null) {
-                try (Connection conn = DBConnection.getConnection()) {
-                    String sql = "UPDATE [User] SET password = ? WHERE userID = ?";
-                    PreparedStatement stmt = conn.prepareStatement(sql);
-                    stmt.setString(1, newPassword);
-                    stmt.setInt(2, userID);
-                    
-                    int rowsAffected = stmt.executeUpdate();
-                    
-                    if (rowsAffected > 0) {
+                changePassBtn.setDisable(true);
+                tasks.run(() -> userRepository.updatePassword(userID, newPassword), updated -> {
+                    changePassBtn.setDisable(false);
+                    if (updated) {
                         showSuccess("Password changed successfully!");
                     } else {
                         showError("Update Failed", "Could not update password.");
                     }
-                } catch (SQLException e) {
+                }, e -> {
+                    changePassBtn.setDisable(false);
                     e.printStackTrace();
                     showError("Update Failed", "Database error: " + e.getMessage());
-                }
+                });
             }
         });
     }
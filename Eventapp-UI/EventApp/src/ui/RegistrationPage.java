@@ -1,6 +1,6 @@
 package ui;
 
-import db.DBConnection;
+import db.UserRepository;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -13,9 +13,6 @@ import javafx.stage.Stage;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 
 public class RegistrationPage {
     private static final String BLUE_COLOR = "#97A9D1";
@@ -23,6 +20,9 @@ public class RegistrationPage {
     private static final String LIGHTER_BLUE = "#B8C5E2";
 
     public RegistrationPage(Stage stage) {
+        PageTasks tasks = new PageTasks(stage);
+        UserRepository userRepository = new UserRepository();
+
         VBox mainLayout = new VBox(30); // Increased spacing for larger window
         mainLayout.setAlignment(Pos.CENTER); // Center everything for 1200x800
         mainLayout.setStyle("-fx-background-color: white; -fx-padding: 40;"); // Increased padding
@@ -130,65 +130,56 @@ public class RegistrationPage {
                 return;
             }
 
-            role = role.substring(0, 1).toUpperCase() + role.substring(1);
-
-            try (Connection conn = DBConnection.getConnection()) {
-                String checkSql = "SELECT COUNT(*) FROM [User] WHERE username = ?";
-                PreparedStatement checkStmt = conn.prepareStatement(checkSql);
-                checkStmt.setString(1, username);
-                ResultSet rs = checkStmt.executeQuery();
-                if (rs.next() && rs.getInt(1) > 0) {
-                    errorMsgLabel.setText("Username already exists.");
-                    errorMsgLabel.setTextFill(Color.RED);
-                    return;
-                }
-
-                checkSql = "SELECT COUNT(*) FROM [User] WHERE email = ?";
-                checkStmt = conn.prepareStatement(checkSql);
-                checkStmt.setString(1, email);
-                rs = checkStmt.executeQuery();
-                if (rs.next() && rs.getInt(1) > 0) {
-                    errorMsgLabel.setText("Email already exists.");
-                    errorMsgLabel.setTextFill(Color.RED);
-                    return;
+            String userType = role.substring(0, 1).toUpperCase() + role.substring(1);
+
+            registerBtn.setDisable(true);
+            errorMsgLabel.setText("Creating your account...");
+            errorMsgLabel.setTextFill(Color.BLACK);
+
+            tasks.run(() -> userRepository.signUp(name, email, username, password, userType), result -> {
+                registerBtn.setDisable(false);
+                switch (result) {
+                    case USERNAME_TAKEN:
+                        errorMsgLabel.setText("Username already exists.");
+                        errorMsgLabel.setTextFill(Color.RED);
+                        usernameField.requestFocus();
+                        return;
+                    case EMAIL_TAKEN:
+                        errorMsgLabel.setText("Email already exists.");
+                        errorMsgLabel.setTextFill(Color.RED);
+                        emailField.requestFocus();
+                        return;
+                    case DUPLICATE:
+                        errorMsgLabel.setText("Username or email already exists.");
+                        errorMsgLabel.setTextFill(Color.RED);
+                        return;
+                    default:
+                        break;
                 }
 
-                String sql = "INSERT INTO [User] (name, email, username, password, userType) VALUES (?, ?, ?, ?, ?)";
-                PreparedStatement stmt = conn.prepareStatement(sql);
-                stmt.setString(1, name);
-                stmt.setString(2, email);
-                stmt.setString(3, username);
-                stmt.setString(4, password);
-                stmt.setString(5, role);
-
-                int rowsAffected = stmt.executeUpdate();
-                if (rowsAffected > 0) {
-                    errorMsgLabel.setTextFill(Color.GREEN);
-                    errorMsgLabel.setText("Registration successful! Redirecting to login...");
-
-                    nameField.clear();
-                    emailField.clear();
-                    usernameField.clear();
-                    passwordField.clear();
-                    roleField.clear();
-
-                    new Thread(() -> {
-                        try {
-                            Thread.sleep(2000);
-                            javafx.application.Platform.runLater(() -> new LoginPage(stage));
-                        } catch (InterruptedException ex) {
-                            ex.printStackTrace();
-                        }
-                    }).start();
-                } else {
-                    errorMsgLabel.setText("Registration failed. Please try again.");
-                    errorMsgLabel.setTextFill(Color.RED);
-                }
-            } catch (Exception ex) {
+                errorMsgLabel.setTextFill(Color.GREEN);
+                errorMsgLabel.setText("Registration successful! Redirecting to login...");
+
+                nameField.clear();
+                emailField.clear();
+                usernameField.clear();
+                passwordField.clear();
+                roleField.clear();
+
+                new Thread(() -> {
+                    try {
+                        Thread.sleep(2000);
+                        javafx.application.Platform.runLater(() -> new LoginPage(stage));
+                    } catch (InterruptedException ex) {
+                        ex.printStackTrace();
+                    }
+                }).start();
+            }, ex -> {
                 ex.printStackTrace();
+                registerBtn.setDisable(false);
                 errorMsgLabel.setText("Database error: " + ex.getMessage());
                 errorMsgLabel.setTextFill(Color.RED);
-            }
+            });
         });
 
         registrationSection.getChildren().addAll(
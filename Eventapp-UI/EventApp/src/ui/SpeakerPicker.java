@@ -0,0 +1,84 @@
+package ui;
+
+import db.UserRepository;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.ComboBox;
+import javafx.util.StringConverter;
+import models.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Speaker choice for the session forms. The speakers are read once per page, in the
+// background, and shared by every session on it; the first entry stands for "no speaker"
+// and saves as null. Pickers stay disabled and keep the speaker they were given until the
+// list arrives, so saving early (or after a failed load) does not drop a speaker.
+final class SpeakerPicker {
+
+    private static final User NO_SPEAKER = new User(0, "No speaker", null, null, null);
+    private static final String SPEAKER_ID = "speakerID"; // box property: the speaker asked for
+
+    private final ObservableList<User> speakers = FXCollections.observableArrayList(NO_SPEAKER);
+    private final List<ComboBox<User>> waiting = new ArrayList<>();
+    private boolean loaded;
+
+    SpeakerPicker(PageTasks tasks) {
+        tasks.run(() -> new UserRepository().findSpeakers(), found -> {
+            speakers.addAll(found);
+            loaded = true;
+            for (ComboBox<User> box : waiting) {
+                select(box, (Integer) box.getProperties().get(SPEAKER_ID));
+                box.setDisable(false);
+            }
+            waiting.clear();
+        }, Throwable::printStackTrace); // the forms still work, just without speakers to pick
+    }
+
+    // A picker showing the speaker with this userID, or "No speaker" for null
+    ComboBox<User> create(Integer speakerID) {
+        ComboBox<User> box = new ComboBox<>(speakers);
+        box.setConverter(new StringConverter<User>() {
+            @Override
+            public String toString(User user) {
+                if (user == null || user == NO_SPEAKER) {
+                    return NO_SPEAKER.getName();
+                }
+                return user.getName() + " (" + user.getUsername() + ")";
+            }
+
+            @Override
+            public User fromString(String text) {
+                return null; // not editable
+            }
+        });
+        select(box, speakerID);
+        box.setPrefWidth(350);
+        if (!loaded) {
+            box.setDisable(true);
+            waiting.add(box);
+        }
+        return box;
+    }
+
+    void select(ComboBox<User> box, Integer speakerID) {
+        box.getProperties().put(SPEAKER_ID, speakerID);
+        box.setValue(NO_SPEAKER);
+        if (speakerID != null) {
+            for (User user : speakers) {
+                if (user.getUserID() == speakerID) {
+                    box.setValue(user);
+                    break;
+                }
+            }
+        }
+    }
+
+    static Integer speakerID(ComboBox<User> box) {
+        if (box.isDisable()) {
+            return (Integer) box.getProperties().get(SPEAKER_ID); // speakers not loaded
+        }
+        User user = box.getValue();
+        return user == null || user == NO_SPEAKER ? null : user.getUserID();
+    }
+}
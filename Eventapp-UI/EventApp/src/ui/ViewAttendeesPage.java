@@ -1,5 +1,7 @@
 package ui;
-import db.DBConnection;
+import db.EventRepository;
+import db.RegistrationRepository;
+import db.UserRepository;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -12,8 +14,8 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.stage.Stage;
+import models.Attendee;
 import java.io.FileInputStream;
-import java.sql.*;
 public class ViewAttendeesPage {
     // UI color constants matching organizer dashboard
     private static final String BLUE_COLOR = "#97A9D1";  // Nav bar and main background color
@@ -24,15 +26,19 @@ public class ViewAttendeesPage {
     private int currentEventID;
     private boolean isOwner;
     private Stage currentStage;
-    private String eventName = "";
+    private PageTasks tasks; // Background loads and writes for this page
+    private Label titleLabel;
+    private TableView<Attendee> attendeesTable;
+    private Label countLabel;
+    private final EventRepository eventRepository = new EventRepository();
+    private final RegistrationRepository registrationRepository = new RegistrationRepository();
+    private final UserRepository userRepository = new UserRepository();
     
     public void show(Stage stage, int eventID, boolean isOwner) {
         this.currentEventID = eventID;
         this.isOwner = isOwner;
         this.currentStage = stage;
-        
-        // Fetch event name from database
-        fetchEventName(eventID);
+        this.tasks = new PageTasks(stage);
         
         // Main layout
         BorderPane mainLayout = new BorderPane();
@@ -53,7 +59,7 @@ public class ViewAttendeesPage {
                             "-fx-background-radius: 10px;");
         
         // Title Banner
-        Label titleLabel = new Label("Attendees for " + eventName);
+        titleLabel = new Label("Attendees for ...");
         titleLabel.setStyle("-fx-background-color: " + YELLOW_COLOR + ";" +
                            "-fx-padding: 15px 20px;" +
                            "-fx-background-radius: 8px;" +
@@ -73,23 +79,17 @@ public class ViewAttendeesPage {
         stage.setTitle("Eventure - View Attendees");
         stage.setScene(scene);
         stage.show();
+        
+        // Fetch event name from database
+        fetchEventName(eventID);
     }
     
     private void fetchEventName(int eventID) {
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT name FROM Event WHERE eventID = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, eventID);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                eventName = rs.getString("name");
-            } else {
-                eventName = "Event #" + eventID;
-            }
-        } catch (SQLException e) {
+        tasks.run(() -> eventRepository.findName(eventID), name ->
+                titleLabel.setText("Attendees for " + name.orElse("Event #" + eventID)), e -> {
             e.printStackTrace();
-            eventName = "Event #" + eventID;
-        }
+            titleLabel.setText("Attendees for Event #" + eventID);
+        });
     }
     
     private HBox createNavBar() {
@@ -198,13 +198,13 @@ public class ViewAttendeesPage {
         Label sectionLabel = new Label("Registered Attendees");
         sectionLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 16px; -fx-text-fill: white;");
         
-        Label countLabel = new Label();
+        countLabel = new Label();
         countLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: white; -fx-padding: 0 0 0 10px;");
         
         headerBox.getChildren().addAll(sectionLabel, countLabel);
         
         // Attendees table with styling
-        TableView<Attendee> attendeesTable = new TableView<>();
+        attendeesTable = new TableView<>();
         attendeesTable.setStyle("-fx-background-color: " + YELLOW_COLOR + "; -fx-background-radius: 8px;");
         attendeesTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
         VBox.setVgrow(attendeesTable, Priority.ALWAYS);
@@ -243,7 +243,7 @@ public class ViewAttendeesPage {
                     
                     removeBtn.setOnAction(e -> {
                         Attendee attendee = getTableView().getItems().get(getIndex());
-                        showRemoveConfirmation(attendee, attendeesTable, countLabel);
+                        showRemoveConfirmation(attendee);
                     });
                 }
                 
@@ -258,7 +258,7 @@ public class ViewAttendeesPage {
         }
         
         // Load data and update count
-        refreshTable(attendeesTable, countLabel);
+        refreshTable();
         
         // Action buttons section - only refresh button now
         HBox buttonBox = new HBox(12);
@@ -267,7 +267,7 @@ public class ViewAttendeesPage {
         
         Button refreshBtn = new Button("🔄 Refresh");
         styleActionButton(refreshBtn, false);
-        refreshBtn.setOnAction(e -> refreshTable(attendeesTable, countLabel));
+        refreshBtn.setOnAction(e -> refreshTable());
         
         buttonBox.getChildren().add(refreshBtn);
         
@@ -316,35 +316,26 @@ public class ViewAttendeesPage {
         );
     }
     
-    private void refreshTable(TableView<Attendee> table, Label countLabel) {
-        table.getItems().clear();
-        try (Connection conn = DBConnection.getConnection()) {
-            // Updated SQL query to use 'name' column instead of concatenating firstName + lastName
-            String sql = "SELECT u.name as fullName, u.email FROM Registration r " +
-                         "JOIN [User] u ON r.userID = u.userID WHERE r.eventID = ? ORDER BY u.name";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, currentEventID);
-            ResultSet rs = stmt.executeQuery();
-            
-            int count = 0;
-            while (rs.next()) {
-                table.getItems().add(new Attendee(rs.getString("fullName"), rs.getString("email")));
-                count++;
-            }
+    private void refreshTable() {
+        attendeesTable.getItems().clear();
+        attendeesTable.setPlaceholder(PageTasks.loadingPlaceholder("Loading attendees..."));
+        tasks.run(() -> registrationRepository.findAttendees(currentEventID), attendees -> {
+            attendeesTable.getItems().setAll(attendees);
+            int count = attendees.size();
             
             countLabel.setText("(" + count + " registered)");
             
             if (count == 0) {
-                table.setPlaceholder(new Label("No attendees registered for this event yet."));
+                attendeesTable.setPlaceholder(new Label("No attendees registered for this event yet."));
             }
-            
-        } catch (SQLException e) {
+        }, e -> {
             e.printStackTrace();
+            attendeesTable.setPlaceholder(new Label("Error loading attendees."));
             showStyledAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load attendees: " + e.getMessage());
-        }
+        });
     }
     
-    private void showRemoveConfirmation(Attendee attendee, TableView<Attendee> table, Label countLabel) {
+    private void showRemoveConfirmation(Attendee attendee) {
         Alert confirmation = new Alert(Alert.AlertType.CONFIRMATION);
         confirmation.setTitle("Remove Attendee");
         confirmation.setHeaderText("Are you sure you want to remove this attendee?");
@@ -354,31 +345,19 @@ public class ViewAttendeesPage {
         confirmation.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
                 removeAttendee(attendee.getEmail());
-                refreshTable(table, countLabel);
-                showStyledAlert(Alert.AlertType.INFORMATION, "Success", "Attendee removed successfully.");
             }
         });
     }
     
+    // Frees the seat; the first waitlisted attendee, if any, is registered in its place
     private void removeAttendee(String email) {
-        try (Connection conn = DBConnection.getConnection()) {
-            String getUserID = "SELECT userID FROM [User] WHERE email = ?";
-            PreparedStatement userStmt = conn.prepareStatement(getUserID);
-            userStmt.setString(1, email);
-            ResultSet rs = userStmt.executeQuery();
-            
-            if (rs.next()) {
-                int userID = rs.getInt("userID");
-                String deleteSQL = "DELETE FROM Registration WHERE eventID = ? AND userID = ?";
-                PreparedStatement stmt = conn.prepareStatement(deleteSQL);
-                stmt.setInt(1, currentEventID);
-                stmt.setInt(2, userID);
-                stmt.executeUpdate();
-            }
-        } catch (SQLException e) {
+        tasks.runUpdate(() -> registrationRepository.deleteByEmail(email, currentEventID), () -> {
+            refreshTable();
+            showStyledAlert(Alert.AlertType.INFORMATION, "Success", "Attendee removed successfully.");
+        }, e -> {
             e.printStackTrace();
             showStyledAlert(Alert.AlertType.ERROR, "Database Error", "Failed to remove attendee: " + e.getMessage());
-        }
+        });
     }
     
     private void showEditDialog(Attendee attendee) {
@@ -431,7 +410,7 @@ public class ViewAttendeesPage {
         styleActionButton(cancelBtn, true);
         
         saveBtn.setOnAction(e -> handleSaveEdit(attendee, nameField.getText().trim(), 
-                                               emailField.getText().trim(), dialog));
+                                               emailField.getText().trim(), dialog, saveBtn));
         cancelBtn.setOnAction(e -> dialog.close());
         
         buttonBox.getChildren().addAll(saveBtn, cancelBtn);
@@ -444,7 +423,8 @@ public class ViewAttendeesPage {
         dialog.show();
     }
     
-    private void handleSaveEdit(Attendee attendee, String newName, String newEmail, Stage dialog) {
+    private void handleSaveEdit(Attendee attendee, String newName, String newEmail, Stage dialog,
+                                Button saveBtn) {
         if (newName.isEmpty() || newEmail.isEmpty()) {
             showStyledAlert(Alert.AlertType.ERROR, "Validation Error", "All fields are required.");
             return;
@@ -455,32 +435,22 @@ public class ViewAttendeesPage {
             return;
         }
         
-        try (Connection conn = DBConnection.getConnection()) {
-            // Updated SQL query to use 'name' column instead of firstName and lastName
-            String updateSql = "UPDATE [User] SET name = ?, email = ? WHERE email = ?";
-            PreparedStatement stmt = conn.prepareStatement(updateSql);
-            
-            stmt.setString(1, newName);
-            stmt.setString(2, newEmail);
-            stmt.setString(3, attendee.getEmail());
-            
-            int rowsUpdated = stmt.executeUpdate();
-            if (rowsUpdated > 0) {
+        saveBtn.setDisable(true);
+        tasks.run(() -> userRepository.updateByEmail(attendee.getEmail(), newName, newEmail), updated -> {
+            saveBtn.setDisable(false);
+            if (updated) {
                 dialog.close();
                 // Refresh the main table
-                TableView<Attendee> table = (TableView<Attendee>) currentStage.getScene().lookup("TableView");
-                if (table != null) {
-                    Label countLabel = (Label) currentStage.getScene().lookup("Label");
-                    refreshTable(table, countLabel);
-                }
+                refreshTable();
                 showStyledAlert(Alert.AlertType.INFORMATION, "Success", "Attendee information updated successfully.");
             } else {
                 showStyledAlert(Alert.AlertType.ERROR, "Error", "Failed to update attendee information.");
             }
-        } catch (SQLException ex) {
+        }, ex -> {
+            saveBtn.setDisable(false);
             ex.printStackTrace();
             showStyledAlert(Alert.AlertType.ERROR, "Database Error", "Failed to save changes: " + ex.getMessage());
-        }
+        });
     }
     
     private void showStyledAlert(Alert.AlertType type, String title, String content) {
@@ -496,22 +466,4 @@ public class ViewAttendeesPage {
         
         alert.showAndWait();
     }
-    
-    public static class Attendee {
-        private final String name;
-        private final String email;
-        
-        public Attendee(String name, String email) {
-            this.name = name;
-            this.email = email;
-        }
-        
-        public String getName() {
-            return name;
-        }
-        
-        public String getEmail() {
-            return email;
-        }
-    }
 }
\ No newline at end of file
@@ -1,5 +1,5 @@
 package ui;
-import db.DBConnection;
+import db.EventRepository;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -11,11 +11,9 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.stage.Stage;
+import models.Event;
+import models.UserSession;
 import java.io.FileInputStream;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 
 public class ViewEventsPage {
     // UI color constants matching organizer dashboard
@@ -25,9 +23,12 @@ public class ViewEventsPage {
     private static final String DARK_TEXT = "#333333";
     
     private Stage currentStage;
+    private final EventRepository eventRepository = new EventRepository();
+    private PageTasks tasks; // Background loads and writes for this page
     
-    public void show(Stage stage, int organizerID) {
+    public void show(Stage stage, UserSession session) {
         this.currentStage = stage;
+        this.tasks = new PageTasks(stage);
         
         // Main layout
         BorderPane mainLayout = new BorderPane();
@@ -57,7 +58,7 @@ public class ViewEventsPage {
                            "-fx-text-fill: " + DARK_TEXT + ";");
         
         // Events Section
-        VBox eventsSection = createEventsSection(organizerID);
+        VBox eventsSection = createEventsSection(session.getUserID());
         VBox.setVgrow(eventsSection, Priority.ALWAYS);
         
         contentPane.getChildren().addAll(titleLabel, eventsSection);
@@ -201,12 +202,12 @@ public class ViewEventsPage {
         
         // Start Date column
         TableColumn<Event, String> startDateColumn = new TableColumn<>("Start Date");
-        startDateColumn.setCellValueFactory(new PropertyValueFactory<>("startDate"));
+        startDateColumn.setCellValueFactory(new PropertyValueFactory<>("startDateText"));
         startDateColumn.setPrefWidth(120);
         
         // End Date column
         TableColumn<Event, String> endDateColumn = new TableColumn<>("End Date");
-        endDateColumn.setCellValueFactory(new PropertyValueFactory<>("endDate"));
+        endDateColumn.setCellValueFactory(new PropertyValueFactory<>("endDateText"));
         endDateColumn.setPrefWidth(120);
         
         // Location column
@@ -313,33 +314,21 @@ public class ViewEventsPage {
     
     private void refreshTable(TableView<Event> table, Label countLabel, int organizerID) {
         table.getItems().clear();
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT eventID, name, startDate, endDate, location FROM Event WHERE organizerID = ? ORDER BY startDate DESC";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, organizerID);
-            ResultSet rs = stmt.executeQuery();
-            
-            int count = 0;
-            while (rs.next()) {
-                int eventID = rs.getInt("eventID");
-                String name = rs.getString("name");
-                String startDate = rs.getString("startDate");
-                String endDate = rs.getString("endDate");
-                String location = rs.getString("location");
-                table.getItems().add(new Event(eventID, name, startDate, endDate, location));
-                count++;
-            }
+        table.setPlaceholder(PageTasks.loadingPlaceholder("Loading events..."));
+        tasks.run(() -> eventRepository.findByOrganizerWithLocation(organizerID), events -> {
+            table.getItems().setAll(events);
+            int count = events.size();
             
             countLabel.setText("(" + count + " events)");
             
             if (count == 0) {
                 table.setPlaceholder(new Label("No events created yet. Click 'Create New Event' to get started!"));
             }
-            
-        } catch (SQLException e) {
+        }, e -> {
             e.printStackTrace();
+            table.setPlaceholder(new Label("Error loading events."));
             showStyledAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load events: " + e.getMessage());
-        }
+        });
     }
     
     private void showDeleteConfirmation(Event event, TableView<Event> table, Label countLabel, int organizerID) {
@@ -351,30 +340,20 @@ public class ViewEventsPage {
         
         confirmation.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                deleteEvent(event.getEventID());
-                refreshTable(table, countLabel, organizerID);
-                showStyledAlert(Alert.AlertType.INFORMATION, "Success", "Event deleted successfully.");
+                deleteEvent(event.getEventID(), () -> {
+                    refreshTable(table, countLabel, organizerID);
+                    showStyledAlert(Alert.AlertType.INFORMATION, "Success", "Event deleted successfully.");
+                });
             }
         });
     }
     
-    private void deleteEvent(int eventID) {
-        try (Connection conn = DBConnection.getConnection()) {
-            // First delete all registrations for this event
-            String deleteRegistrations = "DELETE FROM Registration WHERE eventID = ?";
-            PreparedStatement regStmt = conn.prepareStatement(deleteRegistrations);
-            regStmt.setInt(1, eventID);
-            regStmt.executeUpdate();
-            
-            // Then delete the event
-            String deleteEvent = "DELETE FROM Event WHERE eventID = ?";
-            PreparedStatement eventStmt = conn.prepareStatement(deleteEvent);
-            eventStmt.setInt(1, eventID);
-            eventStmt.executeUpdate();
-        } catch (SQLException e) {
+    // Registrations and sessions are removed along with the event
+    private void deleteEvent(int eventID, Runnable onDeleted) {
+        tasks.runUpdate(() -> eventRepository.delete(eventID), onDeleted, e -> {
             e.printStackTrace();
             showStyledAlert(Alert.AlertType.ERROR, "Database Error", "Failed to delete event: " + e.getMessage());
-        }
+        });
     }
     
     private void showEditDialog(Event event) {
@@ -400,41 +379,4 @@ public class ViewEventsPage {
         
         alert.showAndWait();
     }
-    
-    // ✅ Updated Event class
-    public static class Event {
-        private final int eventID;
-        private final String name;
-        private final String startDate;
-        private final String endDate;
-        private final String location;
-        
-        public Event(int eventID, String name, String startDate, String endDate, String location) {
-            this.eventID = eventID;
-            this.name = name;
-            this.startDate = startDate;
-            this.endDate = endDate;
-            this.location = location;
-        }
-        
-        public int getEventID() {
-            return eventID;
-        }
-        
-        public String getName() {
-            return name;
-        }
-        
-        public String getStartDate() {
-            return startDate;
-        }
-        
-        public String getEndDate() {
-            return endDate;
-        }
-        
-        public String getLocation() {
-            return location;
-        }
-    }
 }
\ No newline at end of file